@@ -18,6 +18,8 @@ package com.alibaba.cloud.ai.autoconfigure.arms;
 import com.alibaba.cloud.ai.observation.model.semconv.MessageMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * @author Lumian
  */
@@ -109,6 +111,17 @@ public class ArmsCommonProperties {
 
 		private boolean enabled = true;
 
+		/**
+		 * Maximum number of tool calls of one model response that run concurrently. 1
+		 * runs them one after another.
+		 */
+		private int maxConcurrentCalls = 1;
+
+		/**
+		 * Maximum time a tool call may take once it has started. 0 means no limit.
+		 */
+		private Duration callTimeout = Duration.ZERO;
+
 		public boolean isEnabled() {
 			return enabled;
 		}
@@ -117,6 +130,22 @@ public class ArmsCommonProperties {
 			this.enabled = enabled;
 		}
 
+		public int getMaxConcurrentCalls() {
+			return maxConcurrentCalls;
+		}
+
+		public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+			this.maxConcurrentCalls = maxConcurrentCalls;
+		}
+
+		public Duration getCallTimeout() {
+			return callTimeout;
+		}
+
+		public void setCallTimeout(Duration callTimeout) {
+			this.callTimeout = callTimeout;
+		}
+
 	}
 
 }
@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.autoconfigure.dashscope;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeAudioTranscriptionApi;
 import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioTranscriptionModel;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeTaskPoller;
 import com.alibaba.cloud.ai.model.SpringAIAlibabaModels;
 import org.springframework.ai.model.SimpleApiKey;
 import org.springframework.ai.model.SpringAIModelProperties;
@@ -66,7 +67,8 @@ public class DashScopeAudioTranscriptionAutoConfiguration {
 			DashScopeAudioTranscriptionProperties audioTranscriptionProperties,
 			ObjectProvider<RestClient.Builder> restClientBuilderProvider,
 			RetryTemplate retryTemplate,
-			ResponseErrorHandler responseErrorHandle
+			ResponseErrorHandler responseErrorHandle,
+			ObjectProvider<DashScopeTaskPoller> taskPoller
 	) {
 
 		ResolvedConnectionProperties resolved = resolveConnectionProperties(commonProperties,
@@ -82,8 +84,11 @@ public class DashScopeAudioTranscriptionAutoConfiguration {
 			.responseErrorHandler(responseErrorHandle)
 			.build();
 
-		return new DashScopeAudioTranscriptionModel(dashScopeAudioTranscriptionApi,
+		var audioTranscriptionModel = new DashScopeAudioTranscriptionModel(dashScopeAudioTranscriptionApi,
 				audioTranscriptionProperties.getOptions(), retryTemplate);
+		taskPoller.ifUnique(audioTranscriptionModel::setTaskPoller);
+
+		return audioTranscriptionModel;
 	}
 
 }
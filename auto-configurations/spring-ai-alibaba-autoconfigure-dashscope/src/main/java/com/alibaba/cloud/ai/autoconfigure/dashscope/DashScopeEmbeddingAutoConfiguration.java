@@ -18,7 +18,9 @@ package com.alibaba.cloud.ai.autoconfigure.dashscope;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
 import com.alibaba.cloud.ai.dashscope.embedding.DashScopeEmbeddingModel;
+import com.alibaba.cloud.ai.dashscope.embedding.cache.EmbeddingCache;
 import com.alibaba.cloud.ai.model.SpringAIAlibabaModels;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
 
 import org.springframework.ai.embedding.observation.EmbeddingModelObservationConvention;
@@ -64,7 +66,8 @@ public class DashScopeEmbeddingAutoConfiguration {
 			ObjectProvider<WebClient.Builder> webClientBuilderProvider,
 			ObjectProvider<RestClient.Builder> restClientBuilderProvider, RetryTemplate retryTemplate,
 			ResponseErrorHandler responseErrorHandler, ObjectProvider<ObservationRegistry> observationRegistry,
-			ObjectProvider<EmbeddingModelObservationConvention> observationConvention) {
+			ObjectProvider<EmbeddingModelObservationConvention> observationConvention,
+			ObjectProvider<EmbeddingCache> embeddingCache, ObjectProvider<MeterRegistry> meterRegistry) {
 
 		var dashScopeApi = dashscopeEmbeddingApi(commonProperties, embeddingProperties,
 				restClientBuilderProvider.getIfAvailable(RestClient::builder),
@@ -74,7 +77,10 @@ public class DashScopeEmbeddingAutoConfiguration {
 				embeddingProperties.getOptions(), retryTemplate,
 				observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
 
+		embeddingModel.setMaxConcurrency(embeddingProperties.getMaxConcurrency());
 		observationConvention.ifAvailable(embeddingModel::setObservationConvention);
+		embeddingCache.ifUnique(embeddingModel::setEmbeddingCache);
+		meterRegistry.ifUnique(embeddingModel::setMeterRegistry);
 
 		return embeddingModel;
 	}
@@ -33,6 +33,11 @@ public class DashScopeEmbeddingProperties extends DashScopeParentProperties {
 
   private MetadataMode metadataMode = MetadataMode.EMBED;
 
+  /**
+   * Maximum number of embedding sub-batches (25 texts each) sent to DashScope at the same time.
+   */
+  private int maxConcurrency = 1;
+
   @NestedConfigurationProperty
   private DashScopeEmbeddingOptions options =
       DashScopeEmbeddingOptions.builder().model(DEFAULT_EMBEDDING_MODEL).build();
@@ -53,6 +58,14 @@ public class DashScopeEmbeddingProperties extends DashScopeParentProperties {
     this.metadataMode = metadataMode;
   }
 
+  public int getMaxConcurrency() {
+    return this.maxConcurrency;
+  }
+
+  public void setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
+
   public boolean isEnabled() {
     return this.enabled;
   }
@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.autoconfigure.dashscope;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
 import com.alibaba.cloud.ai.dashscope.rerank.DashScopeRerankModel;
+import com.alibaba.cloud.ai.dashscope.rerank.cache.RerankScoreCache;
 import com.alibaba.cloud.ai.model.SpringAIAlibabaModelProperties;
 import com.alibaba.cloud.ai.model.SpringAIAlibabaModels;
 
@@ -61,7 +62,7 @@ public class DashScopeRerankAutoConfiguration {
 	public DashScopeRerankModel dashscopeRerankModel(DashScopeConnectionProperties commonProperties,
 			DashScopeRerankProperties rerankProperties, ObjectProvider<Builder> restClientBuilderProvider,
 			ObjectProvider<WebClient.Builder> webClientBuilderProvider, RetryTemplate retryTemplate,
-			ResponseErrorHandler responseErrorHandler) {
+			ResponseErrorHandler responseErrorHandler, ObjectProvider<RerankScoreCache> scoreCache) {
 
 		ResolvedConnectionProperties resolved = resolveConnectionProperties(commonProperties, rerankProperties,
 				"rerank");
@@ -76,7 +77,14 @@ public class DashScopeRerankAutoConfiguration {
 			.responseErrorHandler(responseErrorHandler)
 			.build();
 
-		return new DashScopeRerankModel(dashScopeApi, rerankProperties.getOptions(), retryTemplate);
+		var rerankModel = new DashScopeRerankModel(dashScopeApi, rerankProperties.getOptions(), retryTemplate);
+
+		rerankModel.setMaxBatchSize(rerankProperties.getMaxBatchSize());
+		rerankModel.setMaxBatchCharacters(rerankProperties.getMaxBatchCharacters());
+		rerankModel.setMaxConcurrency(rerankProperties.getMaxConcurrency());
+		scoreCache.ifUnique(rerankModel::setScoreCache);
+
+		return rerankModel;
 	}
 
 }
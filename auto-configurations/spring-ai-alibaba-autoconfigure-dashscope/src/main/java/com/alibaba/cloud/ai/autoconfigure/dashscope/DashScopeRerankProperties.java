@@ -16,6 +16,7 @@
 
 package com.alibaba.cloud.ai.autoconfigure.dashscope;
 
+import com.alibaba.cloud.ai.dashscope.rerank.DashScopeRerankModel;
 import com.alibaba.cloud.ai.dashscope.rerank.DashScopeRerankOptions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -42,6 +43,15 @@ public class DashScopeRerankProperties extends DashScopeParentProperties {
   /** If need to return original documents. */
   private Boolean returnDocuments = false;
 
+  /** Maximum number of documents sent in one rerank request. */
+  private int maxBatchSize = DashScopeRerankModel.DEFAULT_MAX_BATCH_SIZE;
+
+  /** Maximum total length of the documents sent in one rerank request, 0 for no limit. */
+  private int maxBatchCharacters = 0;
+
+  /** Maximum number of rerank sub-batches sent to DashScope at the same time. */
+  private int maxConcurrency = DashScopeRerankModel.DEFAULT_MAX_CONCURRENCY;
+
   @NestedConfigurationProperty
   private DashScopeRerankOptions options =
       DashScopeRerankOptions.builder().model(DEFAULT_RERANK_MODEL).build();
@@ -69,4 +79,28 @@ public class DashScopeRerankProperties extends DashScopeParentProperties {
   public void setReturnDocuments(Boolean returnDocuments) {
     this.returnDocuments = returnDocuments;
   }
+
+  public int getMaxBatchSize() {
+    return this.maxBatchSize;
+  }
+
+  public void setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  public int getMaxBatchCharacters() {
+    return this.maxBatchCharacters;
+  }
+
+  public void setMaxBatchCharacters(int maxBatchCharacters) {
+    this.maxBatchCharacters = maxBatchCharacters;
+  }
+
+  public int getMaxConcurrency() {
+    return this.maxConcurrency;
+  }
+
+  public void setMaxConcurrency(int maxConcurrency) {
+    this.maxConcurrency = maxConcurrency;
+  }
 }
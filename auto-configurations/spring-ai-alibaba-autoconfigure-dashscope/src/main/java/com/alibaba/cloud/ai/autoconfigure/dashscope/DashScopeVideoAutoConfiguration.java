@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.autoconfigure.dashscope;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeVideoApi;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeTaskPoller;
 import com.alibaba.cloud.ai.dashscope.video.DashScopeVideoModel;
 import com.alibaba.cloud.ai.model.SpringAIAlibabaModelProperties;
 import com.alibaba.cloud.ai.model.SpringAIAlibabaModels;
@@ -56,7 +57,8 @@ public class DashScopeVideoAutoConfiguration {
 	@ConditionalOnMissingBean
 	public DashScopeVideoModel dashScopeVideoModel(DashScopeConnectionProperties commonProperties,
 			DashScopeVideoProperties videoProperties, ObjectProvider<RestClient.Builder> restClientBuilderProvider,
-			RetryTemplate retryTemplate, ResponseErrorHandler responseErrorHandler) {
+			RetryTemplate retryTemplate, ResponseErrorHandler responseErrorHandler,
+			ObjectProvider<DashScopeTaskPoller> taskPoller) {
 
 		ResolvedConnectionProperties resolved = resolveConnectionProperties(commonProperties, videoProperties, "image");
 
@@ -73,6 +75,7 @@ public class DashScopeVideoAutoConfiguration {
 			.videoApi(videoApi)
 			.defaultOptions(videoProperties.getOptions())
 			.retryTemplate(retryTemplate)
+			.taskPoller(taskPoller.getIfUnique(DashScopeTaskPoller::shared))
 			.build();
 	}
 
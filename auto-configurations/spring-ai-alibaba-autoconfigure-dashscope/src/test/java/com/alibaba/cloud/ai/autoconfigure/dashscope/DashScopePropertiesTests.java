@@ -24,6 +24,7 @@ import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioSpeechModel;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatModel;
 import com.alibaba.cloud.ai.dashscope.embedding.DashScopeEmbeddingModel;
 import com.alibaba.cloud.ai.dashscope.image.DashScopeImageModel;
+import com.alibaba.cloud.ai.dashscope.rerank.DashScopeRerankModel;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
 import org.junit.jupiter.api.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
@@ -217,7 +218,8 @@ public class DashScopePropertiesTests {
 		// @formatter:off
 						"spring.ai.dashscope.base-url=TEST_BASE_URL",
 						"spring.ai.dashscope.api-key=abc123_test",
-						"spring.ai.dashscope.embedding.options.model=MODEL_CUSTOM")
+						"spring.ai.dashscope.embedding.options.model=MODEL_CUSTOM",
+						"spring.ai.dashscope.embedding.max-concurrency=4")
 				// @formatter:on
 			.withConfiguration(AutoConfigurations.of(DashScopeEmbeddingAutoConfiguration.class))
 			.run(context -> {
@@ -231,6 +233,28 @@ public class DashScopePropertiesTests {
 				assertThat(embeddingProperties.getBaseUrl()).isNull();
 
 				assertThat(embeddingProperties.getOptions().getModel()).isEqualTo("MODEL_CUSTOM");
+				assertThat(embeddingProperties.getMaxConcurrency()).isEqualTo(4);
+			});
+	}
+
+	@Test
+	public void rerankProperties() {
+
+		new ApplicationContextRunner().withPropertyValues(
+		// @formatter:off
+						"spring.ai.dashscope.api-key=abc123_test",
+						"spring.ai.dashscope.rerank.max-batch-size=50",
+						"spring.ai.dashscope.rerank.max-batch-characters=20000",
+						"spring.ai.dashscope.rerank.max-concurrency=4")
+				// @formatter:on
+			.withConfiguration(AutoConfigurations.of(DashScopeRerankAutoConfiguration.class))
+			.run(context -> {
+				var rerankProperties = context.getBean(DashScopeRerankProperties.class);
+
+				assertThat(rerankProperties.getMaxBatchSize()).isEqualTo(50);
+				assertThat(rerankProperties.getMaxBatchCharacters()).isEqualTo(20000);
+				assertThat(rerankProperties.getMaxConcurrency()).isEqualTo(4);
+				assertNotNull(context.getBean(DashScopeRerankModel.class));
 			});
 	}
 
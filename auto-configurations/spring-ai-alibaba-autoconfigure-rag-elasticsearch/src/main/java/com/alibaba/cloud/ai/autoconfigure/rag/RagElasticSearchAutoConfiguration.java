@@ -17,20 +17,27 @@
 package com.alibaba.cloud.ai.autoconfigure.rag;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.alibaba.cloud.ai.cache.KeyValueCache;
+import com.alibaba.cloud.ai.dashscope.embedding.DashScopeEmbeddingModel;
+import com.alibaba.cloud.ai.rag.ingestion.HybridElasticsearchIngestor;
 import com.alibaba.cloud.ai.rag.preretrieval.transformation.HyDeTransformer;
 import com.alibaba.cloud.ai.rag.retrieval.search.HyDeRetriever;
 import com.alibaba.cloud.ai.rag.retrieval.search.HybridElasticsearchRetriever;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.transformer.splitter.TextSplitter;
+import org.springframework.ai.transformer.splitter.TokenTextSplitter;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.elasticsearch.ElasticsearchVectorStoreOptions;
 import org.springframework.ai.vectorstore.elasticsearch.autoconfigure.ElasticsearchVectorStoreProperties;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 /**
  * Autoconfiguration class for integrating ElasticSearch as a retrieval backend in
@@ -49,17 +56,14 @@ public class RagElasticSearchAutoConfiguration {
     public HybridElasticsearchRetriever hybridElasticsearchRetriever(ElasticsearchVectorStoreProperties vectorStoreProperties,
                                                                      RagElasticSearchProperties ragElasticSearchProperties,
                                                                      ElasticsearchClient elasticsearchClient,
-                                                                     EmbeddingModel embeddingModel) {
+                                                                     EmbeddingModel embeddingModel,
+                                                                     ObjectProvider<KeyValueCache<float[]>> embeddingCacheProvider) {
         Assert.notNull(vectorStoreProperties, "vectorStoreProperties must not be null");
         Assert.notNull(elasticsearchClient, "elasticsearchClient must not be null");
         Assert.notNull(embeddingModel, "embeddingModel must not be null");
-        ElasticsearchVectorStoreOptions elasticsearchVectorStoreOptions = new ElasticsearchVectorStoreOptions();
-        elasticsearchVectorStoreOptions.setIndexName(vectorStoreProperties.getIndexName());
-        elasticsearchVectorStoreOptions.setDimensions(vectorStoreProperties.getDimensions());
-        elasticsearchVectorStoreOptions.setSimilarity(vectorStoreProperties.getSimilarity());
-        elasticsearchVectorStoreOptions.setEmbeddingFieldName(vectorStoreProperties.getEmbeddingFieldName());
+        String embeddingModelName = embeddingModelName(ragElasticSearchProperties, embeddingModel);
         return HybridElasticsearchRetriever.builder()
-                .vectorStoreOptions(elasticsearchVectorStoreOptions)
+                .vectorStoreOptions(toVectorStoreOptions(vectorStoreProperties))
                 .elasticsearchClient(elasticsearchClient)
                 .embeddingModel(embeddingModel)
                 .similarityThreshold(ragElasticSearchProperties.getRecall().getSimilarityThreshold())
@@ -72,6 +76,36 @@ public class RagElasticSearchAutoConfiguration {
                 .knnBias(ragElasticSearchProperties.getKnnBias())
                 .retrieverType(ragElasticSearchProperties.getRetrieverType())
                 .useRrf(ragElasticSearchProperties.isUseRrf())
+                .queryEmbeddingCache(embeddingModelName != null ? embeddingCacheProvider.getIfUnique() : null)
+                .embeddingModelName(embeddingModelName)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(HybridElasticsearchIngestor.class)
+    public HybridElasticsearchIngestor hybridElasticsearchIngestor(ElasticsearchVectorStoreProperties vectorStoreProperties,
+                                                                   RagElasticSearchProperties ragElasticSearchProperties,
+                                                                   ElasticsearchClient elasticsearchClient,
+                                                                   EmbeddingModel embeddingModel,
+                                                                   ObjectProvider<TextSplitter> textSplitterProvider) {
+        Assert.notNull(vectorStoreProperties, "vectorStoreProperties must not be null");
+        Assert.notNull(elasticsearchClient, "elasticsearchClient must not be null");
+        Assert.notNull(embeddingModel, "embeddingModel must not be null");
+        RagElasticSearchProperties.Ingestion ingestion = ragElasticSearchProperties.getIngestion();
+        TextSplitter textSplitter = textSplitterProvider.getIfUnique(
+                () -> TokenTextSplitter.builder().withChunkSize(ingestion.getChunkSize()).build());
+        return HybridElasticsearchIngestor.builder()
+                .vectorStoreOptions(toVectorStoreOptions(vectorStoreProperties))
+                .initializeSchema(vectorStoreProperties.isInitializeSchema())
+                .elasticsearchClient(elasticsearchClient)
+                .embeddingModel(embeddingModel)
+                .textSplitter(textSplitter)
+                .embeddingBatchSize(ingestion.getEmbeddingBatchSize())
+                .embeddingConcurrency(ingestion.getEmbeddingConcurrency())
+                .flushMaxOperations(ingestion.getFlushMaxOperations())
+                .flushMaxBytes(ingestion.getFlushMaxBytes())
+                .flushInterval(ingestion.getFlushInterval())
+                .maxConcurrentBulkRequests(ingestion.getMaxConcurrentBulkRequests())
                 .build();
     }
 
@@ -93,4 +127,29 @@ public class RagElasticSearchAutoConfiguration {
                 .topK(ragElasticSearchProperties.getTopK())
                 .build();
     }
+
+    /**
+     * The query embedding cache key needs the name of the model behind the embedding
+     * model, without it the query embeddings are not cached.
+     */
+    private static String embeddingModelName(RagElasticSearchProperties ragElasticSearchProperties,
+                                             EmbeddingModel embeddingModel) {
+        if (StringUtils.hasText(ragElasticSearchProperties.getEmbeddingModelName())) {
+            return ragElasticSearchProperties.getEmbeddingModelName();
+        }
+        if (embeddingModel instanceof DashScopeEmbeddingModel dashScopeEmbeddingModel
+                && StringUtils.hasText(dashScopeEmbeddingModel.getDefaultModel())) {
+            return dashScopeEmbeddingModel.getDefaultModel();
+        }
+        return null;
+    }
+
+    private static ElasticsearchVectorStoreOptions toVectorStoreOptions(ElasticsearchVectorStoreProperties vectorStoreProperties) {
+        ElasticsearchVectorStoreOptions elasticsearchVectorStoreOptions = new ElasticsearchVectorStoreOptions();
+        elasticsearchVectorStoreOptions.setIndexName(vectorStoreProperties.getIndexName());
+        elasticsearchVectorStoreOptions.setDimensions(vectorStoreProperties.getDimensions());
+        elasticsearchVectorStoreOptions.setSimilarity(vectorStoreProperties.getSimilarity());
+        elasticsearchVectorStoreOptions.setEmbeddingFieldName(vectorStoreProperties.getEmbeddingFieldName());
+        return elasticsearchVectorStoreOptions;
+    }
 }
@@ -19,6 +19,8 @@ package com.alibaba.cloud.ai.autoconfigure.rag;
 import com.alibaba.cloud.ai.rag.retrieval.search.RetrieverType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
 /**
  * Configuration properties for RAG ElasticSearch integration.
  *
@@ -71,6 +73,17 @@ public class RagElasticSearchProperties {
      */
     private Integer topK = 50;
 
+    /**
+     * Configuration for ingestion
+     */
+    private Ingestion ingestion = new Ingestion();
+
+    /**
+     * Name of the embedding model, used in the query embedding cache key. Defaults to the
+     * default model of a DashScope embedding model
+     */
+    private String embeddingModelName;
+
     public Boolean getEnabled() {
         return enabled;
     }
@@ -135,6 +148,22 @@ public class RagElasticSearchProperties {
         this.topK = topK;
     }
 
+    public Ingestion getIngestion() {
+        return ingestion;
+    }
+
+    public void setIngestion(Ingestion ingestion) {
+        this.ingestion = ingestion;
+    }
+
+    public String getEmbeddingModelName() {
+        return embeddingModelName;
+    }
+
+    public void setEmbeddingModelName(String embeddingModelName) {
+        this.embeddingModelName = embeddingModelName;
+    }
+
     /**
      * Recall properties
      */
@@ -215,4 +244,100 @@ public class RagElasticSearchProperties {
             this.rankWindowSize = rankWindowSize;
         }
     }
+
+    /**
+     * Ingestion properties
+     */
+    public static class Ingestion {
+        /**
+         * Target size of a chunk in tokens, used when no TextSplitter bean is defined
+         */
+        private Integer chunkSize = 800;
+
+        /**
+         * Number of chunks embedded in one embedding call
+         */
+        private Integer embeddingBatchSize = 32;
+
+        /**
+         * Maximum number of concurrent embedding calls
+         */
+        private Integer embeddingConcurrency = 4;
+
+        /**
+         * Number of operations after which a bulk request is sent
+         */
+        private Integer flushMaxOperations = 1000;
+
+        /**
+         * Size in bytes after which a bulk request is sent
+         */
+        private Long flushMaxBytes = 5L * 1024 * 1024;
+
+        /**
+         * Interval after which pending operations are sent
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of bulk requests in flight
+         */
+        private Integer maxConcurrentBulkRequests = 1;
+
+        public Integer getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(Integer chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public Integer getEmbeddingBatchSize() {
+            return embeddingBatchSize;
+        }
+
+        public void setEmbeddingBatchSize(Integer embeddingBatchSize) {
+            this.embeddingBatchSize = embeddingBatchSize;
+        }
+
+        public Integer getEmbeddingConcurrency() {
+            return embeddingConcurrency;
+        }
+
+        public void setEmbeddingConcurrency(Integer embeddingConcurrency) {
+            this.embeddingConcurrency = embeddingConcurrency;
+        }
+
+        public Integer getFlushMaxOperations() {
+            return flushMaxOperations;
+        }
+
+        public void setFlushMaxOperations(Integer flushMaxOperations) {
+            this.flushMaxOperations = flushMaxOperations;
+        }
+
+        public Long getFlushMaxBytes() {
+            return flushMaxBytes;
+        }
+
+        public void setFlushMaxBytes(Long flushMaxBytes) {
+            this.flushMaxBytes = flushMaxBytes;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public Integer getMaxConcurrentBulkRequests() {
+            return maxConcurrentBulkRequests;
+        }
+
+        public void setMaxConcurrentBulkRequests(Integer maxConcurrentBulkRequests) {
+            this.maxConcurrentBulkRequests = maxConcurrentBulkRequests;
+        }
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.api;
+
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionChunk;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionMessage;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionRequest;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionRequestInput;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Decoding cost of a streaming chat completion. The recorded {@code sse/chat-text.sse}
+ * transcript is repeated {@link #events} times and either decoded in memory, split into
+ * network-sized buffers, or served by an in-process {@link MockWebServer} to
+ * {@link DashScopeApi#chatCompletionStream}. {@link #legacyStringDecoding()} keeps the
+ * previous {@code bodyToFlux(String.class)} path as a baseline.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashScopeSseDecodingBenchmark {
+
+	private static final Predicate<String> SSE_DONE_PREDICATE = "[DONE]"::equals;
+
+	private static final int NETWORK_BUFFER_SIZE = 8192;
+
+	/**
+	 * Number of times the four-event transcript is repeated in one response.
+	 */
+	@Param({ "1", "64" })
+	public int events;
+
+	private final DashScopeSseChunkDecoder decoder = new DashScopeSseChunkDecoder();
+
+	private byte[] transcript;
+
+	private List<byte[]> slices;
+
+	private MockWebServer server;
+
+	private DashScopeApi dashScopeApi;
+
+	private WebClient webClient;
+
+	private ChatCompletionRequest request;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		byte[] recorded = new ClassPathResource("sse/chat-text.sse").getContentAsByteArray();
+		Buffer buffer = new Buffer();
+		for (int i = 0; i < this.events; i++) {
+			buffer.write(recorded).writeUtf8("\n");
+		}
+		this.transcript = buffer.readByteArray();
+
+		this.slices = new ArrayList<>();
+		for (int i = 0; i < this.transcript.length; i += NETWORK_BUFFER_SIZE) {
+			int length = Math.min(NETWORK_BUFFER_SIZE, this.transcript.length - i);
+			byte[] slice = new byte[length];
+			System.arraycopy(this.transcript, i, slice, 0, length);
+			this.slices.add(slice);
+		}
+
+		this.server = new MockWebServer();
+		this.server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest recordedRequest) {
+				return new MockResponse().setHeader("Content-Type", "text/event-stream;charset=UTF-8")
+					.setBody(new Buffer().write(DashScopeSseDecodingBenchmark.this.transcript));
+			}
+		});
+		this.server.start();
+
+		String baseUrl = this.server.url("/").toString();
+		this.dashScopeApi = DashScopeApi.builder().baseUrl(baseUrl).apiKey("benchmark-key").build();
+		this.webClient = WebClient.create(baseUrl);
+		this.request = new ChatCompletionRequest("qwen-plus", new ChatCompletionRequestInput(
+				List.of(new ChatCompletionMessage("hi", ChatCompletionMessage.Role.USER))), true);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Benchmark
+	public List<ChatCompletionChunk> decodeSingleBuffer() {
+		return this.decoder.decode(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(this.transcript)))
+			.collectList()
+			.block();
+	}
+
+	@Benchmark
+	public List<ChatCompletionChunk> decodeNetworkBuffers() {
+		return this.decoder
+			.decode(Flux.fromIterable(this.slices).map(DefaultDataBufferFactory.sharedInstance::wrap))
+			.collectList()
+			.block();
+	}
+
+	@Benchmark
+	public List<ChatCompletionChunk> chatCompletionStream() {
+		return this.dashScopeApi.chatCompletionStream(this.request, new LinkedMultiValueMap<>())
+			.collectList()
+			.block();
+	}
+
+	@Benchmark
+	public List<ChatCompletionChunk> legacyStringDecoding() {
+		return this.webClient.get()
+			.retrieve()
+			.bodyToFlux(String.class)
+			.takeUntil(SSE_DONE_PREDICATE)
+			.filter(SSE_DONE_PREDICATE.negate())
+			.map(content -> ModelOptionsUtils.jsonToObject(content, ChatCompletionChunk.class))
+			.collectList()
+			.block();
+	}
+
+	@Benchmark
+	public List<ChatCompletionChunk> webClientDataBufferDecoding() {
+		return this.webClient.get()
+			.retrieve()
+			.bodyToFlux(DataBuffer.class)
+			.transform(this.decoder::decode)
+			.collectList()
+			.block();
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.api;
+
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionChunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folding the fragments of a streamed tool call with
+ * {@link DashScopeAiStreamFunctionCallingHelper#merge} versus the mutable
+ * {@link DashScopeAiStreamFunctionCallingHelper.ChunkAccumulator}. The fragments are
+ * decoded from the recorded {@code sse/chat-tool-call.sse} transcript; the two argument
+ * fragments in the middle are repeated {@link #fragments} times to model long arguments.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashScopeStreamMergeBenchmark {
+
+	/**
+	 * Number of times the argument fragments are repeated within one window.
+	 */
+	@Param({ "8", "512" })
+	public int fragments;
+
+	private final DashScopeAiStreamFunctionCallingHelper helper = new DashScopeAiStreamFunctionCallingHelper();
+
+	private List<ChatCompletionChunk> window;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		byte[] transcript = new ClassPathResource("sse/chat-tool-call.sse").getContentAsByteArray();
+		List<ChatCompletionChunk> recorded = new DashScopeSseChunkDecoder()
+			.decode(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(transcript)))
+			.collectList()
+			.block();
+
+		this.window = new ArrayList<>(2 * this.fragments + 2);
+		this.window.add(recorded.get(0));
+		for (int i = 0; i < this.fragments; i++) {
+			this.window.add(recorded.get(1));
+			this.window.add(recorded.get(2));
+		}
+		this.window.add(recorded.get(3));
+	}
+
+	@Benchmark
+	public ChatCompletionChunk merge() {
+		ChatCompletionChunk merged = null;
+		for (ChatCompletionChunk chunk : this.window) {
+			merged = this.helper.merge(merged, chunk);
+		}
+		return merged;
+	}
+
+	@Benchmark
+	public ChatCompletionChunk accumulator() {
+		DashScopeAiStreamFunctionCallingHelper.ChunkAccumulator accumulator = this.helper.newAccumulator();
+		for (ChatCompletionChunk chunk : this.window) {
+			accumulator.add(chunk);
+		}
+		return accumulator.build();
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.chat;
+
+import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.content.Media;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link DashScopeChatModel#createRequest(Prompt, boolean)} for a text-only
+ * conversation and for a user message carrying raw image bytes, which go through the
+ * base64 data URI conversion in {@code fromMediaData}. The image is a seeded random
+ * payload of {@link Image#imageBytes} bytes so that runs are repeatable; no request
+ * leaves the process. Every invocation gets a fresh copy of the image bytes, because the
+ * media cache of the chat model would otherwise answer all but the first conversion.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class DashScopeChatModelRequestBenchmark {
+
+	/**
+	 * Number of user/assistant turns in the text-only conversation.
+	 */
+	@Param({ "16" })
+	public int turns;
+
+	private DashScopeChatModel chatModel;
+
+	private List<Message> conversation;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		// never called: createRequest only converts the prompt
+		DashScopeApi dashScopeApi = DashScopeApi.builder().baseUrl("http://localhost").apiKey("benchmark-key").build();
+		this.chatModel = DashScopeChatModel.builder().dashScopeApi(dashScopeApi).build();
+
+		this.conversation = new ArrayList<>(2 * this.turns + 1);
+		this.conversation.add(new SystemMessage("You are a helpful assistant."));
+		for (int i = 0; i < this.turns; i++) {
+			this.conversation.add(new UserMessage("What is the weather like in Hangzhou on day " + i + "?"));
+			this.conversation.add(new AssistantMessage("It is sunny in Hangzhou on day " + i + ", 26 degrees."));
+		}
+	}
+
+	@Benchmark
+	public ChatCompletionRequest textConversation() {
+		return this.chatModel.createRequest(
+				new Prompt(this.conversation, DashScopeChatOptions.builder().model("qwen-plus").build()), false);
+	}
+
+	@Benchmark
+	public ChatCompletionRequest imageMessage(Image image) {
+		UserMessage message = UserMessage.builder().text("Describe this picture.").media(image.media).build();
+		return this.chatModel.createRequest(
+				new Prompt(message, DashScopeChatOptions.builder().model("qwen-vl-max").multiModel(true).build()),
+				false);
+	}
+
+	/**
+	 * The image of {@link #imageMessage}, copied before every invocation so that the
+	 * media cache keyed by the byte array never hits.
+	 */
+	@State(Scope.Thread)
+	public static class Image {
+
+		/**
+		 * Size of the image attached to the multimodal prompt, 5 MB by default.
+		 */
+		@Param({ "5242880" })
+		public int imageBytes;
+
+		private byte[] data;
+
+		private Media media;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			this.data = new byte[this.imageBytes];
+			new Random(42).nextBytes(this.data);
+		}
+
+		@Setup(Level.Invocation)
+		public void copy() {
+			this.media = Media.builder().mimeType(MimeTypeUtils.IMAGE_JPEG).data(this.data.clone()).build();
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.chat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the base64 data URI conversion of raw media bytes on its own, without the
+ * media cache of {@link DashScopeChatModel}: {@code toDataUri} against the
+ * {@link Base64.Encoder#encodeToString} and string concatenation it replaced. The
+ * payload is {@link #imageBytes} seeded random bytes.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class DataUriEncodingBenchmark {
+
+	/**
+	 * Size of the encoded payload, 5 MB by default.
+	 */
+	@Param({ "5242880" })
+	public int imageBytes;
+
+	private byte[] data;
+
+	@Setup
+	public void setUp() {
+		this.data = new byte[this.imageBytes];
+		new Random(42).nextBytes(this.data);
+	}
+
+	@Benchmark
+	public String toDataUri() {
+		return DashScopeChatModel.toDataUri(MimeTypeUtils.IMAGE_JPEG, this.data);
+	}
+
+	@Benchmark
+	public String encodeToStringAndConcat() {
+		return "data:" + MimeTypeUtils.IMAGE_JPEG + ";base64," + Base64.getEncoder().encodeToString(this.data);
+	}
+
+}
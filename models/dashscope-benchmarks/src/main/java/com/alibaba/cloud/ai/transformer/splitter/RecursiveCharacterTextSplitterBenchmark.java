@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.transformer.splitter;
+
+import com.knuddels.jtokkit.api.EncodingType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits a generated 10 MB corpus of mixed Chinese and English paragraphs with
+ * {@link RecursiveCharacterTextSplitter}, measuring sizes in characters and in
+ * {@code cl100k_base} tokens, against the previous regex based implementation that did
+ * not merge fragments.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RecursiveCharacterTextSplitterBenchmark {
+
+	private static final int CORPUS_BYTES = 10 * 1024 * 1024;
+
+	private static final String[] SEPARATORS = { "\n\n", "\n", "。", "！", "？", "；", "，", " " };
+
+	private static final String[] CHINESE_CLAUSES = { "通义千问是阿里云推出的大语言模型", "它可以回答问题、创作文字",
+			"还能表达观点和撰写代码", "检索增强生成会先召回相关文档", "再把文档片段交给模型生成答案", "文本切分的粒度直接影响召回质量",
+			"过小的片段会丢失上下文", "过大的片段会稀释相关性" };
+
+	private static final String[] ENGLISH_SENTENCES = { "Retrieval augmented generation grounds answers in documents.",
+			"Chunks that are too small lose their surrounding context.",
+			"Chunks that are too large dilute the relevance score.",
+			"Every chunk is embedded and stored in the vector store.",
+			"Fewer chunks mean fewer embedding calls and a smaller index." };
+
+	@Param({ "400" })
+	public int chunkSize;
+
+	@Param({ "0", "50" })
+	public int chunkOverlap;
+
+	private String corpus;
+
+	private RecursiveCharacterTextSplitter characterSplitter;
+
+	private RecursiveCharacterTextSplitter tokenSplitter;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.corpus = corpus(new Random(42));
+		this.characterSplitter = new RecursiveCharacterTextSplitter(this.chunkSize, this.chunkOverlap, SEPARATORS);
+		this.tokenSplitter = RecursiveCharacterTextSplitter.builder()
+			.chunkSize(this.chunkSize)
+			.chunkOverlap(this.chunkOverlap)
+			.separators(SEPARATORS)
+			.encodingType(EncodingType.CL100K_BASE)
+			.build();
+	}
+
+	@Benchmark
+	public List<String> characters() {
+		return this.characterSplitter.splitText(this.corpus);
+	}
+
+	@Benchmark
+	public List<String> tokens() {
+		return this.tokenSplitter.splitText(this.corpus);
+	}
+
+	@Benchmark
+	public List<String> legacyRegex() {
+		List<String> chunks = new ArrayList<>();
+		legacySplit(this.corpus, 0, chunks);
+		return chunks;
+	}
+
+	/**
+	 * Paragraphs of four to twelve Chinese clauses or English sentences, joined with
+	 * their usual punctuation.
+	 */
+	private static String corpus(Random random) {
+		StringBuilder corpus = new StringBuilder();
+		int bytes = 0;
+		while (bytes < CORPUS_BYTES) {
+			StringBuilder paragraph = new StringBuilder();
+			int sentences = 4 + random.nextInt(9);
+			boolean chinese = random.nextBoolean();
+			for (int i = 0; i < sentences; i++) {
+				if (chinese) {
+					paragraph.append(CHINESE_CLAUSES[random.nextInt(CHINESE_CLAUSES.length)])
+						.append(i % 3 == 2 ? "。" : "，");
+				}
+				else {
+					paragraph.append(ENGLISH_SENTENCES[random.nextInt(ENGLISH_SENTENCES.length)]).append(' ');
+				}
+			}
+			paragraph.append("\n\n");
+			corpus.append(paragraph);
+			bytes += paragraph.toString().getBytes(StandardCharsets.UTF_8).length;
+		}
+		return corpus.toString();
+	}
+
+	/**
+	 * The splitting of the previous implementation: {@code String.split} at every level
+	 * and no merging of the fragments.
+	 */
+	private void legacySplit(String text, int separatorIndex, List<String> chunks) {
+		if (text.isEmpty()) {
+			return;
+		}
+		if (text.length() <= this.chunkSize) {
+			chunks.add(text);
+			return;
+		}
+		if (separatorIndex >= SEPARATORS.length) {
+			for (int i = 0; i < text.length(); i += this.chunkSize) {
+				chunks.add(text.substring(i, Math.min(i + this.chunkSize, text.length())));
+			}
+			return;
+		}
+		for (String split : text.split(SEPARATORS[separatorIndex])) {
+			if (split.length() > this.chunkSize) {
+				legacySplit(split, separatorIndex + 1, chunks);
+			}
+			else {
+				chunks.add(split);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.transformer.splitter;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import opennlp.tools.sentdetect.SentenceDetectorME;
+import opennlp.tools.sentdetect.SentenceModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits the {@code data/acme/intro.txt} fixture with {@link SentenceSplitter} from four threads,
+ * against the previous implementation that created a {@link SentenceDetectorME} on every
+ * call and re-encoded the whole chunk for every sentence.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class SentenceSplitterBenchmark {
+
+	@Param({ "400" })
+	public int chunkSize;
+
+	private String text;
+
+	private SentenceSplitter splitter;
+
+	private SentenceModel sentenceModel;
+
+	private Encoding encoding;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		this.text = new ClassPathResource("data/acme/intro.txt").getContentAsString(StandardCharsets.UTF_8);
+		this.splitter = new SentenceSplitter(this.chunkSize);
+		try (InputStream is = SentenceSplitter.class
+			.getResourceAsStream("/opennlp/opennlp-en-ud-ewt-sentence-1.2-2.5.0.bin")) {
+			this.sentenceModel = new SentenceModel(is);
+		}
+		this.encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+	}
+
+	@Benchmark
+	public List<String> threadLocalDetector() {
+		return this.splitter.splitText(this.text);
+	}
+
+	@Benchmark
+	public List<String> detectorPerCall() {
+		SentenceDetectorME sentenceDetector = new SentenceDetectorME(this.sentenceModel);
+		String[] texts = sentenceDetector.sentDetect(this.text);
+		List<String> chunks = new ArrayList<>();
+		StringBuilder chunk = new StringBuilder();
+		for (int i = 0; i < texts.length; i++) {
+			int currentChunkSize = this.encoding.encode(chunk.toString()).size();
+			int textTokenSize = this.encoding.encode(texts[i]).size();
+			if (currentChunkSize + textTokenSize > this.chunkSize) {
+				chunks.add(chunk.toString());
+				chunk = new StringBuilder(texts[i]);
+			}
+			else {
+				chunk.append(texts[i]);
+			}
+			if (i == texts.length - 1) {
+				chunks.add(chunk.toString());
+			}
+		}
+		return chunks;
+	}
+
+}
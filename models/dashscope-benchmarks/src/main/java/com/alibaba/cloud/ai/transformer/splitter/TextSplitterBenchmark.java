@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.transformer.splitter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link RecursiveCharacterTextSplitter#splitText(String)} and
+ * {@link SentenceSplitter#splitText(String)} over the {@code data/acme/intro.txt}
+ * fixture repeated {@link #copies} times.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextSplitterBenchmark {
+
+	/**
+	 * Number of copies of the 3 KB fixture in the split text.
+	 */
+	@Param({ "1", "64" })
+	public int copies;
+
+	@Param({ "400" })
+	public int chunkSize;
+
+	private String text;
+
+	private RecursiveCharacterTextSplitter recursiveSplitter;
+
+	private SentenceSplitter sentenceSplitter;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		String intro = new ClassPathResource("data/acme/intro.txt").getContentAsString(StandardCharsets.UTF_8);
+		this.text = (intro + "\n\n").repeat(this.copies);
+		this.recursiveSplitter = new RecursiveCharacterTextSplitter(this.chunkSize);
+		this.sentenceSplitter = new SentenceSplitter(this.chunkSize);
+	}
+
+	@Benchmark
+	public List<String> recursiveCharacterSplit() {
+		return this.recursiveSplitter.splitText(this.text);
+	}
+
+	@Benchmark
+	public List<String> sentenceSplit() {
+		return this.sentenceSplitter.splitText(this.text);
+	}
+
+}
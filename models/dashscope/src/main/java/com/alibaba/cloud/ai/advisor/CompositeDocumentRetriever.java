@@ -15,19 +15,34 @@
  */
 package com.alibaba.cloud.ai.advisor;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.alibaba.cloud.ai.cache.CacheSupport;
+import com.alibaba.cloud.ai.document.DocumentFusion;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 import org.springframework.util.Assert;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Composite document retriever that combines multiple document retrievers.
+ * <p>
+ * The retrievers are queried concurrently, so the latency of a retrieval is the latency
+ * of the slowest retriever rather than their sum. A retriever that fails or exceeds the
+ * optional per-retriever timeout contributes no documents, and the results of the other
+ * retrievers are still returned. A timed out retriever is cancelled: the thread running it
+ * is interrupted, so a retriever blocked in interruptible I/O stops early, while one that
+ * ignores interrupts keeps its scheduler thread until it returns.
  *
  * @author mengnankkkk
  * @since 1.0.0-M2
@@ -36,19 +51,44 @@ public class CompositeDocumentRetriever implements DocumentRetriever {
 
 	private static final Logger logger = LoggerFactory.getLogger(CompositeDocumentRetriever.class);
 
+	/**
+	 * Default rank constant of {@link ResultMergeStrategy#RECIPROCAL_RANK_FUSION}.
+	 */
+	public static final int DEFAULT_RRF_K = DocumentFusion.DEFAULT_RRF_K;
+
 	private final List<DocumentRetriever> retrievers;
 
 	private final Integer maxResultsPerRetriever;
 
 	private final ResultMergeStrategy mergeStrategy;
 
+	private final Duration retrieverTimeout;
+
+	private final int rrfK;
+
+	private final DeduplicationStrategy deduplicationStrategy;
+
+	private final Scheduler scheduler;
+
 	public enum ResultMergeStrategy {
 
 		SIMPLE_MERGE, // Simple merge strategy
 
 		SCORE_BASED, // Score-based merge strategy
 
-		ROUND_ROBIN// Round-robin merge strategy
+		ROUND_ROBIN, // Round-robin merge strategy
+
+		RECIPROCAL_RANK_FUSION// Sum of 1 / (k + rank) over the retrievers
+
+	}
+
+	public enum DeduplicationStrategy {
+
+		NONE, // Keep duplicate documents
+
+		ID, // Keep the first document of each id
+
+		CONTENT// Keep the first document of each text, compared by hash
 
 	}
 
@@ -62,65 +102,78 @@ public class CompositeDocumentRetriever implements DocumentRetriever {
 
 	public CompositeDocumentRetriever(List<DocumentRetriever> retrievers, Integer maxResultsPerRetriever,
 			ResultMergeStrategy mergeStrategy) {
+		this(retrievers, maxResultsPerRetriever, mergeStrategy, null, DEFAULT_RRF_K, DeduplicationStrategy.NONE,
+				Schedulers.boundedElastic());
+	}
+
+	/**
+	 * @param retrievers the delegate retrievers
+	 * @param maxResultsPerRetriever the maximum number of documents taken from each
+	 * retriever
+	 * @param mergeStrategy how the documents of the retrievers are merged
+	 * @param retrieverTimeout the maximum time to wait for each retriever, {@code null}
+	 * for no limit; a retriever that exceeds it is interrupted
+	 * @param rrfK the rank constant of {@link ResultMergeStrategy#RECIPROCAL_RANK_FUSION}
+	 * @param deduplicationStrategy how duplicate documents are detected
+	 * @param scheduler the scheduler the retrievers run on
+	 */
+	public CompositeDocumentRetriever(List<DocumentRetriever> retrievers, Integer maxResultsPerRetriever,
+			ResultMergeStrategy mergeStrategy, Duration retrieverTimeout, int rrfK,
+			DeduplicationStrategy deduplicationStrategy, Scheduler scheduler) {
 		Assert.notNull(retrievers, "Retrievers list must not be null!");
 		Assert.isTrue(!retrievers.isEmpty(), "Retrievers list must not be empty!");
 		Assert.isTrue(maxResultsPerRetriever > 0, "MaxResultsPerRetriever must be positive!");
 		Assert.notNull(mergeStrategy, "MergeStrategy must not be null!");
+		Assert.isTrue(retrieverTimeout == null || !(retrieverTimeout.isNegative() || retrieverTimeout.isZero()),
+				"RetrieverTimeout must be positive!");
+		Assert.isTrue(rrfK >= 0, "RrfK must not be negative!");
+		Assert.notNull(deduplicationStrategy, "DeduplicationStrategy must not be null!");
+		Assert.notNull(scheduler, "Scheduler must not be null!");
 
 		this.retrievers = new ArrayList<>(retrievers);
 		this.maxResultsPerRetriever = maxResultsPerRetriever;
 		this.mergeStrategy = mergeStrategy;
+		this.retrieverTimeout = retrieverTimeout;
+		this.rrfK = rrfK;
+		this.deduplicationStrategy = deduplicationStrategy;
+		this.scheduler = scheduler;
 	}
 
 	@Override
 	public List<Document> retrieve(Query query) {
-		if (mergeStrategy == ResultMergeStrategy.ROUND_ROBIN) {
-			return roundRobinRetrieve(query);
-		}
-
-		List<Document> allDocuments = new ArrayList<>();
-
-		for (DocumentRetriever retriever : retrievers) {
-			try {
-				List<Document> documents = retriever.retrieve(query);
-				if (documents != null && !documents.isEmpty()) {
-					List<Document> limitedDocuments = documents.stream()
-						.limit(maxResultsPerRetriever)
-						.collect(Collectors.toList());
-					allDocuments.addAll(limitedDocuments);
-				}
-			}
-			catch (Exception e) {
-				logger.error("Error retrieving from one of the retrievers: {}", e.getMessage(), e);
-			}
-		}
+		List<List<Document>> allResults = retrieveAll(query);
 
-		return mergeResults(allDocuments);
+		List<Document> documents = switch (mergeStrategy) {
+			case ROUND_ROBIN -> roundRobinMerge(allResults);
+			case RECIPROCAL_RANK_FUSION -> reciprocalRankFusion(allResults);
+			default -> mergeResults(allResults.stream().flatMap(List::stream).collect(Collectors.toList()));
+		};
+		return deduplicate(documents);
 	}
 
-	private List<Document> roundRobinRetrieve(Query query) {
-		List<List<Document>> allResults = new ArrayList<>();
-
-		for (DocumentRetriever retriever : retrievers) {
-			try {
-				List<Document> documents = retriever.retrieve(query);
-				if (documents != null && !documents.isEmpty()) {
+	/**
+	 * Queries all retrievers concurrently and returns their limited results in retriever
+	 * order. A failed or timed out retriever yields an empty list.
+	 */
+	private List<List<Document>> retrieveAll(Query query) {
+		return DocumentFusion.retrieveAll(retrievers, retriever -> retrieveSafely(retriever, query),
+				retrievers.size(), retrieverTimeout, scheduler);
+	}
 
-					List<Document> limitedDocuments = documents.stream()
-						.limit(maxResultsPerRetriever)
-						.collect(Collectors.toList());
-					allResults.add(limitedDocuments);
-				}
-				else {
-					allResults.add(new ArrayList<>());
-				}
-			}
-			catch (Exception e) {
-				logger.error("Error retrieving from one of the retrievers: {}", e.getMessage(), e);
-				allResults.add(new ArrayList<>());
+	private List<Document> retrieveSafely(DocumentRetriever retriever, Query query) {
+		try {
+			List<Document> documents = retriever.retrieve(query);
+			if (documents != null && !documents.isEmpty()) {
+				return documents.stream().limit(maxResultsPerRetriever).collect(Collectors.toList());
 			}
 		}
+		catch (Exception e) {
+			logger.error("Error retrieving from one of the retrievers: {}", e.getMessage(), e);
+		}
+		return List.of();
+	}
 
+	private List<Document> roundRobinMerge(List<List<Document>> allResults) {
 		Integer maxSize = allResults.stream().mapToInt(List::size).max().orElse(0);
 
 		return java.util.stream.IntStream.range(0, maxSize)
@@ -131,6 +184,41 @@ public class CompositeDocumentRetriever implements DocumentRetriever {
 			.collect(Collectors.toList());
 	}
 
+	/**
+	 * Fuses the results with {@link DocumentFusion#reciprocalRankFusion}. Documents are
+	 * identified by the deduplication key, or by id if deduplication is disabled.
+	 */
+	private List<Document> reciprocalRankFusion(List<List<Document>> allResults) {
+		return DocumentFusion.reciprocalRankFusion(allResults, rrfK,
+				document -> deduplicationStrategy == DeduplicationStrategy.NONE ? document.getId()
+						: deduplicationKey(document));
+	}
+
+	private List<Document> deduplicate(List<Document> documents) {
+		if (deduplicationStrategy == DeduplicationStrategy.NONE || documents.size() < 2) {
+			return documents;
+		}
+		Set<String> seen = new HashSet<>();
+		List<Document> unique = new ArrayList<>(documents.size());
+		for (Document document : documents) {
+			if (seen.add(deduplicationKey(document))) {
+				unique.add(document);
+			}
+		}
+		return unique;
+	}
+
+	/**
+	 * Returns the id of the document, or the SHA-256 of its text for
+	 * {@link DeduplicationStrategy#CONTENT}, so that long texts are not kept as keys.
+	 */
+	private String deduplicationKey(Document document) {
+		if (deduplicationStrategy == DeduplicationStrategy.CONTENT && document.getText() != null) {
+			return CacheSupport.key(document.getText());
+		}
+		return document.getId();
+	}
+
 	private List<Document> mergeResults(List<Document> documents) {
 		if (documents.isEmpty()) {
 			return documents;
@@ -161,6 +249,14 @@ public class CompositeDocumentRetriever implements DocumentRetriever {
 
 		private ResultMergeStrategy mergeStrategy = ResultMergeStrategy.SCORE_BASED;
 
+		private Duration retrieverTimeout;
+
+		private int rrfK = DEFAULT_RRF_K;
+
+		private DeduplicationStrategy deduplicationStrategy = DeduplicationStrategy.NONE;
+
+		private Scheduler scheduler = Schedulers.boundedElastic();
+
 		private Builder() {
 		}
 
@@ -188,8 +284,29 @@ public class CompositeDocumentRetriever implements DocumentRetriever {
 			return this;
 		}
 
+		public Builder retrieverTimeout(Duration retrieverTimeout) {
+			this.retrieverTimeout = retrieverTimeout;
+			return this;
+		}
+
+		public Builder rrfK(int rrfK) {
+			this.rrfK = rrfK;
+			return this;
+		}
+
+		public Builder deduplicationStrategy(DeduplicationStrategy deduplicationStrategy) {
+			this.deduplicationStrategy = deduplicationStrategy;
+			return this;
+		}
+
+		public Builder scheduler(Scheduler scheduler) {
+			this.scheduler = scheduler;
+			return this;
+		}
+
 		public CompositeDocumentRetriever build() {
-			return new CompositeDocumentRetriever(retrievers, maxResultsPerRetriever, mergeStrategy);
+			return new CompositeDocumentRetriever(retrievers, maxResultsPerRetriever, mergeStrategy, retrieverTimeout,
+					rrfK, deduplicationStrategy, scheduler);
 		}
 
 	}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for {@link KeyValueCache}s backed by a remote byte-oriented key-value store
+ * such as Redis. Subclasses implement the raw multi-get / multi-set of the store (for
+ * example {@code MGET} and a pipelined {@code SET ... EX}) and the encoding of the
+ * values; every key is prefixed with {@link #getKeyPrefix()}.
+ *
+ * @param <V> the type of the cached values
+ * @author agent
+ * @since 1.1.0.0
+ */
+public abstract class BinaryKeyValueCache<V> implements KeyValueCache<V> {
+
+	private final String keyPrefix;
+
+	protected BinaryKeyValueCache(String keyPrefix) {
+		this.keyPrefix = keyPrefix == null ? "" : keyPrefix;
+	}
+
+	/**
+	 * Reads the values of the given keys in one round-trip.
+	 * @param keys the store keys
+	 * @return the values in the order of {@code keys}, {@code null} for absent keys
+	 */
+	protected abstract List<byte[]> readAll(List<String> keys);
+
+	/**
+	 * Writes all the given values in one round-trip.
+	 * @param values the values by store key
+	 */
+	protected abstract void writeAll(Map<String, byte[]> values);
+
+	/**
+	 * Encodes a value for the store.
+	 * @param value the value
+	 * @return the stored bytes
+	 */
+	protected abstract byte[] encodeValue(V value);
+
+	/**
+	 * Decodes a stored value.
+	 * @param bytes the stored bytes, never {@code null}
+	 * @return the value
+	 */
+	protected abstract V decodeValue(byte[] bytes);
+
+	public String getKeyPrefix() {
+		return this.keyPrefix;
+	}
+
+	@Override
+	public V get(String key) {
+		byte[] bytes = readAll(List.of(this.keyPrefix + key)).get(0);
+		return bytes == null ? null : decodeValue(bytes);
+	}
+
+	@Override
+	public void put(String key, V value) {
+		writeAll(Map.of(this.keyPrefix + key, encodeValue(value)));
+	}
+
+	@Override
+	public Map<String, V> getAll(Collection<String> keys) {
+		List<String> storeKeys = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			storeKeys.add(this.keyPrefix + key);
+		}
+		List<byte[]> values = readAll(storeKeys);
+		Map<String, V> result = new HashMap<>();
+		int i = 0;
+		for (String key : keys) {
+			byte[] bytes = values.get(i++);
+			if (bytes != null) {
+				result.put(key, decodeValue(bytes));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<String, V> values) {
+		if (values.isEmpty()) {
+			return;
+		}
+		Map<String, byte[]> encoded = new LinkedHashMap<>();
+		values.forEach((key, value) -> encoded.put(this.keyPrefix + key, encodeValue(value)));
+		writeAll(encoded);
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.cache;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Helpers shared by the users of a {@link KeyValueCache}: content-addressed keys, and
+ * reads and writes that treat a failing cache like an empty one, because a cache must
+ * never fail the call it is meant to speed up.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public final class CacheSupport {
+
+	private static final Logger logger = LoggerFactory.getLogger(CacheSupport.class);
+
+	private CacheSupport() {
+	}
+
+	/**
+	 * Creates a content-addressed key: the hex encoded SHA-256 of the given fields.
+	 * @param fields the fields the cached value depends on, {@code null} fields are
+	 * allowed
+	 * @return the hex encoded key
+	 */
+	public static String key(String... fields) {
+		MessageDigest digest = DigestUtils.getSha256Digest();
+		for (String field : fields) {
+			if (field != null) {
+				digest.update(field.getBytes(StandardCharsets.UTF_8));
+			}
+			// field separator, keeps ("ab", "c") and ("a", "bc") apart
+			digest.update((byte) 0);
+		}
+		return Hex.encodeHexString(digest.digest());
+	}
+
+	/**
+	 * Returns the cached values of the given keys, or an empty map if the cache fails.
+	 * @param cache the cache
+	 * @param keys the cache keys
+	 * @return the cached values by key
+	 */
+	public static <V> Map<String, V> getAll(KeyValueCache<V> cache, Collection<String> keys) {
+		try {
+			return cache.getAll(keys);
+		}
+		catch (RuntimeException e) {
+			logger.warn("Failed to read from cache {}, treating every key as a miss", cache.getClass().getName(), e);
+			return Map.of();
+		}
+	}
+
+	/**
+	 * Returns the cached value of the given key, or {@code null} if the cache fails.
+	 * @param cache the cache
+	 * @param key the cache key
+	 * @return the cached value, or {@code null}
+	 */
+	public static <V> V get(KeyValueCache<V> cache, String key) {
+		try {
+			return cache.get(key);
+		}
+		catch (RuntimeException e) {
+			logger.warn("Failed to read from cache {}, treating the key as a miss", cache.getClass().getName(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the given values, logging instead of failing if the cache fails.
+	 * @param cache the cache
+	 * @param values the values by key
+	 */
+	public static <V> void putAll(KeyValueCache<V> cache, Map<String, V> values) {
+		if (values.isEmpty()) {
+			return;
+		}
+		try {
+			cache.putAll(values);
+		}
+		catch (RuntimeException e) {
+			logger.warn("Failed to write to cache {}", cache.getClass().getName(), e);
+		}
+	}
+
+	/**
+	 * Stores the given value, logging instead of failing if the cache fails.
+	 * @param cache the cache
+	 * @param key the cache key
+	 * @param value the value
+	 */
+	public static <V> void put(KeyValueCache<V> cache, String key, V value) {
+		try {
+			cache.put(key, value);
+		}
+		catch (RuntimeException e) {
+			logger.warn("Failed to write to cache {}", cache.getClass().getName(), e);
+		}
+	}
+
+}
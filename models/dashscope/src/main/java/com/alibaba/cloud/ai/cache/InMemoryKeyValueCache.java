@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.cache;
+
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded in-memory {@link KeyValueCache}. Entries are evicted in least-recently-used
+ * order once {@code maximumSize} is reached, and optionally expire a fixed time after
+ * they were written. Mutable values, such as arrays, are copied on the way in and out
+ * so that callers cannot change the cached value.
+ *
+ * @param <V> the type of the cached values
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class InMemoryKeyValueCache<V> implements KeyValueCache<V> {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+	private final int maximumSize;
+
+	private final long expireAfterWriteNanos;
+
+	private final UnaryOperator<V> copier;
+
+	private final LinkedHashMap<String, Entry<V>> entries;
+
+	public InMemoryKeyValueCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	public InMemoryKeyValueCache(int maximumSize) {
+		this(maximumSize, null);
+	}
+
+	/**
+	 * @param maximumSize the maximum number of cached values
+	 * @param expireAfterWrite the time to live of an entry, {@code null} for no expiry
+	 */
+	public InMemoryKeyValueCache(int maximumSize, Duration expireAfterWrite) {
+		this(maximumSize, expireAfterWrite, UnaryOperator.identity());
+	}
+
+	/**
+	 * @param maximumSize the maximum number of cached values
+	 * @param expireAfterWrite the time to live of an entry, {@code null} for no expiry
+	 * @param copier copies a mutable value, {@link UnaryOperator#identity()} for
+	 * immutable values
+	 */
+	protected InMemoryKeyValueCache(int maximumSize, Duration expireAfterWrite, UnaryOperator<V> copier) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+		Assert.isTrue(expireAfterWrite == null || !expireAfterWrite.isNegative(),
+				"expireAfterWrite must not be negative");
+		Assert.notNull(copier, "copier must not be null");
+		this.maximumSize = maximumSize;
+		this.expireAfterWriteNanos = expireAfterWrite == null ? 0 : expireAfterWrite.toNanos();
+		this.copier = copier;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+				return size() > InMemoryKeyValueCache.this.maximumSize;
+			}
+		};
+	}
+
+	@Override
+	public V get(String key) {
+		V value;
+		synchronized (this.entries) {
+			value = lookup(key, System.nanoTime());
+		}
+		return value == null ? null : this.copier.apply(value);
+	}
+
+	@Override
+	public void put(String key, V value) {
+		Assert.notNull(key, "key must not be null");
+		Assert.notNull(value, "value must not be null");
+		Entry<V> entry = new Entry<>(this.copier.apply(value), System.nanoTime());
+		synchronized (this.entries) {
+			this.entries.put(key, entry);
+		}
+	}
+
+	@Override
+	public Map<String, V> getAll(Collection<String> keys) {
+		Map<String, V> result = new HashMap<>();
+		long now = System.nanoTime();
+		synchronized (this.entries) {
+			for (String key : keys) {
+				V value = lookup(key, now);
+				if (value != null) {
+					result.put(key, value);
+				}
+			}
+		}
+		result.replaceAll((key, value) -> this.copier.apply(value));
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<String, V> values) {
+		Map<String, Entry<V>> copies = new HashMap<>();
+		long now = System.nanoTime();
+		values.forEach((key, value) -> copies.put(key, new Entry<>(this.copier.apply(value), now)));
+		synchronized (this.entries) {
+			this.entries.putAll(copies);
+		}
+	}
+
+	/**
+	 * Returns the number of cached values, including expired entries that have not been
+	 * looked up since they expired.
+	 * @return the number of entries
+	 */
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	public void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+		}
+	}
+
+	private V lookup(String key, long now) {
+		Entry<V> entry = this.entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (this.expireAfterWriteNanos > 0 && now - entry.writtenAt() > this.expireAfterWriteNanos) {
+			this.entries.remove(key);
+			return null;
+		}
+		return entry.value();
+	}
+
+	private record Entry<V>(V value, long writtenAt) {
+	}
+
+}
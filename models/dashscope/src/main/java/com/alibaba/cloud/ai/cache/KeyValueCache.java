@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache of computed values, such as embeddings or relevance scores, addressed by string
+ * keys that are usually created with {@link CacheSupport#key(String...)}.
+ *
+ * <p>Implementations must be thread-safe. Remote stores should override
+ * {@link #getAll(Collection)} and {@link #putAll(Map)} to use a single round-trip, see
+ * {@link BinaryKeyValueCache}.
+ *
+ * @param <V> the type of the cached values
+ * @author agent
+ * @since 1.1.0.0
+ */
+public interface KeyValueCache<V> {
+
+	/**
+	 * Returns the cached value for the given key.
+	 * @param key the cache key
+	 * @return the value, or {@code null} if absent
+	 */
+	V get(String key);
+
+	/**
+	 * Stores the value under the given key.
+	 * @param key the cache key
+	 * @param value the value
+	 */
+	void put(String key, V value);
+
+	/**
+	 * Returns the cached values for the given keys. Absent keys are not contained in the
+	 * returned map.
+	 * @param keys the cache keys
+	 * @return the cached values by key
+	 */
+	default Map<String, V> getAll(Collection<String> keys) {
+		Map<String, V> result = new HashMap<>();
+		for (String key : keys) {
+			V value = get(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Stores all the given values.
+	 * @param values the values by key
+	 */
+	default void putAll(Map<String, V> values) {
+		values.forEach(this::put);
+	}
+
+}
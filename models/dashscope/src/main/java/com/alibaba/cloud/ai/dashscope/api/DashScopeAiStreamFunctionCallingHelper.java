@@ -30,7 +30,9 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Helper class to support Streaming function calling. It can merge the streamed
@@ -106,8 +108,9 @@ public class DashScopeAiStreamFunctionCallingHelper {
 	private ChatCompletionMessage merge(ChatCompletionMessage previous, ChatCompletionMessage current) {
 
         // response
-		Object content = (current.content() != null ? current.content()
-				: (previous.content() != null) ? previous.content() : "");
+		// content() maps a missing content to "", only the raw content tells it apart
+		Object content = (current.rawContent() != null ? current.rawContent()
+				: (previous.rawContent() != null) ? previous.rawContent() : "");
 		Role role = (current.role() != null ? current.role() : previous.role());
 		role = (role != null ? role : Role.ASSISTANT); // default to ASSISTANT (if null
 		String name = (StringUtils.hasText(current.name()) ? current.name() : previous.name());
@@ -180,6 +183,16 @@ public class DashScopeAiStreamFunctionCallingHelper {
 		return new ChatCompletionFunction(name, arguments.toString());
 	}
 
+	/**
+	 * Create a mutable accumulator that folds the chunks of one streaming window the same
+	 * way as repeated {@link #merge(ChatCompletionChunk, ChatCompletionChunk)} calls,
+	 * without building intermediate records for every fragment.
+	 * @return a new accumulator, not thread-safe
+	 */
+	public ChunkAccumulator newAccumulator() {
+		return new ChunkAccumulator();
+	}
+
 	/**
 	 * @param chatCompletion the ChatCompletionChunk to check
 	 * @return true if the ChatCompletionChunk is a streaming tool function call.
@@ -227,4 +240,276 @@ public class DashScopeAiStreamFunctionCallingHelper {
 		return choice;
 	}
 
+	/**
+	 * Per-window accumulator for streamed chunks. Tool call fragments are keyed by their
+	 * {@code index}, so parallel tool calls in the same response are merged independently,
+	 * and the argument fragments of each call are appended into a single reusable buffer.
+	 * The {@link ChatCompletionChunk} records are only built in {@link #build()}.
+	 */
+	public final class ChunkAccumulator {
+
+		private boolean empty = true;
+
+		private String requestId;
+
+		private TokenUsage usage;
+
+		// The choice to emit as-is while nothing has been merged into it yet.
+		private Choice choice;
+
+		private boolean merging;
+
+		private ChatCompletionFinishReason finishReason;
+
+		private DashScopeApiSpec.ChatCompletionLogprobs logprobs;
+
+		private Integer index;
+
+		private Object content;
+
+		private Role role;
+
+		private String name;
+
+		private String toolCallId;
+
+		private String reasoningContent;
+
+		private Boolean partial;
+
+		private List<DashScopeApiSpec.ChatCompletionAnnotations> annotations;
+
+		private String status;
+
+		private String phase;
+
+		private final List<ToolCallBuffer> toolCalls = new ArrayList<>();
+
+		private final Map<Integer, ToolCallBuffer> toolCallsByIndex = new HashMap<>();
+
+		private ChunkAccumulator() {
+		}
+
+		/**
+		 * Fold the given chunk into this accumulator.
+		 * @param current the next chunk of the window
+		 * @return this accumulator
+		 */
+		public ChunkAccumulator add(ChatCompletionChunk current) {
+			this.empty = false;
+			if (current.requestId() != null) {
+				this.requestId = current.requestId();
+			}
+			if (current.usage() != null) {
+				this.usage = current.usage();
+			}
+			Choice currentChoice = (current.output() == null || CollectionUtils.isEmpty(current.output().choices()))
+					? null : current.output().choices().get(0);
+
+			// compatibility of incremental_output false for streaming function call
+			if (!incrementalOutput && isStreamingToolFunctionCall(current)) {
+				reset(isStreamingToolFunctionCallFinish(current) ? currentChoice : null);
+				return this;
+			}
+			if (!this.merging && this.choice == null) {
+				this.choice = currentChoice;
+				return this;
+			}
+			if (currentChoice == null) {
+				reset(null);
+				return this;
+			}
+			if (!this.merging) {
+				load(this.choice);
+				this.choice = null;
+				this.merging = true;
+			}
+			apply(currentChoice);
+			return this;
+		}
+
+		/**
+		 * Build the merged chunk.
+		 * @return the merged chunk
+		 */
+		public ChatCompletionChunk build() {
+			if (this.empty) {
+				return new ChatCompletionChunk(null, null, null, null);
+			}
+			Choice merged = this.merging ? buildChoice() : this.choice;
+			List<Choice> choices = merged == null ? List.of() : List.of(merged);
+			return new ChatCompletionChunk(this.requestId, new ChatCompletionOutput(null, choices, null), this.usage,
+					null);
+		}
+
+		private void reset(Choice choice) {
+			this.choice = choice;
+			this.merging = false;
+			this.toolCalls.clear();
+			this.toolCallsByIndex.clear();
+		}
+
+		private void load(Choice previous) {
+			this.finishReason = previous.finishReason();
+			this.logprobs = previous.logprobs();
+			this.index = previous.index();
+			ChatCompletionMessage message = previous.message();
+			if (message == null) {
+				return;
+			}
+			this.content = message.rawContent();
+			this.role = message.role();
+			this.name = message.name();
+			this.toolCallId = message.toolCallId();
+			this.reasoningContent = message.reasoningContent();
+			this.partial = message.partial();
+			this.annotations = message.annotations();
+			this.status = message.status();
+			this.phase = message.phase();
+			if (message.toolCalls() != null) {
+				message.toolCalls().forEach(this::accumulate);
+			}
+		}
+
+		private void apply(Choice current) {
+			if (current.finishReason() != null) {
+				this.finishReason = current.finishReason();
+			}
+			if (current.logprobs() != null) {
+				this.logprobs = current.logprobs();
+			}
+			if (current.index() != null) {
+				this.index = current.index();
+			}
+			ChatCompletionMessage message = current.message();
+			if (message == null) {
+				return;
+			}
+			// tool call and finish chunks usually carry no content, keep the merged one
+			if (message.rawContent() != null) {
+				this.content = message.rawContent();
+			}
+			if (message.role() != null) {
+				this.role = message.role();
+			}
+			if (StringUtils.hasText(message.name())) {
+				this.name = message.name();
+			}
+			if (StringUtils.hasText(message.toolCallId())) {
+				this.toolCallId = message.toolCallId();
+			}
+			if (message.reasoningContent() != null) {
+				this.reasoningContent = message.reasoningContent();
+			}
+			if (message.partial() != null) {
+				this.partial = message.partial();
+			}
+			if (message.annotations() != null) {
+				this.annotations = message.annotations();
+			}
+			if (message.status() != null) {
+				this.status = message.status();
+			}
+			if (message.phase() != null) {
+				this.phase = message.phase();
+			}
+			if (message.toolCalls() != null) {
+				message.toolCalls().forEach(this::accumulate);
+			}
+		}
+
+		private void accumulate(ToolCall fragment) {
+			Integer fragmentIndex = fragment.index();
+			ToolCallBuffer target;
+			if (fragmentIndex != null) {
+				target = this.toolCallsByIndex.get(fragmentIndex);
+				// a new id under a known index starts the next sequential call
+				if (target != null && StringUtils.hasText(fragment.id()) && StringUtils.hasText(target.id)
+						&& !target.id.equals(fragment.id())) {
+					target = null;
+				}
+			}
+			else {
+				target = (StringUtils.hasText(fragment.id()) || this.toolCalls.isEmpty()) ? null
+						: this.toolCalls.get(this.toolCalls.size() - 1);
+			}
+			if (target == null) {
+				target = new ToolCallBuffer();
+				this.toolCalls.add(target);
+				if (fragmentIndex != null) {
+					this.toolCallsByIndex.put(fragmentIndex, target);
+				}
+			}
+			target.append(fragment);
+		}
+
+		private Choice buildChoice() {
+			List<ToolCall> mergedToolCalls = new ArrayList<>(this.toolCalls.size());
+			for (ToolCallBuffer toolCall : this.toolCalls) {
+				mergedToolCalls.add(toolCall.build());
+			}
+			Role mergedRole = (this.role != null ? this.role : Role.ASSISTANT);
+			Object mergedContent = (this.content != null ? this.content : "");
+			ChatCompletionMessage message = new ChatCompletionMessage(mergedContent, mergedRole, this.name,
+					this.toolCallId, mergedToolCalls, this.reasoningContent, this.partial, this.phase,
+					this.annotations, this.status);
+			return new Choice(this.finishReason, message, this.logprobs, this.index);
+		}
+
+	}
+
+	private static final class ToolCallBuffer {
+
+		private String id;
+
+		private String type;
+
+		private Integer index;
+
+		private boolean hasFunction;
+
+		private String name;
+
+		private StringBuilder arguments;
+
+		void append(ToolCall fragment) {
+			if (StringUtils.hasText(fragment.id())) {
+				this.id = fragment.id();
+			}
+			else if (this.id == null) {
+				this.id = fragment.id();
+			}
+			if (StringUtils.hasText(fragment.type())) {
+				this.type = fragment.type();
+			}
+			else if (this.type == null) {
+				this.type = fragment.type();
+			}
+			if (this.index == null || (fragment.index() != null && fragment.index() != 0)) {
+				this.index = fragment.index();
+			}
+			ChatCompletionFunction function = fragment.function();
+			if (function == null) {
+				return;
+			}
+			this.hasFunction = true;
+			if (StringUtils.hasText(function.name()) || this.name == null) {
+				this.name = function.name();
+			}
+			if (function.arguments() != null) {
+				if (this.arguments == null) {
+					this.arguments = new StringBuilder(Math.max(64, function.arguments().length()));
+				}
+				this.arguments.append(function.arguments());
+			}
+		}
+
+		ToolCall build() {
+			ChatCompletionFunction function = this.hasFunction ? new ChatCompletionFunction(this.name,
+					this.arguments == null ? null : this.arguments.toString()) : null;
+			return new ToolCall(this.id, this.type, function, this.index);
+		}
+
+	}
+
 }
@@ -16,27 +16,27 @@
 package com.alibaba.cloud.ai.dashscope.api;
 
 import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
+import com.alibaba.cloud.ai.dashscope.common.DashScopePipelineNotFoundException;
 import com.alibaba.cloud.ai.dashscope.common.ErrorCodeEnum;
 import com.alibaba.cloud.ai.dashscope.rag.DashScopeDocumentRetrieverOptions;
 import com.alibaba.cloud.ai.dashscope.rag.DashScopeDocumentTransformerOptions;
 import com.alibaba.cloud.ai.dashscope.rag.DashScopeStoreOptions;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeModel;
+import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.model.ApiKey;
-import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.model.NoopApiKey;
 import org.springframework.ai.model.SimpleApiKey;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
@@ -46,13 +46,11 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.File;
-import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -60,7 +58,6 @@ import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.ADD_FILE_CATEGORY_RESTFUL_URL;
@@ -82,6 +79,7 @@ import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.TEXT_E
 import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.TEXT_GENERATION_RESTFUL_URL;
 import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.TEXT_RERANK_RESTFUL_URL;
 import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.UPLOAD_LEASE_CATEGORY_RESTFUL_URL;
+import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.UPLOAD_POLICY_RESTFUL_URL;
 
 /**
  * @author nuocheng.lxm
@@ -91,7 +89,7 @@ import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.UPLOAD
  */
 public class DashScopeApi {
 
-	private static final Predicate<String> SSE_DONE_PREDICATE = "[DONE]"::equals;
+	private static final DashScopeSseChunkDecoder SSE_CHUNK_DECODER = new DashScopeSseChunkDecoder();
 
 	// Store config fields for mutate/copy
 	private final String baseUrl;
@@ -113,6 +111,11 @@ public class DashScopeApi {
 
 	public static final String DEFAULT_EMBEDDING_TEXT_TYPE = DashScopeModel.EmbeddingTextType.DOCUMENT.getValue();
 
+	/**
+	 * Maximum number of texts accepted by a single embeddings request.
+	 */
+	public static final int MAX_EMBEDDING_TEXTS = 25;
+
 	private final RestClient restClient;
 
 	private final WebClient webClient;
@@ -200,7 +203,8 @@ public class DashScopeApi {
         Assert.notNull(embeddingRequest, "The request body can not be null.");
         Assert.notNull(embeddingRequest.input(), "The input can not be null.");
         Assert.isTrue(!CollectionUtils.isEmpty(embeddingRequest.input().texts()), "The input texts can not be empty.");
-        Assert.isTrue(embeddingRequest.input().texts().size() <= 25, "The input texts limit 25.");
+        Assert.isTrue(embeddingRequest.input().texts().size() <= MAX_EMBEDDING_TEXTS,
+                "The input texts limit " + MAX_EMBEDDING_TEXTS + ".");
 
         return this.restClient.post()
                 .uri(this.embeddingsPath)
@@ -247,16 +251,22 @@ public class DashScopeApi {
 		}
 		DashScopeApiSpec.CommonResponse<DashScopeApiSpec.QueryFileParseResultData> commonResponse = fileParseResponse.getBody();
 
-		RestTemplate restTemplate = new RestTemplate();
-		HttpHeaders headers = new HttpHeaders();
-		for (String key : commonResponse.data().param().headers().keySet()) {
-			headers.set(key, commonResponse.data().param().headers().get(key));
-		}
+		DashScopeApiSpec.DownloadFileParam downloadParam = commonResponse.data().param();
 		try {
-			HttpEntity<InputStreamResource> requestEntity = new HttpEntity<>(null, headers);
-			ResponseEntity<String> response = restTemplate.exchange(new URI(commonResponse.data().param().url()),
-					HttpMethod.GET, requestEntity, String.class);
-			return response.getBody();
+			okhttp3.Headers.Builder headersBuilder = new okhttp3.Headers.Builder();
+			if (downloadParam.headers() != null) {
+				downloadParam.headers().forEach(headersBuilder::set);
+			}
+			Request downloadRequest = new Request.Builder().url(downloadParam.url())
+				.headers(headersBuilder.build())
+				.get()
+				.build();
+			try (Response response = FileTransferClientHolder.CLIENT.newCall(downloadRequest).execute()) {
+				if (!response.isSuccessful()) {
+					throw new Exception("Unexpected response code: " + response.code());
+				}
+				return response.body().string();
+			}
 		}
 		catch (Exception ex) {
 			throw new DashScopeException("GetDocumentParseResultError");
@@ -288,11 +298,6 @@ public class DashScopeApi {
 	private void uploadFile(File file, DashScopeApiSpec.UploadLeaseResponse uploadLeaseResponse) {
 		try {
 			DashScopeApiSpec.UploadLeaseParamData uploadParam = uploadLeaseResponse.data().param();
-			OkHttpClient client = new OkHttpClient.Builder().connectTimeout(60, TimeUnit.SECONDS)
-				.writeTimeout(60, TimeUnit.SECONDS)
-				.readTimeout(60, TimeUnit.SECONDS)
-				.build();
-
 			okhttp3.Headers.Builder headersBuilder = new okhttp3.Headers.Builder();
 			String contentType = uploadParam.header().remove("Content-Type");
 
@@ -300,6 +305,7 @@ public class DashScopeApi {
 				headersBuilder.add(key, uploadParam.header().get(key));
 			}
 
+			// the file is streamed from disk while the request is written
 			RequestBody requestBody;
 			if (StringUtils.hasLength(contentType)) {
 				requestBody = RequestBody.create(file, okhttp3.MediaType.parse(contentType));
@@ -314,7 +320,7 @@ public class DashScopeApi {
 				.put(requestBody)
 				.build();
 
-			try (Response response = client.newCall(request).execute()) {
+			try (Response response = FileTransferClientHolder.CLIENT.newCall(request).execute()) {
 				if (!response.isSuccessful()) {
 					throw new Exception("Unexpected response code: " + response.code());
 				}
@@ -333,6 +339,56 @@ public class DashScopeApi {
 			.toEntity(DashScopeApiSpec.UploadLeaseResponse.class);
 	}
 
+	/**
+	 * Uploads a media file to the DashScope temporary storage of the given model so that
+	 * it can be referenced from a request instead of being inlined as a data URI. The
+	 * returned {@code oss://} URL stays valid for 48 hours and is only resolved when the
+	 * request carries the {@code X-DashScope-OssResourceResolve: enable} header.
+	 * @param model the model the file will be used with
+	 * @param data the file content
+	 * @param fileName the file name, used as the last segment of the object key
+	 * @return the {@code oss://} URL of the uploaded file
+	 */
+	public String uploadMedia(String model, byte[] data, String fileName) {
+		Assert.hasText(model, "The model can not be empty.");
+		Assert.notNull(data, "The data can not be null.");
+		Assert.hasText(fileName, "The file name can not be empty.");
+
+		DashScopeApiSpec.UploadPolicyResponse policyResponse = this.restClient.get()
+			.uri(UPLOAD_POLICY_RESTFUL_URL, model)
+			.retrieve()
+			.body(DashScopeApiSpec.UploadPolicyResponse.class);
+		if (policyResponse == null || policyResponse.data() == null) {
+			throw new DashScopeException("Get Upload Policy Failed");
+		}
+
+		DashScopeApiSpec.UploadPolicyData policy = policyResponse.data();
+		String key = policy.uploadDir() + "/" + fileName;
+		try {
+			RequestBody requestBody = new MultipartBody.Builder().setType(MultipartBody.FORM)
+				.addFormDataPart("OSSAccessKeyId", policy.ossAccessKeyId())
+				.addFormDataPart("Signature", policy.signature())
+				.addFormDataPart("policy", policy.policy())
+				.addFormDataPart("x-oss-object-acl", policy.xOssObjectAcl())
+				.addFormDataPart("x-oss-forbid-overwrite", policy.xOssForbidOverwrite())
+				.addFormDataPart("key", key)
+				.addFormDataPart("success_action_status", "200")
+				.addFormDataPart("file", fileName, RequestBody.create(data, null))
+				.build();
+			Request request = new Request.Builder().url(policy.uploadHost()).post(requestBody).build();
+
+			try (Response response = FileTransferClientHolder.CLIENT.newCall(request).execute()) {
+				if (!response.isSuccessful()) {
+					throw new Exception("Unexpected response code: " + response.code());
+				}
+			}
+		}
+		catch (Exception ex) {
+			throw new DashScopeException("Upload File Failed", ex);
+		}
+		return "oss://" + key;
+	}
+
 	public ResponseEntity<DashScopeApiSpec.DocumentSplitResponse> documentSplit(Document document,
 																				DashScopeDocumentTransformerOptions options) {
 		DashScopeApiSpec.DocumentSplitRequest request = new DashScopeApiSpec.DocumentSplitRequest(document.getText(), options.getChunkSize(),
@@ -437,6 +493,15 @@ public class DashScopeApi {
 		return true;
 	}
 
+	/**
+	 * Retrieves the documents of a pipeline that match the query.
+	 * @param pipelineId the pipeline id
+	 * @param query the query text
+	 * @param searchOption the retrieval options
+	 * @return the matching documents
+	 * @throws DashScopePipelineNotFoundException if the pipeline does not exist,
+	 * whatever the configured response error handler
+	 */
 	public List<Document> retriever(String pipelineId, String query, DashScopeDocumentRetrieverOptions searchOption) {
 		DashScopeApiSpec.DocumentRetrieveRequest request = new DashScopeApiSpec.DocumentRetrieveRequest(query, searchOption.getDenseSimilarityTopK(),
 				searchOption.getDenseSimilarityTopK(), searchOption.isEnableRewrite(),
@@ -450,6 +515,9 @@ public class DashScopeApi {
 			.uri(RETRIEVE_PIPELINE_RESTFUL_URL, pipelineId)
 			.body(request)
 			.retrieve()
+			.onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(), (req, res) -> {
+				throw new DashScopePipelineNotFoundException(pipelineId);
+			})
 			.toEntity(DashScopeApiSpec.DocumentRetrieveResponse.class);
 		if (deleDocumentResponse == null || deleDocumentResponse.getBody() == null
 				|| !"SUCCESS".equalsIgnoreCase(deleDocumentResponse.getBody().code())) {
@@ -571,21 +639,8 @@ public class DashScopeApi {
 		})
 			.body(Mono.just(chatRequest), DashScopeApiSpec.ChatCompletionRequest.class)
 			.retrieve()
-			.bodyToFlux(String.class)
-			.takeUntil(SSE_DONE_PREDICATE)
-			.filter(SSE_DONE_PREDICATE.negate())
-			.map(content -> {
-				DashScopeApiSpec.DashScopeErrorResponse error = ModelOptionsUtils.jsonToObject(content, DashScopeApiSpec.DashScopeErrorResponse.class);
-				if (error != null && error.code() != null) {
-					throw new DashScopeException(String.format("[%s] %s (requestId: %s)",
-						error.code(), error.message(), error.requestId()));
-				}
-				DashScopeApiSpec.ChatCompletionChunk chunk = ModelOptionsUtils.jsonToObject(content, DashScopeApiSpec.ChatCompletionChunk.class);
-				if (chunk == null) {
-					throw new DashScopeException("Failed to parse response content: " + content);
-				}
-				return chunk;
-			})
+			.bodyToFlux(DataBuffer.class)
+			.transform(SSE_CHUNK_DECODER::decode)
 			.map(chunk -> {
 				if (chunkMerger.isStreamingToolFunctionCall(chunk)) {
 					isInsideTool.set(true);
@@ -599,14 +654,9 @@ public class DashScopeApi {
 				}
 				return !isInsideTool.get();
 			})
-			.concatMapIterable(window -> {
-				Mono<DashScopeApiSpec.ChatCompletionChunk> monoChunk = window.reduce(
-                        new DashScopeApiSpec.ChatCompletionChunk(null, null, null, null),
-						chunkMerger::merge
-                );
-				return List.of(monoChunk);
-			})
-			.flatMap(mono -> mono);
+			.concatMap(window -> window
+				.reduceWith(chunkMerger::newAccumulator, DashScopeAiStreamFunctionCallingHelper.ChunkAccumulator::add)
+				.map(DashScopeAiStreamFunctionCallingHelper.ChunkAccumulator::build));
 	}
 
 	/**
@@ -641,6 +691,21 @@ public class DashScopeApi {
 		return this.responseErrorHandler;
 	}
 
+	/**
+	 * Lazily built client for the pre-signed OSS URLs returned by the upload and download
+	 * leases. Those requests must not carry the DashScope authorization and content type
+	 * defaults of {@link #restClient}, so they share this client and its connection pool
+	 * instead of creating a new client per file.
+	 */
+	private static final class FileTransferClientHolder {
+
+		private static final OkHttpClient CLIENT = new OkHttpClient.Builder().connectTimeout(60, TimeUnit.SECONDS)
+			.writeTimeout(60, TimeUnit.SECONDS)
+			.readTimeout(60, TimeUnit.SECONDS)
+			.build();
+
+	}
+
 	public static class Builder {
 
 		public Builder() {
@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.dashscope.api;
 
 import com.alibaba.cloud.ai.dashscope.protocol.DashScopeWebSocketClient;
 import com.alibaba.cloud.ai.dashscope.protocol.DashScopeWebSocketClientOptions;
+import com.alibaba.cloud.ai.dashscope.protocol.DashScopeWebSocketSessionManager;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -37,7 +38,7 @@ import static com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants.DEFAUL
  */
 public class DashScopeAudioSpeechApi {
 
-	private final DashScopeWebSocketClient webSocketClient;
+	private final DashScopeWebSocketSessionManager sessionManager;
 
 	private final ObjectMapper objectMapper;
 
@@ -50,11 +51,15 @@ public class DashScopeAudioSpeechApi {
 	}
 
 	public DashScopeAudioSpeechApi(String apiKey, String workSpaceId, String websocketUrl) {
-		this.webSocketClient = new DashScopeWebSocketClient(DashScopeWebSocketClientOptions.builder()
+		this(DashScopeWebSocketClientOptions.builder()
 			.apiKey(apiKey)
 			.workSpaceId(workSpaceId)
 			.url(websocketUrl)
 			.build());
+	}
+
+	public DashScopeAudioSpeechApi(DashScopeWebSocketClientOptions webSocketClientOptions) {
+		this.sessionManager = new DashScopeWebSocketSessionManager(webSocketClientOptions);
 
 		this.objectMapper =
 			JsonMapper.builder()
@@ -72,7 +77,7 @@ public class DashScopeAudioSpeechApi {
 	public Flux<ByteBuffer> streamBinaryOut(Request request) {
 		try {
 			String message = this.objectMapper.writeValueAsString(request);
-			return this.webSocketClient.streamBinaryOut(message);
+			return this.sessionManager.streamBinaryOut(request.header().taskId(), message);
 		}
 		catch (JsonProcessingException e) {
 			throw new RuntimeException(e);
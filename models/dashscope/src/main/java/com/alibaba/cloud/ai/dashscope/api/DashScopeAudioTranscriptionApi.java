@@ -20,6 +20,7 @@ import com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants;
 import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
 import com.alibaba.cloud.ai.dashscope.protocol.DashScopeWebSocketClient;
 import com.alibaba.cloud.ai.dashscope.protocol.DashScopeWebSocketClientOptions;
+import com.alibaba.cloud.ai.dashscope.protocol.DashScopeWebSocketSessionManager;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -71,6 +72,8 @@ public class DashScopeAudioTranscriptionApi {
 
 	private final DashScopeWebSocketClient webSocketClient;
 
+	private final DashScopeWebSocketSessionManager sessionManager;
+
 	private final RestClient restClient;
 
 	private final ResponseErrorHandler responseErrorHandler;
@@ -110,12 +113,13 @@ public class DashScopeAudioTranscriptionApi {
 			.defaultStatusHandler(responseErrorHandler)
 			.build();
 
-		this.webSocketClient = new DashScopeWebSocketClient(
-			DashScopeWebSocketClientOptions.builder()
-				.apiKey(apiKey.getValue())
-				.workSpaceId(workSpaceId)
-				.url(webSocketUrl)
-				.build());
+		DashScopeWebSocketClientOptions webSocketClientOptions = DashScopeWebSocketClientOptions.builder()
+			.apiKey(apiKey.getValue())
+			.workSpaceId(workSpaceId)
+			.url(webSocketUrl)
+			.build();
+		this.webSocketClient = new DashScopeWebSocketClient(webSocketClientOptions);
+		this.sessionManager = new DashScopeWebSocketSessionManager(webSocketClientOptions);
 
 		this.objectMapper = JsonMapper.builder()
 			// Deserialization configuration
@@ -178,6 +182,36 @@ public class DashScopeAudioTranscriptionApi {
 				});
 	}
 
+	/**
+	 * Runs a real-time transcription task on a shared web socket connection. The
+	 * run-task request is sent on subscription, followed by the audio and, once the
+	 * audio completes, the finish-task request.
+	 * @param runTask the run-task request
+	 * @param audio the audio to transcribe
+	 * @param finishTask the finish-task request
+	 * @return the transcription results
+	 */
+	public Flux<RealtimeResponse> realtimeStream(DashScopeAudioTranscriptionApi.RealtimeRequest runTask,
+			Flux<ByteBuffer> audio, DashScopeAudioTranscriptionApi.RealtimeRequest finishTask) {
+		return this.sessionManager
+			.streamTextOut(runTask.header().taskId(), toJson(runTask), audio, () -> toJson(finishTask))
+			.handle((msg, sink) -> {
+				try {
+					sink.next(this.objectMapper.readValue(msg, RealtimeResponse.class));
+				} catch (JsonProcessingException e) {
+					sink.error(new DashScopeException(String.valueOf(e)));
+				}
+			});
+	}
+
+	private String toJson(DashScopeAudioTranscriptionApi.RealtimeRequest request) {
+		try {
+			return this.objectMapper.writeValueAsString(request);
+		} catch (JsonProcessingException e) {
+			throw new DashScopeException("serialize realtime request failed", e);
+		}
+	}
+
 	public Outcome getOutcome(String transcriptionUrl) {
 		try {
 			InputStream inputStream = URI.create(transcriptionUrl).toURL().openStream();
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.api;
+
+import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionChunk;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Decodes the raw {@code text/event-stream} body of a DashScope streaming chat
+ * completion into {@link ChatCompletionChunk}s.
+ * <p>
+ * Every SSE {@code data} payload is tokenized exactly once: the top-level fields are
+ * copied into a {@link TokenBuffer} while the {@code code}, {@code message} and
+ * {@code request_id} fields are peeked at, so an error event is detected without a
+ * second parse and a regular chunk is bound straight from the buffered tokens. No
+ * intermediate {@link String} is created for the payload.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class DashScopeSseChunkDecoder {
+
+	private static final byte[] DATA_FIELD = "data:".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] DONE = "[DONE]".getBytes(StandardCharsets.US_ASCII);
+
+	private final ObjectMapper objectMapper;
+
+	public DashScopeSseChunkDecoder() {
+		this(ModelOptionsUtils.OBJECT_MAPPER);
+	}
+
+	public DashScopeSseChunkDecoder(ObjectMapper objectMapper) {
+		Assert.notNull(objectMapper, "objectMapper cannot be null");
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Decode the given SSE body. The stream completes once the {@code [DONE]} sentinel
+	 * is received or the body ends, whichever comes first. An error event fails the
+	 * stream after the chunks decoded before it, including those of the same buffer.
+	 * @param body the raw response body
+	 * @return the decoded chunks
+	 */
+	public Flux<ChatCompletionChunk> decode(Flux<DataBuffer> body) {
+		return Flux.defer(() -> {
+			EventReader reader = new EventReader();
+			return body.<List<ChatCompletionChunk>>handle((buffer, sink) -> {
+				Events events;
+				try {
+					events = reader.read(buffer);
+				}
+				finally {
+					DataBufferUtils.release(buffer);
+				}
+				if (!events.chunks().isEmpty()) {
+					sink.next(events.chunks());
+				}
+				if (events.error() != null) {
+					sink.error(events.error());
+				}
+				else if (reader.isDone()) {
+					sink.complete();
+				}
+			}).concatWith(Flux.defer(() -> {
+				Events events = reader.flush();
+				Flux<List<ChatCompletionChunk>> chunks = Flux.just(events.chunks());
+				return events.error() != null ? chunks.concatWith(Flux.error(events.error())) : chunks;
+			})).concatMapIterable(Function.identity());
+		});
+	}
+
+	/**
+	 * Decode a single SSE {@code data} payload.
+	 * @param data the payload bytes
+	 * @param offset the offset of the payload in {@code data}
+	 * @param length the payload length
+	 * @return the decoded chunk
+	 * @throws DashScopeException if the payload is a DashScope error or cannot be parsed
+	 */
+	public ChatCompletionChunk decodeData(byte[] data, int offset, int length) {
+		try (JsonParser parser = this.objectMapper.createParser(data, offset, length)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new DashScopeException(
+						"Failed to parse response content: " + new String(data, offset, length, StandardCharsets.UTF_8));
+			}
+
+			String code = null;
+			String message = null;
+			String requestId = null;
+			TokenBuffer tokens = new TokenBuffer(parser);
+			tokens.writeStartObject();
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.currentName();
+				JsonToken value = parser.nextToken();
+				if (value.isScalarValue() && value != JsonToken.VALUE_NULL) {
+					switch (field) {
+						case "code" -> code = parser.getText();
+						case "message" -> message = parser.getText();
+						case "request_id" -> requestId = parser.getText();
+						default -> {
+						}
+					}
+				}
+				tokens.writeFieldName(field);
+				tokens.copyCurrentStructure(parser);
+			}
+			tokens.writeEndObject();
+
+			if (code != null) {
+				throw new DashScopeException(
+						String.format("[%s] %s (requestId: %s)", code, message, requestId));
+			}
+			try (JsonParser buffered = tokens.asParser(parser.getCodec())) {
+				return this.objectMapper.readValue(buffered, ChatCompletionChunk.class);
+			}
+		}
+		catch (IOException ex) {
+			throw new DashScopeException(
+					"Failed to parse response content: " + new String(data, offset, length, StandardCharsets.UTF_8),
+					ex);
+		}
+	}
+
+	private static boolean startsWith(byte[] bytes, int length, byte[] prefix) {
+		if (length < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (bytes[i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The chunks decoded from one buffer, and the error that stopped the decoding, if
+	 * any, to be signalled after the chunks.
+	 */
+	private record Events(List<ChatCompletionChunk> chunks, RuntimeException error) {
+
+	}
+
+	/**
+	 * Per-subscription SSE framing state. Partial lines are carried over between
+	 * buffers, and the {@code data} lines of an event are gathered into one reusable
+	 * byte array until the blank line that terminates the event.
+	 */
+	private final class EventReader {
+
+		private byte[] line = new byte[256];
+
+		private int lineLength;
+
+		private byte[] data = new byte[1024];
+
+		private int dataLength = -1;
+
+		private boolean done;
+
+		private RuntimeException error;
+
+		Events read(DataBuffer buffer) {
+			List<ChatCompletionChunk> chunks = new ArrayList<>(2);
+			while (!this.done && buffer.readableByteCount() > 0) {
+				int start = buffer.readPosition();
+				int end = buffer.indexOf(b -> b == '\n', start);
+				int length = (end == -1 ? buffer.writePosition() : end) - start;
+				if (this.lineLength + length > this.line.length) {
+					this.line = Arrays.copyOf(this.line, Math.max(this.line.length << 1, this.lineLength + length));
+				}
+				buffer.read(this.line, this.lineLength, length);
+				this.lineLength += length;
+				if (end == -1) {
+					break;
+				}
+				// skip the line feed
+				buffer.readPosition(end + 1);
+				endOfLine(chunks);
+			}
+			return new Events(chunks, this.error);
+		}
+
+		Events flush() {
+			List<ChatCompletionChunk> chunks = new ArrayList<>(1);
+			if (!this.done && this.lineLength > 0) {
+				endOfLine(chunks);
+			}
+			if (!this.done) {
+				dispatch(chunks);
+			}
+			return new Events(chunks, this.error);
+		}
+
+		boolean isDone() {
+			return this.done;
+		}
+
+		private void endOfLine(List<ChatCompletionChunk> chunks) {
+			int length = this.lineLength;
+			if (length > 0 && this.line[length - 1] == '\r') {
+				length--;
+			}
+			this.lineLength = 0;
+			if (length == 0) {
+				dispatch(chunks);
+			}
+			else if (startsWith(this.line, length, DATA_FIELD)) {
+				int start = DATA_FIELD.length;
+				if (start < length && this.line[start] == ' ') {
+					start++;
+				}
+				appendData(start, length);
+			}
+		}
+
+		private void appendData(int start, int end) {
+			int size = end - start;
+			int offset = (this.dataLength < 0) ? 0 : this.dataLength + 1;
+			if (offset + size > this.data.length) {
+				this.data = Arrays.copyOf(this.data, Math.max(this.data.length << 1, offset + size));
+			}
+			if (offset > 0) {
+				// multiple data lines of one event are joined with a line feed
+				this.data[offset - 1] = '\n';
+			}
+			System.arraycopy(this.line, start, this.data, offset, size);
+			this.dataLength = offset + size;
+		}
+
+		private void dispatch(List<ChatCompletionChunk> chunks) {
+			int length = this.dataLength;
+			this.dataLength = -1;
+			if (length <= 0) {
+				return;
+			}
+			if (length == DONE.length && startsWith(this.data, length, DONE)) {
+				this.done = true;
+				return;
+			}
+			try {
+				chunks.add(decodeData(this.data, 0, length));
+			}
+			catch (RuntimeException ex) {
+				// stop reading, the chunks decoded so far are emitted before the error
+				this.error = ex;
+				this.done = true;
+			}
+		}
+
+	}
+
+}
@@ -28,8 +28,17 @@ import org.springframework.ai.audio.tts.TextToSpeechResponse;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -43,6 +52,16 @@ public class DashScopeAudioSpeechModel implements TextToSpeechModel {
 
 	private static final Logger logger = LoggerFactory.getLogger(DashScopeAudioSpeechModel.class);
 
+	/**
+	 * Rough size of the audio of one character, about a quarter of a second of
+	 * compressed speech. Only used to pre-size the buffer of {@link #call}.
+	 */
+	private static final int ESTIMATED_AUDIO_BYTES_PER_CHARACTER = 4 * 1024;
+
+	private static final int MIN_INITIAL_AUDIO_BUFFER_SIZE = 16 * 1024;
+
+	private static final int MAX_INITIAL_AUDIO_BUFFER_SIZE = 8 * 1024 * 1024;
+
 	private final DashScopeAudioSpeechApi audioSpeechApi;
 
 	private final DashScopeAudioSpeechOptions defaultOptions;
@@ -69,28 +88,78 @@ public class DashScopeAudioSpeechModel implements TextToSpeechModel {
 		this.retryTemplate = retryTemplate;
 	}
 
+	/**
+	 * Synthesizes the whole text and returns the audio as a single {@link Speech}. The
+	 * chunks are copied as they arrive into one buffer pre-sized from the text length and
+	 * are not retained, so the audio is held about once rather than twice.
+	 */
 	@Override
 	public TextToSpeechResponse call(TextToSpeechPrompt prompt) {
-		Flux<TextToSpeechResponse> flux = this.stream(prompt);
-		return flux.flatMapIterable(TextToSpeechResponse::getResults)
-			.collectList()
-			.map(TextToSpeechResponse::new)
-			.block();
+		AudioBuffer buffer = new AudioBuffer(estimateAudioSize(prompt));
+		for (ByteBuffer chunk : this.streamAudio(prompt).toIterable()) {
+			buffer.write(chunk);
+		}
+		return new TextToSpeechResponse(List.of(new Speech(buffer.toAudio())));
+	}
+
+	/**
+	 * Synthesizes the text and writes the audio to the given stream as it arrives, so
+	 * that it can be piped to a response without being held in memory. The stream is
+	 * written from the calling thread and is neither flushed nor closed.
+	 * @param prompt the prompt to synthesize
+	 * @param outputStream the stream to write the audio to
+	 * @return the number of bytes written
+	 * @throws UncheckedIOException if writing to the stream fails
+	 */
+	public long call(TextToSpeechPrompt prompt, OutputStream outputStream) {
+		Assert.notNull(outputStream, "outputStream cannot be null");
+		WritableByteChannel channel = Channels.newChannel(outputStream);
+		long written = 0;
+		try {
+			for (ByteBuffer chunk : this.streamAudio(prompt).toIterable()) {
+				while (chunk.hasRemaining()) {
+					written += channel.write(chunk);
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException("Failed to write the synthesized audio", ex);
+		}
+		return written;
 	}
 
 	@Override
 	public Flux<TextToSpeechResponse> stream(TextToSpeechPrompt prompt) {
+		return this.streamAudio(prompt).map(byteBuffer -> {
+			byte[] data = new byte[byteBuffer.remaining()];
+			byteBuffer.get(data);
+			return new TextToSpeechResponse(List.of(new Speech(data)));
+		});
+	}
+
+	/**
+	 * Streams the synthesized audio as the read-only buffers received from the
+	 * WebSocket, without copying them into intermediate arrays.
+	 * @param prompt the prompt to synthesize
+	 * @return the audio chunks in order
+	 */
+	public Flux<ByteBuffer> streamAudio(TextToSpeechPrompt prompt) {
 		String taskId = UUID.randomUUID().toString();
 		DashScopeAudioSpeechApi.Request runTaskRequest = this.createRequest(prompt, taskId,
 			DashScopeWebSocketClient.EventType.RUN_TASK);
 
 		logger.info("send run-task");
-		return this.retryTemplate.execute(ctx -> this.audioSpeechApi.streamBinaryOut(runTaskRequest)
-			.map(byteBuffer -> {
-				byte[] data = new byte[byteBuffer.remaining()];
-				byteBuffer.get(data);
-				return new TextToSpeechResponse(List.of(new Speech(data)));
-			}));
+		return this.retryTemplate.execute(ctx -> this.audioSpeechApi.streamBinaryOut(runTaskRequest));
+	}
+
+	/**
+	 * Accessible for testing.
+	 */
+	static int estimateAudioSize(TextToSpeechPrompt prompt) {
+		String text = prompt.getInstructions().getText();
+		int length = text == null ? 0 : text.length();
+		return (int) Math.min(MAX_INITIAL_AUDIO_BUFFER_SIZE,
+			Math.max(MIN_INITIAL_AUDIO_BUFFER_SIZE, (long) length * ESTIMATED_AUDIO_BYTES_PER_CHARACTER));
 	}
 
 	public DashScopeAudioSpeechApi.Request createRequest(TextToSpeechPrompt prompt,
@@ -121,4 +190,29 @@ public class DashScopeAudioSpeechModel implements TextToSpeechModel {
 		return ModelOptionsUtils.merge(options, this.defaultOptions, DashScopeAudioSpeechOptions.class);
 	}
 
+	/**
+	 * Growable buffer that copies the chunks straight from the read-only buffers and
+	 * hands out its array without a final copy when the estimate was exact.
+	 */
+	private static final class AudioBuffer extends ByteArrayOutputStream {
+
+		AudioBuffer(int initialSize) {
+			super(initialSize);
+		}
+
+		void write(ByteBuffer chunk) {
+			int length = chunk.remaining();
+			if (this.count + length > this.buf.length) {
+				this.buf = Arrays.copyOf(this.buf, Math.max(this.buf.length << 1, this.count + length));
+			}
+			chunk.get(this.buf, this.count, length);
+			this.count += length;
+		}
+
+		byte[] toAudio() {
+			return this.count == this.buf.length ? this.buf : toByteArray();
+		}
+
+	}
+
 }
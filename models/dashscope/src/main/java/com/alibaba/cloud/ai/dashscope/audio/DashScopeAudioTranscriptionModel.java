@@ -19,6 +19,7 @@ import com.alibaba.cloud.ai.dashscope.api.DashScopeAudioTranscriptionApi;
 import com.alibaba.cloud.ai.dashscope.audio.transcription.AudioTranscriptionModel;
 import com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants;
 import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeTaskPoller;
 import com.alibaba.cloud.ai.dashscope.protocol.DashScopeWebSocketClient;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeModel;
 import org.slf4j.Logger;
@@ -30,7 +31,6 @@ import org.springframework.ai.audio.transcription.AudioTranscriptionResponse;
 import org.springframework.ai.audio.transcription.AudioTranscriptionResponseMetadata;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
-import org.springframework.ai.retry.TransientAiException;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
@@ -38,6 +38,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
@@ -63,6 +64,8 @@ public class DashScopeAudioTranscriptionModel implements AudioTranscriptionModel
 
 	private final RetryTemplate retryTemplate;
 
+	private DashScopeTaskPoller taskPoller = DashScopeTaskPoller.shared();
+
 	public DashScopeAudioTranscriptionModel(DashScopeAudioTranscriptionApi api,
 			DashScopeAudioTranscriptionOptions defaultOptions) {
 
@@ -96,37 +99,74 @@ public class DashScopeAudioTranscriptionModel implements AudioTranscriptionModel
 			return new AudioTranscriptionResponse(new AudioTranscription(null), metadata);
 		}
 
-		AudioTranscriptionResponse response = this.retryTemplate
-			.execute(ctx -> {
-				DashScopeAudioTranscriptionApi.Response taskResultResponse = this.audioTranscriptionApi.queryTaskResult(taskId)
-					.getBody();
+		return this.pollTask(taskId).block();
+	}
 
-				DashScopeAudioTranscriptionApi.TaskStatus taskStatus = Optional.ofNullable(taskResultResponse)
-					.map(DashScopeAudioTranscriptionApi.Response::output)
-					.map(DashScopeAudioTranscriptionApi.Response.Output::taskStatus)
-					.orElse(null);
+	/**
+	 * Wait for a submitted transcription task without blocking the calling thread.
+	 * @param taskId the id of the submitted task
+	 * @return the transcription once the task reached a terminal status or timed out
+	 */
+	public Mono<AudioTranscriptionResponse> pollTask(String taskId) {
+		return this.taskPoller
+			.poll(taskId,
+					() -> Mono.fromCallable(() -> this.retryTemplate
+						.execute(ctx -> this.audioTranscriptionApi.queryTaskResult(taskId)))
+						.subscribeOn(Schedulers.boundedElastic()),
+					DashScopeAudioTranscriptionModel::isTerminal)
+			.map(result -> {
+				if (result.timedOut()) {
+					logger.warn("task timed out, taskId={}", taskId);
+					AudioTranscriptionResponseMetadata metadata = new AudioTranscriptionResponseMetadata();
+					metadata.put("taskId", taskId);
+					metadata.put("taskStatus", "TIMED_OUT");
+					return new AudioTranscriptionResponse(new AudioTranscription(null), metadata);
+				}
 
+				DashScopeAudioTranscriptionApi.Response taskResultResponse = result.response().getBody();
+				DashScopeAudioTranscriptionApi.TaskStatus taskStatus = taskStatus(result.response());
 				if (taskStatus == null) {
-					logger.warn("No taskStatus returned for request: {}", request);
+					logger.warn("No taskStatus returned for taskId: {}", taskId);
 					AudioTranscriptionResponseMetadata metadata = new AudioTranscriptionResponseMetadata();
 					metadata.put("taskStatus", "NO_TASK_STATUS");
 					return new AudioTranscriptionResponse(new AudioTranscription(null), metadata);
 				}
 
-				switch (taskStatus) {
-					case FAILED, CANCELED, UNKNOWN -> {
-						logger.error("task failed");
-						return this.toResponse(taskResultResponse);
-					}
-					case SUCCEEDED -> {
-						logger.info("task succeeded");
-						return this.toResponse(taskResultResponse);
-					}
-					default -> throw new TransientAiException("Audio generation still pending");
+				if (taskStatus == DashScopeAudioTranscriptionApi.TaskStatus.SUCCEEDED) {
+					logger.info("task succeeded");
 				}
+				else {
+					logger.error("task failed");
+				}
+				return this.toResponse(taskResultResponse);
 			});
+	}
+
+	/**
+	 * Use the provided poller to wait for submitted transcription tasks.
+	 * @param taskPoller the task poller
+	 */
+	public void setTaskPoller(DashScopeTaskPoller taskPoller) {
+		this.taskPoller = Objects.requireNonNull(taskPoller, "taskPoller must not be null");
+	}
 
-		return response;
+	private static boolean isTerminal(ResponseEntity<DashScopeAudioTranscriptionApi.Response> response) {
+		DashScopeAudioTranscriptionApi.TaskStatus taskStatus = taskStatus(response);
+		if (taskStatus == null) {
+			return true;
+		}
+		return switch (taskStatus) {
+			case SUCCEEDED, FAILED, CANCELED, UNKNOWN -> true;
+			default -> false;
+		};
+	}
+
+	private static DashScopeAudioTranscriptionApi.TaskStatus taskStatus(
+			ResponseEntity<DashScopeAudioTranscriptionApi.Response> response) {
+		return Optional.ofNullable(response.getBody())
+			.map(DashScopeAudioTranscriptionApi.Response::output)
+			.map(DashScopeAudioTranscriptionApi.Response.Output::taskStatus)
+			.orElse(null);
 	}
 
 	@Override
@@ -135,8 +175,8 @@ public class DashScopeAudioTranscriptionModel implements AudioTranscriptionModel
 		DashScopeAudioTranscriptionApi.RealtimeRequest runTaskRequest = this.createRealtimeRequest(prompt, taskId,
 			DashScopeWebSocketClient.EventType.RUN_TASK);
 
-		logger.info("send run-task, taskId={}", taskId);
-		this.audioTranscriptionApi.realtimeSendTask(runTaskRequest);
+		DashScopeAudioTranscriptionApi.RealtimeRequest finishTaskRequest = this.createRealtimeRequest(prompt, taskId,
+			DashScopeWebSocketClient.EventType.FINISH_TASK);
 
 		Resource resource = prompt.getInstructions();
 
@@ -150,16 +190,11 @@ public class DashScopeAudioTranscriptionModel implements AudioTranscriptionModel
 					DataBufferUtils.release(dataBuffer);
 				}
 			})
-			.delayElements(Duration.ofMillis(100), Schedulers.boundedElastic())
-			.doOnComplete(() -> {
-				DashScopeAudioTranscriptionApi.RealtimeRequest finishTaskRequest = this.createRealtimeRequest(prompt,
-					taskId, DashScopeWebSocketClient.EventType.FINISH_TASK);
-
-				logger.info("send finish-task, taskId={}", taskId);
-				this.audioTranscriptionApi.realtimeSendTask(finishTaskRequest);
-			});
+			.delayElements(Duration.ofMillis(100), Schedulers.boundedElastic());
 
-		return this.audioTranscriptionApi.realtimeStream(audio).map(this::toResponse);
+		logger.info("send run-task, taskId={}", taskId);
+		return this.audioTranscriptionApi.realtimeStream(runTaskRequest, audio, finishTaskRequest)
+			.map(this::toResponse);
 	}
 
 	private DashScopeAudioTranscriptionApi.Request createRequest(AudioTranscriptionPrompt prompt) {
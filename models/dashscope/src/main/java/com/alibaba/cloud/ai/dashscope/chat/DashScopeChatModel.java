@@ -38,6 +38,7 @@ import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccess
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.MessageType;
 import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.messages.UserMessage;
@@ -55,6 +56,7 @@ import org.springframework.ai.chat.observation.ChatModelObservationConvention;
 import org.springframework.ai.chat.observation.ChatModelObservationDocumentation;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.content.Media;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.model.tool.DefaultToolExecutionEligibilityPredicate;
 import org.springframework.ai.model.tool.ToolCallingChatOptions;
@@ -75,12 +77,20 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -102,6 +112,16 @@ public class DashScopeChatModel implements ChatModel {
 
 	private static final ToolCallingManager DEFAULT_TOOL_CALLING_MANAGER = ToolCallingManager.builder().build();
 
+	private static final String OSS_URL_PREFIX = "oss://";
+
+	private static final int MAX_CACHED_TOOL_SETS = 64;
+
+	/**
+	 * Uploaded media is kept for 48 hours by DashScope, cached references are refreshed
+	 * well before that.
+	 */
+	private static final long UPLOADED_MEDIA_TTL_MILLIS = Duration.ofHours(24).toMillis();
+
 	/**
 	 * The default options used for the chat completion requests.
 	 */
@@ -135,6 +155,30 @@ public class DashScopeChatModel implements ChatModel {
 	 */
 	private ChatModelObservationConvention observationConvention = DEFAULT_OBSERVATION_CONVENTION;
 
+	/**
+	 * Encoded data URIs and upload references of {@code byte[]} media, keyed by array
+	 * identity.
+	 */
+	private final MediaDataCache mediaDataCache = new MediaDataCache();
+
+	/**
+	 * Size in bytes above which {@code byte[]} media is uploaded instead of being inlined,
+	 * 0 to always inline.
+	 */
+	private int mediaUploadThreshold;
+
+	/**
+	 * Function tools by the tool definitions they were built from, so that the JSON
+	 * schemas are only parsed once per tool set instead of once per request.
+	 */
+	private final Map<List<ToolDefinition>, List<FunctionTool>> functionToolCache = Collections
+		.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<ToolDefinition>, List<FunctionTool>> eldest) {
+				return size() > MAX_CACHED_TOOL_SETS;
+			}
+		});
+
 	public DashScopeChatModel(DashScopeApi dashscopeApi, DashScopeChatOptions defaultOptions,
 			ToolCallingManager toolCallingManager, RetryTemplate retryTemplate,
 			ObservationRegistry observationRegistry) {
@@ -176,7 +220,12 @@ public class DashScopeChatModel implements ChatModel {
 	}
 
 	public ChatResponse internalCall(Prompt prompt, ChatResponse previousChatResponse) {
-		ChatCompletionRequest request = createRequest(prompt, false);
+		return internalCall(prompt, previousChatResponse, newConversionCache());
+	}
+
+	private ChatResponse internalCall(Prompt prompt, ChatResponse previousChatResponse,
+			Map<Message, List<ChatCompletionMessage>> conversionCache) {
+		ChatCompletionRequest request = createRequest(prompt, false, conversionCache);
 
 		ChatModelObservationContext observationContext = ChatModelObservationContext.builder()
 			.prompt(prompt)
@@ -212,7 +261,7 @@ public class DashScopeChatModel implements ChatModel {
 			else {
 				// Send the tool execution result back to the model.
 				return this.internalCall(new Prompt(toolExecutionResult.conversationHistory(), prompt.getOptions()),
-						response);
+						response, conversionCache);
 			}
 		}
 
@@ -231,8 +280,13 @@ public class DashScopeChatModel implements ChatModel {
 	}
 
 	public Flux<ChatResponse> internalStream(Prompt prompt, ChatResponse previousChatResponse) {
-		return Flux.deferContextual(contextView -> {
-			ChatCompletionRequest request = createRequest(prompt, true);
+		return internalStream(prompt, previousChatResponse, newConversionCache());
+	}
+
+	private Flux<ChatResponse> internalStream(Prompt prompt, ChatResponse previousChatResponse,
+			Map<Message, List<ChatCompletionMessage>> conversionCache) {
+		Flux<ChatResponse> stream = Flux.deferContextual(contextView -> {
+			ChatCompletionRequest request = createRequest(prompt, true, conversionCache);
 
 			Flux<ChatCompletionChunk> completionChunks = this.retryTemplate
 				.execute(ctx -> this.dashscopeApi.chatCompletionStream(request, getAdditionalHttpHeaders(prompt)));
@@ -277,7 +331,7 @@ public class DashScopeChatModel implements ChatModel {
 							} else {
 								// Send the tool execution result back to the model.
 								return this.internalStream(new Prompt(toolExecutionResult.conversationHistory(), prompt.getOptions()),
-										response);
+										response, conversionCache);
 							}
 						}).subscribeOn(Schedulers.boundedElastic());
 					}
@@ -292,6 +346,9 @@ public class DashScopeChatModel implements ChatModel {
 
 			return new MessageAggregator().aggregate(flux, observationContext::setResponse);
 		});
+		// media uploads block, keep them off the thread that subscribes, which may be an
+		// event loop
+		return hasMediaToUpload(prompt) ? stream.subscribeOn(Schedulers.boundedElastic()) : stream;
 	}
 
 	private static String finishReasonToMetadataValue(DashScopeApiSpec.ChatCompletionFinishReason finishReason) {
@@ -473,65 +530,27 @@ public class DashScopeChatModel implements ChatModel {
 	 * Accessible for testing.
 	 */
 	ChatCompletionRequest createRequest(Prompt prompt, boolean stream) {
+		return createRequest(prompt, stream, newConversionCache());
+	}
 
-		List<ChatCompletionMessage> chatCompletionMessages = prompt.getInstructions().stream().map(message -> {
-			if (message.getMessageType() == MessageType.USER || message.getMessageType() == MessageType.SYSTEM) {
-				Object content = message.getText();
-				if (message instanceof UserMessage userMessage) {
-					if (!CollectionUtils.isEmpty(userMessage.getMedia())) {
-						content = convertMediaContent(userMessage);
-					}
-				}
-
-				return List.of(new ChatCompletionMessage(content,
-						ChatCompletionMessage.Role.valueOf(message.getMessageType().name())));
-			}
-			else if (message.getMessageType() == MessageType.ASSISTANT) {
-				var assistantMessage = (AssistantMessage) message;
-				List<ToolCall> toolCalls = null;
-				if (!CollectionUtils.isEmpty(assistantMessage.getToolCalls())) {
-					toolCalls = assistantMessage.getToolCalls().stream().map(toolCall -> {
-						var function = new ChatCompletionFunction(toolCall.name(), toolCall.arguments());
-                        // todo: set index null.
-						return new ToolCall(toolCall.id(), toolCall.type(), function, null);
-					}).toList();
-				}
-
-				Boolean partial = null;
-				if (assistantMessage.getMetadata() != null) {
-					Object partialValue = assistantMessage.getMetadata().get("partial");
-					if (partialValue instanceof Boolean) {
-						partial = (Boolean) partialValue;
-					}
-					else if (partialValue instanceof String) {
-						partial = Boolean.parseBoolean((String) partialValue);
-					}
-				}
-
-				return List.of(new DashScopeApiSpec.ChatCompletionMessage(assistantMessage.getText(),
-						ChatCompletionMessage.Role.ASSISTANT, null, null, toolCalls, null, partial, null, null, null));
-			}
-			else if (message.getMessageType() == MessageType.TOOL) {
-				ToolResponseMessage toolMessage = (ToolResponseMessage) message;
-
-				toolMessage.getResponses().forEach(response -> {
-					Assert.isTrue(response.id() != null, "ToolResponseMessage must have an id");
-					Assert.isTrue(response.name() != null, "ToolResponseMessage must have a name");
-				});
-
-				return toolMessage.getResponses()
-					.stream()
-					.map(tr -> new ChatCompletionMessage(tr.responseData(), ChatCompletionMessage.Role.TOOL, tr.name(),
-							tr.id(), null, null, null, null, null, null))
-					.toList();
-			}
-			else {
-				throw new IllegalArgumentException("Unsupported message type: " + message.getMessageType());
-			}
-		}).flatMap(List::stream).toList();
+	/**
+	 * Creates the request, reusing the converted form of the messages already sent in
+	 * an earlier round of the same conversation. Tool calling rounds resend the whole
+	 * conversation history with the same message instances, so only the newly appended
+	 * messages are converted. Accessible for testing.
+	 */
+	ChatCompletionRequest createRequest(Prompt prompt, boolean stream,
+			Map<Message, List<ChatCompletionMessage>> conversionCache) {
 
 		DashScopeChatOptions requestOptions = (DashScopeChatOptions) prompt.getOptions();
 
+		List<ChatCompletionMessage> chatCompletionMessages = prompt.getInstructions()
+			.stream()
+			.map(message -> conversionCache.computeIfAbsent(message,
+					m -> convertMessage(m, requestOptions.getModel())))
+			.flatMap(List::stream)
+			.toList();
+
 		// Add the tool definitions to the request's tools parameter.
 		List<ToolDefinition> toolDefinitions = this.toolCallingManager.resolveToolDefinitions(requestOptions);
 		if (!CollectionUtils.isEmpty(toolDefinitions)) {
@@ -545,17 +564,118 @@ public class DashScopeChatModel implements ChatModel {
 				toDashScopeRequestParameter(requestOptions, stream), stream, multiModel);
 	}
 
+	/**
+	 * Messages are keyed by identity, as equal messages at different positions of a
+	 * conversation are distinct entries.
+	 */
+	private static Map<Message, List<ChatCompletionMessage>> newConversionCache() {
+		return Collections.synchronizedMap(new IdentityHashMap<>());
+	}
+
+	private List<ChatCompletionMessage> convertMessage(Message message, String model) {
+		if (message.getMessageType() == MessageType.USER || message.getMessageType() == MessageType.SYSTEM) {
+			Object content = message.getText();
+			if (message instanceof UserMessage userMessage) {
+				if (!CollectionUtils.isEmpty(userMessage.getMedia())) {
+					content = convertMediaContent(userMessage, model);
+				}
+			}
+
+			return List.of(new ChatCompletionMessage(content,
+					ChatCompletionMessage.Role.valueOf(message.getMessageType().name())));
+		}
+		else if (message.getMessageType() == MessageType.ASSISTANT) {
+			var assistantMessage = (AssistantMessage) message;
+			List<ToolCall> toolCalls = null;
+			if (!CollectionUtils.isEmpty(assistantMessage.getToolCalls())) {
+				toolCalls = assistantMessage.getToolCalls().stream().map(toolCall -> {
+					var function = new ChatCompletionFunction(toolCall.name(), toolCall.arguments());
+                    // todo: set index null.
+					return new ToolCall(toolCall.id(), toolCall.type(), function, null);
+				}).toList();
+			}
+
+			Boolean partial = null;
+			if (assistantMessage.getMetadata() != null) {
+				Object partialValue = assistantMessage.getMetadata().get("partial");
+				if (partialValue instanceof Boolean) {
+					partial = (Boolean) partialValue;
+				}
+				else if (partialValue instanceof String) {
+					partial = Boolean.parseBoolean((String) partialValue);
+				}
+			}
+
+			return List.of(new DashScopeApiSpec.ChatCompletionMessage(assistantMessage.getText(),
+					ChatCompletionMessage.Role.ASSISTANT, null, null, toolCalls, null, partial, null, null, null));
+		}
+		else if (message.getMessageType() == MessageType.TOOL) {
+			ToolResponseMessage toolMessage = (ToolResponseMessage) message;
+
+			toolMessage.getResponses().forEach(response -> {
+				Assert.isTrue(response.id() != null, "ToolResponseMessage must have an id");
+				Assert.isTrue(response.name() != null, "ToolResponseMessage must have a name");
+			});
+
+			return toolMessage.getResponses()
+				.stream()
+				.map(tr -> new ChatCompletionMessage(tr.responseData(), ChatCompletionMessage.Role.TOOL, tr.name(),
+						tr.id(), null, null, null, null, null, null))
+				.toList();
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported message type: " + message.getMessageType());
+		}
+	}
+
 	private MultiValueMap<String, String> getAdditionalHttpHeaders(Prompt prompt) {
 
 		Map<String, String> headers = new HashMap<>(this.defaultOptions.getHttpHeaders());
 		if (prompt.getOptions() != null && prompt.getOptions() instanceof DashScopeChatOptions chatOptions) {
 			headers.putAll(chatOptions.getHttpHeaders());
 		}
+		if (hasUploadedMedia(prompt)) {
+			headers.putIfAbsent(DashScopeApiConstants.HEADER_OSS_RESOURCE_RESOLVE, DashScopeApiConstants.ENABLED);
+		}
 		return CollectionUtils.toMultiValueMap(
 				headers.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> List.of(e.getValue()))));
 	}
 
-	private List<MediaContent> convertMediaContent(UserMessage message) {
+	/**
+	 * Whether the prompt references media in the DashScope temporary storage, either
+	 * given by the caller or uploaded because it exceeds the
+	 * {@link #setMediaUploadThreshold upload threshold}.
+	 */
+	private boolean hasUploadedMedia(Prompt prompt) {
+		for (UserMessage message : prompt.getUserMessages()) {
+			for (Media media : message.getMedia()) {
+				if (media.getData() instanceof String text && text.startsWith(OSS_URL_PREFIX)) {
+					return true;
+				}
+			}
+		}
+		return hasMediaToUpload(prompt);
+	}
+
+	/**
+	 * Whether building the request for the prompt uploads media, which blocks.
+	 */
+	private boolean hasMediaToUpload(Prompt prompt) {
+		for (UserMessage message : prompt.getUserMessages()) {
+			for (Media media : message.getMedia()) {
+				if (media.getData() instanceof byte[] bytes && shouldUpload(bytes)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean shouldUpload(byte[] bytes) {
+		return this.mediaUploadThreshold > 0 && bytes.length > this.mediaUploadThreshold;
+	}
+
+	private List<MediaContent> convertMediaContent(UserMessage message, String model) {
 		MessageFormat format = MessageFormat.IMAGE;
 		if (message.getMetadata().get(DashScopeApiConstants.MESSAGE_FORMAT) instanceof MessageFormat messageFormat) {
 			format = messageFormat;
@@ -565,7 +685,7 @@ public class DashScopeChatModel implements ChatModel {
 		if (format == MessageFormat.VIDEO) {
 			List<String> mediaList = message.getMedia()
 				.stream()
-				.map(media -> this.fromMediaData(media.getMimeType(), media.getData()))
+				.map(media -> this.fromMediaData(media.getMimeType(), media.getData(), model))
 				.toList();
 
 			contentList.add(new MediaContent("video", null, null, mediaList));
@@ -577,7 +697,7 @@ public class DashScopeChatModel implements ChatModel {
 			contentList.addAll(message.getMedia()
 				.stream()
 				.map(media -> new MediaContent("audio", null, null, null,
-						this.fromMediaData(media.getMimeType(), media.getData())))
+						this.fromMediaData(media.getMimeType(), media.getData(), model)))
 				.toList());
 
 			MediaContent mediaContent = new MediaContent(message.getText());
@@ -586,7 +706,7 @@ public class DashScopeChatModel implements ChatModel {
 		else {
 			contentList.addAll(message.getMedia()
 				.stream()
-				.map(media -> new MediaContent("image", null, this.fromMediaData(media.getMimeType(), media.getData()),
+				.map(media -> new MediaContent("image", null, this.fromMediaData(media.getMimeType(), media.getData(), model),
 						null))
 				.toList());
 
@@ -597,11 +717,17 @@ public class DashScopeChatModel implements ChatModel {
 		return contentList;
 	}
 
-	private String fromMediaData(MimeType mimeType, Object mediaContentData) {
+	private String fromMediaData(MimeType mimeType, Object mediaContentData, String model) {
 		if (mediaContentData instanceof byte[] bytes) {
+			if (shouldUpload(bytes)) {
+				// the upload policy, and so the reference, belongs to the model
+				return this.mediaDataCache.get(bytes, mimeType, model, UPLOADED_MEDIA_TTL_MILLIS,
+						() -> this.dashscopeApi.uploadMedia(model, bytes,
+								UUID.randomUUID() + "." + fileExtension(mimeType)));
+			}
 			// Assume the bytes are an image. So, convert the bytes to a base64 encoded
 			// following the prefix pattern.
-			return String.format("data:%s;base64,%s", mimeType.toString(), Base64.getEncoder().encodeToString(bytes));
+			return this.mediaDataCache.get(bytes, mimeType, null, -1, () -> toDataUri(mimeType, bytes));
 		}
 		else if (mediaContentData instanceof String text) {
 			// Assume the text is a URLs or a base64 encoded image prefixed by the user.
@@ -613,12 +739,47 @@ public class DashScopeChatModel implements ChatModel {
 		}
 	}
 
+	/**
+	 * Returns the file name extension of an uploaded media type, such as {@code svg} for
+	 * {@code image/svg+xml} and {@code wav} for {@code audio/x-wav}, or {@code bin} when
+	 * the subtype is a wildcard or no usable file name part. Accessible for testing.
+	 */
+	static String fileExtension(MimeType mimeType) {
+		String subtype = mimeType.getSubtype().toLowerCase(Locale.ROOT);
+		int suffix = subtype.indexOf('+');
+		if (suffix > 0) {
+			subtype = subtype.substring(0, suffix);
+		}
+		if (subtype.startsWith("x-")) {
+			subtype = subtype.substring(2);
+		}
+		return (mimeType.isWildcardSubtype() || !subtype.matches("[a-z0-9]+")) ? "bin" : subtype;
+	}
+
+	/**
+	 * Encodes the bytes as a base64 data URI with the intrinsified JDK encoder. The
+	 * encoded bytes are copied once behind the prefix, and the Latin-1 string is built
+	 * from them without decoding. Accessible for testing.
+	 */
+	static String toDataUri(MimeType mimeType, byte[] bytes) {
+		byte[] prefix = ("data:" + mimeType + ";base64,").getBytes(StandardCharsets.ISO_8859_1);
+		byte[] encoded = Base64.getEncoder().encode(bytes);
+		byte[] dataUri = Arrays.copyOf(prefix, prefix.length + encoded.length);
+		System.arraycopy(encoded, 0, dataUri, prefix.length, encoded.length);
+		return new String(dataUri, StandardCharsets.ISO_8859_1);
+	}
+
 	private List<FunctionTool> getFunctionTools(List<ToolDefinition> toolDefinitions) {
-		return toolDefinitions.stream().map(toolDefinition -> {
-			var function = new FunctionTool.Function(toolDefinition.description(), toolDefinition.name(),
-					toolDefinition.inputSchema());
-			return new FunctionTool(function);
-		}).toList();
+		List<FunctionTool> functionTools = this.functionToolCache.get(toolDefinitions);
+		if (functionTools == null) {
+			functionTools = toolDefinitions.stream().map(toolDefinition -> {
+				var function = new FunctionTool.Function(toolDefinition.description(), toolDefinition.name(),
+						toolDefinition.inputSchema());
+				return new FunctionTool(function);
+			}).toList();
+			this.functionToolCache.put(List.copyOf(toolDefinitions), functionTools);
+		}
+		return functionTools;
 	}
 
 	private ChatCompletionRequestParameter toDashScopeRequestParameter(DashScopeChatOptions options, boolean stream) {
@@ -712,6 +873,17 @@ public class DashScopeChatModel implements ChatModel {
 		this.observationConvention = observationConvention;
 	}
 
+	/**
+	 * Uploads {@code byte[]} media larger than the given size to the DashScope temporary
+	 * storage and sends the returned {@code oss://} reference instead of an inline data
+	 * URI. The upload result is cached for as long as the same array is reused.
+	 * @param mediaUploadThreshold the size in bytes, 0 to always inline media
+	 */
+	public void setMediaUploadThreshold(int mediaUploadThreshold) {
+		Assert.isTrue(mediaUploadThreshold >= 0, "mediaUploadThreshold must not be negative");
+		this.mediaUploadThreshold = mediaUploadThreshold;
+	}
+
 	/**
 	 * Returns a builder pre-populated with the current configuration for mutation.
 	 */
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.chat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+import org.springframework.util.MimeType;
+
+/**
+ * Caches the encoded form of {@code byte[]} media by array identity, so that media
+ * attached to a conversation is only base64 encoded (or uploaded) once while the caller
+ * keeps the array alive. Entries are weakly referenced and disappear together with the
+ * media data.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+final class MediaDataCache {
+
+	private static final long NO_EXPIRY = -1L;
+
+	/**
+	 * Arrays use identity for {@code equals} and {@code hashCode}, which is what makes
+	 * the {@link WeakHashMap} an identity map here. The values of one array are keyed by
+	 * media type and scope.
+	 */
+	private final Map<byte[], Map<String, Entry>> entries = Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * Returns the cached value for the given media data, computing it when missing or
+	 * expired. Concurrent callers asking for the same value wait for a single
+	 * computation instead of repeating it.
+	 * @param data the media data
+	 * @param mimeType the media type the value is computed for
+	 * @param scope what else the value depends on, such as the model an upload is
+	 * bound to, or {@code null}
+	 * @param ttlMillis the time to live of a computed value, or a negative value for no
+	 * expiry
+	 * @param loader computes the value
+	 * @return the cached or computed value
+	 */
+	String get(byte[] data, MimeType mimeType, String scope, long ttlMillis, Supplier<String> loader) {
+		String key = (scope != null) ? mimeType + "|" + scope : mimeType.toString();
+		Entry entry;
+		synchronized (this.entries) {
+			entry = this.entries.computeIfAbsent(data, d -> new HashMap<>()).computeIfAbsent(key, k -> new Entry());
+		}
+		return entry.get(ttlMillis, loader);
+	}
+
+	int size() {
+		return this.entries.size();
+	}
+
+	private static final class Entry {
+
+		private String value;
+
+		private long expiresAt;
+
+		synchronized String get(long ttlMillis, Supplier<String> loader) {
+			long now = System.currentTimeMillis();
+			if (this.value == null || (this.expiresAt != NO_EXPIRY && now >= this.expiresAt)) {
+				this.value = loader.get();
+				this.expiresAt = (ttlMillis < 0) ? NO_EXPIRY : now + ttlMillis;
+			}
+			return this.value;
+		}
+
+	}
+
+}
@@ -38,6 +38,8 @@ public final class DashScopeApiConstants {
 
 	public static final String HEADER_X_ACCEL_BUFFERING = "X-Accel-Buffering";
 
+	public static final String HEADER_OSS_RESOURCE_RESOLVE = "X-DashScope-OssResourceResolve";
+
 	public static final String ENABLED = "enable";
 
 	public static final String SOURCE_FLAG = "CloudSDK";
@@ -90,6 +92,8 @@ public final class DashScopeApiConstants {
 
 	public static final String RETRIEVE_PIPELINE_RESTFUL_URL = "/api/v1/indices/pipeline/{pipeline_id}/retrieve";
 
+	public static final String UPLOAD_POLICY_RESTFUL_URL = "/api/v1/uploads?action=getPolicy&model={model}";
+
 	public static final String DEFAULT_WEBSOCKET_URL = "wss://dashscope.aliyuncs.com/api-ws/v1/inference";
 
 	public static final Integer DEFAULT_READ_TIMEOUT = 60;
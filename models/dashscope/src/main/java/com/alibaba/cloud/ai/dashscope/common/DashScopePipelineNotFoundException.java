@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.common;
+
+/**
+ * Thrown when DashScope answers a request for a retrieval pipeline with
+ * {@code 404 Not Found}, for example because the index was rebuilt under a new pipeline
+ * id.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class DashScopePipelineNotFoundException extends DashScopeException {
+
+	private final String pipelineId;
+
+	public DashScopePipelineNotFoundException(String pipelineId) {
+		super("Pipeline " + pipelineId + " not found");
+		this.pipelineId = pipelineId;
+	}
+
+	public String getPipelineId() {
+		return this.pipelineId;
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Sends the sub-batches of one embedding or rerank call, which the DashScope API only
+ * accepts up to a maximum size per request.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public final class DashScopeSubBatches {
+
+	private DashScopeSubBatches() {
+	}
+
+	/**
+	 * Sends the requests on up to {@code maxConcurrency} threads of the scheduler, or one
+	 * after another on the calling thread when there is a single request or
+	 * {@code maxConcurrency} is 1, and returns the responses in request order.
+	 * @param requests the sub-batch requests
+	 * @param send sends one request, may return {@code null} for an empty response body
+	 * @param maxConcurrency the maximum number of requests sent at the same time
+	 * @param scheduler the scheduler the concurrent requests run on
+	 * @return the responses in request order, {@code null} where the body was empty
+	 */
+	public static <T, R> List<R> send(List<T> requests, Function<T, R> send, int maxConcurrency,
+			Scheduler scheduler) {
+		Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be greater than 0");
+		if (requests.size() == 1 || maxConcurrency == 1) {
+			List<R> responses = new ArrayList<>(requests.size());
+			for (T request : requests) {
+				responses.add(send.apply(request));
+			}
+			return responses;
+		}
+
+		// flatMapSequential keeps the sub-batch order while running up to maxConcurrency
+		// requests at a time; Optional carries the null body of a failed sub-batch
+		return Flux.fromIterable(requests)
+			.flatMapSequential(request -> Mono.fromCallable(() -> Optional.ofNullable(send.apply(request)))
+				.subscribeOn(scheduler), maxConcurrency)
+			.collectList()
+			.blockOptional()
+			.orElse(List.of())
+			.stream()
+			.map(response -> response.orElse(null))
+			.collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Polls DashScope asynchronous tasks (image, video and file transcription) until they
+ * reach a terminal status.
+ * <p>
+ * Status checks are scheduled as timers on a small {@link Scheduler} with jittered
+ * exponential backoff, so no thread is held while a task is waiting; only the status
+ * query itself occupies a thread. Concurrent polls for the same task id share one
+ * polling loop, which stops as soon as the last of them cancels. The first status check
+ * is issued immediately.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class DashScopeTaskPoller {
+
+	private static final Logger logger = LoggerFactory.getLogger(DashScopeTaskPoller.class);
+
+	public static final Duration DEFAULT_INITIAL_INTERVAL = Duration.ofSeconds(2);
+
+	public static final double DEFAULT_MULTIPLIER = 2.0;
+
+	public static final Duration DEFAULT_MAX_INTERVAL = Duration.ofSeconds(30);
+
+	public static final double DEFAULT_JITTER = 0.25;
+
+	public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(15);
+
+	public static final int DEFAULT_TIMER_THREADS = 2;
+
+	private final Duration initialInterval;
+
+	private final double multiplier;
+
+	private final Duration maxInterval;
+
+	private final double jitter;
+
+	private final Duration timeout;
+
+	private final Scheduler timer;
+
+	private final Predicate<Throwable> retryableError;
+
+	private final Map<String, Mono<? extends TaskResult<?>>> inFlight = new ConcurrentHashMap<>();
+
+	private DashScopeTaskPoller(Builder builder) {
+		this.initialInterval = builder.initialInterval;
+		this.multiplier = builder.multiplier;
+		this.maxInterval = builder.maxInterval;
+		this.jitter = builder.jitter;
+		this.timeout = builder.timeout;
+		this.timer = (builder.timer != null) ? builder.timer : DefaultTimer.INSTANCE;
+		this.retryableError = builder.retryableError;
+	}
+
+	/**
+	 * Return the poller shared by all models that were not configured with their own.
+	 * @return the shared poller
+	 */
+	public static DashScopeTaskPoller shared() {
+		return SharedPoller.INSTANCE;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Poll a task until {@code completed} accepts its status response or the timeout
+	 * elapses.
+	 * <p>
+	 * An empty query result, or an error accepted by the retryable error predicate, is
+	 * treated as "still pending". Any other error terminates the returned {@link Mono}.
+	 * If a poll for the same task id is already in progress, its result is shared. The
+	 * status queries stop once every subscriber of the task has cancelled.
+	 * @param taskId the DashScope task id
+	 * @param query issues one status query
+	 * @param completed whether a status response is terminal
+	 * @param <T> the status response type
+	 * @return the terminal, or timed-out, task result
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Mono<TaskResult<T>> poll(String taskId, Supplier<? extends Mono<T>> query,
+			Predicate<? super T> completed) {
+
+		Assert.hasText(taskId, "taskId must not be empty");
+		Assert.notNull(query, "query must not be null");
+		Assert.notNull(completed, "completed must not be null");
+
+		return Mono.defer(() -> (Mono<TaskResult<T>>) this.inFlight.computeIfAbsent(taskId, id -> {
+			AtomicReference<Mono<TaskResult<T>>> self = new AtomicReference<>();
+			// the eager cleanup leaves the map before the result is delivered, or once the
+			// last subscriber cancels, and only removes this loop
+			Mono<TaskResult<T>> shared = Mono
+				.using(() -> id, key -> doPoll(key, query, completed), key -> this.inFlight.remove(key, self.get()),
+						true)
+				.flux()
+				.publish()
+				.refCount(1)
+				.singleOrEmpty();
+			self.set(shared);
+			return shared;
+		}));
+	}
+
+	/**
+	 * Return the number of tasks that are currently being polled.
+	 * @return the number of in-flight tasks
+	 */
+	public int getInFlightCount() {
+		return this.inFlight.size();
+	}
+
+	private <T> Mono<TaskResult<T>> doPoll(String taskId, Supplier<? extends Mono<T>> query,
+			Predicate<? super T> completed) {
+
+		return Mono.defer(() -> {
+			long deadline = this.timer.now(TimeUnit.MILLISECONDS) + this.timeout.toMillis();
+			AtomicInteger attempts = new AtomicInteger();
+			AtomicReference<T> last = new AtomicReference<>();
+
+			return Mono.defer(() -> {
+				attempts.incrementAndGet();
+				return query.get();
+			})
+				.onErrorResume(this.retryableError, ex -> {
+					logger.debug("Status query for task {} failed, retrying: {}", taskId, ex.getMessage());
+					return Mono.empty();
+				})
+				.doOnNext(last::set)
+				.filter(completed)
+				.repeatWhenEmpty(repeats -> repeats.map(repeat -> {
+					long remaining = deadline - this.timer.now(TimeUnit.MILLISECONDS);
+					return (remaining > 0) ? Math.min(nextDelay(repeat.intValue()), remaining) : 0L;
+				}).takeWhile(delay -> delay > 0).concatMap(delay -> Mono.delay(Duration.ofMillis(delay), this.timer)))
+				.map(response -> new TaskResult<T>(taskId, response, attempts.get(), false))
+				.switchIfEmpty(Mono.fromSupplier(() -> {
+					logger.warn("Task {} did not complete within {}", taskId, this.timeout);
+					return new TaskResult<>(taskId, last.get(), attempts.get(), true);
+				}));
+		});
+	}
+
+	/**
+	 * Return the backoff in milliseconds before the status check that follows the
+	 * {@code repeat}-th (zero based) pending one.
+	 */
+	long nextDelay(int repeat) {
+		double interval = this.initialInterval.toMillis() * Math.pow(this.multiplier, repeat);
+		interval = Math.min(interval, this.maxInterval.toMillis());
+		if (this.jitter > 0) {
+			interval *= 1 + this.jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+		}
+		return Math.max(1, (long) interval);
+	}
+
+	/**
+	 * Outcome of polling a task.
+	 *
+	 * @param taskId the task id
+	 * @param response the last status response, {@code null} if none was received
+	 * @param attempts the number of status queries that were issued
+	 * @param timedOut whether the task did not reach a terminal status in time
+	 * @param <T> the status response type
+	 */
+	public record TaskResult<T>(String taskId, @Nullable T response, int attempts, boolean timedOut) {
+	}
+
+	private static final class DefaultTimer {
+
+		private static final Scheduler INSTANCE = Schedulers.newParallel("dashscope-task-poller",
+				DEFAULT_TIMER_THREADS, true);
+
+	}
+
+	private static final class SharedPoller {
+
+		private static final DashScopeTaskPoller INSTANCE = builder().build();
+
+	}
+
+	public static final class Builder {
+
+		private Duration initialInterval = DEFAULT_INITIAL_INTERVAL;
+
+		private double multiplier = DEFAULT_MULTIPLIER;
+
+		private Duration maxInterval = DEFAULT_MAX_INTERVAL;
+
+		private double jitter = DEFAULT_JITTER;
+
+		private Duration timeout = DEFAULT_TIMEOUT;
+
+		private Scheduler timer;
+
+		private Predicate<Throwable> retryableError = ex -> ex instanceof TransientAiException
+				|| ex instanceof ResourceAccessException;
+
+		private Builder() {
+		}
+
+		public Builder initialInterval(Duration initialInterval) {
+			this.initialInterval = initialInterval;
+			return this;
+		}
+
+		public Builder multiplier(double multiplier) {
+			this.multiplier = multiplier;
+			return this;
+		}
+
+		public Builder maxInterval(Duration maxInterval) {
+			this.maxInterval = maxInterval;
+			return this;
+		}
+
+		public Builder jitter(double jitter) {
+			this.jitter = jitter;
+			return this;
+		}
+
+		public Builder timeout(Duration timeout) {
+			this.timeout = timeout;
+			return this;
+		}
+
+		/**
+		 * Set the scheduler the backoff timers run on. Defaults to a daemon scheduler
+		 * with two threads shared by all pollers.
+		 */
+		public Builder timer(Scheduler timer) {
+			this.timer = timer;
+			return this;
+		}
+
+		/**
+		 * Set which status query errors are treated as "still pending" instead of
+		 * failing the poll.
+		 */
+		public Builder retryableError(Predicate<Throwable> retryableError) {
+			this.retryableError = retryableError;
+			return this;
+		}
+
+		public DashScopeTaskPoller build() {
+			Assert.isTrue(this.initialInterval != null && !this.initialInterval.isNegative(),
+					"initialInterval must not be negative");
+			Assert.isTrue(this.multiplier >= 1, "multiplier must be at least 1");
+			Assert.isTrue(this.maxInterval != null && this.maxInterval.compareTo(this.initialInterval) >= 0,
+					"maxInterval must not be less than initialInterval");
+			Assert.isTrue(this.jitter >= 0 && this.jitter < 1, "jitter must be in [0, 1)");
+			Assert.isTrue(this.timeout != null && !this.timeout.isNegative(), "timeout must not be negative");
+			Assert.notNull(this.retryableError, "retryableError must not be null");
+			return new DashScopeTaskPoller(this);
+		}
+
+	}
+
+}
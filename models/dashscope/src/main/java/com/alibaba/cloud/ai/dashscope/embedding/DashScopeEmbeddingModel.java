@@ -15,11 +15,19 @@
  */
 package com.alibaba.cloud.ai.dashscope.embedding;
 
+import com.alibaba.cloud.ai.cache.CacheSupport;
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
 import com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeSubBatches;
+import com.alibaba.cloud.ai.dashscope.embedding.cache.EmbeddingCache;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.micrometer.observation.ObservationRegistry;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -45,6 +53,8 @@ import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * DashScope Embedding Model implementation.
@@ -62,6 +72,10 @@ public class DashScopeEmbeddingModel extends AbstractEmbeddingModel {
 
 	private static final EmbeddingModelObservationConvention DEFAULT_OBSERVATION_CONVENTION = new DefaultEmbeddingModelObservationConvention();
 
+	private static final String CACHE_HITS_METRIC = "dashscope.embedding.cache.hits";
+
+	private static final String CACHE_MISSES_METRIC = "dashscope.embedding.cache.misses";
+
 	private final DashScopeEmbeddingOptions defaultOptions;
 
 	private final RetryTemplate retryTemplate;
@@ -80,6 +94,23 @@ public class DashScopeEmbeddingModel extends AbstractEmbeddingModel {
 	 */
 	private EmbeddingModelObservationConvention observationConvention = DEFAULT_OBSERVATION_CONVENTION;
 
+	/**
+	 * Optional cache of previously computed embeddings.
+	 */
+	private EmbeddingCache embeddingCache;
+
+	/**
+	 * Registry of the cache hit and miss counters.
+	 */
+	private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+	/**
+	 * Maximum number of sub-batches sent to DashScope at the same time.
+	 */
+	private int maxConcurrency = 1;
+
+	private Scheduler scheduler = Schedulers.boundedElastic();
+
 	public DashScopeEmbeddingModel(DashScopeApi dashScopeApi) {
 		this(dashScopeApi, MetadataMode.EMBED);
 	}
@@ -129,54 +160,156 @@ public class DashScopeEmbeddingModel extends AbstractEmbeddingModel {
 		// merging runtime and default options.
 		EmbeddingRequest embeddingRequest = buildEmbeddingRequest(request);
 
-        DashScopeApiSpec.EmbeddingRequest apiRequest = createRequest(embeddingRequest);
-
 		var observationContext = EmbeddingModelObservationContext.builder()
 			.embeddingRequest(embeddingRequest)
 			.provider(DashScopeApiConstants.PROVIDER_NAME)
 			.build();
 
 		return Objects.requireNonNull(EmbeddingModelObservationDocumentation.EMBEDDING_MODEL_OPERATION
-                .observation(this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
-                        this.observationRegistry)
-                .observe(() -> {
-                    DashScopeApiSpec.EmbeddingList apiEmbeddingResponse = this.retryTemplate.execute(ctx -> {
-                        try {
-                            return this.dashScopeApi.embeddings(apiRequest).getBody();
-                        } catch (Exception e) {
-                            logger.error("Error embedding request: {}", request.getInstructions(), e);
-                            throw e;
-                        }
-                    });
-
-                    if (apiEmbeddingResponse == null) {
-                        logger.warn("No embeddings returned for request: {}", request);
-                        return new EmbeddingResponse(List.of());
-                    }
-
-                    if (apiEmbeddingResponse.message() != null) {
-                        logger.error("Error message returned for request: {}", apiEmbeddingResponse.message());
-                        throw new RuntimeException("Embedding failed: error code:" + apiEmbeddingResponse.code()
-                                + ", message:" + apiEmbeddingResponse.message());
-                    }
-
-                    DashScopeApiSpec.EmbeddingUsage usage = apiEmbeddingResponse.usage();
-
-                    Usage embeddingUsage = usage != null ? this.getDefaultUsage(usage) : new EmptyUsage();
-
-                    var metadata = generateResponseMetadata(apiRequest.model(), embeddingUsage);
-                    List<Embedding> embeddings = apiEmbeddingResponse.output()
-                            .embeddings()
-                            .stream()
-                            .map(e -> new Embedding(e.embedding(), e.textIndex()))
-                            .toList();
-
-                    EmbeddingResponse embeddingResponse = new EmbeddingResponse(embeddings, metadata);
-
-                    observationContext.setResponse(embeddingResponse);
-
-                    return embeddingResponse;
-                }));
+			.observation(this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+					this.observationRegistry)
+			.observe(() -> {
+				EmbeddingResponse embeddingResponse = embed(embeddingRequest, request);
+
+				observationContext.setResponse(embeddingResponse);
+
+				return embeddingResponse;
+			}));
+	}
+
+	/**
+	 * Embeds the request instructions. Identical texts are only sent once, texts found in
+	 * the {@link EmbeddingCache} are not sent at all, and the remaining texts are split
+	 * into {@link DashScopeApi#MAX_EMBEDDING_TEXTS} sized sub-batches that run on up to
+	 * {@code maxConcurrency} threads. The results are returned in the order of the
+	 * request instructions.
+	 */
+	private EmbeddingResponse embed(EmbeddingRequest embeddingRequest, EmbeddingRequest request) {
+		DashScopeEmbeddingOptions options = (DashScopeEmbeddingOptions) embeddingRequest.getOptions();
+		List<String> texts = embeddingRequest.getInstructions();
+
+		List<String> keys = new ArrayList<>(texts.size());
+		for (String text : texts) {
+			keys.add(this.embeddingCache != null
+					? EmbeddingCache.key(options.getModel(), options.getDimensions(), options.getTextType(), text)
+					: text);
+		}
+
+		Map<String, float[]> vectors = new HashMap<>(
+				this.embeddingCache != null ? CacheSupport.getAll(this.embeddingCache, keys) : Map.of());
+		Map<String, String> missingTexts = new LinkedHashMap<>();
+		int hits = 0;
+		for (int i = 0; i < texts.size(); i++) {
+			if (vectors.containsKey(keys.get(i))) {
+				hits++;
+			}
+			else {
+				missingTexts.putIfAbsent(keys.get(i), texts.get(i));
+			}
+		}
+		if (this.embeddingCache != null) {
+			cacheCounter(CACHE_HITS_METRIC, options.getModel()).increment(hits);
+			cacheCounter(CACHE_MISSES_METRIC, options.getModel()).increment(texts.size() - hits);
+		}
+
+		Usage embeddingUsage = new EmptyUsage();
+		if (!missingTexts.isEmpty()) {
+			List<DashScopeApiSpec.EmbeddingList> apiEmbeddingResponses = embeddings(
+					new ArrayList<>(missingTexts.values()), options, request);
+
+			if (apiEmbeddingResponses.contains(null)) {
+				return new EmbeddingResponse(List.of());
+			}
+
+			List<String> missingKeys = new ArrayList<>(missingTexts.keySet());
+			Map<String, float[]> fetched = new HashMap<>();
+			long totalTokens = 0;
+			for (int batch = 0; batch < apiEmbeddingResponses.size(); batch++) {
+				DashScopeApiSpec.EmbeddingList apiEmbeddingResponse = apiEmbeddingResponses.get(batch);
+				int offset = batch * DashScopeApi.MAX_EMBEDDING_TEXTS;
+				for (DashScopeApiSpec.Embedding embedding : apiEmbeddingResponse.output().embeddings()) {
+					fetched.put(missingKeys.get(offset + embedding.textIndex()), embedding.embedding());
+				}
+				if (apiEmbeddingResponse.usage() != null && apiEmbeddingResponse.usage().totalTokens() != null) {
+					totalTokens += apiEmbeddingResponse.usage().totalTokens();
+				}
+			}
+			if (this.embeddingCache != null) {
+				CacheSupport.putAll(this.embeddingCache, fetched);
+			}
+			vectors.putAll(fetched);
+
+			if (apiEmbeddingResponses.size() == 1) {
+				embeddingUsage = getUsage(apiEmbeddingResponses.get(0));
+			}
+			else {
+				embeddingUsage = getDefaultUsage(new DashScopeApiSpec.EmbeddingUsage(totalTokens));
+			}
+		}
+
+		List<Embedding> embeddings = new ArrayList<>(texts.size());
+		for (int i = 0; i < texts.size(); i++) {
+			float[] vector = vectors.get(keys.get(i));
+			if (vector != null) {
+				embeddings.add(new Embedding(vector, i));
+			}
+		}
+
+		return new EmbeddingResponse(embeddings, generateResponseMetadata(options.getModel(), embeddingUsage));
+	}
+
+	/**
+	 * Sends the texts in sub-batches of at most {@link DashScopeApi#MAX_EMBEDDING_TEXTS},
+	 * each with its own retries, and returns the responses in sub-batch order.
+	 */
+	private List<DashScopeApiSpec.EmbeddingList> embeddings(List<String> texts, DashScopeEmbeddingOptions options,
+			EmbeddingRequest request) {
+		List<DashScopeApiSpec.EmbeddingRequest> apiRequests = new ArrayList<>();
+		for (int from = 0; from < texts.size(); from += DashScopeApi.MAX_EMBEDDING_TEXTS) {
+			List<String> batch = texts.subList(from, Math.min(from + DashScopeApi.MAX_EMBEDDING_TEXTS, texts.size()));
+			apiRequests.add(createRequest(new EmbeddingRequest(batch, options)));
+		}
+
+		return DashScopeSubBatches.send(apiRequests, apiRequest -> embeddings(apiRequest, request),
+				this.maxConcurrency, this.scheduler);
+	}
+
+	private DashScopeApiSpec.EmbeddingList embeddings(DashScopeApiSpec.EmbeddingRequest apiRequest,
+			EmbeddingRequest request) {
+		DashScopeApiSpec.EmbeddingList apiEmbeddingResponse = this.retryTemplate.execute(ctx -> {
+			try {
+				return this.dashScopeApi.embeddings(apiRequest).getBody();
+			}
+			catch (Exception e) {
+				logger.error("Error embedding request: {}", request.getInstructions(), e);
+				throw e;
+			}
+		});
+
+		if (apiEmbeddingResponse == null) {
+			logger.warn("No embeddings returned for request: {}", request);
+			return null;
+		}
+
+		if (apiEmbeddingResponse.message() != null) {
+			logger.error("Error message returned for request: {}", apiEmbeddingResponse.message());
+			throw new RuntimeException("Embedding failed: error code:" + apiEmbeddingResponse.code() + ", message:"
+					+ apiEmbeddingResponse.message());
+		}
+
+		return apiEmbeddingResponse;
+	}
+
+	private Counter cacheCounter(String name, String model) {
+		return Counter.builder(name)
+			.description("Texts looked up in the embedding cache")
+			.tag("model", model == null ? "unknown" : model)
+			.register(this.meterRegistry);
+	}
+
+	private Usage getUsage(DashScopeApiSpec.EmbeddingList apiEmbeddingResponse) {
+		DashScopeApiSpec.EmbeddingUsage usage = apiEmbeddingResponse.usage();
+		return usage != null ? this.getDefaultUsage(usage) : new EmptyUsage();
 	}
 
 	private DefaultUsage getDefaultUsage(DashScopeApiSpec.EmbeddingUsage usage) {
@@ -224,6 +357,14 @@ public class DashScopeEmbeddingModel extends AbstractEmbeddingModel {
 		return new EmbeddingResponseMetadata(model, usage, map);
 	}
 
+	/**
+	 * Returns the name of the model used by requests that do not set one.
+	 * @return the default model name
+	 */
+	public String getDefaultModel() {
+		return this.defaultOptions.getModel();
+	}
+
 	/**
 	 * Use the provided convention for reporting observation data
 	 * @param observationConvention The provided convention
@@ -233,6 +374,47 @@ public class DashScopeEmbeddingModel extends AbstractEmbeddingModel {
 		this.observationConvention = observationConvention;
 	}
 
+	/**
+	 * Set the maximum number of embeddings sub-batches sent to DashScope at the same
+	 * time. Defaults to {@code 1}, which sends the sub-batches one after another on the
+	 * calling thread.
+	 * @param maxConcurrency The maximum number of concurrent requests
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+		Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be greater than 0");
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Set the scheduler the concurrent sub-batches run on. Defaults to
+	 * {@link Schedulers#boundedElastic()}.
+	 * @param scheduler The scheduler
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Use the provided cache to look up embeddings before calling DashScope, or
+	 * {@code null} to disable caching.
+	 * @param embeddingCache The embedding cache
+	 */
+	public void setEmbeddingCache(EmbeddingCache embeddingCache) {
+		this.embeddingCache = embeddingCache;
+	}
+
+	/**
+	 * Set the registry of the {@code dashscope.embedding.cache.hits} and
+	 * {@code dashscope.embedding.cache.misses} counters, tagged by model. Defaults to
+	 * {@link Metrics#globalRegistry}.
+	 * @param meterRegistry The meter registry
+	 */
+	public void setMeterRegistry(MeterRegistry meterRegistry) {
+		Assert.notNull(meterRegistry, "meterRegistry cannot be null");
+		this.meterRegistry = meterRegistry;
+	}
+
 	/**
 	 * Embed the provided texts and return the embeddings.
 	 * @return The embeddings
@@ -248,15 +430,37 @@ public class DashScopeEmbeddingModel extends AbstractEmbeddingModel {
 	}
 
 	/**
-	 * Embed the provided documents and return the embeddings.
+	 * Embed the provided documents and return the embeddings. The batches of the
+	 * {@link BatchingStrategy} are embedded with a single {@link #call(EmbeddingRequest)}
+	 * so that their API sub-batches can run concurrently, see
+	 * {@link #setMaxConcurrency(int)}.
 	 * @return The embeddings
 	 */
 	@Override
 	public List<float[]> embed(List<Document> documents, EmbeddingOptions options, BatchingStrategy batchingStrategy) {
+		Assert.notNull(documents, "Documents must not be null");
 		if (options.getModel() == null && options.getDimensions() == null && defaultOptions != null) {
 			options = defaultOptions;
 		}
-		return super.embed(documents, options, batchingStrategy);
+
+		List<String> texts = new ArrayList<>(documents.size());
+		for (List<Document> batch : batchingStrategy.batch(documents)) {
+			for (Document document : batch) {
+				texts.add(document.getText());
+			}
+		}
+		if (texts.isEmpty()) {
+			return List.of();
+		}
+
+		List<float[]> embeddings = this.call(new EmbeddingRequest(texts, options))
+			.getResults()
+			.stream()
+			.map(Embedding::getOutput)
+			.toList();
+		Assert.isTrue(embeddings.size() == documents.size(),
+				"Embeddings must have the same number as that of the documents");
+		return embeddings;
 	}
 
 	/**
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.embedding.cache;
+
+import com.alibaba.cloud.ai.cache.BinaryKeyValueCache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Base class for {@link EmbeddingCache}s backed by a remote byte-oriented key-value
+ * store such as Redis. Subclasses only implement the raw multi-get / multi-set of the
+ * store (for example {@code MGET} and a pipelined {@code SET ... EX}); the embeddings are
+ * encoded as little-endian IEEE 754 floats and every key is prefixed with
+ * {@link #getKeyPrefix()}.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public abstract class BinaryEmbeddingCache extends BinaryKeyValueCache<float[]> implements EmbeddingCache {
+
+	public static final String DEFAULT_KEY_PREFIX = "spring-ai-alibaba:embedding:";
+
+	protected BinaryEmbeddingCache() {
+		this(DEFAULT_KEY_PREFIX);
+	}
+
+	protected BinaryEmbeddingCache(String keyPrefix) {
+		super(keyPrefix);
+	}
+
+	@Override
+	protected byte[] encodeValue(float[] embedding) {
+		return encode(embedding);
+	}
+
+	@Override
+	protected float[] decodeValue(byte[] bytes) {
+		return decode(bytes);
+	}
+
+	public static byte[] encode(float[] embedding) {
+		ByteBuffer buffer = ByteBuffer.allocate(embedding.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.asFloatBuffer().put(embedding);
+		return buffer.array();
+	}
+
+	public static float[] decode(byte[] bytes) {
+		if (bytes == null) {
+			return null;
+		}
+		float[] embedding = new float[bytes.length / Float.BYTES];
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(embedding);
+		return embedding;
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.embedding.cache;
+
+import com.alibaba.cloud.ai.cache.CacheSupport;
+import com.alibaba.cloud.ai.cache.KeyValueCache;
+
+/**
+ * Cache of computed embeddings, addressed by the content of the embedded text.
+ *
+ * <p>Keys are produced by {@link #key(String, Integer, String, String)} and already
+ * include the model, dimensions and text type, so one cache instance can be shared
+ * between embedding models. Implementations must be thread-safe. Remote stores such as
+ * Redis should override {@link #getAll(java.util.Collection)} and
+ * {@link #putAll(java.util.Map)} to use a single round-trip, see
+ * {@link BinaryEmbeddingCache}.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public interface EmbeddingCache extends KeyValueCache<float[]> {
+
+	/**
+	 * Creates the content-addressed key of an embedding: the SHA-256 of the model,
+	 * dimensions, text type and text.
+	 * @param model the embedding model name
+	 * @param dimensions the requested dimensions, may be {@code null}
+	 * @param textType the text type, may be {@code null}
+	 * @param text the embedded text
+	 * @return the hex encoded key
+	 */
+	static String key(String model, Integer dimensions, String textType, String text) {
+		return CacheSupport.key(model, dimensions == null ? null : dimensions.toString(), textType, text);
+	}
+
+}
@@ -17,6 +17,7 @@ package com.alibaba.cloud.ai.dashscope.image;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeImageApi;
 import com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeTaskPoller;
 import com.alibaba.cloud.ai.dashscope.image.observation.DashScopeImageModelObservationConvention;
 import com.alibaba.cloud.ai.dashscope.image.observation.DashScopeImagePromptContentObservationHandler;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
@@ -41,11 +42,12 @@ import org.springframework.ai.image.observation.ImageModelObservationConvention;
 import org.springframework.ai.image.observation.ImageModelObservationDocumentation;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
-import org.springframework.ai.retry.TransientAiException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * @author nuocheng.lxm
@@ -72,6 +74,9 @@ public class DashScopeImageModel implements ImageModel {
   /** Observation registry used for instrumentation. */
   private final ObservationRegistry observationRegistry;
 
+  /** Schedules the status checks of submitted image generation tasks. */
+  private DashScopeTaskPoller taskPoller = DashScopeTaskPoller.shared();
+
   /** Conventions to use for generating observations. */
   private ImageModelObservationConvention observationConvention =
       new DefaultImageModelObservationConvention();
@@ -158,31 +163,58 @@ public class DashScopeImageModel implements ImageModel {
     return Objects.requireNonNull(
         observation.observe(
             () ->
-                retryTemplate.execute(
-                    ctx -> {
-                      observation.lowCardinalityKeyValue(
-                          "retry.attempt", String.valueOf(ctx.getRetryCount()));
-
-                      DashScopeApiSpec.DashScopeImageAsyncResponse resp = getImageGenTask(taskId);
-                      if (resp != null) {
-                        String status = resp.output().taskStatus();
-                        observation.lowCardinalityKeyValue("task.status", status);
-
-                        switch (status) {
-                          case "SUCCEEDED" -> {
-                            return toImageResponse(resp);
+                pollTask(taskId)
+                    .map(
+                        result -> {
+                          observation.lowCardinalityKeyValue(
+                              "retry.attempt", String.valueOf(result.attempts() - 1));
+                          if (result.response() != null) {
+                            observation.lowCardinalityKeyValue(
+                                "task.status", result.response().output().taskStatus());
                           }
-                          case "FAILED", "UNKNOWN" -> {
-                            return new ImageResponse(List.of(), toMetadata(resp));
+                          if (result.timedOut()) {
+                            observation.lowCardinalityKeyValue("timeout", "true");
                           }
-                        }
-                      }
-                      throw new TransientAiException("Image generation still pending");
-                    },
-                    context -> {
-                      observation.lowCardinalityKeyValue("timeout", "true");
-                      return new ImageResponse(List.of(), toMetadataTimeout(taskId));
-                    })));
+                          return toImageResponse(result);
+                        })
+                    .block()));
+  }
+
+  /**
+   * Wait for a submitted image generation task without blocking the calling thread.
+   *
+   * @param taskId the id returned by {@link #submitImageGenTask(ImagePrompt)}
+   * @return the image response once the task reached a terminal status or timed out
+   */
+  public Mono<ImageResponse> pollImageGenTask(String taskId) {
+    return pollTask(taskId).map(this::toImageResponse);
+  }
+
+  private Mono<DashScopeTaskPoller.TaskResult<DashScopeApiSpec.DashScopeImageAsyncResponse>>
+      pollTask(String taskId) {
+    return this.taskPoller.poll(
+        taskId,
+        () ->
+            Mono.fromCallable(() -> this.retryTemplate.execute(ctx -> getImageGenTask(taskId)))
+                .subscribeOn(Schedulers.boundedElastic()),
+        DashScopeImageModel::isTerminal);
+  }
+
+  private static boolean isTerminal(DashScopeApiSpec.DashScopeImageAsyncResponse resp) {
+    String status = resp.output() != null ? resp.output().taskStatus() : null;
+    return "SUCCEEDED".equals(status) || "FAILED".equals(status) || "UNKNOWN".equals(status);
+  }
+
+  private ImageResponse toImageResponse(
+      DashScopeTaskPoller.TaskResult<DashScopeApiSpec.DashScopeImageAsyncResponse> result) {
+    if (result.timedOut()) {
+      return new ImageResponse(List.of(), toMetadataTimeout(result.taskId()));
+    }
+    DashScopeApiSpec.DashScopeImageAsyncResponse resp = result.response();
+    if ("SUCCEEDED".equals(resp.output().taskStatus())) {
+      return toImageResponse(resp);
+    }
+    return new ImageResponse(List.of(), toMetadata(resp));
   }
 
   public String submitImageGenTask(ImagePrompt request) {
@@ -326,6 +358,16 @@ public class DashScopeImageModel implements ImageModel {
     this.observationConvention = observationConvention;
   }
 
+  /**
+   * Use the provided poller to wait for submitted image generation tasks.
+   *
+   * @param taskPoller the task poller
+   */
+  public void setTaskPoller(DashScopeTaskPoller taskPoller) {
+    Assert.notNull(taskPoller, "taskPoller cannot be null");
+    this.taskPoller = taskPoller;
+  }
+
   public static final class Builder {
 
     private DashScopeImageApi dashScopeImageApi;
@@ -343,6 +385,8 @@ public class DashScopeImageModel implements ImageModel {
     private ObservationHandler<ImageModelObservationContext> promptHandler =
         new DashScopeImagePromptContentObservationHandler();
 
+    private DashScopeTaskPoller taskPoller = DashScopeTaskPoller.shared();
+
     private Builder() {}
 
     public DashScopeImageModel.Builder dashScopeApi(DashScopeImageApi dashScopeImageApi) {
@@ -375,12 +419,18 @@ public class DashScopeImageModel implements ImageModel {
       return this;
     }
 
+    public Builder taskPoller(DashScopeTaskPoller taskPoller) {
+      this.taskPoller = taskPoller;
+      return this;
+    }
+
     public DashScopeImageModel build() {
       DashScopeImageModel model =
           new DashScopeImageModel(
               dashScopeImageApi, defaultOptions, retryTemplate, observationRegistry);
 
       model.setObservationConvention(this.observationConvention);
+      model.setTaskPoller(this.taskPoller);
       this.observationRegistry.observationConfig().observationHandler(this.promptHandler);
       return model;
     }
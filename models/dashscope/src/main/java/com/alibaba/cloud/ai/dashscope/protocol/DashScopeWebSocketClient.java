@@ -37,14 +37,18 @@ import okio.ByteString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.util.JacksonUtils;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -54,6 +58,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class DashScopeWebSocketClient extends WebSocketListener {
 
+	/**
+	 * OkHttp clients shared by all web socket clients with the same connection settings,
+	 * so that connections reuse one dispatcher, connection pool and TLS session cache.
+	 */
+	private static final Map<HttpClientSettings, OkHttpClient> HTTP_CLIENTS = new ConcurrentHashMap<>();
+
 	private final Logger logger = LoggerFactory.getLogger(DashScopeWebSocketClient.class);
 
 	private final DashScopeWebSocketClientOptions options;
@@ -62,16 +72,25 @@ public class DashScopeWebSocketClient extends WebSocketListener {
 
 	private final ObjectMapper objectMapper;
 
+	private final OkHttpClient httpClient;
+
 	private WebSocket webSocketClient;
 
-	FluxSink<ByteBuffer> binaryEmitter;
+	private boolean connecting;
 
-	FluxSink<String> textEmitter;
+	Sinks.Many<ByteBuffer> binaryEmitter;
+
+	Sinks.Many<String> textEmitter;
 
 	public DashScopeWebSocketClient(DashScopeWebSocketClientOptions options) {
 		this.options = options;
 		this.isOpen = new AtomicBoolean(false);
-		this.objectMapper = JsonMapper.builder()
+		this.objectMapper = createObjectMapper();
+		this.httpClient = sharedHttpClient(options);
+	}
+
+	static ObjectMapper createObjectMapper() {
+		return JsonMapper.builder()
 			// Deserialization configuration
 			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
 			// Serialization configuration
@@ -83,30 +102,41 @@ public class DashScopeWebSocketClient extends WebSocketListener {
 			.build();
 	}
 
+	/**
+	 * Returns the {@link OkHttpClient} shared by all connections with the connection
+	 * settings of the given options.
+	 */
+	static OkHttpClient sharedHttpClient(DashScopeWebSocketClientOptions options) {
+		return HTTP_CLIENTS.computeIfAbsent(HttpClientSettings.of(options), DashScopeWebSocketClient::createHttpClient);
+	}
+
+	static Request buildConnectionRequest(DashScopeWebSocketClientOptions options) {
+		Builder bd = new Request.Builder();
+		bd.headers(Headers.of(ApiUtils.getMapContentHeaders(options.getApiKey(), false,
+			options.getWorkSpaceId(), null)));
+		return bd.url(options.getUrl()).build();
+	}
+
 	public Flux<ByteBuffer> streamBinaryOut(String text) {
-		Flux<ByteBuffer> flux = Flux.<ByteBuffer>create(emitter -> {
-			this.binaryEmitter = emitter;
-		}, FluxSink.OverflowStrategy.BUFFER);
+		Sinks.Many<ByteBuffer> sink = createSink();
+		this.binaryEmitter = sink;
 
 		sendText(text);
 
-		return flux;
+		return sink.asFlux();
 	}
 
 	public Flux<String> streamTextOut(Flux<ByteBuffer> binary) {
-		Flux<String> flux = Flux.<String>create(emitter -> {
-			this.textEmitter = emitter;
-		}, FluxSink.OverflowStrategy.BUFFER);
+		Sinks.Many<String> sink = createSink();
+		this.textEmitter = sink;
 
 		binary.subscribe(this::sendBinary);
 
-		return flux;
+		return sink.asFlux();
 	}
 
 	public void sendText(String text) {
-		if (!isOpen.get()) {
-			establishWebSocketClient();
-		}
+		establishWebSocketClientIfNecessary();
 
 		boolean success = webSocketClient.send(text);
 
@@ -116,9 +146,7 @@ public class DashScopeWebSocketClient extends WebSocketListener {
 	}
 
 	public void sendBinary(ByteBuffer binary) {
-		if (!isOpen.get()) {
-			establishWebSocketClient();
-		}
+		establishWebSocketClientIfNecessary();
 
 		if (binary == null) {
 			logger.error("binary data is null");
@@ -132,37 +160,50 @@ public class DashScopeWebSocketClient extends WebSocketListener {
 		}
 	}
 
-	private void establishWebSocketClient() {
-		HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-		logging.setLevel(HttpLoggingInterceptor.Level.valueOf(Constants.DEFAULT_HTTP_LOGGING_LEVEL));
-		Dispatcher dispatcher = new Dispatcher();
-		dispatcher.setMaxRequests(Constants.DEFAULT_MAXIMUM_ASYNC_REQUESTS);
-		dispatcher.setMaxRequestsPerHost(Constants.DEFAULT_MAXIMUM_ASYNC_REQUESTS_PER_HOST);
+	/**
+	 * Creates the receive buffer of a stream. It holds at most
+	 * {@link DashScopeWebSocketClientOptions#getMaxBufferedMessages()} messages; a
+	 * subscriber that falls further behind gets an overflow error instead of the buffer
+	 * growing without bounds.
+	 */
+	private <T> Sinks.Many<T> createSink() {
+		return createSink(options);
+	}
 
-		OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
-		clientBuilder.connectTimeout(Constants.DEFAULT_CONNECT_TIMEOUT)
-			.readTimeout(Constants.DEFAULT_READ_TIMEOUT)
-			.writeTimeout(Constants.DEFAULT_WRITE_TIMEOUT)
-			.addInterceptor(logging)
-			.dispatcher(dispatcher)
-			.protocols(Collections.singletonList(Protocol.HTTP_1_1))
-			.connectionPool(new ConnectionPool(Constants.DEFAULT_CONNECTION_POOL_SIZE,
-					Constants.DEFAULT_CONNECTION_IDLE_TIMEOUT.getSeconds(), TimeUnit.SECONDS));
-		OkHttpClient httpClient = clientBuilder.build();
+	static <T> Sinks.Many<T> createSink(DashScopeWebSocketClientOptions options) {
+		return Sinks.many().unicast().onBackpressureBuffer(Queues.<T>get(options.getMaxBufferedMessages()).get());
+	}
 
+	private synchronized void establishWebSocketClientIfNecessary() {
+		// messages sent while the handshake is in progress are queued by OkHttp
+		if (isOpen.get() || this.connecting) {
+			return;
+		}
 		try {
-			this.webSocketClient = httpClient.newWebSocket(buildConnectionRequest(), this);
+			this.webSocketClient = this.httpClient.newWebSocket(buildConnectionRequest(options), this);
+			this.connecting = true;
 		}
 		catch (Throwable ex) {
 			logger.error("create websocket failed: msg={}", ex.getMessage());
 		}
 	}
 
-	private Request buildConnectionRequest() {
-		Builder bd = new Request.Builder();
-		bd.headers(Headers.of(ApiUtils.getMapContentHeaders(options.getApiKey(), false,
-			options.getWorkSpaceId(), null)));
-		return bd.url(options.getUrl()).build();
+	private static OkHttpClient createHttpClient(HttpClientSettings settings) {
+		HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
+		logging.setLevel(HttpLoggingInterceptor.Level.valueOf(Constants.DEFAULT_HTTP_LOGGING_LEVEL));
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(settings.maxRequests());
+		dispatcher.setMaxRequestsPerHost(settings.maxRequestsPerHost());
+
+		return new OkHttpClient.Builder().connectTimeout(settings.connectTimeout())
+			.readTimeout(settings.readTimeout())
+			.writeTimeout(settings.writeTimeout())
+			.addInterceptor(logging)
+			.dispatcher(dispatcher)
+			.protocols(Collections.singletonList(Protocol.HTTP_1_1))
+			.connectionPool(new ConnectionPool(settings.maxIdleConnections(),
+					settings.connectionIdleTimeout().toMillis(), TimeUnit.MILLISECONDS))
+			.build();
 	}
 
 	private String getRequestBody(Response response) {
@@ -181,13 +222,13 @@ public class DashScopeWebSocketClient extends WebSocketListener {
 	@Override
 	public void onOpen(WebSocket webSocket, Response response) {
 		logger.info("receive ws event onOpen: handle={}, body={}", webSocket, getRequestBody(response));
-		isOpen.set(true);
+		markOpen(true);
 	}
 
 	@Override
 	public void onClosed(WebSocket webSocket, int code, String reason) {
 		logger.info("receive ws event onClosed: handle={}, code={}, reason={}", webSocket, code, reason);
-		isOpen.set(false);
+		markOpen(false);
 		emittersComplete("closed");
 	}
 
@@ -203,7 +244,7 @@ public class DashScopeWebSocketClient extends WebSocketListener {
 		String failureMessage = String.format("msg=%s, cause=%s, body=%s", t.getMessage(), t.getCause(),
 				getRequestBody(response));
 		logger.error("receive ws event onFailure: handle={}, {}", webSocket, failureMessage);
-		isOpen.set(false);
+		markOpen(false);
 		emittersError("failure", new Exception(failureMessage, t));
 	}
 
@@ -227,7 +268,7 @@ public class DashScopeWebSocketClient extends WebSocketListener {
 					break;
 				case RESULT_GENERATED:
 					if (this.textEmitter != null) {
-						textEmitter.next(text);
+						emitNext(this.textEmitter, text);
 					}
 					break;
 				default:
@@ -244,53 +285,79 @@ public class DashScopeWebSocketClient extends WebSocketListener {
 	public void onMessage(WebSocket webSocket, ByteString bytes) {
 		logger.debug("receive ws event onMessage(bytes): handle={}, size={}", webSocket, bytes.size());
 		if (this.binaryEmitter != null) {
-			binaryEmitter.next(bytes.asByteBuffer());
+			emitNext(this.binaryEmitter, bytes.asByteBuffer());
+		}
+	}
+
+	private synchronized void markOpen(boolean open) {
+		isOpen.set(open);
+		this.connecting = false;
+	}
+
+	private <T> void emitNext(Sinks.Many<T> emitter, T value) {
+		if (emitter.tryEmitNext(value) == Sinks.EmitResult.FAIL_OVERFLOW) {
+			logger.error("receive buffer overflow: more than {} messages not consumed",
+					options.getMaxBufferedMessages());
+			emitter.tryEmitError(Exceptions.failWithOverflow("DashScope web socket receive buffer is full"));
 		}
 	}
 
 	private void emittersComplete(String event) {
-		if (this.binaryEmitter != null && !this.binaryEmitter.isCancelled()) {
+		if (this.binaryEmitter != null && this.binaryEmitter.tryEmitComplete().isSuccess()) {
 			logger.info("binary emitter handling: complete on {}", event);
-			this.binaryEmitter.complete();
 		}
-		if (this.textEmitter != null && !this.textEmitter.isCancelled()) {
+		if (this.textEmitter != null && this.textEmitter.tryEmitComplete().isSuccess()) {
 			logger.info("text emitter handling: complete on {}", event);
-			this.textEmitter.complete();
-			logger.info("done");
 		}
 	}
 
 	private void emittersError(String event, Throwable t) {
-		if (this.binaryEmitter != null && !this.binaryEmitter.isCancelled()) {
+		if (this.binaryEmitter != null && this.binaryEmitter.tryEmitError(t).isSuccess()) {
 			logger.info("binary emitter handling: error on {}", event);
-			this.binaryEmitter.error(t);
 		}
-		if (this.textEmitter != null && !this.textEmitter.isCancelled()) {
+		if (this.textEmitter != null && this.textEmitter.tryEmitError(t).isSuccess()) {
 			logger.info("text emitter handling: error on {}", event);
-			this.textEmitter.error(t);
 		}
 	}
 
 	public static class Constants {
 
-		private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(120);
+		static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(120);
+
+		static final Duration DEFAULT_WRITE_TIMEOUT = Duration.ofSeconds(60);
 
-		private static final Duration DEFAULT_WRITE_TIMEOUT = Duration.ofSeconds(60);
+		static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(300);
 
-		private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(300);
+		static final Duration DEFAULT_CONNECTION_IDLE_TIMEOUT = Duration.ofSeconds(300);
 
-		private static final Duration DEFAULT_CONNECTION_IDLE_TIMEOUT = Duration.ofSeconds(300);
+		static final Integer DEFAULT_CONNECTION_POOL_SIZE = 32;
 
-		private static final Integer DEFAULT_CONNECTION_POOL_SIZE = 32;
+		static final Integer DEFAULT_MAXIMUM_ASYNC_REQUESTS = 32;
 
-		private static final Integer DEFAULT_MAXIMUM_ASYNC_REQUESTS = 32;
+		static final Integer DEFAULT_MAXIMUM_ASYNC_REQUESTS_PER_HOST = 32;
 
-		private static final Integer DEFAULT_MAXIMUM_ASYNC_REQUESTS_PER_HOST = 32;
+		static final Integer DEFAULT_MAX_BUFFERED_MESSAGES = 1024;
+
+		static final Integer DEFAULT_MAX_TASKS_PER_CONNECTION = 1;
 
 		private static final String DEFAULT_HTTP_LOGGING_LEVEL = "NONE";
 
 	}
 
+	/**
+	 * The options that determine the configuration of a shared {@link OkHttpClient}.
+	 */
+	private record HttpClientSettings(Duration connectTimeout, Duration readTimeout, Duration writeTimeout,
+			int maxRequests, int maxRequestsPerHost, int maxIdleConnections, Duration connectionIdleTimeout) {
+
+		static HttpClientSettings of(DashScopeWebSocketClientOptions options) {
+			return new HttpClientSettings(options.getConnectTimeout(), options.getReadTimeout(),
+					options.getWriteTimeout(), options.getMaxRequests(), options.getMaxRequestsPerHost(),
+					options.getMaxIdleConnections(), options.getConnectionIdleTimeout());
+		}
+
+	}
+
 	// @formatter:off
 	public enum EventType {
 
@@ -16,8 +16,14 @@
 package com.alibaba.cloud.ai.dashscope.protocol;
 
 import com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants;
+import com.alibaba.cloud.ai.dashscope.protocol.DashScopeWebSocketClient.Constants;
+import java.time.Duration;
 
 /**
+ * Options of a {@link DashScopeWebSocketClient}. The connection settings (timeouts,
+ * dispatcher limits and connection pool) select the shared {@code OkHttpClient} used by
+ * the client: all options with the same connection settings share one client.
+ *
  * @author kevinlin09
  */
 public class DashScopeWebSocketClientOptions {
@@ -28,6 +34,31 @@ public class DashScopeWebSocketClientOptions {
 
   private String workSpaceId = null;
 
+  private Duration connectTimeout = Constants.DEFAULT_CONNECT_TIMEOUT;
+
+  private Duration readTimeout = Constants.DEFAULT_READ_TIMEOUT;
+
+  private Duration writeTimeout = Constants.DEFAULT_WRITE_TIMEOUT;
+
+  /** Maximum number of concurrently open connections. */
+  private int maxRequests = Constants.DEFAULT_MAXIMUM_ASYNC_REQUESTS;
+
+  /** Maximum number of concurrently open connections to the same host. */
+  private int maxRequestsPerHost = Constants.DEFAULT_MAXIMUM_ASYNC_REQUESTS_PER_HOST;
+
+  private int maxIdleConnections = Constants.DEFAULT_CONNECTION_POOL_SIZE;
+
+  private Duration connectionIdleTimeout = Constants.DEFAULT_CONNECTION_IDLE_TIMEOUT;
+
+  /**
+   * Maximum number of tasks that run at the same time on one multiplexed connection. At
+   * most one of them has binary output, such as speech synthesis.
+   */
+  private int maxTasksPerConnection = Constants.DEFAULT_MAX_TASKS_PER_CONNECTION;
+
+  /** Maximum number of received messages buffered for a subscriber that is not keeping up. */
+  private int maxBufferedMessages = Constants.DEFAULT_MAX_BUFFERED_MESSAGES;
+
   public String getUrl() {
     return url;
   }
@@ -52,6 +83,78 @@ public class DashScopeWebSocketClientOptions {
     this.workSpaceId = workSpaceId;
   }
 
+  public Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public void setConnectTimeout(Duration connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  public Duration getReadTimeout() {
+    return readTimeout;
+  }
+
+  public void setReadTimeout(Duration readTimeout) {
+    this.readTimeout = readTimeout;
+  }
+
+  public Duration getWriteTimeout() {
+    return writeTimeout;
+  }
+
+  public void setWriteTimeout(Duration writeTimeout) {
+    this.writeTimeout = writeTimeout;
+  }
+
+  public int getMaxRequests() {
+    return maxRequests;
+  }
+
+  public void setMaxRequests(int maxRequests) {
+    this.maxRequests = maxRequests;
+  }
+
+  public int getMaxRequestsPerHost() {
+    return maxRequestsPerHost;
+  }
+
+  public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+    this.maxRequestsPerHost = maxRequestsPerHost;
+  }
+
+  public int getMaxIdleConnections() {
+    return maxIdleConnections;
+  }
+
+  public void setMaxIdleConnections(int maxIdleConnections) {
+    this.maxIdleConnections = maxIdleConnections;
+  }
+
+  public Duration getConnectionIdleTimeout() {
+    return connectionIdleTimeout;
+  }
+
+  public void setConnectionIdleTimeout(Duration connectionIdleTimeout) {
+    this.connectionIdleTimeout = connectionIdleTimeout;
+  }
+
+  public int getMaxTasksPerConnection() {
+    return maxTasksPerConnection;
+  }
+
+  public void setMaxTasksPerConnection(int maxTasksPerConnection) {
+    this.maxTasksPerConnection = maxTasksPerConnection;
+  }
+
+  public int getMaxBufferedMessages() {
+    return maxBufferedMessages;
+  }
+
+  public void setMaxBufferedMessages(int maxBufferedMessages) {
+    this.maxBufferedMessages = maxBufferedMessages;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -98,6 +201,51 @@ public class DashScopeWebSocketClientOptions {
       return workSpaceId(workSpaceId);
     }
 
+    public Builder connectTimeout(Duration connectTimeout) {
+      options.setConnectTimeout(connectTimeout);
+      return this;
+    }
+
+    public Builder readTimeout(Duration readTimeout) {
+      options.setReadTimeout(readTimeout);
+      return this;
+    }
+
+    public Builder writeTimeout(Duration writeTimeout) {
+      options.setWriteTimeout(writeTimeout);
+      return this;
+    }
+
+    public Builder maxRequests(int maxRequests) {
+      options.setMaxRequests(maxRequests);
+      return this;
+    }
+
+    public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+      options.setMaxRequestsPerHost(maxRequestsPerHost);
+      return this;
+    }
+
+    public Builder maxIdleConnections(int maxIdleConnections) {
+      options.setMaxIdleConnections(maxIdleConnections);
+      return this;
+    }
+
+    public Builder connectionIdleTimeout(Duration connectionIdleTimeout) {
+      options.setConnectionIdleTimeout(connectionIdleTimeout);
+      return this;
+    }
+
+    public Builder maxTasksPerConnection(int maxTasksPerConnection) {
+      options.setMaxTasksPerConnection(maxTasksPerConnection);
+      return this;
+    }
+
+    public Builder maxBufferedMessages(int maxBufferedMessages) {
+      options.setMaxBufferedMessages(maxBufferedMessages);
+      return this;
+    }
+
     public DashScopeWebSocketClientOptions build() {
       return options;
     }
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.protocol;
+
+import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
+import com.alibaba.cloud.ai.dashscope.protocol.DashScopeWebSocketClient.EventMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs DashScope duplex tasks over long-lived, shared web socket connections.
+ * <p>
+ * Every {@code run-task} is registered under its {@code task_id}, and the text events
+ * received on a connection are routed to the task they belong to, so a connection is
+ * reused by the following tasks instead of paying one handshake per task. Up to
+ * {@link DashScopeWebSocketClientOptions#getMaxTasksPerConnection()} tasks run on a
+ * connection at the same time; further tasks open another connection.
+ * <p>
+ * DashScope binary frames carry no {@code task_id}, so received binary frames are
+ * delivered to the one task of the connection that expects binary output. A connection
+ * never runs two such tasks at the same time, whatever the limit: a second one opens
+ * another connection. A connection whose task is cancelled or fails is closed rather
+ * than reused, because it may still carry frames of that task.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class DashScopeWebSocketSessionManager {
+
+	private static final Logger logger = LoggerFactory.getLogger(DashScopeWebSocketSessionManager.class);
+
+	/**
+	 * Size of the outgoing message queue of an OkHttp web socket.
+	 */
+	private static final long MAX_QUEUE_SIZE = 16 * 1024 * 1024;
+
+	private final DashScopeWebSocketClientOptions options;
+
+	private final OkHttpClient httpClient;
+
+	private final ObjectMapper objectMapper;
+
+	private final List<TaskConnection> connections = new ArrayList<>();
+
+	public DashScopeWebSocketSessionManager(DashScopeWebSocketClientOptions options) {
+		Assert.notNull(options, "options cannot be null");
+		Assert.isTrue(options.getMaxTasksPerConnection() > 0, "maxTasksPerConnection must be greater than 0");
+		this.options = options;
+		this.httpClient = DashScopeWebSocketClient.sharedHttpClient(options);
+		this.objectMapper = DashScopeWebSocketClient.createObjectMapper();
+	}
+
+	/**
+	 * Runs a task whose results are binary frames, such as speech synthesis.
+	 * @param taskId the task id of the run-task message
+	 * @param runTask the run-task message
+	 * @return the binary frames of the task, completing when the task finishes
+	 */
+	public Flux<ByteBuffer> streamBinaryOut(String taskId, String runTask) {
+		return Flux.defer(() -> {
+			TaskSession session = new TaskSession(taskId, DashScopeWebSocketClient.createSink(this.options), null);
+			TaskConnection connection = acquire(session);
+			connection.send(session, runTask);
+			return session.binary.asFlux().doFinally(signal -> release(connection, session, signal));
+		});
+	}
+
+	/**
+	 * Runs a task that streams binary frames up and text events down, such as real-time
+	 * transcription.
+	 * @param taskId the task id of the run-task message
+	 * @param runTask the run-task message
+	 * @param binary the binary frames to send after the run-task message
+	 * @param finishTask supplies the finish-task message, sent once {@code binary}
+	 * completes
+	 * @return the {@code result-generated} events of the task, completing when the task
+	 * finishes
+	 */
+	public Flux<String> streamTextOut(String taskId, String runTask, Flux<ByteBuffer> binary,
+			Supplier<String> finishTask) {
+		return Flux.defer(() -> {
+			TaskSession session = new TaskSession(taskId, null, DashScopeWebSocketClient.createSink(this.options));
+			TaskConnection connection = acquire(session);
+			connection.send(session, runTask);
+			Disposable upload = binary.subscribe(frame -> connection.send(session, frame),
+					ex -> session.error(new DashScopeException("read binary input failed", ex)),
+					() -> connection.send(session, finishTask.get()));
+			return session.text.asFlux().doFinally(signal -> {
+				upload.dispose();
+				release(connection, session, signal);
+			});
+		});
+	}
+
+	/**
+	 * Returns the number of open connections.
+	 * @return the number of connections
+	 */
+	public synchronized int getConnectionCount() {
+		return this.connections.size();
+	}
+
+	/**
+	 * Closes all connections. Running tasks fail.
+	 */
+	public void close() {
+		List<TaskConnection> open;
+		synchronized (this) {
+			open = new ArrayList<>(this.connections);
+			this.connections.clear();
+		}
+		for (TaskConnection connection : open) {
+			connection.close("session manager closed");
+		}
+	}
+
+	private synchronized TaskConnection acquire(TaskSession session) {
+		TaskConnection connection = null;
+		for (TaskConnection candidate : this.connections) {
+			if (candidate.accepts(session, this.options.getMaxTasksPerConnection())) {
+				connection = candidate;
+				break;
+			}
+		}
+		if (connection == null) {
+			connection = new TaskConnection();
+			this.connections.add(connection);
+			connection.webSocket = this.httpClient
+				.newWebSocket(DashScopeWebSocketClient.buildConnectionRequest(this.options), connection);
+		}
+		connection.register(session);
+		return connection;
+	}
+
+	private void release(TaskConnection connection, TaskSession session, SignalType signal) {
+		connection.unregister(session);
+		if (signal != SignalType.ON_COMPLETE) {
+			// the task may still be running on the server and send frames
+			connection.close("task " + session.taskId + " terminated with " + signal);
+		}
+	}
+
+	private synchronized void remove(TaskConnection connection) {
+		this.connections.remove(connection);
+	}
+
+	private static final class TaskSession {
+
+		private final String taskId;
+
+		private final Sinks.Many<ByteBuffer> binary;
+
+		private final Sinks.Many<String> text;
+
+		private TaskSession(String taskId, Sinks.Many<ByteBuffer> binary, Sinks.Many<String> text) {
+			Assert.hasText(taskId, "taskId cannot be empty");
+			this.taskId = taskId;
+			this.binary = binary;
+			this.text = text;
+		}
+
+		private <T> void next(Sinks.Many<T> sink, T value) {
+			if (sink != null && sink.tryEmitNext(value) == Sinks.EmitResult.FAIL_OVERFLOW) {
+				error(new DashScopeException("receive buffer of task " + this.taskId + " is full"));
+			}
+		}
+
+		private void complete() {
+			if (this.binary != null) {
+				this.binary.tryEmitComplete();
+			}
+			if (this.text != null) {
+				this.text.tryEmitComplete();
+			}
+		}
+
+		private void error(Throwable t) {
+			if (this.binary != null) {
+				this.binary.tryEmitError(t);
+			}
+			if (this.text != null) {
+				this.text.tryEmitError(t);
+			}
+		}
+
+	}
+
+	/**
+	 * One web socket connection and the tasks running on it, in registration order.
+	 */
+	private final class TaskConnection extends WebSocketListener {
+
+		private final Map<String, TaskSession> sessions = new LinkedHashMap<>();
+
+		private volatile WebSocket webSocket;
+
+		private volatile boolean reusable = true;
+
+		private int binaryTasks;
+
+		/**
+		 * Whether the task can run on this connection: a free slot, and no other task
+		 * with binary output if the task has binary output.
+		 */
+		private synchronized boolean accepts(TaskSession session, int maxTasks) {
+			return this.reusable && this.sessions.size() < maxTasks
+					&& (session.binary == null || this.binaryTasks == 0);
+		}
+
+		private synchronized void register(TaskSession session) {
+			Assert.state(!this.sessions.containsKey(session.taskId), () -> "task " + session.taskId + " is already running");
+			this.sessions.put(session.taskId, session);
+			if (session.binary != null) {
+				this.binaryTasks++;
+			}
+		}
+
+		private synchronized void unregister(TaskSession session) {
+			if (this.sessions.remove(session.taskId, session) && session.binary != null) {
+				this.binaryTasks--;
+			}
+		}
+
+		private synchronized TaskSession session(String taskId) {
+			return taskId == null ? null : this.sessions.get(taskId);
+		}
+
+		private synchronized TaskSession binarySession() {
+			for (TaskSession session : this.sessions.values()) {
+				if (session.binary != null) {
+					return session;
+				}
+			}
+			return null;
+		}
+
+		private synchronized List<TaskSession> drain() {
+			List<TaskSession> drained = new ArrayList<>(this.sessions.values());
+			this.sessions.clear();
+			this.binaryTasks = 0;
+			return drained;
+		}
+
+		private void send(TaskSession session, String text) {
+			if (!this.webSocket.send(text)) {
+				sendFailed(session, "text");
+			}
+		}
+
+		private void send(TaskSession session, ByteBuffer binary) {
+			ByteString frame = ByteString.of(binary);
+			// OkHttp closes the connection when a message overflows its outgoing queue,
+			// which could complete the task before it fails, so such a frame is refused
+			// here first
+			if (this.webSocket.queueSize() + frame.size() > MAX_QUEUE_SIZE || !this.webSocket.send(frame)) {
+				sendFailed(session, "binary");
+			}
+		}
+
+		/**
+		 * OkHttp refuses a message once the connection is closing or its outgoing queue
+		 * is full, so the task cannot go on and the connection must not be handed out
+		 * again.
+		 */
+		private void sendFailed(TaskSession session, String type) {
+			logger.error("send {} failed: taskId={}", type, session.taskId);
+			this.reusable = false;
+			remove(this);
+			unregister(session);
+			session.error(new DashScopeException("send " + type + " of task " + session.taskId + " failed"));
+		}
+
+		private void close(String reason) {
+			this.reusable = false;
+			remove(this);
+			this.webSocket.close(1000, reason);
+		}
+
+		private void terminate(Throwable t) {
+			this.reusable = false;
+			remove(this);
+			for (TaskSession session : drain()) {
+				if (t == null) {
+					session.complete();
+				}
+				else {
+					session.error(t);
+				}
+			}
+		}
+
+		@Override
+		public void onMessage(WebSocket webSocket, String text) {
+			logger.debug("receive ws event onMessage(text): handle={}, text={}", webSocket, text);
+			EventMessage message;
+			try {
+				message = objectMapper.readValue(text, EventMessage.class);
+			}
+			catch (Exception e) {
+				logger.error("parse message failed: text={}, msg={}", text, e.getMessage());
+				return;
+			}
+
+			TaskSession session = session(message.header().taskId());
+			if (session == null) {
+				logger.warn("receive event of unknown task: text={}", text);
+				return;
+			}
+			switch (message.header().event()) {
+				case TASK_STARTED -> logger.info("task started: text={}", text);
+				case RESULT_GENERATED -> session.next(session.text, text);
+				case TASK_FINISHED -> {
+					logger.info("task finished: text={}", text);
+					unregister(session);
+					session.complete();
+				}
+				case TASK_FAILED -> {
+					logger.error("task failed: text={}", text);
+					unregister(session);
+					session.error(new DashScopeException(String.format("[%s] %s (taskId: %s)",
+							message.header().code(), message.header().message(), session.taskId)));
+				}
+				default -> {
+					logger.error("task error: text={}", text);
+					unregister(session);
+					session.error(new DashScopeException("unsupported event: " + text));
+				}
+			}
+		}
+
+		@Override
+		public void onMessage(WebSocket webSocket, ByteString bytes) {
+			logger.debug("receive ws event onMessage(bytes): handle={}, size={}", webSocket, bytes.size());
+			TaskSession session = binarySession();
+			if (session == null) {
+				logger.warn("receive binary frame without a running task: size={}", bytes.size());
+				return;
+			}
+			session.next(session.binary, bytes.asByteBuffer());
+		}
+
+		@Override
+		public void onClosing(WebSocket webSocket, int code, String reason) {
+			logger.info("receive ws event onClosing: handle={}, code={}, reason={}", webSocket, code, reason);
+			terminate(null);
+			webSocket.close(code, reason);
+		}
+
+		@Override
+		public void onClosed(WebSocket webSocket, int code, String reason) {
+			logger.info("receive ws event onClosed: handle={}, code={}, reason={}", webSocket, code, reason);
+			terminate(null);
+		}
+
+		@Override
+		public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+			logger.error("receive ws event onFailure: handle={}, msg={}", webSocket, t.getMessage());
+			terminate(new DashScopeException("web socket failure: " + t.getMessage(), t));
+		}
+
+	}
+
+}
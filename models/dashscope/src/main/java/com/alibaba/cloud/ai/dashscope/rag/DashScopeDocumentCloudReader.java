@@ -18,14 +18,18 @@ package com.alibaba.cloud.ai.dashscope.rag;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
 import com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants;
 import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeTaskPoller;
 import com.alibaba.cloud.ai.dashscope.common.ErrorCodeEnum;
 import com.alibaba.cloud.ai.dashscope.rag.context.DocumentProcessContext;
 import com.alibaba.cloud.ai.dashscope.rag.exception.DashScopeDocumentException;
@@ -42,6 +46,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentReader;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuples;
 
 /**
  * @author nuocheng.lxm
@@ -107,6 +115,51 @@ public class DashScopeDocumentCloudReader implements DocumentReader {
         fileValidator.validate(file);
     }
 
+    /**
+     * Reads and parses several documents concurrently
+     *
+     * <p>All files are validated before the first upload. Up to
+     * {@link DashScopeDocumentCloudReaderConfig#getMaxConcurrentUploads()} files are
+     * uploaded at the same time, and the parse jobs of up to
+     * {@link DashScopeDocumentCloudReaderConfig#getMaxConcurrentPolls()} uploaded files are
+     * tracked by one shared {@link DashScopeTaskPoller}, which holds no thread while a job
+     * is waiting. Each {@link Document} is emitted as soon as its parse job completes, so
+     * documents are not emitted in the order of {@code filePaths}.
+     *
+     * <p>The first failing file terminates the returned {@link Flux} with the same
+     * exception {@link #get()} would throw, and cancels the remaining uploads and polls.
+     *
+     * @param filePaths    the files to read
+     * @param dashScopeApi DashScope API client
+     * @param readerConfig reader configuration (can be null, default config will be used)
+     * @param clientConfig client configuration (can be null, default config will be used)
+     * @return the parsed documents, in completion order
+     * @throws IllegalArgumentException when a file does not exist or is not readable
+     */
+    public static Flux<Document> readAll(List<String> filePaths, DashScopeApi dashScopeApi,
+                                         DashScopeDocumentCloudReaderOptions readerConfig,
+                                         DashScopeDocumentCloudReaderConfig clientConfig) {
+        if (filePaths == null) {
+            throw new IllegalArgumentException("File paths must not be null");
+        }
+        DashScopeDocumentCloudReaderConfig config =
+                clientConfig != null ? clientConfig : new DashScopeDocumentCloudReaderConfig();
+        if (config.getMaxConcurrentUploads() <= 0 || config.getMaxConcurrentPolls() <= 0) {
+            throw new IllegalArgumentException("Concurrency limits must be positive");
+        }
+
+        List<DashScopeDocumentCloudReader> readers = filePaths.stream()
+                .map(filePath -> new DashScopeDocumentCloudReader(filePath, dashScopeApi, readerConfig, config))
+                .toList();
+        DashScopeTaskPoller taskPoller = createTaskPoller(config);
+
+        return Flux.fromIterable(readers)
+                .flatMap(reader -> reader.upload().map(context -> Tuples.of(reader, context)),
+                         config.getMaxConcurrentUploads())
+                .flatMap(uploaded -> uploaded.getT1().awaitDocument(uploaded.getT2(), taskPoller),
+                         config.getMaxConcurrentPolls());
+    }
+
     /**
      * Reads and parses the document
      *
@@ -121,65 +174,64 @@ public class DashScopeDocumentCloudReader implements DocumentReader {
      */
     @Override
     public List<Document> get() {
-        logger.info("Starting document processing for file: {}", file.getName());
-
-        DocumentProcessContext context = new DocumentProcessContext();
-        FileInputStream fileInputStream = null;
-
-        try {
-            // Step 1: Calculate file MD5
-            fileInputStream = new FileInputStream(file);
-            context.setFileMD5(DigestUtils.md5Hex(fileInputStream));
-            logger.debug("File MD5 calculated: {} for file: {}", context.getFileMD5(), file.getName());
-
-            // Step 2: Upload file
-            context.setFileId(uploadFile(context.getFileMD5()));
-            logger.info("File uploaded successfully. FileId: {}, FileName: {}",
-                        context.getFileId(), file.getName());
-
-            // Step 3: Poll for parsing status
-            pollAndWaitForCompletion(context);
-
-            // Step 4: Download parse result
-            String parseResult = downloadParseResult(context.getFileId());
-
-            // Step 5: Convert to Document
-            Document document = toDocument(context.getFileId(), parseResult);
-
-            logger.info("Document processing completed successfully. FileId: {}, FileName: {}",
-                        context.getFileId(), file.getName());
-
-            return Collections.singletonList(document);
-
-        } catch (DashScopeDocumentException e) {
-            // Document-specific exception, add context and rethrow
-            e.withFilePath(file.getAbsolutePath());
-            if (context.getFileId() != null) {
-                e.withFileId(context.getFileId());
-            }
-            logger.error("Document processing failed: {}", e.getMessage());
-            throw e;
+        return Collections.singletonList(readAsync().block());
+    }
 
-        } catch (IOException e) {
-            // IO exception
-            logger.error("IO error while processing file: {}", file.getName(), e);
-            throw new DashScopeDocumentException(ErrorCodeEnum.READER_PARSE_FILE_ERROR);
+    /**
+     * Reads and parses the document without blocking the calling thread
+     *
+     * @return the parsed document, or a DashScopeException or one of its subclasses
+     */
+    public Mono<Document> readAsync() {
+        return upload().flatMap(context -> awaitDocument(context, createTaskPoller(clientConfig)));
+    }
 
-        } catch (InterruptedException e) {
-            // Interrupted exception
-            Thread.currentThread().interrupt();
-            logger.error("Document processing interrupted for file: {}", file.getName(), e);
-            throw new DashScopeDocumentException(ErrorCodeEnum.READER_PARSE_FILE_ERROR);
+    /**
+     * Calculates the file MD5 and uploads the file
+     */
+    private Mono<DocumentProcessContext> upload() {
+        DocumentProcessContext context = new DocumentProcessContext();
+        return Mono.fromCallable(() -> {
+                    logger.info("Starting document processing for file: {}", file.getName());
+
+                    // Step 1: Calculate file MD5
+                    try (FileInputStream fileInputStream = new FileInputStream(file)) {
+                        context.setFileMD5(DigestUtils.md5Hex(fileInputStream));
+                    }
+                    logger.debug("File MD5 calculated: {} for file: {}", context.getFileMD5(), file.getName());
+
+                    // Step 2: Upload file
+                    context.setFileId(uploadFile(context.getFileMD5()));
+                    logger.info("File uploaded successfully. FileId: {}, FileName: {}",
+                                context.getFileId(), file.getName());
+                    return context;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(ex -> toDocumentException(ex, context));
+    }
 
-        } catch (Exception e) {
-            // Unexpected exception
-            logger.error("Unexpected error processing file: {}, FileId: {}",
-                         file.getName(), context.getFileId(), e);
-            throw new DashScopeDocumentException(ErrorCodeEnum.READER_PARSE_FILE_ERROR);
+    /**
+     * Waits for the parse job of an uploaded file and downloads its result
+     */
+    private Mono<Document> awaitDocument(DocumentProcessContext context, DashScopeTaskPoller taskPoller) {
+        // Step 3: Poll for parsing status
+        Mono<Document> document = pollForCompletion(context, taskPoller)
+                // Step 4: Download parse result
+                .then(Mono.fromCallable(() -> downloadParseResult(context.getFileId()))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                // Step 5: Convert to Document
+                .map(parseResult -> toDocument(context.getFileId(), parseResult))
+                .doOnNext(parsed -> logger.info(
+                        "Document processing completed successfully. FileId: {}, FileName: {}",
+                        context.getFileId(), file.getName()))
+                .onErrorMap(ex -> toDocumentException(ex, context));
 
-        } finally {
-            closeQuietly(fileInputStream);
+        // Initial wait before first query to allow server initialization
+        long initialWaitMillis = clientConfig.getInitialWaitMillis();
+        if (initialWaitMillis > 0) {
+            return Mono.delay(Duration.ofMillis(initialWaitMillis)).then(document);
         }
+        return document;
     }
 
     /**
@@ -204,94 +256,93 @@ public class DashScopeDocumentCloudReader implements DocumentReader {
     }
 
     /**
-     * Polls and waits for file parsing completion
+     * Polls until file parsing completes
      *
      * <p>Uses Strategy Pattern to handle different file statuses:
      * <ul>
-     *   <li>PARSE_SUCCESS: Parsing succeeded, return</li>
-     *   <li>PARSE_FAILED: Parsing failed, throw exception</li>
+     *   <li>PARSE_SUCCESS: Parsing succeeded, complete</li>
+     *   <li>PARSE_FAILED: Parsing failed, signal an exception</li>
      * </ul>
      *
-     * @param context document processing context
-     * @throws InterruptedException when thread is interrupted
-     * @throws DashScopeException   when parsing fails or times out
+     * <p>The status checks are scheduled by the task poller, the configured maximum retry
+     * count still bounds the number of checks.
+     *
+     * @param context    document processing context
+     * @param taskPoller poller scheduling the status checks
+     * @return completes when parsing succeeded, signals DashScopeException when parsing
+     * fails or times out
      */
-    private void pollAndWaitForCompletion(DocumentProcessContext context) throws InterruptedException {
+    private Mono<Void> pollForCompletion(DocumentProcessContext context, DashScopeTaskPoller taskPoller) {
 
-        int tryCount = 0;
         long startTime = System.currentTimeMillis();
-        int maxRetryCount = getMaxRetryCount();
+        int maxRetryCount = getMaxRetryCount(clientConfig);
+        AtomicInteger tryCount = new AtomicInteger();
 
-        // Initial wait before first query to allow server initialization
-        long initialWaitMillis = clientConfig.getInitialWaitMillis();
-        if (initialWaitMillis > 0) {
-            logger.debug("Initial wait {}ms before first status check", initialWaitMillis);
-            Thread.sleep(initialWaitMillis);
-        }
+        Supplier<Mono<FileStatusResult>> statusCheck = () -> Mono.fromCallable(
+                () -> checkFileStatus(context, tryCount.incrementAndGet(), maxRetryCount))
+                .subscribeOn(Schedulers.boundedElastic());
 
-        while (tryCount < maxRetryCount) {
-
-            // Query file status
-            ResponseEntity<DashScopeApiSpec.CommonResponse<DashScopeApiSpec.QueryFileResponseData>>
-                    response = queryFileStatus(context.getFileId());
-
-            // Validate response
-            if (response == null || response.getBody() == null) {
-                logger.warn("Received null response for fileId: {}, attempt: {}/{}",
-                            context.getFileId(), tryCount + 1, maxRetryCount);
-                waitBeforeNextRetry(tryCount);
-                tryCount++;
-                continue;
-            }
-
-            DashScopeApiSpec.QueryFileResponseData data = response.getBody().data();
-            if (data == null) {
-                logger.warn("Received null data for fileId: {}, attempt: {}/{}",
-                            context.getFileId(), tryCount + 1, maxRetryCount);
-                waitBeforeNextRetry(tryCount);
-                tryCount++;
-                continue;
-            }
-
-            String fileStatus = data.status();
-            logger.debug("File status check: FileId={}, Status={}, Attempt={}/{}",
-                         context.getFileId(), fileStatus, tryCount + 1, maxRetryCount);
-
-            // Use Strategy Pattern to handle different statuses
-            FileStatusResult result = fileHandler.handle(context, response);
-
-            // Process result
-            if (result.isCompleted()) {
-                if (result.isSuccess()) {
+        return taskPoller.poll(context.getFileId(), statusCheck,
+                        result -> result.isCompleted() || tryCount.get() >= maxRetryCount)
+                .flatMap(taskResult -> {
+                    FileStatusResult result = taskResult.response();
                     long elapsed = System.currentTimeMillis() - startTime;
+
+                    if (result == null || !result.isCompleted()) {
+                        // Timeout handling - never returns null, signals an exception instead
+                        logger.error("File parsing timed out: FileId={}, TotalElapsedTime={}ms, ErrorMessage={}",
+                                     context.getFileId(), elapsed,
+                                     String.format("File parsing timeout after %d attempts (%d ms) for fileId: %s, fileName: %s",
+                                                   taskResult.attempts(), elapsed, context.getFileId(), file.getName()));
+                        return Mono.error(new DocumentParseTimeoutException(
+                                String.format("File parsing timeout for fileId: %s, fileName: %s",
+                                              context.getFileId(), file.getName()),
+                                taskResult.attempts(), elapsed)
+                                .withFileId(context.getFileId())
+                                .withFilePath(context.getFileMD5()));
+                    }
+
+                    if (!result.isSuccess()) {
+                        // Parsing failed
+                        logger.error("File parsing failed: FileId={}, ErrorMessage={}", context.getFileId(),
+                                     result.getErrorMessage());
+                        return Mono.error(new DashScopeException(ErrorCodeEnum.READER_PARSE_FILE_ERROR));
+                    }
+
                     logger.info("File parsing succeeded: FileId={}, Attempts={}, ElapsedTime={}ms",
-                                context.getFileId(), tryCount + 1, elapsed);
-                    return;
-                } else {
-                    // Parsing failed
-                    logger.error("File parsing failed: FileId={}, ErrorMessage={}", context.getFileId(),
-                                 result.getErrorMessage());
-                    throw new DashScopeException(ErrorCodeEnum.READER_PARSE_FILE_ERROR);
-                }
-            }
-
-            // Continue waiting
-            waitBeforeNextRetry(tryCount);
-            tryCount++;
+                                context.getFileId(), taskResult.attempts(), elapsed);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Queries the file status once and evaluates it
+     */
+    private FileStatusResult checkFileStatus(DocumentProcessContext context, int attempt, int maxRetryCount) {
+
+        // Query file status
+        ResponseEntity<DashScopeApiSpec.CommonResponse<DashScopeApiSpec.QueryFileResponseData>>
+                response = queryFileStatus(context.getFileId());
+
+        // Validate response
+        if (response == null || response.getBody() == null) {
+            logger.warn("Received null response for fileId: {}, attempt: {}/{}",
+                        context.getFileId(), attempt, maxRetryCount);
+            return FileStatusResult.inProgress();
         }
 
-        // Timeout handling - never returns null, throws exception instead
-        long totalElapsed = System.currentTimeMillis() - startTime;
-        logger.error("File parsing timed out: FileId={}, TotalElapsedTime={}ms, ErrorMessage={}",
-                     context.getFileId(), totalElapsed,
-                     String.format("File parsing timeout after %d attempts (%d ms) for fileId: %s, fileName: %s",
-                                   tryCount, totalElapsed, context.getFileId(), file.getName()));
-        throw new DocumentParseTimeoutException(
-                String.format("File parsing timeout for fileId: %s, fileName: %s",
-                              context.getFileId(), file.getName()),
-                tryCount, totalElapsed)
-                .withFileId(context.getFileId())
-                .withFilePath(context.getFileMD5());
+        DashScopeApiSpec.QueryFileResponseData data = response.getBody().data();
+        if (data == null) {
+            logger.warn("Received null data for fileId: {}, attempt: {}/{}",
+                        context.getFileId(), attempt, maxRetryCount);
+            return FileStatusResult.inProgress();
+        }
+
+        logger.debug("File status check: FileId={}, Status={}, Attempt={}/{}",
+                     context.getFileId(), data.status(), attempt, maxRetryCount);
+
+        // Use Strategy Pattern to handle different statuses
+        return fileHandler.handle(context, response);
     }
 
     /**
@@ -323,43 +374,41 @@ public class DashScopeDocumentCloudReader implements DocumentReader {
     }
 
     /**
-     * Waits before retry
+     * Creates the task poller for the configured retry strategy
      *
-     * <p>Supports exponential backoff strategy to reduce API call frequency
+     * <p>Can choose fixed delay or exponential backoff strategy based on configuration.
+     * The retry count is enforced per file, the poller timeout is only a safety net for
+     * status queries that never return.
      */
-    private void waitBeforeNextRetry(int attemptCount) throws InterruptedException {
-        long delay = calculateRetryDelay(attemptCount);
-        logger.debug("Waiting {}ms before next attempt", delay);
-        Thread.sleep(delay);
-    }
+    private static DashScopeTaskPoller createTaskPoller(DashScopeDocumentCloudReaderConfig config) {
+        long interval = Math.max(0L, config.getRetryIntervalMillis());
+        double multiplier = 1.0;
+        long maxInterval = interval;
 
-    /**
-     * Calculates retry delay
-     *
-     * <p>Can choose fixed delay or exponential backoff strategy based on configuration
-     */
-    private long calculateRetryDelay(int attemptCount) {
         // If exponential backoff is enabled in config
-        if (clientConfig.isUseExponentialBackoff()) {
-            long baseDelay = clientConfig.getRetryIntervalMillis();
-            double multiplier = clientConfig.getBackoffMultiplier();
-            long maxDelay = clientConfig.getMaxRetryIntervalMillis();
-
-            long delay = (long) (baseDelay * Math.pow(multiplier, attemptCount));
-            return Math.min(delay, maxDelay);
+        if (config.isUseExponentialBackoff()) {
+            multiplier = Math.max(1.0, config.getBackoffMultiplier());
+            maxInterval = Math.max(interval, config.getMaxRetryIntervalMillis());
         }
 
-        // Default fixed delay
-        return clientConfig.getRetryIntervalMillis();
+        int maxRetryCount = getMaxRetryCount(config);
+
+        return DashScopeTaskPoller.builder()
+                .initialInterval(Duration.ofMillis(interval))
+                .multiplier(multiplier)
+                .maxInterval(Duration.ofMillis(maxInterval))
+                .jitter(0)
+                .timeout(DashScopeTaskPoller.DEFAULT_TIMEOUT.plusMillis(maxInterval * maxRetryCount))
+                .build();
     }
 
     /**
      * Gets maximum retry count
      */
-    private int getMaxRetryCount() {
+    private static int getMaxRetryCount(DashScopeDocumentCloudReaderConfig config) {
         // Use configured value if set, otherwise use default
-        return clientConfig.getMaxRetryAttempts() > 0
-                ? clientConfig.getMaxRetryAttempts()
+        return config.getMaxRetryAttempts() > 0
+                ? config.getMaxRetryAttempts()
                 : DashScopeApiConstants.MAX_TRY_COUNT;
     }
 
@@ -377,16 +426,31 @@ public class DashScopeDocumentCloudReader implements DocumentReader {
     }
 
     /**
-     * Closes resource quietly
+     * Adds file context to document exceptions and wraps any other failure, so that a
+     * failing file can be identified in a batch read
      */
-    private void closeQuietly(AutoCloseable closeable) {
-        if (closeable != null) {
-            try {
-                closeable.close();
-            } catch (Exception e) {
-                logger.debug("Error closing resource: {}", e.getMessage());
-            }
+    private Throwable toDocumentException(Throwable ex, DocumentProcessContext context) {
+        DashScopeDocumentException documentException;
+        if (ex instanceof DashScopeDocumentException e) {
+            // Document-specific exception, add context and rethrow
+            documentException = e;
+            logger.error("Document processing failed: {}", e.getMessage());
+        } else if (ex instanceof IOException) {
+            // IO exception
+            logger.error("IO error while processing file: {}", file.getName(), ex);
+            documentException = new DashScopeDocumentException(ErrorCodeEnum.READER_PARSE_FILE_ERROR);
+        } else {
+            // Unexpected exception
+            logger.error("Unexpected error processing file: {}, FileId: {}",
+                         file.getName(), context.getFileId(), ex);
+            documentException = new DashScopeDocumentException(ErrorCodeEnum.READER_PARSE_FILE_ERROR);
+        }
+
+        documentException.withFilePath(file.getAbsolutePath());
+        if (context.getFileId() != null) {
+            documentException.withFileId(context.getFileId());
         }
+        return documentException;
     }
 
 }
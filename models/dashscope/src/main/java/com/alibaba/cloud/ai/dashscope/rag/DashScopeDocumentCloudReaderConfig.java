@@ -24,6 +24,7 @@ import com.alibaba.cloud.ai.dashscope.rag.util.FileSizeFormatter;
  * <ul>
  *   <li>Retry strategy (max attempts, intervals, backoff)</li>
  *   <li>File size validation (min/max sizes)</li>
+ *   <li>Concurrency of batch reads (uploads and status polls)</li>
  * </ul>
  *
  * <p>These configurations control client behavior and are not sent to the API.
@@ -98,6 +99,18 @@ public class DashScopeDocumentCloudReaderConfig {
      */
     private boolean enableFileSizeValidation;
 
+    /**
+     * Maximum number of files uploaded at the same time by a batch read
+     * Default: 4
+     */
+    private int maxConcurrentUploads;
+
+    /**
+     * Maximum number of uploaded files whose parse status is polled at the same time by a batch read
+     * Default: 64
+     */
+    private int maxConcurrentPolls;
+
     /**
      * Default constructor
      */
@@ -111,6 +124,8 @@ public class DashScopeDocumentCloudReaderConfig {
         this.maxFileSize = DEFAULT_MAX_FILE_SIZE;
         this.minFileSize = DEFAULT_MIN_FILE_SIZE;
         this.enableFileSizeValidation = true;
+        this.maxConcurrentUploads = 4;
+        this.maxConcurrentPolls = 64;
     }
 
     // ==================== Getters and Setters ====================
@@ -187,6 +202,22 @@ public class DashScopeDocumentCloudReaderConfig {
         this.enableFileSizeValidation = enableFileSizeValidation;
     }
 
+    public int getMaxConcurrentUploads() {
+        return maxConcurrentUploads;
+    }
+
+    public void setMaxConcurrentUploads(int maxConcurrentUploads) {
+        this.maxConcurrentUploads = maxConcurrentUploads;
+    }
+
+    public int getMaxConcurrentPolls() {
+        return maxConcurrentPolls;
+    }
+
+    public void setMaxConcurrentPolls(int maxConcurrentPolls) {
+        this.maxConcurrentPolls = maxConcurrentPolls;
+    }
+
     // ==================== Builder Methods ====================
 
     public DashScopeDocumentCloudReaderConfig withMaxRetryAttempts(int maxRetryAttempts) {
@@ -225,6 +256,16 @@ public class DashScopeDocumentCloudReaderConfig {
         return this;
     }
 
+    public DashScopeDocumentCloudReaderConfig withMaxConcurrentUploads(int maxConcurrentUploads) {
+        this.maxConcurrentUploads = maxConcurrentUploads;
+        return this;
+    }
+
+    public DashScopeDocumentCloudReaderConfig withMaxConcurrentPolls(int maxConcurrentPolls) {
+        this.maxConcurrentPolls = maxConcurrentPolls;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "DashScopeDocumentCloudReaderConfig{" +
@@ -237,6 +278,8 @@ public class DashScopeDocumentCloudReaderConfig {
                ", maxFileSize=" + FileSizeFormatter.format(maxFileSize) +
                ", minFileSize=" + FileSizeFormatter.format(minFileSize) +
                ", enableFileSizeValidation=" + enableFileSizeValidation +
+               ", maxConcurrentUploads=" + maxConcurrentUploads +
+               ", maxConcurrentPolls=" + maxConcurrentPolls +
                '}';
     }
 
@@ -17,23 +17,42 @@ package com.alibaba.cloud.ai.dashscope.rag;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
 import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
+import com.alibaba.cloud.ai.dashscope.common.DashScopePipelineNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Retrieves documents from a DashScope knowledge base index.
+ * <p>
+ * The pipeline id of the index is resolved once and reused for
+ * {@link DashScopeDocumentRetrieverOptions#getPipelineIdCacheTtl()}. Concurrent queries
+ * that find no usable entry share a single lookup, and a 404 from the retrieve endpoint
+ * drops the entry and retries the query once with a freshly resolved pipeline id.
+ *
  * @author nuocheng.lxm
  * @since 2024/8/5 14:42
  */
 public class DashScopeDocumentRetriever implements DocumentRetriever {
 
+	private static final Logger logger = LoggerFactory.getLogger(DashScopeDocumentRetriever.class);
+
 	private final DashScopeDocumentRetrieverOptions options;
 
 	private final DashScopeApi dashScopeApi;
 
+	private final ConcurrentMap<String, PipelineIdLookup> pipelineIds = new ConcurrentHashMap<>();
+
 	public DashScopeDocumentRetriever(DashScopeApi dashScopeApi, DashScopeDocumentRetrieverOptions options) {
 		Assert.notNull(options, "RetrieverOptions must not be null");
 		Assert.notNull(options.getIndexName(), "IndexName must not be null");
@@ -43,12 +62,84 @@ public class DashScopeDocumentRetriever implements DocumentRetriever {
 
 	@Override
 	public List<Document> retrieve(Query query) {
-		String pipelineId = dashScopeApi.getPipelineIdByName(options.getIndexName());
+		String indexName = options.getIndexName();
+		String pipelineId = resolvePipelineId(indexName);
+		try {
+			return dashScopeApi.retriever(pipelineId, query.text(), options);
+		}
+		catch (DashScopePipelineNotFoundException ex) {
+			logger.debug("Pipeline {} of index {} not found, resolving it again", pipelineId, indexName);
+			invalidate(indexName, pipelineId);
+			return dashScopeApi.retriever(resolvePipelineId(indexName), query.text(), options);
+		}
+	}
+
+	private String resolvePipelineId(String indexName) {
+		PipelineIdLookup lookup = new PipelineIdLookup();
+		long now = System.nanoTime();
+		PipelineIdLookup current = this.pipelineIds.compute(indexName,
+				(name, cached) -> (cached == null || cached.isExpired(now)) ? lookup : cached);
+
+		if (current == lookup) {
+			try {
+				String pipelineId = dashScopeApi.getPipelineIdByName(indexName);
+				if (pipelineId == null) {
+					// the index may be created later, so a miss is not cached
+					this.pipelineIds.remove(indexName, lookup);
+				}
+				else {
+					lookup.expiresAt = System.nanoTime() + ttlNanos();
+				}
+				lookup.result.complete(pipelineId);
+			}
+			catch (RuntimeException ex) {
+				this.pipelineIds.remove(indexName, lookup);
+				lookup.result.completeExceptionally(ex);
+			}
+		}
+
+		String pipelineId;
+		try {
+			pipelineId = current.result.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw ex;
+		}
 		if (pipelineId == null) {
-			throw new DashScopeException("Index:" + options.getIndexName() + " NotExist");
+			throw new DashScopeException("Index:" + indexName + " NotExist");
 		}
-		List<Document> documentList = dashScopeApi.retriever(pipelineId, query.text(), options);
-		return documentList;
+		return pipelineId;
+	}
+
+	private void invalidate(String indexName, String pipelineId) {
+		this.pipelineIds.computeIfPresent(indexName, (name, cached) -> {
+			String cachedId = cached.result.getNow(null);
+			return (cachedId != null && cachedId.equals(pipelineId)) ? null : cached;
+		});
+	}
+
+	private long ttlNanos() {
+		Duration ttl = options.getPipelineIdCacheTtl();
+		return (ttl != null && !ttl.isNegative()) ? ttl.toNanos() : 0L;
+	}
+
+	/**
+	 * A pipeline id lookup that is either in progress or completed. Entries that are
+	 * still in progress never expire, so concurrent queries wait for the same lookup.
+	 */
+	private static final class PipelineIdLookup {
+
+		private final CompletableFuture<String> result = new CompletableFuture<>();
+
+		private volatile long expiresAt;
+
+		boolean isExpired(long now) {
+			return this.result.isDone() && this.expiresAt - now <= 0;
+		}
+
 	}
 
 }
@@ -15,8 +15,10 @@
  */
 package com.alibaba.cloud.ai.dashscope.rag;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
@@ -47,6 +49,12 @@ public class DashScopeDocumentRetrieverOptions {
 
   private @JsonProperty("search_filters") List<Map<String, Object>> searchFilters;
 
+  /**
+   * How long a resolved index name to pipeline id mapping is reused. {@link Duration#ZERO}
+   * resolves the pipeline id for every query.
+   */
+  @JsonIgnore private Duration pipelineIdCacheTtl = Duration.ofMinutes(10);
+
   public static DashScopeDocumentRetrieverOptions.Builder builder() {
     return new DashScopeDocumentRetrieverOptions.Builder();
   }
@@ -131,6 +139,14 @@ public class DashScopeDocumentRetrieverOptions {
     return searchFilters;
   }
 
+  public Duration getPipelineIdCacheTtl() {
+    return pipelineIdCacheTtl;
+  }
+
+  public void setPipelineIdCacheTtl(Duration pipelineIdCacheTtl) {
+    this.pipelineIdCacheTtl = pipelineIdCacheTtl;
+  }
+
   public static class Builder {
 
     protected DashScopeDocumentRetrieverOptions options;
@@ -240,6 +256,11 @@ public class DashScopeDocumentRetrieverOptions {
       return searchFilters(searchFilters);
     }
 
+    public Builder pipelineIdCacheTtl(Duration pipelineIdCacheTtl) {
+      this.options.setPipelineIdCacheTtl(pipelineIdCacheTtl);
+      return this;
+    }
+
     public DashScopeDocumentRetrieverOptions build() {
       return this.options;
     }
@@ -16,8 +16,11 @@
 
 package com.alibaba.cloud.ai.dashscope.rerank;
 
+import com.alibaba.cloud.ai.cache.CacheSupport;
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeSubBatches;
 import com.alibaba.cloud.ai.dashscope.metadata.DashScopeAiUsage;
+import com.alibaba.cloud.ai.dashscope.rerank.cache.RerankScoreCache;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
 import com.alibaba.cloud.ai.document.DocumentWithScore;
 import com.alibaba.cloud.ai.model.RerankModel;
@@ -25,8 +28,12 @@ import com.alibaba.cloud.ai.model.RerankOptions;
 import com.alibaba.cloud.ai.model.RerankRequest;
 import com.alibaba.cloud.ai.model.RerankResponse;
 import com.alibaba.cloud.ai.model.RerankResponseMetadata;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
@@ -36,10 +43,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Title DashScope rerank model.<br>
  * Description DashScope rerank model.<br>
+ * <p>
+ * Candidate sets are split into sub-batches of at most {@code maxBatchSize} documents
+ * and {@code maxBatchCharacters} characters, which are reranked on up to
+ * {@code maxConcurrency} threads. The scores of all sub-batches are merged into one
+ * global top-N. Scores can be cached per query and document with a
+ * {@link RerankScoreCache}.
  *
  * @author yuanci.ytb
  * @since 1.0.0-M2
@@ -49,6 +64,26 @@ public class DashScopeRerankModel implements RerankModel {
 
 	private static final Logger logger = LoggerFactory.getLogger(DashScopeRerankModel.class);
 
+	/**
+	 * Maximum number of documents accepted by a single rerank request.
+	 */
+	public static final int MAX_BATCH_SIZE = 500;
+
+	/**
+	 * Default number of documents per sub-batch: one request per candidate set, as
+	 * before sub-batching. The latency of a rerank request grows with its number of
+	 * documents, while the relevance score of a document does not depend on the other
+	 * documents of the request, so a smaller batch size with a higher concurrency trades
+	 * repeated query tokens and rate limit for latency.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = MAX_BATCH_SIZE;
+
+	/**
+	 * Default number of sub-batches sent at the same time, {@code 1} to keep the previous
+	 * behaviour.
+	 */
+	public static final int DEFAULT_MAX_CONCURRENCY = 1;
+
 	/** Low-level access to the DashScope API */
 	private final DashScopeApi dashscopeApi;
 
@@ -58,6 +93,16 @@ public class DashScopeRerankModel implements RerankModel {
 	/** rerank options */
 	private final DashScopeRerankOptions defaultOptions;
 
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+	private int maxBatchCharacters;
+
+	private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+	private Scheduler scheduler = Schedulers.boundedElastic();
+
+	private RerankScoreCache scoreCache;
+
 	public DashScopeRerankModel(DashScopeApi dashscopeApi) {
 		this(dashscopeApi, DashScopeRerankOptions.builder().build());
 	}
@@ -83,40 +128,231 @@ public class DashScopeRerankModel implements RerankModel {
 		Assert.notNull(request.getInstructions(), "documents must not be null");
 
 		DashScopeRerankOptions requestOptions = mergeOptions(request.getOptions(), this.defaultOptions);
-        DashScopeApiSpec.RerankRequest rerankRequest = createRequest(request, requestOptions);
+		List<Document> documents = request.getInstructions();
+		if (documents.isEmpty()) {
+			return new RerankResponse(Collections.emptyList());
+		}
 
-		ResponseEntity<DashScopeApiSpec.RerankResponse> responseEntity = this.retryTemplate
-			.execute(ctx -> this.dashscopeApi.rerankEntity(rerankRequest));
+		// scores by document index, null until the document is scored
+		Double[] scores = new Double[documents.size()];
+		List<String> keys = null;
+		if (this.scoreCache != null) {
+			keys = new ArrayList<>(documents.size());
+			for (Document document : documents) {
+				keys.add(RerankScoreCache.key(requestOptions.getModel(), request.getQuery(), document.getText()));
+			}
+			Map<String, Double> cached = CacheSupport.getAll(this.scoreCache, keys);
+			for (int i = 0; i < scores.length; i++) {
+				scores[i] = cached.get(keys.get(i));
+			}
+		}
 
-		var response = responseEntity.getBody();
+		List<Integer> missing = new ArrayList<>();
+		for (int i = 0; i < scores.length; i++) {
+			if (scores[i] == null) {
+				missing.add(i);
+			}
+		}
 
-		if (response == null) {
-			logger.warn("No rerank returned for query: {}", request.getQuery());
-			return new RerankResponse(Collections.emptyList());
+		DashScopeApiSpec.TokenUsage usage = new DashScopeApiSpec.TokenUsage(0, 0, 0, null, null, null, null, null, null,
+				null);
+		if (!missing.isEmpty()) {
+			List<List<Integer>> batches = partition(missing, documents);
+			List<DashScopeApiSpec.RerankResponse> responses = rerank(batches, request, requestOptions);
+
+			Map<String, Double> fetched = new HashMap<>();
+			for (int batch = 0; batch < responses.size(); batch++) {
+				DashScopeApiSpec.RerankResponse response = responses.get(batch);
+				if (response == null || response.output() == null) {
+					// keep the cached scores and those of the other sub-batches
+					logger.warn("No rerank returned for {} documents of query: {}", batches.get(batch).size(),
+							request.getQuery());
+					continue;
+				}
+				for (DashScopeApiSpec.RerankResponseOutputResult result : response.output().results()) {
+					int index = batches.get(batch).get(result.index());
+					scores[index] = result.relevanceScore();
+					if (keys != null && result.relevanceScore() != null) {
+						fetched.put(keys.get(index), result.relevanceScore());
+					}
+				}
+			}
+			if (this.scoreCache != null) {
+				CacheSupport.putAll(this.scoreCache, fetched);
+			}
+
+			usage = responses.size() == 1 && responses.get(0) != null && responses.get(0).usage() != null
+					? responses.get(0).usage() : sumUsage(responses);
 		}
 
-		List<DocumentWithScore> documentWithScores = response.output()
-			.results()
-			.stream()
-			.map(data -> DocumentWithScore.builder()
-				.withScore(data.relevanceScore())
-				.withDocument(request.getInstructions().get(data.index()))
-				.build())
-			.toList();
+		List<DocumentWithScore> documentWithScores = topN(scores, documents, requestOptions.getTopN());
+		return new RerankResponse(documentWithScores, new RerankResponseMetadata(DashScopeAiUsage.from(usage)));
+	}
+
+	/**
+	 * Set the maximum number of documents sent in one rerank request, at most
+	 * {@link #MAX_BATCH_SIZE}. Larger candidate sets are split into sub-batches. Defaults
+	 * to {@link #DEFAULT_MAX_BATCH_SIZE}.
+	 * @param maxBatchSize The maximum number of documents per request
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0 && maxBatchSize <= MAX_BATCH_SIZE,
+				"maxBatchSize must be between 1 and " + MAX_BATCH_SIZE);
+		this.maxBatchSize = maxBatchSize;
+	}
 
-		var metadata = new RerankResponseMetadata(DashScopeAiUsage.from(response.usage()));
-		return new RerankResponse(documentWithScores, metadata);
+	/**
+	 * Set the maximum total length of the documents sent in one rerank request, or
+	 * {@code 0} for no limit. A single document longer than the limit is sent on its
+	 * own. Defaults to {@code 0}.
+	 * @param maxBatchCharacters The maximum number of characters per request
+	 */
+	public void setMaxBatchCharacters(int maxBatchCharacters) {
+		Assert.isTrue(maxBatchCharacters >= 0, "maxBatchCharacters must not be negative");
+		this.maxBatchCharacters = maxBatchCharacters;
 	}
 
-	private DashScopeApiSpec.RerankRequest createRequest(RerankRequest request, DashScopeRerankOptions requestOptions) {
-		List<String> docs = request.getInstructions().stream().map(Document::getText).toList();
+	/**
+	 * Set the maximum number of rerank sub-batches sent to DashScope at the same time,
+	 * {@code 1} to send them one after another on the calling thread. Defaults to
+	 * {@link #DEFAULT_MAX_CONCURRENCY}.
+	 * @param maxConcurrency The maximum number of concurrent requests
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+		Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be greater than 0");
+		this.maxConcurrency = maxConcurrency;
+	}
 
-        DashScopeApiSpec.RerankRequestParameter parameter = new DashScopeApiSpec.RerankRequestParameter(
-				requestOptions.getTopN(), requestOptions.getReturnDocuments());
+	/**
+	 * Set the scheduler the concurrent sub-batches run on. Defaults to
+	 * {@link Schedulers#boundedElastic()}.
+	 * @param scheduler The scheduler
+	 */
+	public void setScheduler(Scheduler scheduler) {
+		Assert.notNull(scheduler, "scheduler cannot be null");
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Use the provided cache to look up scores before calling DashScope, or {@code null}
+	 * to disable caching. While a cache is set, every sub-batch requests the scores of
+	 * all its documents so that they can be cached.
+	 * @param scoreCache The score cache
+	 */
+	public void setScoreCache(RerankScoreCache scoreCache) {
+		this.scoreCache = scoreCache;
+	}
+
+	/**
+	 * Splits the document indexes into sub-batches of at most {@code maxBatchSize}
+	 * documents and, if set, {@code maxBatchCharacters} characters.
+	 */
+	private List<List<Integer>> partition(List<Integer> indexes, List<Document> documents) {
+		List<List<Integer>> batches = new ArrayList<>();
+		List<Integer> batch = new ArrayList<>();
+		long characters = 0;
+		for (Integer index : indexes) {
+			String text = documents.get(index).getText();
+			int length = text == null ? 0 : text.length();
+			boolean full = batch.size() >= this.maxBatchSize
+					|| (this.maxBatchCharacters > 0 && characters + length > this.maxBatchCharacters);
+			if (full && !batch.isEmpty()) {
+				batches.add(batch);
+				batch = new ArrayList<>();
+				characters = 0;
+			}
+			batch.add(index);
+			characters += length;
+		}
+		batches.add(batch);
+		return batches;
+	}
+
+	/**
+	 * Sends the sub-batches, each with its own retries, and returns the responses in
+	 * sub-batch order, {@code null} for an empty response body.
+	 */
+	private List<DashScopeApiSpec.RerankResponse> rerank(List<List<Integer>> batches, RerankRequest request,
+			DashScopeRerankOptions requestOptions) {
+		List<DashScopeApiSpec.RerankRequest> rerankRequests = new ArrayList<>(batches.size());
+		for (List<Integer> batch : batches) {
+			rerankRequests.add(createRequest(request, batch, requestOptions));
+		}
+
+		return DashScopeSubBatches.send(rerankRequests, this::rerank, this.maxConcurrency, this.scheduler);
+	}
+
+	private DashScopeApiSpec.RerankResponse rerank(DashScopeApiSpec.RerankRequest rerankRequest) {
+		ResponseEntity<DashScopeApiSpec.RerankResponse> responseEntity = this.retryTemplate
+			.execute(ctx -> this.dashscopeApi.rerankEntity(rerankRequest));
+		return responseEntity.getBody();
+	}
+
+	private DashScopeApiSpec.RerankRequest createRequest(RerankRequest request, List<Integer> batch,
+			DashScopeRerankOptions requestOptions) {
+		List<String> docs = new ArrayList<>(batch.size());
+		for (Integer index : batch) {
+			docs.add(request.getInstructions().get(index).getText());
+		}
+
+		// a sub-batch never needs more than the global top-N, but the cache needs every
+		// score
+		Integer topN = requestOptions.getTopN();
+		if (this.scoreCache != null) {
+			topN = null;
+		}
+		else if (topN != null && topN > docs.size()) {
+			topN = docs.size();
+		}
+
+		DashScopeApiSpec.RerankRequestParameter parameter = new DashScopeApiSpec.RerankRequestParameter(topN,
+				requestOptions.getReturnDocuments());
 		var input = new DashScopeApiSpec.RerankRequestInput(request.getQuery(), docs);
 		return new DashScopeApiSpec.RerankRequest(requestOptions.getModel(), input, parameter);
 	}
 
+	/**
+	 * Selects the {@code topN} highest scored documents with a bounded min-heap and
+	 * returns them by descending score. Ties keep the document order.
+	 */
+	private static List<DocumentWithScore> topN(Double[] scores, List<Document> documents, @Nullable Integer topN) {
+		int limit = topN == null || topN <= 0 ? scores.length : Math.min(topN, scores.length);
+		PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1,
+				(a, b) -> scores[a].equals(scores[b]) ? Integer.compare(b, a) : Double.compare(scores[a], scores[b]));
+		for (int i = 0; i < scores.length; i++) {
+			if (scores[i] == null) {
+				continue;
+			}
+			heap.offer(i);
+			if (heap.size() > limit) {
+				heap.poll();
+			}
+		}
+
+		DocumentWithScore[] result = new DocumentWithScore[heap.size()];
+		for (int i = result.length - 1; i >= 0; i--) {
+			int index = heap.poll();
+			result[i] = DocumentWithScore.builder().withScore(scores[index]).withDocument(documents.get(index)).build();
+		}
+		return List.of(result);
+	}
+
+	private static DashScopeApiSpec.TokenUsage sumUsage(List<DashScopeApiSpec.RerankResponse> responses) {
+		int outputTokens = 0;
+		int inputTokens = 0;
+		int totalTokens = 0;
+		for (DashScopeApiSpec.RerankResponse response : responses) {
+			DashScopeApiSpec.TokenUsage usage = response == null ? null : response.usage();
+			if (usage != null) {
+				outputTokens += usage.outputTokens() == null ? 0 : usage.outputTokens();
+				inputTokens += usage.inputTokens() == null ? 0 : usage.inputTokens();
+				totalTokens += usage.totalTokens() == null ? 0 : usage.totalTokens();
+			}
+		}
+		return new DashScopeApiSpec.TokenUsage(outputTokens, inputTokens, totalTokens, null, null, null, null, null,
+				null, null);
+	}
+
 	/**
 	 * Merge runtime and default {@link RerankOptions} to compute the final options to use
 	 * in the request.
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.rerank.cache;
+
+import com.alibaba.cloud.ai.cache.InMemoryKeyValueCache;
+
+import java.time.Duration;
+
+/**
+ * Bounded in-memory {@link RerankScoreCache}. Entries are evicted in least-recently-used
+ * order once {@code maximumSize} is reached, and optionally expire a fixed time after
+ * they were written.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class InMemoryRerankScoreCache extends InMemoryKeyValueCache<Double> implements RerankScoreCache {
+
+	public InMemoryRerankScoreCache() {
+		super();
+	}
+
+	public InMemoryRerankScoreCache(int maximumSize) {
+		super(maximumSize);
+	}
+
+	/**
+	 * @param maximumSize the maximum number of cached scores
+	 * @param expireAfterWrite the time to live of an entry, {@code null} for no expiry
+	 */
+	public InMemoryRerankScoreCache(int maximumSize, Duration expireAfterWrite) {
+		super(maximumSize, expireAfterWrite);
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.rerank.cache;
+
+import com.alibaba.cloud.ai.cache.CacheSupport;
+import com.alibaba.cloud.ai.cache.KeyValueCache;
+
+/**
+ * Cache of rerank relevance scores, addressed by the query and the content of the
+ * scored document.
+ *
+ * <p>Keys are produced by {@link #key(String, String, String)} and already include the
+ * model, so one cache instance can be shared between rerank models. Implementations must
+ * be thread-safe. Remote stores should override {@link #getAll(java.util.Collection)}
+ * and {@link #putAll(java.util.Map)} to use a single round-trip.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public interface RerankScoreCache extends KeyValueCache<Double> {
+
+	/**
+	 * Creates the content-addressed key of a score: the SHA-256 of the model, query and
+	 * document text.
+	 * @param model the rerank model name
+	 * @param query the rerank query
+	 * @param text the scored document text
+	 * @return the hex encoded key
+	 */
+	static String key(String model, String query, String text) {
+		return CacheSupport.key(model, query, text);
+	}
+
+}
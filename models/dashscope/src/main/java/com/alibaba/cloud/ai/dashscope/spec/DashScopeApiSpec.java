@@ -266,6 +266,24 @@ public class DashScopeApiSpec {
                                        @JsonProperty("headers") Map<String, String> header) {
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record UploadPolicyResponse(@JsonProperty("request_id") String requestId,
+                                       @JsonProperty("data") UploadPolicyData data) {
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record UploadPolicyData(@JsonProperty("policy") String policy,
+                                   @JsonProperty("signature") String signature,
+                                   @JsonProperty("upload_dir") String uploadDir,
+                                   @JsonProperty("upload_host") String uploadHost,
+                                   @JsonProperty("expire_in_seconds") Integer expireInSeconds,
+                                   @JsonProperty("max_file_size_mb") Integer maxFileSizeMb,
+                                   @JsonProperty("oss_access_key_id") String ossAccessKeyId,
+                                   @JsonProperty("x_oss_object_acl") String xOssObjectAcl,
+                                   @JsonProperty("x_oss_forbid_overwrite") String xOssForbidOverwrite) {
+    }
+
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public record AddFileResponseData(@JsonProperty("file_id") String fileId, @JsonProperty("parser") String method) {
     }
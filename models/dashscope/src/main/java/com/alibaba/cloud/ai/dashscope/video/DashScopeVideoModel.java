@@ -17,15 +17,17 @@
 package com.alibaba.cloud.ai.dashscope.video;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeVideoApi;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeTaskPoller;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.retry.RetryUtils;
-import org.springframework.ai.retry.TransientAiException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.Objects;
 
@@ -49,6 +51,8 @@ public class DashScopeVideoModel implements VideoModel {
 
 	private final RetryTemplate retryTemplate;
 
+	private DashScopeTaskPoller taskPoller = DashScopeTaskPoller.shared();
+
 	public DashScopeVideoModel(DashScopeVideoApi dashScopeVideoApi, DashScopeVideoOptions defaultOptions,
 			RetryTemplate retryTemplate) {
 
@@ -75,37 +79,59 @@ public class DashScopeVideoModel implements VideoModel {
 		Assert.notNull(prompt, "Prompt must not be null");
 		Assert.notEmpty(prompt.getInstructions(), "Prompt instructions must not be empty");
 
-		System.out.println("Video generation task submitted with prompt: " + prompt.getOptions());
-
 		String taskId = submitGenTask(prompt);
 		if (Objects.isNull(taskId)) {
 			return new VideoResponse(null);
 		}
 
 		// todo: add observation
-		logger.warn("Video generation task submitted with taskId: {}", taskId);
-		return this.retryTemplate.execute(context -> {
+		logger.info("Video generation task submitted with taskId: {}", taskId);
+		return pollGenTask(taskId).block();
+	}
 
-			var resp = getVideoTask(taskId);
-			if (Objects.nonNull(resp)) {
+	/**
+	 * Wait for a submitted video generation task without blocking the calling thread.
+	 * @param taskId the id returned by {@link #submitGenTask(VideoPrompt)}
+	 * @return the video response once the task reached a terminal status or timed out
+	 */
+	public Mono<VideoResponse> pollGenTask(String taskId) {
+
+		return this.taskPoller
+			.poll(taskId,
+					() -> Mono.fromCallable(() -> this.retryTemplate.execute(context -> getVideoTask(taskId)))
+						.subscribeOn(Schedulers.boundedElastic()),
+					DashScopeVideoModel::isTerminal)
+			.map(result -> {
+				if (result.timedOut()) {
+					logger.warn("Video generation task timed out: {}", taskId);
+					return new VideoResponse(null);
+				}
 
+				var resp = result.response();
 				logger.debug(String.valueOf(resp));
-
-				String status = resp.getOutput().getTaskStatus();
-				switch (status) {
-					// status enum SUCCEEDED, FAILED, PENDING, RUNNING
-					case "SUCCEEDED" -> {
-						logger.info("Video generation task completed successfully: {}", taskId);
-						return toVideoResponse(resp);
-					}
-					case "FAILED" -> {
-						logger.error("Video generation task failed: {}", resp.getOutput());
-						return new VideoResponse(null);
-					}
+				if ("SUCCEEDED".equals(resp.getOutput().getTaskStatus())) {
+					logger.info("Video generation task completed successfully: {}", taskId);
+					return toVideoResponse(resp);
 				}
-			}
-			throw new TransientAiException("Video generation still pending, retry ...");
-		});
+				logger.error("Video generation task failed: {}", resp.getOutput());
+				return new VideoResponse(null);
+			});
+	}
+
+	/**
+	 * Use the provided poller to wait for submitted video generation tasks.
+	 * @param taskPoller the task poller
+	 */
+	public void setTaskPoller(DashScopeTaskPoller taskPoller) {
+		Assert.notNull(taskPoller, "DashScopeTaskPoller must not be null");
+		this.taskPoller = taskPoller;
+	}
+
+	private static boolean isTerminal(DashScopeApiSpec.VideoGenerationResponse resp) {
+
+		// status enum SUCCEEDED, FAILED, CANCELED, PENDING, RUNNING
+		String status = Objects.nonNull(resp.getOutput()) ? resp.getOutput().getTaskStatus() : null;
+		return "SUCCEEDED".equals(status) || "FAILED".equals(status) || "CANCELED".equals(status);
 	}
 
 	/**
@@ -200,6 +226,8 @@ public class DashScopeVideoModel implements VideoModel {
 
 		private RetryTemplate retryTemplate = RetryUtils.DEFAULT_RETRY_TEMPLATE;
 
+		private DashScopeTaskPoller taskPoller = DashScopeTaskPoller.shared();
+
 		private Builder() {
 		}
 
@@ -218,8 +246,15 @@ public class DashScopeVideoModel implements VideoModel {
 			return this;
 		}
 
+		public Builder taskPoller(DashScopeTaskPoller taskPoller) {
+			this.taskPoller = taskPoller;
+			return this;
+		}
+
 		public DashScopeVideoModel build() {
-			return new DashScopeVideoModel(this.videoApi, this.defaultOptions, this.retryTemplate);
+			DashScopeVideoModel model = new DashScopeVideoModel(this.videoApi, this.defaultOptions, this.retryTemplate);
+			model.setTaskPoller(this.taskPoller);
+			return model;
 		}
 
 	}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.document;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Retrieves documents from several sources concurrently and fuses the result lists with
+ * Reciprocal Rank Fusion (RRF). Shared by the retrievers and advisors that combine
+ * several retrievals, such as several retrievers or several expanded queries.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public final class DocumentFusion {
+
+	private static final Logger logger = LoggerFactory.getLogger(DocumentFusion.class);
+
+	/**
+	 * Default rank constant of {@link #reciprocalRankFusion(List, int, Function)}.
+	 */
+	public static final int DEFAULT_RRF_K = 60;
+
+	/**
+	 * Metadata key under which {@link #reciprocalRankFusion(List, int, Function)} keeps
+	 * the score a document had before it was replaced by the fused score.
+	 */
+	public static final String RETRIEVAL_SCORE_METADATA_KEY = "retrieval_score";
+
+	private DocumentFusion() {
+	}
+
+	/**
+	 * Applies the retrieval to every source, at most {@code maxConcurrency} at a time on
+	 * the given scheduler, and returns the results in source order. A source whose
+	 * retrieval fails or exceeds the timeout yields an empty list.
+	 * <p>
+	 * A timed out retrieval is cancelled, which interrupts the thread running it. A
+	 * retrieval blocked in I/O that ignores interrupts keeps its thread until it
+	 * returns, and its result is discarded.
+	 * @param sources the sources, such as retrievers or queries
+	 * @param retrieval the retrieval applied to each source
+	 * @param maxConcurrency the maximum number of concurrent retrievals
+	 * @param timeout the maximum time to wait for each retrieval, {@code null} for no
+	 * limit
+	 * @param scheduler the scheduler the retrievals run on
+	 * @return the documents of each source, in source order
+	 */
+	public static <T> List<List<Document>> retrieveAll(List<T> sources, Function<T, List<Document>> retrieval,
+			int maxConcurrency, Duration timeout, Scheduler scheduler) {
+		Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be positive");
+		Assert.notNull(scheduler, "scheduler must not be null");
+		if (sources.size() == 1 && timeout == null) {
+			return List.of(retrieveSafely(sources.get(0), retrieval));
+		}
+		return Flux.fromIterable(sources).flatMapSequential(source -> {
+			Mono<List<Document>> documents = Mono.fromCallable(() -> retrieveSafely(source, retrieval))
+				.subscribeOn(scheduler);
+			if (timeout != null) {
+				documents = documents.timeout(timeout).onErrorResume(e -> {
+					logger.warn("Retrieval from {} did not complete within {}, skipping its results", source, timeout);
+					return Mono.just(List.of());
+				});
+			}
+			return documents;
+		}, maxConcurrency).collectList().blockOptional().orElse(List.of());
+	}
+
+	private static <T> List<Document> retrieveSafely(T source, Function<T, List<Document>> retrieval) {
+		try {
+			List<Document> documents = retrieval.apply(source);
+			return documents != null ? documents : List.of();
+		}
+		catch (RuntimeException e) {
+			logger.warn("Retrieval from {} failed, skipping its results", source, e);
+			return List.of();
+		}
+	}
+
+	/**
+	 * Scores every document with the sum of {@code 1 / (k + rank)} over the result lists
+	 * that contain it, where {@code rank} starts at 1, and orders the documents by
+	 * descending fused score. Documents with the same key are fused, the first one is
+	 * kept. The fused score replaces the document score, and the previous score of that
+	 * document is kept in the {@link #RETRIEVAL_SCORE_METADATA_KEY} metadata.
+	 * @param results the result lists, {@code null} lists are ignored
+	 * @param k the rank constant
+	 * @param key identifies the same document across the result lists
+	 * @return the fused documents
+	 */
+	public static List<Document> reciprocalRankFusion(List<List<Document>> results, int k,
+			Function<Document, Object> key) {
+		Assert.isTrue(k >= 0, "k must not be negative");
+		Map<Object, Document> documents = new LinkedHashMap<>();
+		Map<Object, Double> scores = new HashMap<>();
+		for (List<Document> result : results) {
+			if (result == null) {
+				continue;
+			}
+			for (int rank = 0; rank < result.size(); rank++) {
+				Document document = result.get(rank);
+				Object documentKey = key.apply(document);
+				documents.putIfAbsent(documentKey, document);
+				scores.merge(documentKey, 1.0 / (k + rank + 1), Double::sum);
+			}
+		}
+		List<Document> fused = new ArrayList<>(documents.size());
+		documents.entrySet()
+			.stream()
+			.sorted((e1, e2) -> Double.compare(scores.get(e2.getKey()), scores.get(e1.getKey())))
+			.forEach(entry -> fused.add(withFusedScore(entry.getValue(), scores.get(entry.getKey()))));
+		return fused;
+	}
+
+	private static Document withFusedScore(Document document, double score) {
+		if (document.getScore() == null) {
+			return document.mutate().score(score).build();
+		}
+		Map<String, Object> metadata = new HashMap<>(document.getMetadata());
+		metadata.put(RETRIEVAL_SCORE_METADATA_KEY, document.getScore());
+		return document.mutate().metadata(metadata).score(score).build();
+	}
+
+}
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.evaluation;
+
+import com.alibaba.cloud.ai.cache.CacheSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.evaluation.EvaluationRequest;
+import org.springframework.ai.evaluation.EvaluationResponse;
+import org.springframework.ai.evaluation.Evaluator;
+import org.springframework.ai.retry.RetryUtils;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates a dataset of {@link EvaluationRequest}s with one {@link Evaluator}, for
+ * example an {@link AnswerRelevancyEvaluator}.
+ * <p>
+ * Up to {@code maxConcurrency} requests are evaluated at the same time, and at most
+ * {@code maxRequestsPerSecond} evaluations are started per second. Every evaluation is
+ * retried with the {@link RetryTemplate}; an evaluation that still fails is reported as
+ * an error and does not stop the batch.
+ * <p>
+ * Verdicts are cached by a hash of the evaluator id and the request, so a rerun only
+ * evaluates the requests that changed. The evaluator id is given explicitly because the
+ * verdict also depends on configuration the runner cannot see, like the judge model and
+ * its options; change the id whenever that configuration changes. Identical requests of
+ * one batch are evaluated once. The results can be written to a JSONL file, one line per
+ * request as soon as it is evaluated, and the verdicts of such a file can be loaded into
+ * the cache with {@link #loadVerdicts(Path)} before a rerun.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class BatchEvaluationRunner {
+
+	private static final Logger logger = LoggerFactory.getLogger(BatchEvaluationRunner.class);
+
+	private final Evaluator evaluator;
+
+	private final String evaluatorId;
+
+	private final String evaluationPromptText;
+
+	private final int maxConcurrency;
+
+	private final RateLimiter rateLimiter;
+
+	private final RetryTemplate retryTemplate;
+
+	private final Scheduler scheduler;
+
+	private final ObjectMapper objectMapper;
+
+	private final Map<String, EvaluationResponse> verdicts = new ConcurrentHashMap<>();
+
+	private BatchEvaluationRunner(Builder builder) {
+		Assert.notNull(builder.evaluator, "evaluator must not be null");
+		Assert.hasText(builder.evaluatorId, "evaluatorId must not be empty");
+		Assert.isTrue(builder.maxConcurrency > 0, "maxConcurrency must be greater than 0");
+		Assert.isTrue(builder.maxRequestsPerSecond >= 0, "maxRequestsPerSecond must not be negative");
+		Assert.notNull(builder.retryTemplate, "retryTemplate must not be null");
+		Assert.notNull(builder.scheduler, "scheduler must not be null");
+		Assert.notNull(builder.objectMapper, "objectMapper must not be null");
+
+		this.evaluator = builder.evaluator;
+		this.evaluatorId = builder.evaluatorId;
+		this.evaluationPromptText = builder.evaluator instanceof LaajEvaluator laajEvaluator
+				? laajEvaluator.getEvaluationPromptText() : null;
+		this.maxConcurrency = builder.maxConcurrency;
+		this.rateLimiter = builder.maxRequestsPerSecond > 0 ? new RateLimiter(builder.maxRequestsPerSecond) : null;
+		this.retryTemplate = builder.retryTemplate;
+		this.scheduler = builder.scheduler;
+		this.objectMapper = builder.objectMapper;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Evaluates the requests.
+	 * @param requests the dataset
+	 * @return the results in the order of the requests
+	 */
+	public List<Result> run(List<EvaluationRequest> requests) {
+		return run(requests, null);
+	}
+
+	/**
+	 * Evaluates the requests and writes every result to the output file as soon as it is
+	 * available. An existing output file is replaced.
+	 * @param requests the dataset
+	 * @param output the JSONL output file, or {@code null}
+	 * @return the results in the order of the requests
+	 */
+	public List<Result> run(List<EvaluationRequest> requests, Path output) {
+		Assert.notNull(requests, "requests must not be null");
+		Map<String, List<Integer>> indicesByHash = new LinkedHashMap<>();
+		for (int i = 0; i < requests.size(); i++) {
+			indicesByHash.computeIfAbsent(hash(requests.get(i)), hash -> new ArrayList<>()).add(i);
+		}
+
+		Result[] results = new Result[requests.size()];
+		try (Writer writer = output != null ? Files.newBufferedWriter(output, StandardCharsets.UTF_8) : null) {
+			Flux.fromIterable(indicesByHash.entrySet())
+				.flatMap(entry -> Mono.fromCallable(() -> evaluate(entry.getValue(), entry.getKey(),
+						requests.get(entry.getValue().get(0))))
+					.subscribeOn(this.scheduler), this.maxConcurrency)
+				.concatMapIterable(duplicates -> duplicates)
+				.doOnNext(result -> {
+					results[result.index()] = result;
+					if (writer != null) {
+						write(writer, result);
+					}
+				})
+				.blockLast();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to write evaluation results to " + output, e);
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Loads the verdicts of a JSONL file written by {@link #run(List, Path)} into the
+	 * cache. Lines of failed evaluations are skipped.
+	 * @param jsonl the JSONL file
+	 * @return the number of loaded verdicts
+	 */
+	public int loadVerdicts(Path jsonl) {
+		int loaded = 0;
+		try (BufferedReader reader = Files.newBufferedReader(jsonl, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				JsonNode node = this.objectMapper.readTree(line);
+				if (node.hasNonNull("error") || !node.hasNonNull("hash")) {
+					continue;
+				}
+				@SuppressWarnings("unchecked")
+				Map<String, Object> metadata = node.hasNonNull("metadata")
+						? this.objectMapper.convertValue(node.get("metadata"), Map.class) : Map.of();
+				this.verdicts.put(node.get("hash").asText(), new EvaluationResponse(node.get("pass").asBoolean(),
+						(float) node.get("score").asDouble(), node.path("feedback").asText(null), metadata));
+				loaded++;
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to read evaluation results from " + jsonl, e);
+		}
+		return loaded;
+	}
+
+	/**
+	 * Creates the cache key of a request: the SHA-256 of the evaluator id, the
+	 * evaluation prompt of a {@link LaajEvaluator}, the user text, the response content
+	 * and the texts of the supporting documents.
+	 * @param request the evaluation request
+	 * @return the hex encoded hash
+	 */
+	public String hash(EvaluationRequest request) {
+		List<String> fields = new ArrayList<>();
+		fields.add(this.evaluatorId);
+		fields.add(this.evaluationPromptText);
+		fields.add(request.getUserText());
+		fields.add(request.getResponseContent());
+		if (request.getDataList() != null) {
+			for (Document document : request.getDataList()) {
+				fields.add(document == null ? null : document.getText());
+			}
+		}
+		return CacheSupport.key(fields.toArray(new String[0]));
+	}
+
+	/**
+	 * Evaluates the first of identical requests and shares its verdict with the others,
+	 * which are reported as cached.
+	 */
+	private List<Result> evaluate(List<Integer> indices, String hash, EvaluationRequest request) {
+		Result first = evaluate(indices.get(0), hash, request);
+		List<Result> results = new ArrayList<>(indices.size());
+		results.add(first);
+		for (int i = 1; i < indices.size(); i++) {
+			results.add(new Result(indices.get(i), hash, first.response(), first.isSuccess(), first.error()));
+		}
+		return results;
+	}
+
+	private Result evaluate(int index, String hash, EvaluationRequest request) {
+		EvaluationResponse cached = this.verdicts.get(hash);
+		if (cached != null) {
+			return new Result(index, hash, cached, true, null);
+		}
+
+		try {
+			EvaluationResponse response = this.retryTemplate.execute(ctx -> {
+				if (this.rateLimiter != null) {
+					this.rateLimiter.acquire();
+				}
+				return this.evaluator.evaluate(request);
+			});
+			this.verdicts.put(hash, response);
+			return new Result(index, hash, response, false, null);
+		}
+		catch (RuntimeException e) {
+			logger.warn("Evaluation of request {} failed: {}", index, e.getMessage());
+			return new Result(index, hash, null, false, String.valueOf(e.getMessage()));
+		}
+	}
+
+	private void write(Writer writer, Result result) {
+		ObjectNode node = this.objectMapper.createObjectNode();
+		node.put("index", result.index());
+		node.put("hash", result.hash());
+		node.put("evaluator", this.evaluatorId);
+		if (result.response() != null) {
+			node.put("pass", result.response().isPass());
+			node.put("score", result.response().getScore());
+			node.put("feedback", result.response().getFeedback());
+			node.set("metadata", this.objectMapper.valueToTree(result.response().getMetadata()));
+		}
+		node.put("cached", result.cached());
+		if (result.error() != null) {
+			node.put("error", result.error());
+		}
+		try {
+			// results arrive on the evaluation threads, one after another
+			writer.write(this.objectMapper.writeValueAsString(node));
+			writer.write('\n');
+			writer.flush();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * The result of one evaluation.
+	 *
+	 * @param index the index of the request in the dataset
+	 * @param hash the cache key of the request
+	 * @param response the verdict, {@code null} if the evaluation failed
+	 * @param cached whether the verdict was taken from the cache or from an identical
+	 * request of the same batch
+	 * @param error the error message of a failed evaluation
+	 */
+	public record Result(int index, String hash, EvaluationResponse response, boolean cached, String error) {
+
+		public boolean isSuccess() {
+			return this.response != null;
+		}
+
+	}
+
+	/**
+	 * Spaces the evaluation starts evenly, {@code 1 / permitsPerSecond} apart.
+	 */
+	private static final class RateLimiter {
+
+		private final long intervalNanos;
+
+		private long nextPermitNanos = System.nanoTime();
+
+		RateLimiter(double permitsPerSecond) {
+			this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+		}
+
+		void acquire() {
+			long permit;
+			synchronized (this) {
+				long now = System.nanoTime();
+				permit = Math.max(now, this.nextPermitNanos);
+				this.nextPermitNanos = permit + this.intervalNanos;
+			}
+			long waitNanos = permit - System.nanoTime();
+			if (waitNanos > 0) {
+				try {
+					TimeUnit.NANOSECONDS.sleep(waitNanos);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while waiting for the rate limit", e);
+				}
+			}
+		}
+
+	}
+
+	public static class Builder {
+
+		private Evaluator evaluator;
+
+		private String evaluatorId;
+
+		private int maxConcurrency = 4;
+
+		private double maxRequestsPerSecond;
+
+		private RetryTemplate retryTemplate = RetryUtils.DEFAULT_RETRY_TEMPLATE;
+
+		private Scheduler scheduler = Schedulers.boundedElastic();
+
+		private ObjectMapper objectMapper = new ObjectMapper();
+
+		private Builder() {
+		}
+
+		public Builder evaluator(Evaluator evaluator) {
+			this.evaluator = evaluator;
+			return this;
+		}
+
+		/**
+		 * @param evaluatorId identifies the evaluator and the configuration its verdicts
+		 * depend on, for example {@code "answer-relevancy/qwen-plus"}; verdicts cached
+		 * under another id are never reused
+		 * @return this builder
+		 */
+		public Builder evaluatorId(String evaluatorId) {
+			this.evaluatorId = evaluatorId;
+			return this;
+		}
+
+		/**
+		 * @param maxConcurrency the maximum number of evaluations running at the same
+		 * time, {@code 4} by default
+		 * @return this builder
+		 */
+		public Builder maxConcurrency(int maxConcurrency) {
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * @param maxRequestsPerSecond the maximum number of evaluation attempts started
+		 * per second, {@code 0} for no limit
+		 * @return this builder
+		 */
+		public Builder maxRequestsPerSecond(double maxRequestsPerSecond) {
+			this.maxRequestsPerSecond = maxRequestsPerSecond;
+			return this;
+		}
+
+		/**
+		 * @param retryTemplate the retry template of each evaluation, by default
+		 * {@link RetryUtils#DEFAULT_RETRY_TEMPLATE} which retries transient errors
+		 * @return this builder
+		 */
+		public Builder retryTemplate(RetryTemplate retryTemplate) {
+			this.retryTemplate = retryTemplate;
+			return this;
+		}
+
+		public Builder scheduler(Scheduler scheduler) {
+			this.scheduler = scheduler;
+			return this;
+		}
+
+		public Builder objectMapper(ObjectMapper objectMapper) {
+			this.objectMapper = objectMapper;
+			return this;
+		}
+
+		public BatchEvaluationRunner build() {
+			return new BatchEvaluationRunner(this);
+		}
+
+	}
+
+}
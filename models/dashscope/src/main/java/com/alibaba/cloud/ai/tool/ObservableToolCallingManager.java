@@ -21,12 +21,22 @@ import com.alibaba.cloud.ai.tool.observation.ArmsToolCallingObservationDocumenta
 import com.alibaba.cloud.ai.tool.observation.inner.ToolCallReactiveContextHolder;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.messages.AssistantMessage;
@@ -82,6 +92,12 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 
 	private final ToolExecutionExceptionProcessor toolExecutionExceptionProcessor;
 
+	private final Executor toolExecutor;
+
+	private final int maxConcurrentToolCalls;
+
+	private final Duration toolCallTimeout;
+
 	// TODO Mandatory Convention as ARMS implementation until the Spring AI project
 	// officially supports for observation
 	private final ArmsToolCallingObservationConvention observationConvention = DEFAULT_OBSERVATION_CONVENTION;
@@ -89,13 +105,39 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 	public ObservableToolCallingManager(ObservationRegistry observationRegistry,
 			ToolCallbackResolver toolCallbackResolver,
 			ToolExecutionExceptionProcessor toolExecutionExceptionProcessor) {
+		this(observationRegistry, toolCallbackResolver, toolExecutionExceptionProcessor, null, 1, Duration.ZERO);
+	}
+
+	/**
+	 * Create a tool calling manager that executes the tool calls of one assistant
+	 * message concurrently when {@code maxConcurrentToolCalls} is greater than one.
+	 * @param observationRegistry the observation registry
+	 * @param toolCallbackResolver the tool callback resolver
+	 * @param toolExecutionExceptionProcessor the tool execution exception processor
+	 * @param toolExecutor the executor that runs concurrent tool calls, or {@code null}
+	 * to use virtual threads when available and a shared daemon thread pool otherwise
+	 * @param maxConcurrentToolCalls the maximum number of tool calls of one message
+	 * that run at the same time, {@code 1} to run them one after another
+	 * @param toolCallTimeout the maximum time a tool call may take once it has started,
+	 * {@link Duration#ZERO} for no limit
+	 */
+	public ObservableToolCallingManager(ObservationRegistry observationRegistry,
+			ToolCallbackResolver toolCallbackResolver, ToolExecutionExceptionProcessor toolExecutionExceptionProcessor,
+			Executor toolExecutor, int maxConcurrentToolCalls, Duration toolCallTimeout) {
 		Assert.notNull(observationRegistry, "observationRegistry cannot be null");
 		Assert.notNull(toolCallbackResolver, "toolCallbackResolver cannot be null");
 		Assert.notNull(toolExecutionExceptionProcessor, "toolCallExceptionConverter cannot be null");
+		Assert.isTrue(maxConcurrentToolCalls > 0, "maxConcurrentToolCalls must be greater than 0");
+		Assert.isTrue(toolCallTimeout != null && !toolCallTimeout.isNegative(),
+				"toolCallTimeout cannot be null or negative");
 
 		this.observationRegistry = observationRegistry;
 		this.toolCallbackResolver = toolCallbackResolver;
 		this.toolExecutionExceptionProcessor = toolExecutionExceptionProcessor;
+		this.toolExecutor = (toolExecutor != null || (maxConcurrentToolCalls == 1 && toolCallTimeout.isZero()))
+				? toolExecutor : DefaultToolExecutor.get();
+		this.maxConcurrentToolCalls = maxConcurrentToolCalls;
+		this.toolCallTimeout = toolCallTimeout;
 	}
 
 	@Override
@@ -187,16 +229,14 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 			toolCallbacks = toolCallingChatOptions.getToolCallbacks();
 		}
 
-		List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>();
+		List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+		List<ToolCallback> resolvedCallbacks = new ArrayList<>(toolCalls.size());
+		List<Boolean> returnDirects = new ArrayList<>(toolCalls.size());
 
 		Boolean returnDirect = null;
 
-		for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
-
-			logger.debug("Executing tool call: {}", toolCall.name());
-
+		for (AssistantMessage.ToolCall toolCall : toolCalls) {
 			String toolName = toolCall.name();
-			String toolInputArguments = toolCall.arguments();
 
 			ToolCallback toolCallback = toolCallbacks.stream()
 				.filter(tool -> toolName.equals(tool.getToolDefinition().name()))
@@ -214,40 +254,162 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 				returnDirect = returnDirect && toolCallback.getToolMetadata().returnDirect();
 			}
 
-			ArmsToolCallingObservationContext observationContext = ArmsToolCallingObservationContext.builder()
-				.toolCall(toolCall)
-				.description(toolCallback.getToolDefinition().description())
-				.returnDirect(returnDirect)
-				.build();
+			resolvedCallbacks.add(toolCallback);
+			returnDirects.add(returnDirect);
+		}
+
+		ContextView contextView = ToolCallReactiveContextHolder.getContext();
 
-			ContextView contextView = ToolCallReactiveContextHolder.getContext();
-			if (contextView != null) {
-				observationContext
-					.setParentObservation(contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+		List<String> toolResults;
+		if (this.maxConcurrentToolCalls > 1 && toolCalls.size() > 1) {
+			toolResults = executeConcurrently(toolCalls, resolvedCallbacks, returnDirects, toolContext, contextView);
+		}
+		else if (!this.toolCallTimeout.isZero()) {
+			// one after another, but on the tool executor so that a slow tool can be timed out
+			toolResults = new ArrayList<>(toolCalls.size());
+			for (int i = 0; i < toolCalls.size(); i++) {
+				toolResults.addAll(executeConcurrently(toolCalls.subList(i, i + 1), resolvedCallbacks.subList(i, i + 1),
+						returnDirects.subList(i, i + 1), toolContext, contextView));
+			}
+		}
+		else {
+			toolResults = new ArrayList<>(toolCalls.size());
+			for (int i = 0; i < toolCalls.size(); i++) {
+				toolResults.add(executeObserved(toolCalls.get(i), resolvedCallbacks.get(i), returnDirects.get(i),
+						toolContext, contextView));
 			}
+		}
+
+		List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(toolCalls.size());
+		for (int i = 0; i < toolCalls.size(); i++) {
+			AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+			toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), toolResults.get(i)));
+		}
 
-			String toolResult = ArmsToolCallingObservationDocumentation.EXECUTE_TOOL_OPERATION
-				.observation(this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
-						this.observationRegistry)
-				.observe(() -> {
-					String result;
+		return new InternalToolExecutionResult(ToolResponseMessage.builder()
+			.responses(toolResponses).metadata(Map.of()).build(), returnDirect);
+	}
+
+	/**
+	 * Run the tool calls on the tool executor, at most {@code maxConcurrentToolCalls} at
+	 * a time, and collect the results in the order of the tool calls. A tool that does
+	 * not finish within the tool call timeout, measured from the moment it acquired its
+	 * permit and started running, is interrupted and reported through the
+	 * {@link ToolExecutionExceptionProcessor}. Any other failure cancels the remaining
+	 * tool calls and is rethrown, as in sequential execution.
+	 */
+	private List<String> executeConcurrently(List<AssistantMessage.ToolCall> toolCalls,
+			List<ToolCallback> toolCallbacks, List<Boolean> returnDirects, ToolContext toolContext,
+			ContextView contextView) {
+
+		Semaphore permits = new Semaphore(this.maxConcurrentToolCalls);
+		List<ToolCallTask> tasks = new ArrayList<>(toolCalls.size());
+		try {
+			for (int i = 0; i < toolCalls.size(); i++) {
+				AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+				ToolCallback toolCallback = toolCallbacks.get(i);
+				boolean returnDirect = returnDirects.get(i);
+				ToolCallTask task = new ToolCallTask(permits, () -> {
 					try {
-						result = toolCallback.call(toolInputArguments, toolContext);
+						if (contextView != null) {
+							ToolCallReactiveContextHolder.setContext(contextView);
+						}
+						return executeObserved(toolCall, toolCallback, returnDirect, toolContext, contextView);
 					}
-					catch (ToolExecutionException ex) {
-						observationContext.setError(ex);
-						result = toolExecutionExceptionProcessor.process(ex);
+					finally {
+						ToolCallReactiveContextHolder.clearContext();
 					}
-
-					observationContext.setToolResult(result);
-					return result;
 				});
+				tasks.add(task);
+				this.toolExecutor.execute(task);
+			}
 
-			toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolName, toolResult));
+			List<String> results = new ArrayList<>(tasks.size());
+			for (int i = 0; i < tasks.size(); i++) {
+				results.add(awaitToolResult(tasks.get(i), toolCalls.get(i), toolCallbacks.get(i)));
+			}
+			return results;
 		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while executing tool calls", ex);
+		}
+		finally {
+			tasks.forEach(task -> task.cancel(true));
+		}
+	}
 
-		return new InternalToolExecutionResult(ToolResponseMessage.builder()
-			.responses(toolResponses).metadata(Map.of()).build(), returnDirect);
+	private String awaitToolResult(ToolCallTask task, AssistantMessage.ToolCall toolCall, ToolCallback toolCallback)
+			throws InterruptedException {
+		try {
+			if (this.toolCallTimeout.isZero()) {
+				return task.get();
+			}
+			long timeout = this.toolCallTimeout.toNanos();
+			while (true) {
+				// a task still waiting for its permit gets the full timeout once it starts
+				boolean started = task.started;
+				long remaining = started ? task.startedAt + timeout - System.nanoTime() : timeout;
+				try {
+					return task.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+				}
+				catch (TimeoutException ex) {
+					if (started) {
+						throw ex;
+					}
+				}
+			}
+		}
+		catch (TimeoutException ex) {
+			task.cancel(true);
+			logger.warn("Tool call {} ({}) timed out after {}", toolCall.id(), toolCall.name(), this.toolCallTimeout);
+			// a runtime cause lets the default processor turn the timeout into a tool result
+			return this.toolExecutionExceptionProcessor.process(new ToolExecutionException(
+					toolCallback.getToolDefinition(),
+					new IllegalStateException("Tool call timed out after " + this.toolCallTimeout.toMillis() + " ms")));
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+
+	private String executeObserved(AssistantMessage.ToolCall toolCall, ToolCallback toolCallback,
+			boolean returnDirect, ToolContext toolContext, ContextView contextView) {
+
+		logger.debug("Executing tool call: {}", toolCall.name());
+
+		ArmsToolCallingObservationContext observationContext = ArmsToolCallingObservationContext.builder()
+			.toolCall(toolCall)
+			.description(toolCallback.getToolDefinition().description())
+			.returnDirect(returnDirect)
+			.build();
+
+		if (contextView != null) {
+			observationContext.setParentObservation(contextView.getOrDefault(ObservationThreadLocalAccessor.KEY, null));
+		}
+
+		return ArmsToolCallingObservationDocumentation.EXECUTE_TOOL_OPERATION
+			.observation(this.observationConvention, DEFAULT_OBSERVATION_CONVENTION, () -> observationContext,
+					this.observationRegistry)
+			.observe(() -> {
+				String result;
+				try {
+					result = toolCallback.call(toolCall.arguments(), toolContext);
+				}
+				catch (ToolExecutionException ex) {
+					observationContext.setError(ex);
+					result = toolExecutionExceptionProcessor.process(ex);
+				}
+
+				observationContext.setToolResult(result);
+				return result;
+			});
 	}
 
 	/**
@@ -300,6 +462,76 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 	private record InternalToolExecutionResult(ToolResponseMessage toolResponseMessage, boolean returnDirect) {
 	}
 
+	/**
+	 * A tool call that waits for a permit before it runs and records when it started, so
+	 * that its timeout does not include the time spent waiting for other tool calls.
+	 */
+	private static final class ToolCallTask extends FutureTask<String> {
+
+		private final Semaphore permits;
+
+		private volatile long startedAt;
+
+		private volatile boolean started;
+
+		private ToolCallTask(Semaphore permits, Callable<String> toolCall) {
+			super(toolCall);
+			this.permits = permits;
+		}
+
+		@Override
+		public void run() {
+			if (isDone()) {
+				return;
+			}
+			try {
+				this.permits.acquire();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				setException(ex);
+				return;
+			}
+			try {
+				this.startedAt = System.nanoTime();
+				this.started = true;
+				super.run();
+			}
+			finally {
+				this.permits.release();
+			}
+		}
+
+	}
+
+	/**
+	 * Lazily created executor for concurrent tool calls: a virtual thread per task on
+	 * Java 21+, a cached pool of daemon threads otherwise.
+	 */
+	private static final class DefaultToolExecutor {
+
+		private static final Executor INSTANCE = create();
+
+		static Executor get() {
+			return INSTANCE;
+		}
+
+		private static Executor create() {
+			try {
+				return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			}
+			catch (ReflectiveOperationException ex) {
+				AtomicInteger threadCount = new AtomicInteger();
+				return Executors.newCachedThreadPool(runnable -> {
+					Thread thread = new Thread(runnable, "tool-call-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+		}
+
+	}
+
 	public static ObservableToolCallingManager.Builder builder() {
 		return new ObservableToolCallingManager.Builder();
 	}
@@ -312,6 +544,12 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 
 		private ToolExecutionExceptionProcessor toolExecutionExceptionProcessor = DEFAULT_TOOL_EXECUTION_EXCEPTION_PROCESSOR;
 
+		private Executor toolExecutor;
+
+		private int maxConcurrentToolCalls = 1;
+
+		private Duration toolCallTimeout = Duration.ZERO;
+
 		private Builder() {
 		}
 
@@ -331,9 +569,38 @@ public class ObservableToolCallingManager implements ToolCallingManager {
 			return this;
 		}
 
+		/**
+		 * Set the executor that runs the tool calls. Only used when
+		 * {@link #maxConcurrentToolCalls(int)} is greater than one or a
+		 * {@link #toolCallTimeout(Duration)} is set.
+		 */
+		public ObservableToolCallingManager.Builder toolExecutor(Executor toolExecutor) {
+			this.toolExecutor = toolExecutor;
+			return this;
+		}
+
+		/**
+		 * Set how many tool calls of one assistant message may run at the same time.
+		 * Defaults to {@code 1}, which runs them one after another on the calling thread.
+		 */
+		public ObservableToolCallingManager.Builder maxConcurrentToolCalls(int maxConcurrentToolCalls) {
+			this.maxConcurrentToolCalls = maxConcurrentToolCalls;
+			return this;
+		}
+
+		/**
+		 * Set the maximum time a tool call may take, from the moment it starts running,
+		 * before it is interrupted and reported as failed. Defaults to
+		 * {@link Duration#ZERO}, no limit.
+		 */
+		public ObservableToolCallingManager.Builder toolCallTimeout(Duration toolCallTimeout) {
+			this.toolCallTimeout = toolCallTimeout;
+			return this;
+		}
+
 		public ObservableToolCallingManager build() {
 			return new ObservableToolCallingManager(observationRegistry, toolCallbackResolver,
-					toolExecutionExceptionProcessor);
+					toolExecutionExceptionProcessor, toolExecutor, maxConcurrentToolCalls, toolCallTimeout);
 		}
 
 	}
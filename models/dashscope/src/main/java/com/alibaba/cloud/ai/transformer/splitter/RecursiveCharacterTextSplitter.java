@@ -16,29 +16,68 @@
 package com.alibaba.cloud.ai.transformer.splitter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
 
 import org.springframework.ai.transformer.splitter.TextSplitter;
 
 /**
  * Title Recursive character text splitter.<br>
  * Description Text splitter implementation that recursively splits text by characters.
+ * <p>
+ * The text is cut at the first separator that occurs in it, and every fragment that is
+ * still larger than the chunk size is cut again at the next separators, down to a fixed
+ * size split. Separators are matched as literal strings. Adjacent fragments of the same
+ * level are then merged greedily, joined with their separator, into chunks of up to
+ * {@code chunkSize}, and each chunk starts with up to {@code chunkOverlap} of the tail of
+ * the previous one.
+ * <p>
+ * Sizes are measured in characters, or in tokens when an {@link EncodingType} is set. In
+ * token mode the size of a merged chunk is the sum of the token counts of its fragments
+ * and separators, which can slightly differ from the token count of the joined text.
  *
  * @author HunterPorter
  */
 public class RecursiveCharacterTextSplitter extends TextSplitter {
 
+	private static final String[] DEFAULT_SEPARATORS = { "\n\n", "\n", "。", "！", "？", "；", "，", " " };
+
 	/**
 	 * Maximum size of each chunk
 	 */
 	private final int chunkSize;
 
+	/**
+	 * Maximum size shared by two consecutive chunks
+	 */
+	private final int chunkOverlap;
+
 	/**
 	 * Array of separators to use for splitting
 	 */
 	private final String[] separators;
 
+	/**
+	 * Size of each separator, in the unit of {@link #lengthFunction}
+	 */
+	private final int[] separatorLengths;
+
+	/**
+	 * Measures the size of a text, in characters or tokens
+	 */
+	private final ToIntFunction<String> lengthFunction;
+
+	/**
+	 * Whether sizes are measured in characters
+	 */
+	private final boolean characterLength;
+
 	/**
 	 * Create with default separators
 	 */
@@ -55,68 +94,213 @@ public class RecursiveCharacterTextSplitter extends TextSplitter {
 	}
 
 	/**
-	 * Create with custom chunk size, overlap and separators
+	 * Create with custom chunk size and separators
 	 * @param chunkSize Maximum size of each chunk
 	 * @param separators Array of separators to use for splitting
 	 */
 	public RecursiveCharacterTextSplitter(int chunkSize, String[] separators) {
+		this(chunkSize, 0, separators);
+	}
+
+	/**
+	 * Create with custom chunk size, overlap and separators
+	 * @param chunkSize Maximum size of each chunk
+	 * @param chunkOverlap Maximum size shared by two consecutive chunks
+	 * @param separators Array of separators to use for splitting
+	 */
+	public RecursiveCharacterTextSplitter(int chunkSize, int chunkOverlap, String[] separators) {
+		this(chunkSize, chunkOverlap, separators, null);
+	}
+
+	private RecursiveCharacterTextSplitter(int chunkSize, int chunkOverlap, String[] separators,
+			EncodingType encodingType) {
 		if (chunkSize <= 0) {
 			throw new IllegalArgumentException("Chunk size must be positive");
 		}
+		if (chunkOverlap < 0 || chunkOverlap >= chunkSize) {
+			throw new IllegalArgumentException("Chunk overlap must not be negative and smaller than the chunk size");
+		}
 
 		this.chunkSize = chunkSize;
-		this.separators = Objects.requireNonNullElse(separators,
-				new String[] { "\n\n", "\n", "。", "！", "？", "；", "，", " " });
+		this.chunkOverlap = chunkOverlap;
+		this.separators = Objects.requireNonNullElse(separators, DEFAULT_SEPARATORS).clone();
+		if (encodingType == null) {
+			this.lengthFunction = String::length;
+			this.characterLength = true;
+		}
+		else {
+			Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(encodingType);
+			this.lengthFunction = encoding::countTokens;
+			this.characterLength = false;
+		}
+		this.separatorLengths = new int[this.separators.length];
+		for (int i = 0; i < this.separators.length; i++) {
+			Objects.requireNonNull(this.separators[i], "Separators must not contain null");
+			this.separatorLengths[i] = this.lengthFunction.applyAsInt(this.separators[i]);
+		}
+	}
+
+	public static Builder builder() {
+		return new Builder();
 	}
 
 	@Override
 	public List<String> splitText(String text) {
 		List<String> chunks = new ArrayList<>();
-		splitText(text, 0, chunks);
+		if (text != null && !text.isEmpty()) {
+			splitText(text, 0, chunks);
+		}
 		return chunks;
 	}
 
 	private void splitText(String text, int separatorIndex, List<String> chunks) {
-		if (text.isEmpty()) {
+		if (this.lengthFunction.applyAsInt(text) <= this.chunkSize) {
+			chunks.add(text);
 			return;
 		}
 
-		if (text.length() <= chunkSize) {
-			chunks.add(text);
+		// use the first remaining separator that occurs in the text
+		int index = separatorIndex;
+		while (index < this.separators.length && !this.separators[index].isEmpty()
+				&& !text.contains(this.separators[index])) {
+			index++;
+		}
+		if (index >= this.separators.length || this.separators[index].isEmpty()) {
+			// Final fallback - split by chunkSize
+			splitBySize(text, chunks);
 			return;
 		}
 
-		if (separatorIndex >= separators.length) {
-			// Final fallback - split by chunkSize
-			for (int i = 0; i < text.length(); i += chunkSize) {
-				int end = Math.min(i + chunkSize, text.length());
-				chunks.add(text.substring(i, end));
+		String separator = this.separators[index];
+		List<String> fragments = new ArrayList<>();
+		int[] lengths = new int[16];
+		int from = 0;
+		while (from <= text.length()) {
+			int to = text.indexOf(separator, from);
+			if (to < 0) {
+				to = text.length();
 			}
-			return;
+			if (to > from) {
+				String fragment = text.substring(from, to);
+				int length = this.lengthFunction.applyAsInt(fragment);
+				if (length <= this.chunkSize) {
+					if (fragments.size() == lengths.length) {
+						lengths = Arrays.copyOf(lengths, lengths.length << 1);
+					}
+					lengths[fragments.size()] = length;
+					fragments.add(fragment);
+				}
+				else {
+					merge(fragments, lengths, separator, this.separatorLengths[index], chunks);
+					fragments.clear();
+					splitText(fragment, index + 1, chunks);
+				}
+			}
+			from = to + separator.length();
 		}
+		merge(fragments, lengths, separator, this.separatorLengths[index], chunks);
+	}
 
-		String separator = separators[separatorIndex];
-		String[] splits;
-		if (separator.isEmpty()) {
-			// Split by character
-			splits = new String[text.length()];
-			for (int i = 0; i < text.length(); i++) {
-				splits[i] = String.valueOf(text.charAt(i));
+	/**
+	 * Greedily joins consecutive fragments with the separator into chunks of up to
+	 * {@code chunkSize}. After a chunk is emitted, the trailing fragments that fit into
+	 * {@code chunkOverlap} are kept as the start of the next chunk.
+	 */
+	private void merge(List<String> fragments, int[] lengths, String separator, int separatorLength,
+			List<String> chunks) {
+		int start = 0;
+		int total = 0;
+		for (int i = 0; i < fragments.size(); i++) {
+			int length = lengths[i];
+			if (i > start && total + separatorLength + length > this.chunkSize) {
+				chunks.add(String.join(separator, fragments.subList(start, i)));
+				while (i > start && (total > this.chunkOverlap || total + separatorLength + length > this.chunkSize)) {
+					total -= lengths[start] + (i - start > 1 ? separatorLength : 0);
+					start++;
+				}
 			}
+			total += length + (i > start ? separatorLength : 0);
 		}
-		else {
-			// Split by separator
-			splits = text.split(separator);
+		if (start < fragments.size()) {
+			chunks.add(String.join(separator, fragments.subList(start, fragments.size())));
 		}
+	}
 
-		for (String split : splits) {
-			if (split.length() > chunkSize) {
-				splitText(split, separatorIndex + 1, chunks);
-			}
-			else {
-				chunks.add(split);
+	private void splitBySize(String text, List<String> chunks) {
+		if (this.characterLength) {
+			int step = this.chunkSize - this.chunkOverlap;
+			for (int i = 0; i < text.length(); i += step) {
+				int end = Math.min(i + this.chunkSize, text.length());
+				chunks.add(text.substring(i, end));
+				if (end == text.length()) {
+					break;
+				}
 			}
+			return;
+		}
+
+		// token sizes are not proportional to the text length, merge single code points
+		List<String> fragments = new ArrayList<>();
+		text.codePoints().forEach(codePoint -> fragments.add(Character.toString(codePoint)));
+		int[] lengths = new int[fragments.size()];
+		for (int i = 0; i < lengths.length; i++) {
+			lengths[i] = this.lengthFunction.applyAsInt(fragments.get(i));
 		}
+		merge(fragments, lengths, "", 0, chunks);
+	}
+
+	public static class Builder {
+
+		private int chunkSize = 1024;
+
+		private int chunkOverlap;
+
+		private String[] separators;
+
+		private EncodingType encodingType;
+
+		/**
+		 * @param chunkSize Maximum size of each chunk
+		 * @return this builder
+		 */
+		public Builder chunkSize(int chunkSize) {
+			this.chunkSize = chunkSize;
+			return this;
+		}
+
+		/**
+		 * @param chunkOverlap Maximum size shared by two consecutive chunks
+		 * @return this builder
+		 */
+		public Builder chunkOverlap(int chunkOverlap) {
+			this.chunkOverlap = chunkOverlap;
+			return this;
+		}
+
+		/**
+		 * @param separators Separators to use for splitting, in order of preference
+		 * @return this builder
+		 */
+		public Builder separators(String... separators) {
+			this.separators = separators;
+			return this;
+		}
+
+		/**
+		 * Measure sizes in tokens of the given encoding instead of characters.
+		 * @param encodingType the token encoding
+		 * @return this builder
+		 */
+		public Builder encodingType(EncodingType encodingType) {
+			this.encodingType = encodingType;
+			return this;
+		}
+
+		public RecursiveCharacterTextSplitter build() {
+			return new RecursiveCharacterTextSplitter(this.chunkSize, this.chunkOverlap, this.separators,
+					this.encodingType);
+		}
+
 	}
 
 }
@@ -24,17 +24,19 @@ import java.util.List;
 
 import com.knuddels.jtokkit.Encodings;
 import com.knuddels.jtokkit.api.Encoding;
-import com.knuddels.jtokkit.api.EncodingRegistry;
 import com.knuddels.jtokkit.api.EncodingType;
 import opennlp.tools.sentdetect.SentenceDetectorME;
 import opennlp.tools.sentdetect.SentenceModel;
 
 import org.springframework.ai.transformer.splitter.TextSplitter;
-import org.springframework.util.Assert;
 
 /**
  * Title Sentence splitter with nlp model.<br>
  * Description Sentence splitter with nlp model.<br>
+ * <p>
+ * The OpenNLP sentence model and the token encoding are loaded once and shared by all
+ * splitters. {@link SentenceDetectorME} is not thread-safe, so every thread uses its own
+ * detector, created on first use.
  *
  * @author yuanci.ytb
  * @since 1.0.0-M2
@@ -42,13 +44,14 @@ import org.springframework.util.Assert;
 
 public class SentenceSplitter extends TextSplitter {
 
-	private final EncodingRegistry registry = Encodings.newLazyEncodingRegistry();
+	private static final String SENTENCE_MODEL_PATH = "/opennlp/opennlp-en-ud-ewt-sentence-1.2-2.5.0.bin";
 
-	private final Encoding encoding = registry.getEncoding(EncodingType.CL100K_BASE);
+	private static final ThreadLocal<SentenceDetectorME> SENTENCE_DETECTOR = ThreadLocal
+		.withInitial(() -> new SentenceDetectorME(SentenceModelHolder.MODEL));
 
 	private static final int DEFAULT_CHUNK_SIZE = 1024;
 
-	private final SentenceModel sentenceModel;
+	private final Encoding encoding = EncodingHolder.ENCODING;
 
 	private final int chunkSize;
 
@@ -58,40 +61,39 @@ public class SentenceSplitter extends TextSplitter {
 
 	public SentenceSplitter(int chunkSize) {
 		this.chunkSize = chunkSize;
-		this.sentenceModel = getSentenceModel();
+		// fail fast if the sentence model is missing
+		SENTENCE_DETECTOR.get();
 	}
 
 	@Override
 	protected List<String> splitText(String text) {
-		SentenceDetectorME sentenceDetector = new SentenceDetectorME(sentenceModel);
-		String[] texts = sentenceDetector.sentDetect(text);
+		String[] texts = SENTENCE_DETECTOR.get().sentDetect(text);
 		if (texts == null || texts.length == 0) {
 			return Collections.emptyList();
 		}
 
 		List<String> chunks = new ArrayList<>();
 		StringBuilder chunk = new StringBuilder();
-		for (int i = 0; i < texts.length; i++) {
-			int currentChunkSize = getEncodedTokens(chunk.toString()).size();
-			int textTokenSize = getEncodedTokens(texts[i]).size();
-			if (currentChunkSize + textTokenSize > chunkSize) {
-				chunks.add(chunk.toString());
-				chunk = new StringBuilder(texts[i]);
-			}
-			else {
-				chunk.append(texts[i]);
-			}
-
-			if (i == texts.length - 1) {
+		// the chunk size is the sum of the token counts of its sentences, so every
+		// sentence is only encoded once
+		int currentChunkSize = 0;
+		for (String sentence : texts) {
+			int textTokenSize = this.encoding.countTokens(sentence);
+			if (currentChunkSize + textTokenSize > this.chunkSize && chunk.length() > 0) {
 				chunks.add(chunk.toString());
+				chunk.setLength(0);
+				currentChunkSize = 0;
 			}
+			chunk.append(sentence);
+			currentChunkSize += textTokenSize;
 		}
+		chunks.add(chunk.toString());
 
 		return chunks;
 	}
 
-	private SentenceModel getSentenceModel() {
-		try (InputStream is = getClass().getResourceAsStream("/opennlp/opennlp-en-ud-ewt-sentence-1.2-2.5.0.bin")) {
+	private static SentenceModel loadSentenceModel() {
+		try (InputStream is = SentenceSplitter.class.getResourceAsStream(SENTENCE_MODEL_PATH)) {
 			if (is == null) {
 				throw new RuntimeException("sentence model is invalid");
 			}
@@ -103,9 +105,16 @@ public class SentenceSplitter extends TextSplitter {
 		}
 	}
 
-	private List<Integer> getEncodedTokens(String text) {
-		Assert.notNull(text, "Text must not be null");
-		return this.encoding.encode(text).boxed();
+	private static final class SentenceModelHolder {
+
+		static final SentenceModel MODEL = loadSentenceModel();
+
+	}
+
+	private static final class EncodingHolder {
+
+		static final Encoding ENCODING = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
 	}
 
 }
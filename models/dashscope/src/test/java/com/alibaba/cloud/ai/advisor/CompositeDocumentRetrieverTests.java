@@ -21,10 +21,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -208,6 +211,131 @@ class CompositeDocumentRetrieverTests {
 		assertThat(results.get(3).getId()).isEqualTo("4");
 	}
 
+	@Test
+	void testRetrieversRunConcurrently() {
+		DocumentRetriever slow1 = sleepingRetriever(300, createDocumentWithScore("1", "content1", 0.9));
+		DocumentRetriever slow2 = sleepingRetriever(300, createDocumentWithScore("2", "content2", 0.8));
+		DocumentRetriever slow3 = sleepingRetriever(300, createDocumentWithScore("3", "content3", 0.7));
+
+		CompositeDocumentRetriever composite = CompositeDocumentRetriever.builder()
+			.retrievers(Arrays.asList(slow1, slow2, slow3))
+			.mergeStrategy(CompositeDocumentRetriever.ResultMergeStrategy.SIMPLE_MERGE)
+			.build();
+
+		long start = System.nanoTime();
+		List<Document> results = composite.retrieve(testQuery);
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		assertThat(results.stream().map(Document::getId)).containsExactly("1", "2", "3");
+		assertThat(elapsedMillis).isLessThan(800);
+	}
+
+	@Test
+	void testSlowRetrieverIsSkippedAfterTimeout() {
+		Document doc1 = createDocumentWithScore("1", "content1", 0.9);
+		when(retriever1.retrieve(any(Query.class))).thenReturn(Arrays.asList(doc1));
+		DocumentRetriever slow = sleepingRetriever(5000, createDocumentWithScore("2", "content2", 0.8));
+
+		CompositeDocumentRetriever composite = CompositeDocumentRetriever.builder()
+			.addRetriever(retriever1)
+			.addRetriever(slow)
+			.retrieverTimeout(Duration.ofMillis(200))
+			.build();
+
+		long start = System.nanoTime();
+		List<Document> results = composite.retrieve(testQuery);
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		assertThat(results.stream().map(Document::getId)).containsExactly("1");
+		assertThat(elapsedMillis).isLessThan(2000);
+	}
+
+	@Test
+	void testTimedOutRetrieverIsInterrupted() throws InterruptedException {
+		when(retriever1.retrieve(any(Query.class))).thenReturn(List.of());
+		CountDownLatch interrupted = new CountDownLatch(1);
+		DocumentRetriever slow = query -> {
+			try {
+				Thread.sleep(5000);
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return List.of();
+		};
+
+		CompositeDocumentRetriever.builder()
+			.addRetriever(retriever1)
+			.addRetriever(slow)
+			.retrieverTimeout(Duration.ofMillis(100))
+			.build()
+			.retrieve(testQuery);
+
+		assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void testReciprocalRankFusionStrategy() {
+		Document a = new Document("a", "content a", Map.of());
+		Document b = new Document("b", "content b", Map.of());
+		Document c = new Document("c", "content c", Map.of());
+		Document d = new Document("d", "content d", Map.of());
+		when(retriever1.retrieve(any(Query.class))).thenReturn(Arrays.asList(a, b, c));
+		when(retriever2.retrieve(any(Query.class))).thenReturn(Arrays.asList(b, d));
+
+		CompositeDocumentRetriever composite = CompositeDocumentRetriever.builder()
+			.addRetriever(retriever1)
+			.addRetriever(retriever2)
+			.mergeStrategy(CompositeDocumentRetriever.ResultMergeStrategy.RECIPROCAL_RANK_FUSION)
+			.rrfK(1)
+			.build();
+
+		List<Document> results = composite.retrieve(testQuery);
+
+		// b: 1/3 + 1/2, a: 1/2, d: 1/3, c: 1/4
+		assertThat(results.stream().map(Document::getId)).containsExactly("b", "a", "d", "c");
+		assertThat(results.get(0).getScore()).isCloseTo(1.0 / 3 + 1.0 / 2, org.assertj.core.data.Offset.offset(1e-9));
+		assertThat(results.get(3).getScore()).isCloseTo(0.25, org.assertj.core.data.Offset.offset(1e-9));
+	}
+
+	@Test
+	void testDeduplicationStrategies() {
+		Document doc1 = createDocumentWithScore("1", "shared content", 0.9);
+		Document doc1Again = createDocumentWithScore("1", "shared content", 0.7);
+		Document copyOfDoc1 = createDocumentWithScore("copy", "shared content", 0.8);
+		when(retriever1.retrieve(any(Query.class))).thenReturn(Arrays.asList(doc1));
+		when(retriever2.retrieve(any(Query.class))).thenReturn(Arrays.asList(doc1Again, copyOfDoc1));
+
+		CompositeDocumentRetriever.Builder builder = CompositeDocumentRetriever.builder()
+			.addRetriever(retriever1)
+			.addRetriever(retriever2)
+			.mergeStrategy(CompositeDocumentRetriever.ResultMergeStrategy.SIMPLE_MERGE);
+
+		assertThat(builder.build().retrieve(testQuery)).hasSize(3);
+		assertThat(builder.deduplicationStrategy(CompositeDocumentRetriever.DeduplicationStrategy.ID)
+			.build()
+			.retrieve(testQuery)
+			.stream()
+			.map(Document::getId)).containsExactly("1", "copy");
+		assertThat(builder.deduplicationStrategy(CompositeDocumentRetriever.DeduplicationStrategy.CONTENT)
+			.build()
+			.retrieve(testQuery)
+			.stream()
+			.map(Document::getId)).containsExactly("1");
+	}
+
+	private DocumentRetriever sleepingRetriever(long millis, Document document) {
+		return query -> {
+			try {
+				Thread.sleep(millis);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return List.of(document);
+		};
+	}
+
 	@Test
 	void testRealEnterpriseScenario() {
 		DocumentRetriever techDocsRetriever = createRealTechDocsRetriever();
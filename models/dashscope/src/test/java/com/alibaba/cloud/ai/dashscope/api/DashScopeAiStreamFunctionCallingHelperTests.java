@@ -212,6 +212,117 @@ public class DashScopeAiStreamFunctionCallingHelperTests {
 		assertEquals("{\"param2\":\"value2\"}", toolCalls.get(2).function().arguments());
 	}
 
+	@Test
+	void testAccumulatorMatchesMergeForSequentialToolCall() {
+		List<ChatCompletionChunk> window = List.of(
+				createChunkWithToolCall("request-1", "tool-1", "function-1", "", null, 0),
+				createChunkWithToolCall("request-1", "", null, "{\"city\":", null, 0),
+				createChunkWithToolCall("request-1", "", null, "\"Hangzhou\"}", null, 0),
+				createSimpleChunk("request-1", "", Role.ASSISTANT, ChatCompletionFinishReason.TOOL_CALLS));
+
+		for (DashScopeAiStreamFunctionCallingHelper merger : List.of(helper, helperWithIncrementalOutput)) {
+			ChatCompletionChunk merged = new ChatCompletionChunk(null, null, null, null);
+			DashScopeAiStreamFunctionCallingHelper.ChunkAccumulator accumulator = merger.newAccumulator();
+			for (ChatCompletionChunk chunk : window) {
+				merged = merger.merge(merged, chunk);
+				accumulator.add(chunk);
+			}
+			assertEquals(merged, accumulator.build());
+		}
+
+		List<ToolCall> toolCalls = helperWithIncrementalOutput.newAccumulator()
+			.add(window.get(0))
+			.add(window.get(1))
+			.add(window.get(2))
+			.build()
+			.output()
+			.choices()
+			.get(0)
+			.message()
+			.toolCalls();
+		assertEquals(1, toolCalls.size());
+		assertEquals("tool-1", toolCalls.get(0).id());
+		assertEquals("function-1", toolCalls.get(0).function().name());
+		assertEquals("{\"city\":\"Hangzhou\"}", toolCalls.get(0).function().arguments());
+	}
+
+	@Test
+	void testAccumulatorMatchesMergeForTextChunk() {
+		ChatCompletionChunk chunk = createSimpleChunk("request-1", "Hello", Role.ASSISTANT,
+				ChatCompletionFinishReason.STOP);
+
+		ChatCompletionChunk merged = helper.merge(new ChatCompletionChunk(null, null, null, null), chunk);
+
+		assertEquals(merged, helper.newAccumulator().add(chunk).build());
+		assertEquals(new ChatCompletionChunk(null, null, null, null), helper.newAccumulator().build());
+	}
+
+	@Test
+	void testAccumulatorMergesParallelToolCallsByIndex() {
+		ToolCall weatherStart = new ToolCall("call-weather", "function",
+				new ChatCompletionFunction("get_weather", ""), 0);
+		ToolCall timeStart = new ToolCall("call-time", "function", new ChatCompletionFunction("get_time", ""), 1);
+		ToolCall weatherArgs = new ToolCall("", "function", new ChatCompletionFunction(null, "{\"city\":\"Beijing\"}"),
+				0);
+		ToolCall timeArgs = new ToolCall("", "function", new ChatCompletionFunction(null, "{\"zone\":"), 1);
+		ToolCall timeArgsEnd = new ToolCall("", "function", new ChatCompletionFunction(null, "\"UTC+8\"}"), 1);
+
+		ChatCompletionChunk result = helperWithIncrementalOutput.newAccumulator()
+			.add(createChunkWithToolCalls("request-1", List.of(weatherStart, timeStart)))
+			.add(createChunkWithToolCalls("request-1", List.of(timeArgs)))
+			.add(createChunkWithToolCalls("request-1", List.of(weatherArgs, timeArgsEnd)))
+			.add(createSimpleChunk("request-1", "", Role.ASSISTANT, ChatCompletionFinishReason.TOOL_CALLS))
+			.build();
+
+		Choice choice = result.output().choices().get(0);
+		assertEquals(ChatCompletionFinishReason.TOOL_CALLS, choice.finishReason());
+		List<ToolCall> toolCalls = choice.message().toolCalls();
+		assertEquals(2, toolCalls.size());
+		assertEquals("call-weather", toolCalls.get(0).id());
+		assertEquals("get_weather", toolCalls.get(0).function().name());
+		assertEquals("{\"city\":\"Beijing\"}", toolCalls.get(0).function().arguments());
+		assertEquals(0, toolCalls.get(0).index());
+		assertEquals("call-time", toolCalls.get(1).id());
+		assertEquals("get_time", toolCalls.get(1).function().name());
+		assertEquals("{\"zone\":\"UTC+8\"}", toolCalls.get(1).function().arguments());
+		assertEquals(1, toolCalls.get(1).index());
+	}
+
+	@Test
+	void testAccumulatorKeepsContentOfChunksWithoutContent() {
+		ToolCall toolCall = new ToolCall("call-weather", "function",
+				new ChatCompletionFunction("get_weather", "{\"city\":\"Beijing\"}"), 0);
+		ChatCompletionChunk toolCallChunk = new ChatCompletionChunk("request-1",
+				new ChatCompletionOutput(null, List.of(new Choice(null,
+						new ChatCompletionMessage(null, Role.ASSISTANT, null, null, List.of(toolCall), null, null,
+								null, null, null),
+						null, 0)), null),
+				null, null);
+		ChatCompletionChunk finishChunk = createSimpleChunk("request-1", null, null,
+				ChatCompletionFinishReason.TOOL_CALLS);
+
+		ChatCompletionChunk result = helperWithIncrementalOutput.newAccumulator()
+			.add(createSimpleChunk("request-1", "Let me check the weather.", Role.ASSISTANT, null))
+			.add(toolCallChunk)
+			.add(finishChunk)
+			.build();
+
+		ChatCompletionMessage message = result.output().choices().get(0).message();
+		assertEquals("Let me check the weather.", message.content());
+		assertEquals(1, message.toolCalls().size());
+		assertEquals(ChatCompletionFinishReason.TOOL_CALLS, result.output().choices().get(0).finishReason());
+
+		ChatCompletionChunk onlyNullContent = helperWithIncrementalOutput.newAccumulator()
+			.add(toolCallChunk)
+			.add(finishChunk)
+			.build();
+		assertEquals("", onlyNullContent.output().choices().get(0).message().content());
+
+		ChatCompletionChunk merged = helper.merge(
+				createSimpleChunk("request-1", "Let me check the weather.", Role.ASSISTANT, null), finishChunk);
+		assertEquals("Let me check the weather.", merged.output().choices().get(0).message().content());
+	}
+
 	// Helper method: Create a simple ChatCompletionChunk
 	private ChatCompletionChunk createSimpleChunk(String requestId, String content, Role role,
 			ChatCompletionFinishReason finishReason) {
@@ -241,6 +352,27 @@ public class DashScopeAiStreamFunctionCallingHelperTests {
 		return new ChatCompletionChunk(requestId, output, usage, null);
 	}
 
+	// Helper method: Create a ChatCompletionChunk with tool call, finish reason and index
+	private ChatCompletionChunk createChunkWithToolCall(String requestId, String toolId, String functionName,
+			String arguments, ChatCompletionFinishReason finishReason, Integer index) {
+		ChatCompletionFunction function = new ChatCompletionFunction(functionName, arguments);
+		ToolCall toolCall = new ToolCall(toolId, "function", function, index);
+		ChatCompletionMessage message = new ChatCompletionMessage("", Role.ASSISTANT, null, null, List.of(toolCall),
+				null, null, null, null, null);
+		Choice choice = new Choice(finishReason, message, null, 0);
+		ChatCompletionOutput output = new ChatCompletionOutput(null, List.of(choice), null);
+		return new ChatCompletionChunk(requestId, output, null, null);
+	}
+
+	// Helper method: Create a ChatCompletionChunk carrying the given tool call fragments
+	private ChatCompletionChunk createChunkWithToolCalls(String requestId, List<ToolCall> toolCalls) {
+		ChatCompletionMessage message = new ChatCompletionMessage("", Role.ASSISTANT, null, null, toolCalls, null,
+				null, null, null, null);
+		Choice choice = new Choice(null, message, null, 0);
+		ChatCompletionOutput output = new ChatCompletionOutput(null, List.of(choice), null);
+		return new ChatCompletionChunk(requestId, output, null, null);
+	}
+
 	// Helper method: Create a ChatCompletionChunk with multiple tool calls
 	private ChatCompletionChunk createChunkWithMultipleToolCalls(String requestId) {
 		ChatCompletionFunction function1 = new ChatCompletionFunction("function-1", "{\"param1\":\"value1\"}");
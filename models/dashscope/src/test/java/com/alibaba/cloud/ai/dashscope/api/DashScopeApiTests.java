@@ -15,21 +15,31 @@
  */
 package com.alibaba.cloud.ai.dashscope.api;
 
+import com.alibaba.cloud.ai.dashscope.common.DashScopePipelineNotFoundException;
+import com.alibaba.cloud.ai.dashscope.rag.DashScopeDocumentRetrieverOptions;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeModel.ChatModel;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeModel.EmbeddingModel;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.EmbeddingRequest;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.EmbeddingRequestInput;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.EmbeddingRequestInputParameters;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeModel.EmbeddingTextType;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -135,4 +145,37 @@ class DashScopeApiTests {
 				"Request should have default textType 'document' when null is provided");
 	}
 
+	@Test
+	void testRetrieverReportsMissingPipelineWhateverTheErrorHandler() throws IOException {
+		// a custom handler that would report every error in its own way
+		ResponseErrorHandler customHandler = new ResponseErrorHandler() {
+			@Override
+			public boolean hasError(ClientHttpResponse response) throws IOException {
+				return response.getStatusCode().isError();
+			}
+
+			@Override
+			public void handleError(URI url, HttpMethod method, ClientHttpResponse response) {
+				throw new IllegalStateException("custom error");
+			}
+		};
+		try (MockWebServer server = new MockWebServer()) {
+			server.enqueue(new MockResponse().setResponseCode(404).setBody("{\"code\":\"NotFound\"}"));
+			server.enqueue(new MockResponse().setResponseCode(500));
+			DashScopeApi api = DashScopeApi.builder()
+				.apiKey("test-api-key")
+				.baseUrl(server.url("/").toString())
+				.responseErrorHandler(customHandler)
+				.build();
+			DashScopeDocumentRetrieverOptions options = DashScopeDocumentRetrieverOptions.builder()
+				.indexName("index")
+				.build();
+
+			DashScopePipelineNotFoundException notFound = assertThrows(DashScopePipelineNotFoundException.class,
+					() -> api.retriever("pipeline-1", "query", options));
+			assertEquals("pipeline-1", notFound.getPipelineId());
+			assertThrows(IllegalStateException.class, () -> api.retriever("pipeline-1", "query", options));
+		}
+	}
+
 }
@@ -15,34 +15,33 @@
  */
 package com.alibaba.cloud.ai.dashscope.api;
 
+import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
-import okhttp3.Call;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
-import org.mockito.ArgumentCaptor;
-import org.mockito.MockedConstruction;
-import org.mockito.Mockito;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mockConstruction;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 /**
  * Test the uploadFile method in DashScopeApi class
@@ -59,14 +58,13 @@ class DashScopeApiUploadFileTests {
 
 	private DashScopeApiSpec.UploadLeaseParamData mockParamData;
 
-	private Call mockCall;
-
-	private Response mockResponse;
+	/**
+	 * Stands in for the OSS bucket behind the pre-signed upload and download URLs.
+	 */
+	private MockWebServer ossServer;
 
 	private static final String TEST_FILE_NAME = "test.xlsx";
 
-	private static final String TEST_URL = "https://test-url.com";
-
 	@TempDir
 	Path tempDir;
 
@@ -78,20 +76,26 @@ class DashScopeApiUploadFileTests {
 		}
 		mockFile = excelFile;
 
+		ossServer = new MockWebServer();
+		ossServer.start();
+
 		Map<String, String> headers = new HashMap<>();
 		headers.put("X-bailian-extra", "test-extra-key");
 
-		mockParamData = new DashScopeApiSpec.UploadLeaseParamData(TEST_URL, "PUT", headers);
+		mockParamData = new DashScopeApiSpec.UploadLeaseParamData(ossServer.url("/upload").toString(), "PUT",
+				headers);
 
-        DashScopeApiSpec.UploadLeaseResponseData responseData = new DashScopeApiSpec.UploadLeaseResponseData(
+		DashScopeApiSpec.UploadLeaseResponseData responseData = new DashScopeApiSpec.UploadLeaseResponseData(
 				"test-lease-id", "test-type", mockParamData);
 
 		mockUploadLeaseResponse = new DashScopeApiSpec.UploadLeaseResponse("SUCCESS", "success", responseData);
 
 		dashScopeApi = DashScopeApi.builder().apiKey("test-api-key").build();
+	}
 
-		mockCall = Mockito.mock(Call.class);
-		mockResponse = Mockito.mock(Response.class);
+	@AfterEach
+	void tearDown() throws IOException {
+		ossServer.shutdown();
 	}
 
 	/**
@@ -100,33 +104,17 @@ class DashScopeApiUploadFileTests {
 	 */
 	@Test
 	void testUploadFileWithContentType() throws Exception {
-		try (MockedConstruction<OkHttpClient> mockedConstruction = mockConstruction(OkHttpClient.class,
-				(mockOkHttpClient, context) -> {
-					when(mockOkHttpClient.newCall(any(Request.class))).thenReturn(mockCall);
-				})) {
-			when(mockCall.execute()).thenReturn(mockResponse);
-			when(mockResponse.isSuccessful()).thenReturn(true);
-
-			ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+		ossServer.enqueue(new MockResponse());
 
-			Method uploadFileMethod = DashScopeApi.class.getDeclaredMethod("uploadFile", File.class,
-                    DashScopeApiSpec.UploadLeaseResponse.class);
-			uploadFileMethod.setAccessible(true);
+		mockParamData.header().put("Content-Type", "application/pdf");
+		invokeUploadFile(mockFile, mockUploadLeaseResponse);
 
-			mockParamData.header().put("Content-Type", "application/pdf");
-			uploadFileMethod.invoke(dashScopeApi, mockFile, mockUploadLeaseResponse);
-
-			OkHttpClient constructedClient = mockedConstruction.constructed().get(0);
-
-			verify(constructedClient).newCall(requestCaptor.capture());
-			Request capturedRequest = requestCaptor.getValue();
-
-			assertEquals("PUT", capturedRequest.method());
-			assertNotNull(Objects.requireNonNull(capturedRequest.body()).contentType());
-			assertEquals("test-extra-key", capturedRequest.header("X-bailian-extra"));
-
-			verify(mockCall).execute();
-		}
+		RecordedRequest capturedRequest = ossServer.takeRequest();
+		assertEquals("PUT", capturedRequest.getMethod());
+		assertEquals("application/pdf", capturedRequest.getHeader("Content-Type"));
+		assertEquals("test-extra-key", capturedRequest.getHeader("X-bailian-extra"));
+		assertEquals("你好", capturedRequest.getBody().readUtf8());
+		assertThat(capturedRequest.getHeader("Authorization")).isNull();
 	}
 
 	/**
@@ -135,34 +123,129 @@ class DashScopeApiUploadFileTests {
 	 */
 	@Test
 	void testUploadFileWithoutContentType() throws Exception {
+		ossServer.enqueue(new MockResponse());
 		mockParamData.header().put("Content-Type", "");
 
-		try (MockedConstruction<OkHttpClient> mockedConstruction = mockConstruction(OkHttpClient.class,
-				(mockOkHttpClient, context) -> {
-					when(mockOkHttpClient.newCall(any(Request.class))).thenReturn(mockCall);
-				})) {
-			when(mockCall.execute()).thenReturn(mockResponse);
-			when(mockResponse.isSuccessful()).thenReturn(true);
+		invokeUploadFile(mockFile, mockUploadLeaseResponse);
 
-			ArgumentCaptor<Request> requestCaptor = ArgumentCaptor.forClass(Request.class);
+		RecordedRequest capturedRequest = ossServer.takeRequest();
+		assertEquals("PUT", capturedRequest.getMethod());
+		assertEquals("", capturedRequest.getHeader("Content-Type"));
+		assertEquals("test-extra-key", capturedRequest.getHeader("X-bailian-extra"));
+	}
 
-			Method uploadFileMethod = DashScopeApi.class.getDeclaredMethod("uploadFile", File.class,
-                    DashScopeApiSpec.UploadLeaseResponse.class);
-			uploadFileMethod.setAccessible(true);
+	@Test
+	void testUploadFileFailure() {
+		ossServer.enqueue(new MockResponse().setResponseCode(403));
 
-			uploadFileMethod.invoke(dashScopeApi, mockFile, mockUploadLeaseResponse);
+		assertThatThrownBy(() -> invokeUploadFile(mockFile, mockUploadLeaseResponse))
+			.isInstanceOf(DashScopeException.class)
+			.hasMessage("Upload File Failed");
+	}
 
-			OkHttpClient constructedClient = mockedConstruction.constructed().get(0);
+	/**
+	 * Uploads 20 files one after another through the full lease, upload and add-file
+	 * flow and checks that the API calls and the pre-signed upload requests each reuse
+	 * one pooled connection instead of opening one per file.
+	 */
+	@Test
+	void testUploadsReuseConnections() throws Exception {
+		int files = 20;
+		Map<String, Integer> uploadedSizes = new ConcurrentHashMap<>();
+		AtomicInteger ossConnections = new AtomicInteger();
+		ossServer.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				if (request.getSequenceNumber() == 0) {
+					ossConnections.incrementAndGet();
+				}
+				uploadedSizes.put(request.getPath(), (int) request.getBodySize());
+				return new MockResponse();
+			}
+		});
+
+		AtomicInteger apiConnections = new AtomicInteger();
+		AtomicInteger leases = new AtomicInteger();
+		try (MockWebServer apiServer = new MockWebServer()) {
+			apiServer.setDispatcher(new Dispatcher() {
+				@Override
+				public MockResponse dispatch(RecordedRequest request) {
+					if (request.getSequenceNumber() == 0) {
+						apiConnections.incrementAndGet();
+					}
+					if (request.getPath().endsWith("/upload_lease")) {
+						int lease = leases.incrementAndGet();
+						return json("""
+								{"code":"SUCCESS","message":"success","data":{"lease_id":"lease-%d","type":"HTTP",
+								"param":{"url":"%s","method":"PUT","headers":{"Content-Type":"text/plain"}}}}"""
+							.formatted(lease, ossServer.url("/upload/" + lease)));
+					}
+					return json("""
+							{"code":"SUCCESS","message":"success","data":{"file_id":"file-1","parser":"DASHSCOPE_DOCMIND"}}""");
+				}
+			});
+			apiServer.start();
+			DashScopeApi api = DashScopeApi.builder()
+				.apiKey("test-api-key")
+				.baseUrl(apiServer.url("/").toString())
+				.build();
+
+			byte[] content = "x".repeat(4096).getBytes(StandardCharsets.UTF_8);
+			for (int i = 0; i < files; i++) {
+				Path file = Files.write(tempDir.resolve("file-" + i + ".txt"), content);
+				String fileId = api.upload(file.toFile(),
+						new DashScopeApiSpec.UploadRequest("default", file.getFileName().toString(), content.length,
+								"md5"));
+				assertThat(fileId).isEqualTo("file-1");
+			}
+		}
 
-			verify(constructedClient).newCall(requestCaptor.capture());
-			Request capturedRequest = requestCaptor.getValue();
+		assertThat(uploadedSizes).hasSize(files).allSatisfy((path, size) -> assertThat(size).isEqualTo(4096));
+		assertThat(ossConnections.get()).isEqualTo(1);
+		assertThat(apiConnections.get()).isEqualTo(1);
+	}
 
-			assertEquals("PUT", capturedRequest.method());
-			assertEquals("", capturedRequest.header("Content-Type"));
-			assertEquals("test-extra-key", capturedRequest.header("X-bailian-extra"));
+	@Test
+	void testGetFileParseResultUsesDownloadLease() throws Exception {
+		ossServer.enqueue(new MockResponse().setBody("{\"content\":\"你好\"}"));
+		try (MockWebServer apiServer = new MockWebServer()) {
+			apiServer.enqueue(json("""
+					{"code":"SUCCESS","message":"success","data":{"file_id":"file-1","lease_id":"lease-1","type":"HTTP",
+					"param":{"method":"GET","url":"%s","headers":{"X-bailian-extra":"test-extra-key"}}}}"""
+				.formatted(ossServer.url("/download?Signature=abc%2B1"))));
+			apiServer.start();
+			DashScopeApi api = DashScopeApi.builder()
+				.apiKey("test-api-key")
+				.baseUrl(apiServer.url("/").toString())
+				.build();
+
+			String result = api.getFileParseResult("default",
+					new DashScopeApiSpec.UploadRequest.QueryFileRequest("file-1"));
+
+			assertThat(result).isEqualTo("{\"content\":\"你好\"}");
+		}
+
+		RecordedRequest download = ossServer.takeRequest();
+		assertThat(download.getMethod()).isEqualTo("GET");
+		assertThat(download.getPath()).isEqualTo("/download?Signature=abc%2B1");
+		assertThat(download.getHeader("X-bailian-extra")).isEqualTo("test-extra-key");
+		assertThat(download.getHeader("Authorization")).isNull();
+	}
 
-			verify(mockCall).execute();
+	private void invokeUploadFile(File file, DashScopeApiSpec.UploadLeaseResponse leaseResponse) throws Exception {
+		Method uploadFileMethod = DashScopeApi.class.getDeclaredMethod("uploadFile", File.class,
+				DashScopeApiSpec.UploadLeaseResponse.class);
+		uploadFileMethod.setAccessible(true);
+		try {
+			uploadFileMethod.invoke(dashScopeApi, file, leaseResponse);
 		}
+		catch (InvocationTargetException ex) {
+			throw (Exception) ex.getCause();
+		}
+	}
+
+	private static MockResponse json(String body) {
+		return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
 	}
 
 }
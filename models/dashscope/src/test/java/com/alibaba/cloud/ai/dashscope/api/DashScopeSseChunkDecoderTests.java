@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.api;
+
+import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionChunk;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Replays recorded DashScope SSE transcripts through {@link DashScopeSseChunkDecoder} and
+ * compares the result with the previous {@code bodyToFlux(String.class)} decoding.
+ *
+ * @author agent
+ */
+class DashScopeSseChunkDecoderTests {
+
+	private static final Predicate<String> SSE_DONE_PREDICATE = "[DONE]"::equals;
+
+	private final DashScopeSseChunkDecoder decoder = new DashScopeSseChunkDecoder();
+
+	private MockWebServer server;
+
+	private WebClient webClient;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new MockWebServer();
+		this.server.start();
+		this.webClient = WebClient.create(this.server.url("/").toString());
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	void textTranscriptMatchesLegacyDecoding() throws IOException {
+		List<ChatCompletionChunk> chunks = assertSameAsLegacy("sse/chat-text.sse");
+
+		assertThat(chunks).hasSize(4);
+		assertThat(chunks.get(0).output().choices().get(0).message().content()).isEqualTo("你好");
+		assertThat(chunks.get(2).output().choices().get(0).message().content())
+			.isEqualTo("a large language model by \"Alibaba Cloud\".");
+		assertThat(chunks.get(3).output().choices().get(0).finishReason())
+			.isEqualTo(DashScopeApiSpec.ChatCompletionFinishReason.STOP);
+	}
+
+	@Test
+	void toolCallTranscriptMatchesLegacyDecoding() throws IOException {
+		List<ChatCompletionChunk> chunks = assertSameAsLegacy("sse/chat-tool-call.sse");
+
+		assertThat(chunks).hasSize(4);
+		assertThat(chunks.get(1).output().choices().get(0).message().toolCalls().get(0).function().arguments())
+			.isEqualTo("{\"location\": \"杭");
+	}
+
+	@Test
+	void doneSentinelTerminatesStream() throws IOException {
+		List<ChatCompletionChunk> chunks = assertSameAsLegacy("sse/chat-done.sse");
+
+		assertThat(chunks).hasSize(2);
+		assertThat(chunks.get(1).output().choices().get(0).message().content()).isEqualTo(" world");
+	}
+
+	@Test
+	void errorEventIsReportedWithTheLegacyMessage() throws IOException {
+		enqueue("sse/chat-error.sse");
+		Flux<ChatCompletionChunk> chunks = this.webClient.get()
+			.retrieve()
+			.bodyToFlux(DataBuffer.class)
+			.transform(this.decoder::decode);
+
+		assertThatThrownBy(chunks::blockLast).isInstanceOf(DashScopeException.class)
+			.hasMessage("[DataInspectionFailed] Output data may contain inappropriate content. "
+					+ "(requestId: 9c7a1e2b-0d4f-9e3c-b1a2-6f5d4c3b2a10)");
+	}
+
+	@Test
+	void chunksBeforeAnErrorInTheSameBufferAreEmitted() throws IOException {
+		byte[] transcript = new ClassPathResource("sse/chat-error.sse").getContentAsByteArray();
+		List<ChatCompletionChunk> chunks = new ArrayList<>();
+		Flux<ChatCompletionChunk> decoded = this.decoder
+			.decode(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(transcript)))
+			.doOnNext(chunks::add);
+
+		assertThatThrownBy(decoded::blockLast).isInstanceOf(DashScopeException.class)
+			.hasMessageStartingWith("[DataInspectionFailed]");
+		assertThat(chunks).singleElement()
+			.satisfies(chunk -> assertThat(chunk.output().choices().get(0).message().content()).isEqualTo("Sure"));
+	}
+
+	@Test
+	void eventsSplitAcrossBuffersAreReassembled() throws IOException {
+		byte[] transcript = new ClassPathResource("sse/chat-text.sse").getContentAsByteArray();
+		List<ChatCompletionChunk> expected = this.decoder
+			.decode(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(transcript)))
+			.collectList()
+			.block();
+
+		// 7 bytes per buffer splits multibyte characters and "data:" prefixes
+		List<DataBuffer> buffers = new ArrayList<>();
+		for (int i = 0; i < transcript.length; i += 7) {
+			int length = Math.min(7, transcript.length - i);
+			byte[] slice = new byte[length];
+			System.arraycopy(transcript, i, slice, 0, length);
+			buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(slice));
+		}
+		List<ChatCompletionChunk> actual = this.decoder.decode(Flux.fromIterable(buffers)).collectList().block();
+
+		assertThat(actual).isEqualTo(expected).hasSize(4);
+	}
+
+	@Test
+	void multiLineDataAndCrLfAreSupported() {
+		String event = "data: {\"request_id\":\"r-1\",\r\ndata: \"output\":{\"text\":\"hi\"}}\r\n\r\n";
+		List<ChatCompletionChunk> chunks = this.decoder
+			.decode(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(event.getBytes(StandardCharsets.UTF_8))))
+			.collectList()
+			.block();
+
+		assertThat(chunks).hasSize(1);
+		assertThat(chunks.get(0).requestId()).isEqualTo("r-1");
+		assertThat(chunks.get(0).output().text()).isEqualTo("hi");
+	}
+
+	@Test
+	void chatCompletionStreamDecodesServerSentEvents() throws Exception {
+		enqueue("sse/chat-text.sse");
+		DashScopeApi api = DashScopeApi.builder().baseUrl(this.server.url("/").toString()).apiKey("test-key").build();
+		DashScopeApiSpec.ChatCompletionRequest request = new DashScopeApiSpec.ChatCompletionRequest("qwen-plus",
+				new DashScopeApiSpec.ChatCompletionRequestInput(List.of(new DashScopeApiSpec.ChatCompletionMessage("hi",
+						DashScopeApiSpec.ChatCompletionMessage.Role.USER))),
+				true);
+
+		List<ChatCompletionChunk> chunks = api.chatCompletionStream(request, new LinkedMultiValueMap<>())
+			.collectList()
+			.block();
+
+		assertThat(chunks).hasSize(4);
+		assertThat(chunks.get(3).usage().totalTokens()).isEqualTo(30);
+		assertThat(this.server.takeRequest().getHeader("X-DashScope-SSE")).isEqualTo("enable");
+	}
+
+	private List<ChatCompletionChunk> assertSameAsLegacy(String transcript) throws IOException {
+		enqueue(transcript);
+		List<ChatCompletionChunk> legacy = this.webClient.get()
+			.retrieve()
+			.bodyToFlux(String.class)
+			.takeUntil(SSE_DONE_PREDICATE)
+			.filter(SSE_DONE_PREDICATE.negate())
+			.map(content -> ModelOptionsUtils.jsonToObject(content, ChatCompletionChunk.class))
+			.collectList()
+			.block();
+
+		enqueue(transcript);
+		List<ChatCompletionChunk> decoded = this.webClient.get()
+			.retrieve()
+			.bodyToFlux(DataBuffer.class)
+			.transform(this.decoder::decode)
+			.collectList()
+			.block();
+
+		assertThat(decoded).isEqualTo(legacy);
+		return decoded;
+	}
+
+	private void enqueue(String transcript) throws IOException {
+		String body = new ClassPathResource(transcript).getContentAsString(StandardCharsets.UTF_8);
+		this.server.enqueue(new MockResponse().setHeader("Content-Type", "text/event-stream;charset=UTF-8")
+			.setBody(body));
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.audio;
+
+import com.alibaba.cloud.ai.dashscope.api.DashScopeAudioSpeechApi;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.audio.tts.TextToSpeechPrompt;
+import org.springframework.ai.audio.tts.TextToSpeechResponse;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link DashScopeAudioSpeechModel} against a stubbed WebSocket stream.
+ *
+ * @author agent
+ */
+class DashScopeAudioSpeechModelTests {
+
+	private static final byte[] FIRST_CHUNK = { 1, 2, 3 };
+
+	private static final byte[] SECOND_CHUNK = { 4, 5 };
+
+	private DashScopeAudioSpeechModel speechModel;
+
+	@BeforeEach
+	void setUp() {
+		DashScopeAudioSpeechApi audioSpeechApi = mock(DashScopeAudioSpeechApi.class);
+		when(audioSpeechApi.streamBinaryOut(any())).thenAnswer(invocation -> Flux.just(
+				ByteBuffer.wrap(FIRST_CHUNK).asReadOnlyBuffer(), ByteBuffer.wrap(SECOND_CHUNK).asReadOnlyBuffer()));
+		this.speechModel = new DashScopeAudioSpeechModel(audioSpeechApi);
+	}
+
+	@Test
+	void callReturnsTheWholeAudioAsOneSpeech() {
+		TextToSpeechResponse response = this.speechModel.call(new TextToSpeechPrompt("你好"));
+
+		assertThat(response.getResults()).singleElement()
+			.satisfies(speech -> assertThat(speech.getOutput()).containsExactly(1, 2, 3, 4, 5));
+	}
+
+	@Test
+	void callWritesTheAudioToTheOutputStream() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+		long written = this.speechModel.call(new TextToSpeechPrompt("你好"), outputStream);
+
+		assertThat(written).isEqualTo(5);
+		assertThat(outputStream.toByteArray()).containsExactly(1, 2, 3, 4, 5);
+	}
+
+	@Test
+	void streamAudioEmitsTheReceivedBuffers() {
+		StepVerifier.create(this.speechModel.streamAudio(new TextToSpeechPrompt("你好")))
+			.assertNext(buffer -> assertThat(buffer.isReadOnly()).isTrue())
+			.assertNext(buffer -> assertThat(buffer.remaining()).isEqualTo(2))
+			.verifyComplete();
+		StepVerifier.create(this.speechModel.stream(new TextToSpeechPrompt("你好")))
+			.assertNext(response -> assertThat(response.getResult().getOutput()).containsExactly(1, 2, 3))
+			.assertNext(response -> assertThat(response.getResult().getOutput()).containsExactly(4, 5))
+			.verifyComplete();
+	}
+
+	@Test
+	void audioSizeEstimateIsBounded() {
+		assertThat(DashScopeAudioSpeechModel.estimateAudioSize(new TextToSpeechPrompt("")))
+			.isEqualTo(16 * 1024);
+		assertThat(DashScopeAudioSpeechModel.estimateAudioSize(new TextToSpeechPrompt("a".repeat(100))))
+			.isEqualTo(100 * 4 * 1024);
+		assertThat(DashScopeAudioSpeechModel.estimateAudioSize(new TextToSpeechPrompt("a".repeat(100_000))))
+			.isEqualTo(8 * 1024 * 1024);
+	}
+
+	@Test
+	void callJoinsManyChunksIntoOneSpeech() {
+		DashScopeAudioSpeechApi audioSpeechApi = mock(DashScopeAudioSpeechApi.class);
+		when(audioSpeechApi.streamBinaryOut(any())).thenAnswer(invocation -> Flux.range(0, 100)
+			.map(i -> ByteBuffer.wrap(new byte[] { i.byteValue(), i.byteValue() }).asReadOnlyBuffer()));
+		DashScopeAudioSpeechModel speechModel = new DashScopeAudioSpeechModel(audioSpeechApi);
+
+		TextToSpeechResponse response = speechModel.call(new TextToSpeechPrompt("你好"));
+
+		assertThat(response.getResults()).singleElement().satisfies(speech -> {
+			assertThat(speech.getOutput()).hasSize(200);
+			assertThat(speech.getOutput()[0]).isEqualTo((byte) 0);
+			assertThat(speech.getOutput()[199]).isEqualTo((byte) 99);
+		});
+	}
+
+	@Test
+	void callGrowsTheBufferBeyondTheEstimate() {
+		DashScopeAudioSpeechApi audioSpeechApi = mock(DashScopeAudioSpeechApi.class);
+		// 40 KB of audio for a two character text estimated at 16 KB
+		when(audioSpeechApi.streamBinaryOut(any())).thenAnswer(invocation -> Flux.range(0, 40)
+			.map(i -> ByteBuffer.wrap(new byte[1024]).asReadOnlyBuffer()));
+		DashScopeAudioSpeechModel speechModel = new DashScopeAudioSpeechModel(audioSpeechApi);
+
+		TextToSpeechResponse response = speechModel.call(new TextToSpeechPrompt("你好"));
+
+		assertThat(response.getResults()).singleElement()
+			.satisfies(speech -> assertThat(speech.getOutput()).hasSize(40 * 1024));
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.chat;
+
+import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeApiConstants;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionMessage.MediaContent;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.ChatCompletionRequest;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.content.Media;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the encoding, caching and uploading of {@code byte[]} media in
+ * {@link DashScopeChatModel}.
+ *
+ * @author agent
+ */
+class DashScopeChatModelMediaTests {
+
+	private static final String CHAT_RESPONSE = """
+			{"request_id":"request-id","output":{"choices":[{"finish_reason":"stop",\
+			"message":{"role":"assistant","content":"ok"}}]},\
+			"usage":{"input_tokens":1,"output_tokens":1,"total_tokens":2}}""";
+
+	private final AtomicInteger policyRequests = new AtomicInteger();
+
+	private final AtomicInteger uploads = new AtomicInteger();
+
+	private final List<RecordedRequest> chatRequests = new CopyOnWriteArrayList<>();
+
+	private MockWebServer server;
+
+	private DashScopeChatModel chatModel;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new MockWebServer();
+		this.server.setDispatcher(new UploadDispatcher());
+		this.server.start();
+
+		DashScopeApi dashScopeApi = DashScopeApi.builder()
+			.baseUrl(this.server.url("/").toString())
+			.apiKey("test-key")
+			.build();
+		this.chatModel = DashScopeChatModel.builder()
+			.dashScopeApi(dashScopeApi)
+			.defaultOptions(DashScopeChatOptions.builder().model("qwen-vl-max").build())
+			.build();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	void dataUriMatchesJdkEncoder() {
+		Random random = new Random(42);
+		for (int size : new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 1000, 4096 }) {
+			byte[] bytes = new byte[size];
+			random.nextBytes(bytes);
+
+			assertThat(DashScopeChatModel.toDataUri(MimeTypeUtils.IMAGE_PNG, bytes))
+				.isEqualTo("data:image/png;base64," + Base64.getEncoder().encodeToString(bytes));
+		}
+	}
+
+	@Test
+	void inlineMediaIsEncodedOncePerArray() {
+		byte[] image = new byte[] { 1, 2, 3, 4 };
+
+		String first = imageOf(this.chatModel.createRequest(promptWith(image), false));
+		String second = imageOf(this.chatModel.createRequest(promptWith(image), false));
+		String copy = imageOf(this.chatModel.createRequest(promptWith(image.clone()), false));
+
+		assertThat(first).isEqualTo("data:image/png;base64,AQIDBA==");
+		assertThat(second).isSameAs(first);
+		assertThat(copy).isEqualTo(first).isNotSameAs(first);
+	}
+
+	@Test
+	void largeMediaIsUploadedOnceAndSentAsReference() throws InterruptedException {
+		this.chatModel.setMediaUploadThreshold(16);
+		byte[] image = new byte[32];
+
+		ChatResponse response = this.chatModel.call(promptWith(image));
+		this.chatModel.call(promptWith(image));
+
+		assertThat(response.getResult().getOutput().getText()).isEqualTo("ok");
+		assertThat(this.policyRequests).hasValue(1);
+		assertThat(this.uploads).hasValue(1);
+		assertThat(this.chatRequests).hasSize(2).allSatisfy(request -> {
+			assertThat(request.getHeader(DashScopeApiConstants.HEADER_OSS_RESOURCE_RESOLVE)).isEqualTo("enable");
+			assertThat(request.getBody().readUtf8()).contains("\"image\":\"oss://dashscope-instant/test/")
+				.doesNotContain("data:image/png");
+		});
+	}
+
+	@Test
+	void uploadsAreCachedPerModel() {
+		this.chatModel.setMediaUploadThreshold(16);
+		byte[] image = new byte[32];
+
+		String first = imageOf(this.chatModel.createRequest(promptWith(image, "qwen-vl-max"), false));
+		String second = imageOf(this.chatModel.createRequest(promptWith(image, "qwen-vl-plus"), false));
+		String again = imageOf(this.chatModel.createRequest(promptWith(image, "qwen-vl-max"), false));
+
+		assertThat(this.uploads).hasValue(2);
+		assertThat(second).isNotEqualTo(first);
+		assertThat(again).isEqualTo(first);
+	}
+
+	@Test
+	void concurrentRequestsUploadTheSameMediaOnce() {
+		this.chatModel.setMediaUploadThreshold(16);
+		byte[] image = new byte[32];
+
+		List<String> references = Flux.range(0, 4)
+			.flatMap(i -> Mono.fromCallable(() -> imageOf(this.chatModel.createRequest(promptWith(image), false)))
+				.subscribeOn(Schedulers.boundedElastic()))
+			.collectList()
+			.block(Duration.ofSeconds(10));
+
+		assertThat(this.uploads).hasValue(1);
+		assertThat(references).hasSize(4).containsOnly(references.get(0));
+	}
+
+	@Test
+	void uploadedFileExtensionIsDerivedFromTheMediaType() {
+		assertThat(DashScopeChatModel.fileExtension(MimeTypeUtils.IMAGE_PNG)).isEqualTo("png");
+		assertThat(DashScopeChatModel.fileExtension(MimeType.valueOf("image/svg+xml"))).isEqualTo("svg");
+		assertThat(DashScopeChatModel.fileExtension(MimeType.valueOf("audio/x-wav"))).isEqualTo("wav");
+		assertThat(DashScopeChatModel.fileExtension(MimeType.valueOf("image/*"))).isEqualTo("bin");
+		assertThat(DashScopeChatModel.fileExtension(MimeType.valueOf("application/vnd.ms-excel"))).isEqualTo("bin");
+	}
+
+	@Test
+	void smallMediaIsInlinedWithoutResolveHeader() {
+		this.chatModel.setMediaUploadThreshold(16);
+
+		this.chatModel.call(promptWith(new byte[] { 1, 2, 3, 4 }));
+
+		assertThat(this.policyRequests).hasValue(0);
+		assertThat(this.chatRequests).singleElement().satisfies(request -> {
+			assertThat(request.getHeader(DashScopeApiConstants.HEADER_OSS_RESOURCE_RESOLVE)).isNull();
+			assertThat(request.getBody().readUtf8()).contains("data:image/png;base64,AQIDBA==");
+		});
+	}
+
+	private static Prompt promptWith(byte[] image) {
+		return promptWith(image, "qwen-vl-max");
+	}
+
+	private static Prompt promptWith(byte[] image, String model) {
+		UserMessage message = UserMessage.builder()
+			.text("What is in the picture?")
+			.media(Media.builder().mimeType(MimeTypeUtils.IMAGE_PNG).data(image).build())
+			.build();
+		return new Prompt(message, DashScopeChatOptions.builder().model(model).build());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static String imageOf(ChatCompletionRequest request) {
+		List<MediaContent> content = (List<MediaContent>) request.input().messages().get(0).rawContent();
+		return content.get(0).image();
+	}
+
+	/**
+	 * Serves the upload policy, the OSS form upload and the chat completion endpoints.
+	 */
+	private class UploadDispatcher extends Dispatcher {
+
+		@Override
+		public MockResponse dispatch(RecordedRequest request) {
+			String path = request.getPath();
+			if (path.startsWith("/api/v1/uploads")) {
+				policyRequests.incrementAndGet();
+				assertThat(path).contains("action=getPolicy").contains("model=qwen-vl-");
+				String model = path.substring(path.indexOf("model=") + "model=".length());
+				return new MockResponse().setBodyDelay(100, TimeUnit.MILLISECONDS).setHeader("Content-Type", "application/json").setBody("""
+						{"request_id":"request-id","data":{"policy":"policy","signature":"signature",\
+						"upload_dir":"dashscope-instant/test/%s","upload_host":"%s","expire_in_seconds":300,\
+						"max_file_size_mb":100,"capacity_limit_mb":999,"oss_access_key_id":"access-key",\
+						"x_oss_object_acl":"private","x_oss_forbid_overwrite":"true"}}"""
+					.formatted(model, server.url("/oss")));
+			}
+			if (path.startsWith("/oss")) {
+				uploads.incrementAndGet();
+				assertThat(request.getBody().readUtf8()).contains("name=\"key\"")
+					.contains("dashscope-instant/test/")
+					.contains("name=\"OSSAccessKeyId\"");
+				return new MockResponse().setResponseCode(200);
+			}
+			chatRequests.add(request);
+			return new MockResponse().setHeader("Content-Type", "application/json").setBody(CHAT_RESPONSE);
+		}
+
+	}
+
+}
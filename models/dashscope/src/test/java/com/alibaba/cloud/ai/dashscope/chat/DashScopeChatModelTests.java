@@ -16,6 +16,7 @@
 package com.alibaba.cloud.ai.dashscope.chat;
 
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +39,7 @@ import org.mockito.Mockito;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.metadata.DefaultUsage;
 import org.springframework.ai.chat.model.ChatResponse;
@@ -699,4 +701,38 @@ class DashScopeChatModelTests {
 
     }
 
+    @Test
+    void testToolRoundReusesConvertedMessagesAndTools() {
+        ToolCallback weatherCallback = mock(ToolCallback.class);
+        when(weatherCallback.getToolDefinition()).thenReturn(DefaultToolDefinition.builder()
+                .name("get_weather")
+                .description("Get weather information")
+                .inputSchema(EMPTY_INPUT_SCHEMA)
+                .build());
+        DashScopeChatOptions options = DashScopeChatOptions.builder()
+                .model(TEST_MODEL)
+                .toolCallbacks(List.of(weatherCallback))
+                .build();
+
+        UserMessage userMessage = new UserMessage("What's the weather like?");
+        AssistantMessage toolCallMessage = AssistantMessage.builder()
+                .content("")
+                .toolCalls(List.of(new AssistantMessage.ToolCall("call-1", "function", "get_weather", "{}")))
+                .build();
+        ToolResponseMessage toolResponseMessage = ToolResponseMessage.builder()
+                .responses(List.of(new ToolResponseMessage.ToolResponse("call-1", "get_weather", "sunny")))
+                .build();
+        Map<Message, List<ChatCompletionMessage>> conversionCache = new IdentityHashMap<>();
+
+        ChatCompletionRequest firstRound = chatModel.createRequest(new Prompt(List.of(userMessage), options), false,
+                conversionCache);
+        ChatCompletionRequest secondRound = chatModel.createRequest(
+                new Prompt(List.of(userMessage, toolCallMessage, toolResponseMessage), options), false, conversionCache);
+
+        assertThat(secondRound.input().messages()).hasSize(3);
+        assertThat(secondRound.input().messages().get(0)).isSameAs(firstRound.input().messages().get(0));
+        assertThat(secondRound.input().messages().get(2).role()).isEqualTo(ChatCompletionMessage.Role.TOOL);
+        assertThat(secondRound.parameters().tools()).hasSize(1).isSameAs(firstRound.parameters().tools());
+    }
+
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.common;
+
+import com.alibaba.cloud.ai.dashscope.api.DashScopeImageApi;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeTaskPoller.TaskResult;
+import com.alibaba.cloud.ai.dashscope.image.DashScopeImageModel;
+import com.alibaba.cloud.ai.dashscope.image.DashScopeImageOptions;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+import org.springframework.ai.retry.TransientAiException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link DashScopeTaskPoller}.
+ *
+ * @author agent
+ */
+class DashScopeTaskPollerTests {
+
+	private static final Scheduler TIMER = Schedulers.newParallel("task-poller-test", 2, true);
+
+	private final DashScopeTaskPoller poller = DashScopeTaskPoller.builder()
+		.initialInterval(Duration.ofMillis(5))
+		.maxInterval(Duration.ofMillis(20))
+		.timeout(Duration.ofSeconds(10))
+		.timer(TIMER)
+		.build();
+
+	@AfterAll
+	static void tearDown() {
+		TIMER.dispose();
+	}
+
+	@Test
+	void imageModelWaitsForTaskThatIsPendingSeveralTimes() throws IOException {
+		AtomicInteger statusQueries = new AtomicInteger();
+		try (MockWebServer server = new MockWebServer()) {
+			server.setDispatcher(new Dispatcher() {
+				@Override
+				public MockResponse dispatch(RecordedRequest request) {
+					if ("POST".equals(request.getMethod())) {
+						return json("{\"request_id\":\"r-1\",\"output\":{\"task_id\":\"t-1\",\"task_status\":\"PENDING\"}}");
+					}
+					if (statusQueries.incrementAndGet() <= 3) {
+						return json("{\"request_id\":\"r-1\",\"output\":{\"task_id\":\"t-1\",\"task_status\":\"PENDING\"}}");
+					}
+					return json("{\"request_id\":\"r-1\",\"output\":{\"task_id\":\"t-1\",\"task_status\":\"SUCCEEDED\","
+							+ "\"results\":[{\"url\":\"https://example.com/1.png\"}]},\"usage\":{\"image_count\":1}}");
+				}
+			});
+			server.start();
+
+			DashScopeImageApi imageApi = DashScopeImageApi.builder()
+				.baseUrl(server.url("/").toString())
+				.apiKey("test-key")
+				.build();
+			DashScopeImageModel imageModel = DashScopeImageModel.builder()
+				.dashScopeApi(imageApi)
+				.defaultOptions(DashScopeImageOptions.builder().model("wanx-v1").n(1).build())
+				.taskPoller(this.poller)
+				.build();
+
+			ImageResponse response = imageModel.call(new ImagePrompt("a cat"));
+
+			assertThat(response.getResult().getOutput().getUrl()).isEqualTo("https://example.com/1.png");
+			assertThat(response.getMetadata().get("taskStatus").toString()).isEqualTo("SUCCEEDED");
+			assertThat(statusQueries).hasValue(4);
+			assertThat(server.getRequestCount()).isEqualTo(5);
+		}
+	}
+
+	@Test
+	void concurrentPollsForTheSameTaskShareOneLoop() {
+		AtomicInteger queries = new AtomicInteger();
+		List<TaskResult<String>> results = Flux.range(0, 10)
+			.flatMap(i -> this.poller.poll("t-1", () -> pendingTimes(queries, 3), "SUCCEEDED"::equals))
+			.collectList()
+			.block(Duration.ofSeconds(10));
+
+		assertThat(results).hasSize(10).allSatisfy(result -> {
+			assertThat(result.response()).isEqualTo("SUCCEEDED");
+			assertThat(result.attempts()).isEqualTo(4);
+			assertThat(result.timedOut()).isFalse();
+		});
+		assertThat(queries).hasValue(4);
+		assertThat(this.poller.getInFlightCount()).isZero();
+	}
+
+	@Test
+	void pollStopsOnceTheLastSubscriberCancels() throws InterruptedException {
+		AtomicInteger queries = new AtomicInteger();
+		Mono<TaskResult<String>> poll = this.poller.poll("t-1", () -> pendingTimes(queries, Integer.MAX_VALUE),
+				"SUCCEEDED"::equals);
+		Disposable first = poll.subscribe();
+		Disposable second = poll.subscribe();
+		while (queries.get() < 3) {
+			Thread.sleep(5);
+		}
+
+		first.dispose();
+		int afterFirst = queries.get();
+		Thread.sleep(100);
+		assertThat(queries.get()).isGreaterThan(afterFirst);
+
+		second.dispose();
+		int afterSecond = queries.get();
+		Thread.sleep(100);
+		assertThat(queries).hasValue(afterSecond);
+		assertThat(this.poller.getInFlightCount()).isZero();
+	}
+
+	@Test
+	void thousandsOfTasksArePolledOnTheTimerThreads() {
+		int tasks = 5000;
+		AtomicInteger queries = new AtomicInteger();
+		int completed = Flux.range(0, tasks)
+			.flatMap(i -> {
+				AtomicInteger pending = new AtomicInteger();
+				return this.poller.poll("t-" + i, () -> {
+					queries.incrementAndGet();
+					return pendingTimes(pending, 2);
+				}, "SUCCEEDED"::equals);
+			}, tasks)
+			.filter(result -> !result.timedOut())
+			.count()
+			.block(Duration.ofSeconds(30))
+			.intValue();
+
+		assertThat(completed).isEqualTo(tasks);
+		assertThat(queries).hasValue(tasks * 3);
+		assertThat(this.poller.getInFlightCount()).isZero();
+	}
+
+	@Test
+	void timesOutWithTheLastResponse() {
+		DashScopeTaskPoller shortPoller = DashScopeTaskPoller.builder()
+			.initialInterval(Duration.ofMillis(5))
+			.maxInterval(Duration.ofMillis(10))
+			.timeout(Duration.ofMillis(100))
+			.timer(TIMER)
+			.build();
+
+		TaskResult<String> result = shortPoller.poll("t-1", () -> Mono.just("PENDING"), "SUCCEEDED"::equals)
+			.block(Duration.ofSeconds(10));
+
+		assertThat(result.timedOut()).isTrue();
+		assertThat(result.response()).isEqualTo("PENDING");
+		assertThat(result.attempts()).isGreaterThan(1);
+	}
+
+	@Test
+	void retryableErrorsAndEmptyResponsesCountAsPending() {
+		AtomicInteger queries = new AtomicInteger();
+		TaskResult<String> result = this.poller.poll("t-1", () -> switch (queries.incrementAndGet()) {
+			case 1 -> Mono.error(new TransientAiException("busy"));
+			case 2 -> Mono.empty();
+			default -> Mono.just("SUCCEEDED");
+		}, "SUCCEEDED"::equals).block(Duration.ofSeconds(10));
+
+		assertThat(result.response()).isEqualTo("SUCCEEDED");
+		assertThat(result.attempts()).isEqualTo(3);
+	}
+
+	@Test
+	void nonRetryableErrorFailsThePoll() {
+		Mono<TaskResult<String>> result = this.poller.poll("t-1",
+				() -> Mono.error(new IllegalStateException("bad request")), "SUCCEEDED"::equals);
+
+		assertThatThrownBy(() -> result.block(Duration.ofSeconds(10))).isInstanceOf(IllegalStateException.class);
+		assertThat(this.poller.getInFlightCount()).isZero();
+	}
+
+	@Test
+	void backoffGrowsExponentiallyWithinJitterBounds() {
+		DashScopeTaskPoller backoff = DashScopeTaskPoller.builder()
+			.initialInterval(Duration.ofSeconds(1))
+			.multiplier(2)
+			.maxInterval(Duration.ofSeconds(10))
+			.jitter(0.25)
+			.build();
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(backoff.nextDelay(0)).isBetween(750L, 1250L);
+			assertThat(backoff.nextDelay(2)).isBetween(3000L, 5000L);
+			assertThat(backoff.nextDelay(10)).isBetween(7500L, 12500L);
+		}
+	}
+
+	private static Mono<String> pendingTimes(AtomicInteger counter, int pending) {
+		return Mono.fromSupplier(() -> counter.incrementAndGet() <= pending ? "PENDING" : "SUCCEEDED");
+	}
+
+	private static MockResponse json(String body) {
+		return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.embedding;
+
+import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.retry.support.RetryTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link DashScopeEmbeddingModel} against a local stub of the embeddings endpoint
+ * to verify the concurrent sub-batch fan-out.
+ *
+ * @author agent
+ */
+class DashScopeEmbeddingModelConcurrencyTests {
+
+	private static final int MAX_CONCURRENCY = 3;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final Map<String, AtomicInteger> textCounts = new ConcurrentHashMap<>();
+
+	private final AtomicInteger failuresToInject = new AtomicInteger();
+
+	private MockWebServer server;
+
+	private DashScopeEmbeddingModel embeddingModel;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new MockWebServer();
+		this.server.setDispatcher(new EmbeddingDispatcher());
+		this.server.start();
+
+		DashScopeApi dashScopeApi = DashScopeApi.builder()
+			.baseUrl(this.server.url("/").toString())
+			.apiKey("test-key")
+			.build();
+		RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(3).fixedBackoff(10).build();
+		this.embeddingModel = new DashScopeEmbeddingModel(dashScopeApi, MetadataMode.EMBED,
+				DashScopeEmbeddingOptions.builder().model("text-embedding-v3").textType("document").build(),
+				retryTemplate);
+		this.embeddingModel.setMaxConcurrency(MAX_CONCURRENCY);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	void subBatchesRunConcurrentlyAndKeepOrder() {
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			documents.add(new Document(String.valueOf(i)));
+		}
+
+		List<float[]> embeddings = this.embeddingModel.embed(documents, DashScopeEmbeddingOptions.builder().build(),
+				new TokenCountBatchingStrategy());
+
+		assertThat(embeddings).hasSize(250);
+		for (int i = 0; i < 250; i++) {
+			assertThat(embeddings.get(i)).containsExactly(i);
+		}
+		assertThat(this.requests).hasValue(10);
+		assertThat(this.maxInFlight.get()).isGreaterThan(1).isLessThanOrEqualTo(MAX_CONCURRENCY);
+	}
+
+	@Test
+	void identicalTextsAreSentOnce() {
+		List<String> texts = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			texts.add(String.valueOf(i % 30));
+		}
+
+		List<float[]> embeddings = this.embeddingModel.embed(texts);
+
+		assertThat(embeddings).hasSize(100);
+		for (int i = 0; i < 100; i++) {
+			assertThat(embeddings.get(i)).containsExactly(i % 30);
+		}
+		assertThat(this.requests).hasValue(2);
+		assertThat(this.textCounts).hasSize(30).allSatisfy((text, count) -> assertThat(count).hasValue(1));
+	}
+
+	@Test
+	void failedSubBatchIsRetriedOnItsOwn() {
+		this.failuresToInject.set(1);
+		List<String> texts = new ArrayList<>();
+		for (int i = 0; i < 75; i++) {
+			texts.add(String.valueOf(i));
+		}
+
+		List<float[]> embeddings = this.embeddingModel.embed(texts);
+
+		assertThat(embeddings).hasSize(75);
+		for (int i = 0; i < 75; i++) {
+			assertThat(embeddings.get(i)).containsExactly(i);
+		}
+		// three sub-batches plus a single retry
+		assertThat(this.server.getRequestCount()).isEqualTo(4);
+		assertThat(this.requests).hasValue(3);
+	}
+
+	/**
+	 * Embeds every text {@code "n"} as the vector {@code [n]} after a short delay,
+	 * tracking the number of concurrent requests.
+	 */
+	private class EmbeddingDispatcher extends Dispatcher {
+
+		@Override
+		public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+			int current = inFlight.incrementAndGet();
+			maxInFlight.accumulateAndGet(current, Math::max);
+			try {
+				Thread.sleep(50);
+				if (failuresToInject.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+					return new MockResponse().setResponseCode(500);
+				}
+				requests.incrementAndGet();
+				DashScopeApiSpec.EmbeddingRequest embeddingRequest = ModelOptionsUtils
+					.jsonToObject(request.getBody().readUtf8(), DashScopeApiSpec.EmbeddingRequest.class);
+				List<DashScopeApiSpec.Embedding> embeddings = new ArrayList<>();
+				List<String> texts = embeddingRequest.input().texts();
+				for (int i = 0; i < texts.size(); i++) {
+					textCounts.computeIfAbsent(texts.get(i), text -> new AtomicInteger()).incrementAndGet();
+					embeddings.add(new DashScopeApiSpec.Embedding(i, new float[] { Float.parseFloat(texts.get(i)) }));
+				}
+				DashScopeApiSpec.EmbeddingList body = new DashScopeApiSpec.EmbeddingList("request-id", null, null,
+						new DashScopeApiSpec.Embeddings(embeddings), new DashScopeApiSpec.EmbeddingUsage(
+								(long) texts.size()));
+				return new MockResponse().setHeader("Content-Type", "application/json")
+					.setBody(ModelOptionsUtils.toJsonString(body));
+			}
+			finally {
+				inFlight.decrementAndGet();
+			}
+		}
+
+	}
+
+}
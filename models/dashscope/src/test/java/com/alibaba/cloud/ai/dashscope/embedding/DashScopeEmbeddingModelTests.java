@@ -18,9 +18,14 @@ package com.alibaba.cloud.ai.dashscope.embedding;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import com.alibaba.cloud.ai.dashscope.embedding.cache.EmbeddingCache;
+import com.alibaba.cloud.ai.dashscope.embedding.cache.InMemoryEmbeddingCache;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.Embedding;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.EmbeddingList;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.EmbeddingUsage;
@@ -28,8 +33,10 @@ import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.Embeddings;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.MetadataMode;
@@ -256,4 +263,74 @@ class DashScopeEmbeddingModelTests {
 		assertThat(response.getResults().get(0).getIndex()).isEqualTo(0);
 	}
 
+	@Test
+	void testCacheOnlySendsMissesAndRestoresOrder() {
+		// Warm the cache with "First text", then embed a batch mixing hits, misses and
+		// duplicated misses
+		InMemoryEmbeddingCache cache = new InMemoryEmbeddingCache();
+		float[] cached = { 0.1f, 0.2f, 0.3f };
+		cache.put(EmbeddingCache.key(TEST_MODEL, TEST_DIMENSION, TEST_TEXT_TYPE, "First text"), cached);
+		embeddingModel.setEmbeddingCache(cache);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		embeddingModel.setMeterRegistry(meterRegistry);
+
+		float[] vector2 = { 0.4f, 0.5f, 0.6f };
+		float[] vector3 = { 0.7f, 0.8f, 0.9f };
+		EmbeddingList response = new EmbeddingList(TEST_REQUEST_ID, null, null,
+				new Embeddings(List.of(new Embedding(0, vector2), new Embedding(1, vector3))), new EmbeddingUsage(20L));
+		ArgumentCaptor<DashScopeApiSpec.EmbeddingRequest> requestCaptor = ArgumentCaptor
+			.forClass(DashScopeApiSpec.EmbeddingRequest.class);
+		when(dashScopeApi.embeddings(requestCaptor.capture())).thenReturn(ResponseEntity.ok(response));
+
+		EmbeddingResponse embeddingResponse = embeddingModel
+			.embedForResponse(List.of("Second text", "First text", "Third text", "Second text"));
+
+		assertThat(requestCaptor.getValue().input().texts()).containsExactly("Second text", "Third text");
+		assertThat(embeddingResponse.getResults()).hasSize(4);
+		assertThat(embeddingResponse.getResults().get(0).getOutput()).containsExactly(vector2);
+		assertThat(embeddingResponse.getResults().get(1).getOutput()).containsExactly(cached);
+		assertThat(embeddingResponse.getResults().get(2).getOutput()).containsExactly(vector3);
+		assertThat(embeddingResponse.getResults().get(3).getOutput()).containsExactly(vector2);
+		assertThat(embeddingResponse.getResults().get(3).getIndex()).isEqualTo(3);
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(meterRegistry.get("dashscope.embedding.cache.hits").tag("model", TEST_MODEL).counter().count())
+			.isEqualTo(1);
+		assertThat(meterRegistry.get("dashscope.embedding.cache.misses").tag("model", TEST_MODEL).counter().count())
+			.isEqualTo(3);
+	}
+
+	@Test
+	void testCacheHitSkipsApiCall() {
+		InMemoryEmbeddingCache cache = new InMemoryEmbeddingCache();
+		float[] cached = { 0.1f, 0.2f, 0.3f };
+		cache.put(EmbeddingCache.key(TEST_MODEL, TEST_DIMENSION, TEST_TEXT_TYPE, TEST_TEXT), cached);
+		embeddingModel.setEmbeddingCache(cache);
+
+		EmbeddingResponse response = embeddingModel.embedForResponse(List.of(TEST_TEXT));
+
+		verify(dashScopeApi, never()).embeddings(any());
+		assertThat(response.getResults()).hasSize(1);
+		assertThat(response.getResults().get(0).getOutput()).containsExactly(cached);
+		assertThat(response.getMetadata().getModel()).isEqualTo(TEST_MODEL);
+	}
+
+	@Test
+	void testCacheKeyIncludesOptions() {
+		InMemoryEmbeddingCache cache = new InMemoryEmbeddingCache();
+		cache.put(EmbeddingCache.key(TEST_MODEL, 1024, TEST_TEXT_TYPE, TEST_TEXT), new float[] { 0.1f });
+		embeddingModel.setEmbeddingCache(cache);
+
+		float[] embeddingVector = { 0.4f, 0.5f, 0.6f };
+		EmbeddingList response = new EmbeddingList(TEST_REQUEST_ID, null, null,
+				new Embeddings(List.of(new Embedding(0, embeddingVector))), new EmbeddingUsage(10L));
+		when(dashScopeApi.embeddings(any())).thenReturn(ResponseEntity.ok(response));
+
+		// default options request 512 dimensions, so the 1024 entry must not be served
+		EmbeddingResponse embeddingResponse = embeddingModel.embedForResponse(List.of(TEST_TEXT));
+
+		verify(dashScopeApi).embeddings(any());
+		assertThat(embeddingResponse.getResults().get(0).getOutput()).containsExactly(embeddingVector);
+		assertThat(embeddingResponse.getMetadata().getUsage().getNativeUsage()).isEqualTo(new EmbeddingUsage(10L));
+	}
+
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.embedding.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link InMemoryEmbeddingCache} and the {@link BinaryEmbeddingCache} codec.
+ *
+ * @author agent
+ */
+class InMemoryEmbeddingCacheTests {
+
+	@Test
+	void keyDependsOnEveryField() {
+		String key = EmbeddingCache.key("text-embedding-v3", 512, "document", "hello");
+
+		assertThat(EmbeddingCache.key("text-embedding-v3", 512, "document", "hello")).isEqualTo(key).hasSize(64);
+		assertThat(EmbeddingCache.key("text-embedding-v2", 512, "document", "hello")).isNotEqualTo(key);
+		assertThat(EmbeddingCache.key("text-embedding-v3", null, "document", "hello")).isNotEqualTo(key);
+		assertThat(EmbeddingCache.key("text-embedding-v3", 512, "query", "hello")).isNotEqualTo(key);
+		assertThat(EmbeddingCache.key("text-embedding-v3", 512, "documenth", "ello")).isNotEqualTo(key);
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		InMemoryEmbeddingCache cache = new InMemoryEmbeddingCache(2);
+		cache.put("a", new float[] { 1f });
+		cache.put("b", new float[] { 2f });
+		// touch "a" so that "b" becomes the eldest entry
+		cache.get("a");
+		cache.put("c", new float[] { 3f });
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getAll(List.of("a", "b", "c"))).containsOnlyKeys("a", "c");
+	}
+
+	@Test
+	void expiredEntryIsNotReturned() throws InterruptedException {
+		InMemoryEmbeddingCache cache = new InMemoryEmbeddingCache(10, Duration.ofMillis(20));
+		cache.putAll(Map.of("a", new float[] { 1f }));
+		assertThat(cache.get("a")).containsExactly(1f);
+
+		Thread.sleep(50);
+
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void embeddingsAreCopiedOnTheWayInAndOut() {
+		InMemoryEmbeddingCache cache = new InMemoryEmbeddingCache();
+		float[] embedding = { 1f, 2f };
+		cache.put("a", embedding);
+
+		embedding[0] = 9f;
+		cache.get("a")[1] = 9f;
+		cache.getAll(List.of("a")).get("a")[1] = 9f;
+
+		assertThat(cache.get("a")).containsExactly(1f, 2f);
+	}
+
+	@Test
+	void binaryCodecRoundTrips() {
+		float[] embedding = { 0.1f, -2.5f, Float.MIN_VALUE, 1e10f };
+
+		byte[] bytes = BinaryEmbeddingCache.encode(embedding);
+
+		assertThat(bytes).hasSize(embedding.length * Float.BYTES);
+		assertThat(BinaryEmbeddingCache.decode(bytes)).containsExactly(embedding);
+		assertThat(BinaryEmbeddingCache.decode(null)).isNull();
+	}
+
+}
@@ -21,11 +21,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeImageApi;
+import com.alibaba.cloud.ai.dashscope.common.DashScopeTaskPoller;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.DashScopeImageAsyncResponse;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.DashScopeImageAsyncResponse.DashScopeImageAsyncResponseOutput;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.DashScopeImageAsyncResponse.DashScopeImageAsyncResponseResult;
 import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec.DashScopeImageAsyncResponse.DashScopeImageAsyncResponseUsage;
 import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -117,6 +119,24 @@ class DashScopeImageModelTests {
 		assertThat(response.getResults()).isEmpty();
 	}
 
+	@Test
+	void testTimeoutImageGeneration() {
+		// Test handling of a task that is still pending when the poller gives up
+		mockTimeoutImageGeneration();
+		imageModel.setTaskPoller(DashScopeTaskPoller.builder()
+			.initialInterval(Duration.ofMillis(10))
+			.maxInterval(Duration.ofMillis(10))
+			.timeout(Duration.ofMillis(100))
+			.build());
+
+		ImagePrompt prompt = new ImagePrompt(TEST_PROMPT);
+		ImageResponse response = imageModel.call(prompt);
+
+		assertThat(response.getResults()).isEmpty();
+		assertThat(response.getMetadata().get("taskStatus").toString()).isEqualTo("TIMED_OUT");
+		assertThat(response.getMetadata().get("taskId").toString()).isEqualTo(TEST_TASK_ID);
+	}
+
 	@Test
 	void testNullResponse() {
 		// Test handling of null API response
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.protocol;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.ByteString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs {@link DashScopeWebSocketClient} sessions against a local web socket server to
+ * verify that connections share one {@code OkHttpClient}.
+ *
+ * @author agent
+ */
+class DashScopeWebSocketClientPoolingTests {
+
+	private static final String TASK_FINISHED = """
+			{"header":{"task_id":"test-task-id","event":"task-finished"},"payload":{}}""";
+
+	private MockWebServer server;
+
+	private DashScopeWebSocketClientOptions options;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new MockWebServer();
+		this.server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				return new MockResponse().withWebSocketUpgrade(new TaskServer());
+			}
+		});
+		this.server.start();
+		this.options = DashScopeWebSocketClientOptions.builder()
+			.apiKey("test-key")
+			.url(this.server.url("/").toString().replaceFirst("^http", "ws"))
+			.build();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	void sequentialSessionsDoNotGrowThreads() {
+		// warm up the shared dispatcher and the server before taking the baseline
+		for (int i = 0; i < 10; i++) {
+			runSession();
+		}
+		int baseline = Thread.activeCount();
+
+		for (int i = 0; i < 100; i++) {
+			runSession();
+		}
+
+		assertThat(Thread.activeCount()).isLessThanOrEqualTo(baseline + 10);
+		assertThat(this.server.getRequestCount()).isEqualTo(110);
+	}
+
+	@Test
+	void clientsWithSameSettingsShareHttpClient() throws Exception {
+		DashScopeWebSocketClientOptions other = DashScopeWebSocketClientOptions.builder()
+			.apiKey("other-key")
+			.url(this.options.getUrl())
+			.build();
+		DashScopeWebSocketClientOptions tuned = DashScopeWebSocketClientOptions.builder()
+			.apiKey("test-key")
+			.url(this.options.getUrl())
+			.maxRequests(4)
+			.build();
+
+		Object shared = httpClient(new DashScopeWebSocketClient(this.options));
+
+		assertThat(httpClient(new DashScopeWebSocketClient(other))).isSameAs(shared);
+		assertThat(httpClient(new DashScopeWebSocketClient(tuned))).isNotSameAs(shared);
+	}
+
+	@Test
+	void slowSubscriberGetsOverflowError() {
+		DashScopeWebSocketClient client = new DashScopeWebSocketClient(DashScopeWebSocketClientOptions.builder()
+			.apiKey("test-key")
+			.url(this.options.getUrl())
+			.maxBufferedMessages(8)
+			.build());
+		WebSocket webSocket = mock(WebSocket.class);
+
+		StepVerifier.create(client.streamTextOut(Flux.empty()), 0)
+			.then(() -> {
+				for (int i = 0; i < 100; i++) {
+					client.onMessage(webSocket, """
+							{"header":{"task_id":"test-task-id","event":"result-generated"},"payload":{}}""");
+				}
+			})
+			.thenRequest(Long.MAX_VALUE)
+			.thenConsumeWhile(text -> true)
+			.expectErrorMatches(Exceptions::isOverflow)
+			.verify(Duration.ofSeconds(5));
+	}
+
+	private void runSession() {
+		List<ByteBuffer> audio = new DashScopeWebSocketClient(this.options).streamBinaryOut("run-task")
+			.collectList()
+			.block(Duration.ofSeconds(10));
+		assertThat(audio).hasSize(1);
+	}
+
+	private static Object httpClient(DashScopeWebSocketClient client) throws Exception {
+		Field field = DashScopeWebSocketClient.class.getDeclaredField("httpClient");
+		field.setAccessible(true);
+		return field.get(client);
+	}
+
+	/**
+	 * Answers every task with one audio frame, then finishes the task and closes the
+	 * connection.
+	 */
+	private static class TaskServer extends WebSocketListener {
+
+		@Override
+		public void onMessage(WebSocket webSocket, String text) {
+			webSocket.send(ByteString.of((byte) 1, (byte) 2, (byte) 3));
+			webSocket.send(TASK_FINISHED);
+			webSocket.close(1000, "done");
+		}
+
+	}
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.protocol;
+
+import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.ByteString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link DashScopeWebSocketSessionManager} tasks against a local web socket server
+ * that answers every task under its {@code task_id}.
+ *
+ * @author agent
+ */
+class DashScopeWebSocketSessionManagerTests {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private MockWebServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new MockWebServer();
+		this.server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				return new MockResponse().withWebSocketUpgrade(new TaskServer());
+			}
+		});
+		this.server.start();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	void sequentialTasksShareOneConnection() {
+		DashScopeWebSocketSessionManager manager = sessionManager(1);
+
+		for (int i = 0; i < 10; i++) {
+			String taskId = "tts-" + i;
+			List<ByteBuffer> audio = manager.streamBinaryOut(taskId, runTask(taskId, "tts"))
+				.collectList()
+				.block(Duration.ofSeconds(5));
+
+			assertThat(audio).hasSize(1);
+			assertThat(StandardCharsets.UTF_8.decode(audio.get(0)).toString()).isEqualTo(taskId);
+		}
+
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+		assertThat(manager.getConnectionCount()).isEqualTo(1);
+		manager.close();
+	}
+
+	@Test
+	void concurrentTasksAreRoutedByTaskId() {
+		DashScopeWebSocketSessionManager manager = sessionManager(4);
+
+		List<String> results = Flux.range(0, 4)
+			.flatMap(i -> transcribe(manager, "asr-" + i).map(text -> "asr-" + i + "=" + text))
+			.collectList()
+			.block(Duration.ofSeconds(5));
+
+		assertThat(results).containsExactlyInAnyOrder("asr-0=asr-0", "asr-1=asr-1", "asr-2=asr-2", "asr-3=asr-3");
+		assertThat(this.server.getRequestCount()).isEqualTo(1);
+		manager.close();
+	}
+
+	@Test
+	void tasksBeyondTheLimitOpenAnotherConnection() {
+		DashScopeWebSocketSessionManager manager = sessionManager(2);
+
+		List<String> results = Flux.range(0, 4)
+			.flatMap(i -> transcribe(manager, "asr-" + i))
+			.collectList()
+			.block(Duration.ofSeconds(5));
+
+		assertThat(results).hasSize(4);
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+		manager.close();
+	}
+
+	@Test
+	void concurrentBinaryTasksNeverShareAConnection() {
+		DashScopeWebSocketSessionManager manager = sessionManager(4);
+
+		List<String> audio = Flux.range(0, 2)
+			.flatMap(i -> manager.streamBinaryOut("slow-tts-" + i, runTask("slow-tts-" + i, "tts"))
+				.map(frame -> "slow-tts-" + i + "=" + StandardCharsets.UTF_8.decode(frame)))
+			.collectList()
+			.block(Duration.ofSeconds(5));
+
+		assertThat(audio).containsExactlyInAnyOrder("slow-tts-0=slow-tts-0", "slow-tts-1=slow-tts-1");
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+
+		// text tasks still join a connection running a binary task
+		assertThat(Flux.merge(manager.streamBinaryOut("slow-tts-2", runTask("slow-tts-2", "tts")).then(Mono.just("")),
+				transcribe(manager, "asr-0"))
+			.collectList()
+			.block(Duration.ofSeconds(5))).contains("asr-0");
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+		manager.close();
+	}
+
+	@Test
+	void failedTaskOnlyFailsItsOwnStream() {
+		DashScopeWebSocketSessionManager manager = sessionManager(2);
+
+		Flux<String> ok = transcribe(manager, "asr-ok");
+		Flux<String> failed = transcribe(manager, "fail-1");
+
+		StepVerifier.create(Flux.merge(ok, failed.onErrorResume(DashScopeException.class,
+				ex -> Mono.just("error: " + ex.getMessage()))))
+			.recordWith(ArrayList::new)
+			.expectNextCount(2)
+			.consumeRecordedWith(results -> assertThat(results).containsExactlyInAnyOrder("asr-ok",
+					"error: [InvalidParameter] bad task (taskId: fail-1)"))
+			.verifyComplete();
+		manager.close();
+	}
+
+	@Test
+	void failedSendFailsTheTaskAndRetiresTheConnection() {
+		DashScopeWebSocketSessionManager manager = sessionManager(2);
+		// larger than the 16 MiB outgoing queue of OkHttp, so the send is refused
+		Flux<ByteBuffer> oversized = Flux.just(ByteBuffer.allocate(17 * 1024 * 1024));
+
+		StepVerifier.create(manager.streamTextOut("asr-big", runTask("asr-big", "asr"), oversized,
+				() -> finishTask("asr-big")))
+			.expectErrorSatisfies(ex -> assertThat(ex).isInstanceOf(DashScopeException.class)
+				.hasMessage("send binary of task asr-big failed"))
+			.verify(Duration.ofSeconds(5));
+		assertThat(manager.getConnectionCount()).isZero();
+
+		assertThat(transcribe(manager, "asr-next").collectList().block(Duration.ofSeconds(5)))
+			.containsExactly("asr-next");
+		assertThat(this.server.getRequestCount()).isEqualTo(2);
+		manager.close();
+	}
+
+	private DashScopeWebSocketSessionManager sessionManager(int maxTasksPerConnection) {
+		return new DashScopeWebSocketSessionManager(DashScopeWebSocketClientOptions.builder()
+			.apiKey("test-key")
+			.url(this.server.url("/").toString().replaceFirst("^http", "ws"))
+			.maxTasksPerConnection(maxTasksPerConnection)
+			.build());
+	}
+
+	/**
+	 * Streams one audio frame after a short delay, so that concurrently started tasks
+	 * overlap, and returns the transcribed text of every result.
+	 */
+	private static Flux<String> transcribe(DashScopeWebSocketSessionManager manager, String taskId) {
+		Flux<ByteBuffer> audio = Mono.delay(Duration.ofMillis(200))
+			.thenMany(Flux.just(ByteBuffer.wrap(new byte[] { 1, 2, 3 })));
+		return manager.streamTextOut(taskId, runTask(taskId, "asr"), audio, () -> finishTask(taskId))
+			.map(text -> read(text).at("/payload/output/text").asText());
+	}
+
+	private static String runTask(String taskId, String task) {
+		return """
+				{"header":{"action":"run-task","task_id":"%s","streaming":"duplex"},"payload":{"task":"%s"}}"""
+			.formatted(taskId, task);
+	}
+
+	private static String finishTask(String taskId) {
+		return """
+				{"header":{"action":"finish-task","task_id":"%s","streaming":"duplex"},"payload":{}}"""
+			.formatted(taskId);
+	}
+
+	private static String event(String taskId, String event, String payload) {
+		return """
+				{"header":{"task_id":"%s","event":"%s","error_code":"InvalidParameter","error_message":"bad task"},"payload":%s}"""
+			.formatted(taskId, event, payload);
+	}
+
+	private static JsonNode read(String text) {
+		try {
+			return OBJECT_MAPPER.readTree(text);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Answers "tts" tasks with one binary frame holding the task id, and "asr" tasks
+	 * with a result holding the task id once the task is finished. Tasks whose id
+	 * starts with "fail" fail instead, and those whose id starts with "slow" are
+	 * answered after 200 ms.
+	 */
+	private static class TaskServer extends WebSocketListener {
+
+		@Override
+		public void onMessage(WebSocket webSocket, String text) {
+			JsonNode message = read(text);
+			String taskId = message.at("/header/task_id").asText();
+			String action = message.at("/header/action").asText();
+			if (taskId.startsWith("fail")) {
+				if (action.equals("finish-task")) {
+					webSocket.send(event(taskId, "task-failed", "{}"));
+				}
+				return;
+			}
+			if (action.equals("run-task")) {
+				webSocket.send(event(taskId, "task-started", "{}"));
+				if (message.at("/payload/task").asText().equals("tts")) {
+					Runnable synthesize = () -> {
+						webSocket.send(ByteString.encodeUtf8(taskId));
+						webSocket.send(event(taskId, "task-finished", "{}"));
+					};
+					if (taskId.startsWith("slow")) {
+						CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS).execute(synthesize);
+					}
+					else {
+						synthesize.run();
+					}
+				}
+			}
+			else if (action.equals("finish-task")) {
+				webSocket.send(event(taskId, "result-generated", "{\"output\":{\"text\":\"" + taskId + "\"}}"));
+				webSocket.send(event(taskId, "task-finished", "{}"));
+			}
+		}
+
+		@Override
+		public void onClosing(WebSocket webSocket, int code, String reason) {
+			webSocket.close(code, reason);
+		}
+
+	}
+
+}
@@ -35,7 +35,14 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -47,6 +54,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -362,6 +370,137 @@ class DashScopeDocumentCloudReaderTests {
         assertEquals("custom-category", customOptions.getCategoryId());
     }
 
+    @Test
+    void testReadAllPollsParseJobsConcurrently() throws IOException {
+        int fileCount = 12;
+        DashScopeDocumentCloudReaderConfig batchConfig = new DashScopeDocumentCloudReaderConfig()
+                .withInitialWaitMillis(0)
+                .withMaxConcurrentUploads(2)
+                .withMaxConcurrentPolls(fileCount);
+        batchConfig.setRetryIntervalMillis(100L);
+        batchConfig.setUseExponentialBackoff(false);
+
+        List<String> filePaths = new ArrayList<>();
+        for (int i = 0; i < fileCount; i++) {
+            filePaths.add(createTestFile("batch-" + i + ".txt", "Content " + i).getAbsolutePath());
+        }
+
+        AtomicInteger activeUploads = new AtomicInteger();
+        AtomicInteger maxActiveUploads = new AtomicInteger();
+        when(dashScopeApi.upload(any(File.class), any(DashScopeApiSpec.UploadRequest.class))).thenAnswer(invocation -> {
+            maxActiveUploads.accumulateAndGet(activeUploads.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                return "file-" + invocation.getArgument(1, DashScopeApiSpec.UploadRequest.class).fileName();
+            }
+            finally {
+                activeUploads.decrementAndGet();
+            }
+        });
+
+        // every parse job reports PARSING three times before it succeeds
+        Map<String, AtomicInteger> queries = new ConcurrentHashMap<>();
+        when(dashScopeApi.queryFileInfo(anyString(), any())).thenAnswer(invocation -> {
+            String fileId = invocation.getArgument(1, DashScopeApiSpec.UploadRequest.QueryFileRequest.class).fileId();
+            int attempt = queries.computeIfAbsent(fileId, id -> new AtomicInteger()).incrementAndGet();
+            return ResponseEntity.ok(createMockResponse(attempt > 3 ? "PARSE_SUCCESS" : "PARSING", null, null));
+        });
+        when(dashScopeApi.getFileParseResult(anyString(), any())).thenAnswer(invocation ->
+                "Parsed " + invocation.getArgument(1, DashScopeApiSpec.UploadRequest.QueryFileRequest.class).fileId());
+
+        long start = System.nanoTime();
+        List<Document> documents = DashScopeDocumentCloudReader
+                .readAll(filePaths, dashScopeApi, options, batchConfig)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(documents).hasSize(fileCount)
+                .extracting(Document::getId)
+                .containsExactlyInAnyOrderElementsOf(
+                        filePaths.stream().map(path -> "file-" + new File(path).getName()).toList());
+        assertThat(documents).allSatisfy(document -> assertThat(document.getText()).isEqualTo("Parsed " + document.getId()));
+        assertThat(maxActiveUploads.get()).isLessThanOrEqualTo(2);
+        assertThat(queries.values()).allSatisfy(count -> assertThat(count.get()).isEqualTo(4));
+        // one file needs 300ms of backoff, sequential polling would take 3.6s
+        assertThat(elapsedMillis).isLessThan(2_000L);
+    }
+
+    @Test
+    void testReadAllLimitsInFlightPolls() throws IOException {
+        int fileCount = 10;
+        DashScopeDocumentCloudReaderConfig batchConfig = new DashScopeDocumentCloudReaderConfig()
+                .withInitialWaitMillis(0)
+                .withMaxConcurrentUploads(fileCount)
+                .withMaxConcurrentPolls(3);
+        batchConfig.setRetryIntervalMillis(10L);
+
+        List<String> filePaths = new ArrayList<>();
+        for (int i = 0; i < fileCount; i++) {
+            filePaths.add(createTestFile("limit-" + i + ".txt", "Content " + i).getAbsolutePath());
+        }
+
+        Set<String> polling = ConcurrentHashMap.newKeySet();
+        AtomicInteger maxPolling = new AtomicInteger();
+        when(dashScopeApi.upload(any(File.class), any(DashScopeApiSpec.UploadRequest.class))).thenAnswer(invocation ->
+                "file-" + invocation.getArgument(1, DashScopeApiSpec.UploadRequest.class).fileName());
+        Map<String, AtomicInteger> queries = new ConcurrentHashMap<>();
+        when(dashScopeApi.queryFileInfo(anyString(), any())).thenAnswer(invocation -> {
+            String fileId = invocation.getArgument(1, DashScopeApiSpec.UploadRequest.QueryFileRequest.class).fileId();
+            polling.add(fileId);
+            maxPolling.accumulateAndGet(polling.size(), Math::max);
+            int attempt = queries.computeIfAbsent(fileId, id -> new AtomicInteger()).incrementAndGet();
+            return ResponseEntity.ok(createMockResponse(attempt > 2 ? "PARSE_SUCCESS" : "PARSING", null, null));
+        });
+        when(dashScopeApi.getFileParseResult(anyString(), any())).thenAnswer(invocation -> {
+            polling.remove(invocation.getArgument(1, DashScopeApiSpec.UploadRequest.QueryFileRequest.class).fileId());
+            return "Parsed";
+        });
+
+        List<Document> documents = DashScopeDocumentCloudReader
+                .readAll(filePaths, dashScopeApi, options, batchConfig)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(documents).hasSize(fileCount);
+        assertThat(maxPolling.get()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void testReadAllFailsOnFirstParseFailure() throws IOException {
+        DashScopeDocumentCloudReaderConfig batchConfig = new DashScopeDocumentCloudReaderConfig()
+                .withInitialWaitMillis(0);
+        batchConfig.setRetryIntervalMillis(10L);
+
+        List<String> filePaths = List.of(createTestFile("ok.txt", "Content").getAbsolutePath(),
+                createTestFile("broken.txt", "Content").getAbsolutePath());
+
+        when(dashScopeApi.upload(any(File.class), any(DashScopeApiSpec.UploadRequest.class))).thenAnswer(invocation ->
+                "file-" + invocation.getArgument(1, DashScopeApiSpec.UploadRequest.class).fileName());
+        when(dashScopeApi.queryFileInfo(anyString(), any())).thenAnswer(invocation -> {
+            String fileId = invocation.getArgument(1, DashScopeApiSpec.UploadRequest.QueryFileRequest.class).fileId();
+            return ResponseEntity.ok(fileId.contains("broken")
+                    ? createMockResponse("PARSE_FAILED", "FAILED", "Parse failed")
+                    : createMockResponse("PARSING", null, null));
+        });
+
+        assertThatThrownBy(() -> DashScopeDocumentCloudReader
+                .readAll(filePaths, dashScopeApi, options, batchConfig)
+                .blockLast(Duration.ofSeconds(30)))
+                .isInstanceOf(DashScopeDocumentException.class)
+                .hasMessageContaining("file-broken.txt");
+    }
+
+    @Test
+    void testReadAllValidatesFilesBeforeUploading() throws IOException {
+        List<String> filePaths = List.of(createTestFile("ok.txt", "Content").getAbsolutePath(),
+                tempDir.resolve("missing.txt").toString());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> DashScopeDocumentCloudReader.readAll(filePaths, dashScopeApi, options, config));
+        verify(dashScopeApi, never()).upload(any(), any());
+    }
+
     // Helper methods
 
     private File createTestFile(String filename, String content) throws IOException {
@@ -19,14 +19,23 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
 import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
+import com.alibaba.cloud.ai.dashscope.common.DashScopePipelineNotFoundException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -172,4 +181,82 @@ class DashScopeDocumentRetrieverTests {
 		}
 	}
 
+	@Test
+	void testPipelineIdIsResolvedOnceForManyQueries() {
+		when(dashScopeApi.getPipelineIdByName(TEST_INDEX_NAME)).thenReturn(TEST_PIPELINE_ID);
+		when(dashScopeApi.retriever(eq(TEST_PIPELINE_ID), eq(TEST_QUERY), any(DashScopeDocumentRetrieverOptions.class)))
+			.thenReturn(new ArrayList<>());
+
+		for (int i = 0; i < 20; i++) {
+			retriever.retrieve(new Query(TEST_QUERY));
+		}
+
+		verify(dashScopeApi, times(1)).getPipelineIdByName(TEST_INDEX_NAME);
+		verify(dashScopeApi, times(20)).retriever(eq(TEST_PIPELINE_ID), eq(TEST_QUERY),
+				any(DashScopeDocumentRetrieverOptions.class));
+	}
+
+	@Test
+	void testConcurrentQueriesShareOneLookup() throws Exception {
+		CountDownLatch lookupStarted = new CountDownLatch(1);
+		CountDownLatch releaseLookup = new CountDownLatch(1);
+		when(dashScopeApi.getPipelineIdByName(TEST_INDEX_NAME)).thenAnswer(invocation -> {
+			lookupStarted.countDown();
+			releaseLookup.await(5, TimeUnit.SECONDS);
+			return TEST_PIPELINE_ID;
+		});
+		when(dashScopeApi.retriever(eq(TEST_PIPELINE_ID), eq(TEST_QUERY), any(DashScopeDocumentRetrieverOptions.class)))
+			.thenReturn(new ArrayList<>());
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<List<Document>>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> retriever.retrieve(new Query(TEST_QUERY))));
+			}
+			assertThat(lookupStarted.await(5, TimeUnit.SECONDS)).isTrue();
+			releaseLookup.countDown();
+			for (Future<List<Document>> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEmpty();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		verify(dashScopeApi, times(1)).getPipelineIdByName(TEST_INDEX_NAME);
+	}
+
+	@Test
+	void testNotFoundFromRetrieverRefreshesPipelineId() {
+		String newPipelineId = "new-pipeline-id";
+		Document testDoc = new Document(TEST_DOC_ID, TEST_DOC_TEXT, Map.of());
+		when(dashScopeApi.getPipelineIdByName(TEST_INDEX_NAME)).thenReturn(TEST_PIPELINE_ID, newPipelineId);
+		when(dashScopeApi.retriever(eq(TEST_PIPELINE_ID), eq(TEST_QUERY), any(DashScopeDocumentRetrieverOptions.class)))
+			.thenThrow(new DashScopePipelineNotFoundException(TEST_PIPELINE_ID));
+		when(dashScopeApi.retriever(eq(newPipelineId), eq(TEST_QUERY), any(DashScopeDocumentRetrieverOptions.class)))
+			.thenReturn(List.of(testDoc));
+
+		assertThat(retriever.retrieve(new Query(TEST_QUERY))).containsExactly(testDoc);
+		assertThat(retriever.retrieve(new Query(TEST_QUERY))).containsExactly(testDoc);
+
+		verify(dashScopeApi, times(2)).getPipelineIdByName(TEST_INDEX_NAME);
+	}
+
+	@Test
+	void testZeroTtlResolvesPipelineIdForEveryQuery() {
+		retriever = new DashScopeDocumentRetriever(dashScopeApi, DashScopeDocumentRetrieverOptions.builder()
+			.indexName(TEST_INDEX_NAME)
+			.pipelineIdCacheTtl(Duration.ZERO)
+			.build());
+		when(dashScopeApi.getPipelineIdByName(TEST_INDEX_NAME)).thenReturn(TEST_PIPELINE_ID);
+		when(dashScopeApi.retriever(eq(TEST_PIPELINE_ID), eq(TEST_QUERY), any(DashScopeDocumentRetrieverOptions.class)))
+			.thenReturn(new ArrayList<>());
+
+		retriever.retrieve(new Query(TEST_QUERY));
+		retriever.retrieve(new Query(TEST_QUERY));
+
+		verify(dashScopeApi, times(2)).getPipelineIdByName(TEST_INDEX_NAME);
+	}
+
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.rerank;
+
+import com.alibaba.cloud.ai.dashscope.api.DashScopeApi;
+import com.alibaba.cloud.ai.dashscope.rerank.cache.InMemoryRerankScoreCache;
+import com.alibaba.cloud.ai.dashscope.rerank.cache.RerankScoreCache;
+import com.alibaba.cloud.ai.dashscope.spec.DashScopeApiSpec;
+import com.alibaba.cloud.ai.document.DocumentWithScore;
+import com.alibaba.cloud.ai.model.RerankRequest;
+import com.alibaba.cloud.ai.model.RerankResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.retry.support.RetryTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link DashScopeRerankModel} against a local stub of the rerank endpoint that
+ * scores every document {@code "n"} as {@code n / 1000}, to verify the sub-batch
+ * fan-out, the global top-N merge and the score cache.
+ *
+ * @author agent
+ */
+class DashScopeRerankModelConcurrencyTests {
+
+	private static final int MAX_CONCURRENCY = 3;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	private final List<DashScopeApiSpec.RerankRequest> requests = new CopyOnWriteArrayList<>();
+
+	private MockWebServer server;
+
+	private DashScopeRerankModel rerankModel;
+
+	private volatile String emptyBodyDocument;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		this.server = new MockWebServer();
+		this.server.setDispatcher(new RerankDispatcher());
+		this.server.start();
+
+		DashScopeApi dashScopeApi = DashScopeApi.builder()
+			.baseUrl(this.server.url("/").toString())
+			.apiKey("test-key")
+			.build();
+		RetryTemplate retryTemplate = RetryTemplate.builder().maxAttempts(3).fixedBackoff(10).build();
+		this.rerankModel = new DashScopeRerankModel(dashScopeApi,
+				DashScopeRerankOptions.builder().model("gte-rerank").topN(5).build(), retryTemplate);
+		this.rerankModel.setMaxBatchSize(20);
+		this.rerankModel.setMaxConcurrency(MAX_CONCURRENCY);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		this.server.shutdown();
+	}
+
+	@Test
+	void subBatchesRunConcurrentlyAndMergeIntoGlobalTopN() {
+		List<Document> documents = shuffledDocuments(100);
+
+		RerankResponse response = this.rerankModel.call(new RerankRequest("query", documents));
+
+		assertThat(scoredTexts(response)).containsExactly("99", "98", "97", "96", "95");
+		assertThat(response.getResults().get(0).getScore()).isEqualTo(0.099);
+		assertThat(this.requests).hasSize(5).allSatisfy(request -> {
+			assertThat(request.input().documents()).hasSize(20);
+			assertThat(request.parameters().topN()).isEqualTo(5);
+		});
+		assertThat(this.maxInFlight.get()).isGreaterThan(1).isLessThanOrEqualTo(MAX_CONCURRENCY);
+		// usage is summed over the sub-batches
+		assertThat(response.getMetadata().getUsage().getTotalTokens()).isEqualTo(100);
+	}
+
+	@Test
+	void defaultsSendOneRequest() {
+		DashScopeRerankModel defaults = new DashScopeRerankModel(DashScopeApi.builder()
+			.baseUrl(this.server.url("/").toString())
+			.apiKey("test-key")
+			.build(), DashScopeRerankOptions.builder().model("gte-rerank").topN(5).build());
+
+		RerankResponse response = defaults.call(new RerankRequest("query", shuffledDocuments(100)));
+
+		assertThat(scoredTexts(response)).containsExactly("99", "98", "97", "96", "95");
+		assertThat(this.requests).singleElement()
+			.satisfies(request -> assertThat(request.input().documents()).hasSize(100));
+	}
+
+	@Test
+	void subBatchesAreLimitedByCharacters() {
+		this.rerankModel.setMaxBatchCharacters(25);
+		List<Document> documents = new ArrayList<>();
+		for (int i = 100; i < 130; i++) {
+			// 10 characters per document
+			documents.add(new Document(i + "       "));
+		}
+		documents.add(new Document("999" + " ".repeat(40)));
+
+		RerankResponse response = this.rerankModel.call(new RerankRequest("query", documents));
+
+		// two documents per request, the oversized document is sent on its own
+		assertThat(this.requests).hasSize(16);
+		assertThat(this.requests).filteredOn(request -> request.input().documents().size() == 1).hasSize(1);
+		assertThat(response.getResults()).hasSize(5);
+		assertThat(response.getResults().get(0).getOutput().getText()).startsWith("999");
+	}
+
+	@Test
+	void cachedScoresAreNotRequestedAgain() {
+		this.rerankModel.setScoreCache(new InMemoryRerankScoreCache());
+		List<Document> documents = shuffledDocuments(40);
+
+		RerankResponse first = this.rerankModel.call(new RerankRequest("query", documents));
+		// with a cache every sub-batch asks for all its scores
+		assertThat(this.requests).hasSize(2).allSatisfy(request -> assertThat(request.parameters().topN()).isNull());
+
+		List<Document> more = new ArrayList<>(documents);
+		more.add(new Document("1000"));
+		RerankResponse second = this.rerankModel.call(new RerankRequest("query", more));
+
+		assertThat(scoredTexts(first)).containsExactly("39", "38", "37", "36", "35");
+		assertThat(scoredTexts(second)).containsExactly("1000", "39", "38", "37", "36");
+		assertThat(this.requests).hasSize(3);
+		assertThat(this.requests.get(2).input().documents()).containsExactly("1000");
+
+		// a different query is not served from the cache
+		this.rerankModel.call(new RerankRequest("another query", documents));
+		assertThat(this.requests).hasSize(5);
+	}
+
+	@Test
+	void expiredScoresAreRequestedAgain() throws InterruptedException {
+		this.rerankModel.setScoreCache(new InMemoryRerankScoreCache(100, Duration.ofMillis(20)));
+		List<Document> documents = shuffledDocuments(10);
+
+		this.rerankModel.call(new RerankRequest("query", documents));
+		Thread.sleep(50);
+		RerankResponse response = this.rerankModel.call(new RerankRequest("query", documents));
+
+		assertThat(this.requests).hasSize(2);
+		assertThat(scoredTexts(response)).containsExactly("9", "8", "7", "6", "5");
+	}
+
+	@Test
+	void emptySubBatchKeepsCachedAndOtherScores() {
+		InMemoryRerankScoreCache cache = new InMemoryRerankScoreCache();
+		cache.put(RerankScoreCache.key("gte-rerank", "query", "39"), 0.039);
+		this.rerankModel.setScoreCache(cache);
+		this.emptyBodyDocument = "38";
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			documents.add(new Document(String.valueOf(i)));
+		}
+
+		RerankResponse response = this.rerankModel.call(new RerankRequest("query", documents));
+
+		// the sub-batch of "20" to "38" has no body, the cached "39" and the first
+		// sub-batch are still ranked
+		assertThat(this.requests).hasSize(2);
+		assertThat(scoredTexts(response)).containsExactly("39", "19", "18", "17", "16");
+	}
+
+	private static List<Document> shuffledDocuments(int count) {
+		List<Document> documents = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			// a fixed permutation so that the best documents are spread over the batches
+			documents.add(new Document(String.valueOf((i * 37) % count)));
+		}
+		return documents;
+	}
+
+	private static List<String> scoredTexts(RerankResponse response) {
+		return response.getResults().stream().map(DocumentWithScore::getOutput).map(Document::getText).toList();
+	}
+
+	/**
+	 * Scores every document {@code "n"} as {@code n / 1000} after a short delay and
+	 * returns the {@code top_n} best, tracking the number of concurrent requests. A
+	 * sub-batch holding the {@code emptyBodyDocument} gets an empty response.
+	 */
+	private class RerankDispatcher extends Dispatcher {
+
+		@Override
+		public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+			int current = inFlight.incrementAndGet();
+			maxInFlight.accumulateAndGet(current, Math::max);
+			try {
+				Thread.sleep(50);
+				DashScopeApiSpec.RerankRequest rerankRequest = ModelOptionsUtils
+					.jsonToObject(request.getBody().readUtf8(), DashScopeApiSpec.RerankRequest.class);
+				requests.add(rerankRequest);
+				List<String> documents = rerankRequest.input().documents();
+				if (documents.contains(emptyBodyDocument)) {
+					return new MockResponse().setResponseCode(200);
+				}
+				List<DashScopeApiSpec.RerankResponseOutputResult> results = new ArrayList<>();
+				for (int i = 0; i < documents.size(); i++) {
+					double score = Integer.parseInt(documents.get(i).trim()) / 1000.0;
+					results.add(new DashScopeApiSpec.RerankResponseOutputResult(i, score, null));
+				}
+				results.sort(Comparator.comparing(DashScopeApiSpec.RerankResponseOutputResult::relevanceScore)
+					.reversed());
+				Integer topN = rerankRequest.parameters() == null ? null : rerankRequest.parameters().topN();
+				if (topN != null && topN < results.size()) {
+					results = results.subList(0, topN);
+				}
+				DashScopeApiSpec.RerankResponse body = new DashScopeApiSpec.RerankResponse(
+						new DashScopeApiSpec.RerankResponseOutput(results), new DashScopeApiSpec.TokenUsage(null,
+								documents.size(), documents.size(), null, null, null, null, null, null, null),
+						"request-id");
+				return new MockResponse().setHeader("Content-Type", "application/json")
+					.setBody(ModelOptionsUtils.toJsonString(body));
+			}
+			finally {
+				inFlight.decrementAndGet();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.dashscope.rerank.cache;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link InMemoryRerankScoreCache}.
+ *
+ * @author agent
+ */
+class InMemoryRerankScoreCacheTests {
+
+	@Test
+	void keyDependsOnEveryField() {
+		String key = RerankScoreCache.key("gte-rerank", "query", "document");
+
+		assertThat(RerankScoreCache.key("gte-rerank", "query", "document")).isEqualTo(key).hasSize(64);
+		assertThat(RerankScoreCache.key("gte-rerank-v2", "query", "document")).isNotEqualTo(key);
+		assertThat(RerankScoreCache.key("gte-rerank", "another query", "document")).isNotEqualTo(key);
+		assertThat(RerankScoreCache.key("gte-rerank", "queryd", "ocument")).isNotEqualTo(key);
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		InMemoryRerankScoreCache cache = new InMemoryRerankScoreCache(2);
+		cache.putAll(Map.of("a", 0.1, "b", 0.2));
+		// touch "a" so that "b" becomes the eldest entry
+		cache.get("a");
+		cache.put("c", 0.3);
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getAll(List.of("a", "b", "c"))).containsOnlyKeys("a", "c");
+	}
+
+}
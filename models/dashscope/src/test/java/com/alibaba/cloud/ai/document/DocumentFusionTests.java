@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.document;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for {@link DocumentFusion}.
+ *
+ * @author agent
+ */
+class DocumentFusionTests {
+
+	@Test
+	void fusedScoreReplacesTheRetrievalScoreWhichIsKeptInMetadata() {
+		Document a = Document.builder().id("a").text("a").metadata(Map.of("source", "x")).score(0.9).build();
+		Document b = Document.builder().id("b").text("b").score(0.4).build();
+		Document c = new Document("c", "c", Map.of());
+
+		List<Document> fused = DocumentFusion.reciprocalRankFusion(List.of(List.of(a, b), List.of(b, c)), 1,
+				Document::getId);
+
+		// b: 1/3 + 1/2, a: 1/2, c: 1/3
+		assertThat(fused).extracting(Document::getId).containsExactly("b", "a", "c");
+		assertThat(fused.get(0).getScore()).isCloseTo(1.0 / 3 + 1.0 / 2, within(1e-9));
+		assertThat(fused.get(0).getMetadata()).containsEntry(DocumentFusion.RETRIEVAL_SCORE_METADATA_KEY, 0.4);
+		assertThat(fused.get(1).getMetadata()).containsEntry(DocumentFusion.RETRIEVAL_SCORE_METADATA_KEY, 0.9)
+			.containsEntry("source", "x");
+		assertThat(fused.get(2).getMetadata()).doesNotContainKey(DocumentFusion.RETRIEVAL_SCORE_METADATA_KEY);
+		assertThat(a.getMetadata()).doesNotContainKey(DocumentFusion.RETRIEVAL_SCORE_METADATA_KEY);
+	}
+
+	@Test
+	void failedAndTimedOutRetrievalsYieldEmptyResults() {
+		List<List<Document>> results = DocumentFusion.retrieveAll(List.of("ok", "failing", "slow"), source -> {
+			switch (source) {
+				case "failing" -> throw new IllegalStateException("unavailable");
+				case "slow" -> {
+					try {
+						Thread.sleep(5_000);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				default -> {
+				}
+			}
+			return List.of(new Document(source, source, Map.of()));
+		}, 3, Duration.ofMillis(200), Schedulers.boundedElastic());
+
+		assertThat(results).hasSize(3);
+		assertThat(results.get(0)).extracting(Document::getId).containsExactly("ok");
+		assertThat(results.get(1)).isEmpty();
+		assertThat(results.get(2)).isEmpty();
+	}
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2024-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.evaluation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.evaluation.EvaluationRequest;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link BatchEvaluationRunner} with an {@link AnswerRelevancyEvaluator} backed
+ * by a fake {@link ChatModel} that passes every answer containing "Paris".
+ *
+ * @author agent
+ */
+class BatchEvaluationRunnerTests {
+
+	@TempDir
+	Path tempDir;
+
+	private FakeChatModel chatModel;
+
+	private AnswerRelevancyEvaluator evaluator;
+
+	@BeforeEach
+	void setUp() {
+		this.chatModel = new FakeChatModel();
+		this.evaluator = new AnswerRelevancyEvaluator(ChatClient.builder(this.chatModel), new ObjectMapper());
+	}
+
+	@Test
+	void evaluatesConcurrentlyAndWritesJsonl() throws IOException {
+		BatchEvaluationRunner runner = runner().maxConcurrency(4).build();
+		Path output = this.tempDir.resolve("results.jsonl");
+
+		List<BatchEvaluationRunner.Result> results = runner.run(requests(20), output);
+
+		assertThat(results).hasSize(20).allSatisfy(result -> assertThat(result.isSuccess()).isTrue());
+		for (int i = 0; i < 20; i++) {
+			assertThat(results.get(i).index()).isEqualTo(i);
+			assertThat(results.get(i).response().isPass()).isEqualTo(i % 2 == 0);
+		}
+		assertThat(this.chatModel.calls).hasValue(20);
+		assertThat(this.chatModel.maxInFlight.get()).isGreaterThan(1).isLessThanOrEqualTo(4);
+		assertThat(Files.readAllLines(output)).hasSize(20).allSatisfy(line -> assertThat(line).contains("\"hash\""));
+	}
+
+	@Test
+	void transientFailuresAreRetried() {
+		this.chatModel.failuresToInject.set(2);
+		BatchEvaluationRunner runner = runner().maxConcurrency(1).build();
+
+		List<BatchEvaluationRunner.Result> results = runner.run(requests(5));
+
+		assertThat(results).allSatisfy(result -> assertThat(result.isSuccess()).isTrue());
+		// the first request succeeds on its third attempt
+		assertThat(this.chatModel.calls).hasValue(7);
+	}
+
+	@Test
+	void exhaustedRetriesAreReportedAndNotCached() throws IOException {
+		this.chatModel.failuresToInject.set(3);
+		BatchEvaluationRunner runner = runner().maxConcurrency(1).build();
+		Path output = this.tempDir.resolve("results.jsonl");
+
+		List<BatchEvaluationRunner.Result> results = runner.run(requests(2), output);
+
+		assertThat(results.get(0).isSuccess()).isFalse();
+		assertThat(results.get(0).error()).contains("overloaded");
+		assertThat(results.get(1).isSuccess()).isTrue();
+		assertThat(Files.readAllLines(output).get(0)).contains("\"error\"");
+
+		// the failed request is evaluated again, the other one comes from the cache
+		List<BatchEvaluationRunner.Result> rerun = runner.run(requests(2));
+		assertThat(rerun).allSatisfy(result -> assertThat(result.isSuccess()).isTrue());
+		assertThat(rerun.get(1).cached()).isTrue();
+		assertThat(this.chatModel.calls).hasValue(5);
+	}
+
+	@Test
+	void rerunOnlyEvaluatesChangedRequests() {
+		Path output = this.tempDir.resolve("results.jsonl");
+		runner().build().run(requests(10), output);
+		assertThat(this.chatModel.calls).hasValue(10);
+
+		List<EvaluationRequest> changed = requests(10);
+		changed.set(3, new EvaluationRequest("What is the capital of France?", List.of(new Document("Paris")),
+				"It is Paris, of course."));
+
+		BatchEvaluationRunner rerunner = runner().build();
+		assertThat(rerunner.loadVerdicts(output)).isEqualTo(10);
+		List<BatchEvaluationRunner.Result> results = rerunner.run(changed, output);
+
+		assertThat(this.chatModel.calls).hasValue(11);
+		assertThat(results).filteredOn(BatchEvaluationRunner.Result::cached).hasSize(9);
+		assertThat(results.get(3).cached()).isFalse();
+		assertThat(results.get(3).response().isPass()).isTrue();
+		assertThat(results.get(2).response().getFeedback()).isEqualTo("mentions Paris");
+	}
+
+	@Test
+	void identicalRequestsAreEvaluatedOnce() throws IOException {
+		List<EvaluationRequest> requests = requests(3);
+		requests.add(requests(1).get(0));
+		requests.add(requests(2).get(1));
+		Path output = this.tempDir.resolve("results.jsonl");
+
+		List<BatchEvaluationRunner.Result> results = runner().maxConcurrency(4).build().run(requests, output);
+
+		assertThat(this.chatModel.calls).hasValue(3);
+		assertThat(results).hasSize(5).allSatisfy(result -> assertThat(result.isSuccess()).isTrue());
+		assertThat(results).filteredOn(BatchEvaluationRunner.Result::cached)
+			.extracting(BatchEvaluationRunner.Result::index)
+			.containsExactlyInAnyOrder(3, 4);
+		assertThat(results.get(3).hash()).isEqualTo(results.get(0).hash());
+		assertThat(results.get(4).response().isPass()).isFalse();
+		assertThat(Files.readAllLines(output)).hasSize(5);
+	}
+
+	@Test
+	void verdictsAreNotSharedAcrossEvaluatorIds() {
+		Path output = this.tempDir.resolve("results.jsonl");
+		runner().build().run(requests(2), output);
+
+		BatchEvaluationRunner rerunner = runner().evaluatorId("answer-relevancy/qwen-max").build();
+		rerunner.loadVerdicts(output);
+		List<BatchEvaluationRunner.Result> results = rerunner.run(requests(2));
+
+		assertThat(results).noneSatisfy(result -> assertThat(result.cached()).isTrue());
+		assertThat(this.chatModel.calls).hasValue(4);
+	}
+
+	@Test
+	void evaluatorIdIsRequired() {
+		assertThatIllegalArgumentException()
+			.isThrownBy(() -> BatchEvaluationRunner.builder().evaluator(this.evaluator).build());
+	}
+
+	@Test
+	void rateLimitSpacesEvaluations() {
+		BatchEvaluationRunner runner = runner().maxConcurrency(8).maxRequestsPerSecond(20).build();
+
+		long start = System.nanoTime();
+		runner.run(requests(10));
+		long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		// ten starts 50 ms apart
+		assertThat(elapsedMillis).isGreaterThanOrEqualTo(400);
+	}
+
+	private BatchEvaluationRunner.Builder runner() {
+		return BatchEvaluationRunner.builder()
+			.evaluator(this.evaluator)
+			.evaluatorId("answer-relevancy/qwen-plus")
+			.retryTemplate(RetryTemplate.builder()
+				.maxAttempts(3)
+				.fixedBackoff(10)
+				.retryOn(TransientAiException.class)
+				.build());
+	}
+
+	private static List<EvaluationRequest> requests(int count) {
+		List<EvaluationRequest> requests = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			String answer = i % 2 == 0 ? "Paris, answer " + i : "London, answer " + i;
+			requests.add(new EvaluationRequest("What is the capital of France?", List.of(new Document("Paris")),
+					answer));
+		}
+		return requests;
+	}
+
+	/**
+	 * Judges every prompt after a short delay: score 1 if the prompt mentions "Paris" in
+	 * the student answer, 0 otherwise. Fails with a transient error while
+	 * {@code failuresToInject} is positive.
+	 */
+	private static class FakeChatModel implements ChatModel {
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		final AtomicInteger inFlight = new AtomicInteger();
+
+		final AtomicInteger maxInFlight = new AtomicInteger();
+
+		final AtomicInteger failuresToInject = new AtomicInteger();
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			this.calls.incrementAndGet();
+			int current = this.inFlight.incrementAndGet();
+			this.maxInFlight.accumulateAndGet(current, Math::max);
+			try {
+				Thread.sleep(30);
+				if (this.failuresToInject.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+					throw new TransientAiException("model overloaded");
+				}
+				String studentAnswer = prompt.getContents().substring(prompt.getContents().indexOf("STUDENT ANSWER: "));
+				String verdict = studentAnswer.contains("Paris") ? "{\"score\": 1.0, \"feedback\": \"mentions Paris\"}"
+						: "{\"score\": 0.0, \"feedback\": \"wrong city\"}";
+				return new ChatResponse(List.of(new Generation(new AssistantMessage(verdict))));
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			finally {
+				this.inFlight.decrementAndGet();
+			}
+		}
+
+	}
+
+}
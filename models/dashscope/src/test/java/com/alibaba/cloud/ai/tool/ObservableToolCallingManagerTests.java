@@ -15,12 +15,29 @@
  */
 package com.alibaba.cloud.ai.tool;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.observation.tck.TestObservationRegistry;
+import io.micrometer.observation.tck.TestObservationRegistryAssert;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.AssistantMessage.ToolCall;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -50,4 +67,162 @@ class ObservableToolCallingManagerTests {
 		assertThat(second.arguments()).isEqualTo("{}");
 	}
 
+	@Test
+	void concurrentToolCallsKeepOrderAndTakeTheSlowestToolsTime() {
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.maxConcurrentToolCalls(4)
+			.build();
+		List<ToolCallback> tools = List.of(new SleepingTool("a", 300, false), new SleepingTool("b", 100, false),
+				new SleepingTool("c", 300, false), new SleepingTool("d", 200, false));
+
+		long start = System.nanoTime();
+		ToolExecutionResult result = manager.executeToolCalls(prompt(tools), toolCallResponse("a", "b", "c", "d"));
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(responseData(result)).containsExactly("a-done", "b-done", "c-done", "d-done");
+		assertThat(elapsedMillis).isLessThan(800);
+		assertThat(result.returnDirect()).isFalse();
+	}
+
+	@Test
+	void sequentialExecutionIsTheDefault() {
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder().build();
+		List<ToolCallback> tools = List.of(new SleepingTool("a", 100, true), new SleepingTool("b", 100, true));
+
+		long start = System.nanoTime();
+		ToolExecutionResult result = manager.executeToolCalls(prompt(tools), toolCallResponse("a", "b"));
+
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(200);
+		assertThat(responseData(result)).containsExactly("a-done", "b-done");
+		assertThat(result.returnDirect()).isTrue();
+	}
+
+	@Test
+	void slowToolIsReportedAsTimedOut() throws InterruptedException {
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.maxConcurrentToolCalls(2)
+			.toolCallTimeout(Duration.ofMillis(100))
+			.build();
+		SleepingTool slow = new SleepingTool("slow", 5_000, true);
+		List<ToolCallback> tools = List.of(slow, new SleepingTool("fast", 10, true));
+
+		ToolExecutionResult result = manager.executeToolCalls(prompt(tools), toolCallResponse("slow", "fast"));
+
+		assertThat(responseData(result)).hasSize(2);
+		assertThat(responseData(result).get(0)).contains("timed out");
+		assertThat(responseData(result).get(1)).isEqualTo("fast-done");
+		assertThat(result.returnDirect()).isTrue();
+		assertThat(slow.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void timeoutStartsWhenTheToolCallGetsItsPermit() {
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.maxConcurrentToolCalls(2)
+			.toolCallTimeout(Duration.ofMillis(1_000))
+			.build();
+		// "c" waits about 600 ms for a permit, then runs for 600 ms
+		List<ToolCallback> tools = List.of(new SleepingTool("a", 600, false), new SleepingTool("b", 600, false),
+				new SleepingTool("c", 600, false));
+
+		ToolExecutionResult result = manager.executeToolCalls(prompt(tools), toolCallResponse("a", "b", "c"));
+
+		assertThat(responseData(result)).containsExactly("a-done", "b-done", "c-done");
+	}
+
+	@Test
+	void timeoutAppliesToSequentialToolCalls() throws InterruptedException {
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.toolCallTimeout(Duration.ofMillis(100))
+			.build();
+		SleepingTool slow = new SleepingTool("slow", 5_000, true);
+
+		ToolExecutionResult result = manager.executeToolCalls(prompt(List.of(slow)), toolCallResponse("slow"));
+
+		assertThat(responseData(result)).hasSize(1);
+		assertThat(responseData(result).get(0)).contains("timed out");
+		assertThat(slow.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void everyConcurrentToolCallHasItsOwnObservation() {
+		TestObservationRegistry observationRegistry = TestObservationRegistry.create();
+		ObservableToolCallingManager manager = ObservableToolCallingManager.builder()
+			.observationRegistry(observationRegistry)
+			.maxConcurrentToolCalls(3)
+			.build();
+		List<ToolCallback> tools = List.of(new SleepingTool("a", 10, false), new SleepingTool("b", 10, false),
+				new SleepingTool("c", 10, false));
+
+		manager.executeToolCalls(prompt(tools), toolCallResponse("a", "b", "c"));
+
+		TestObservationRegistryAssert.assertThat(observationRegistry)
+			.hasNumberOfObservationsEqualTo(3)
+			.doesNotHaveAnyRemainingCurrentObservation();
+	}
+
+	private static Prompt prompt(List<ToolCallback> tools) {
+		return new Prompt("what's up?", ToolCallingChatOptions.builder().toolCallbacks(tools).build());
+	}
+
+	private static ChatResponse toolCallResponse(String... toolNames) {
+		List<ToolCall> toolCalls = new ArrayList<>();
+		for (int i = 0; i < toolNames.length; i++) {
+			toolCalls.add(new ToolCall(String.valueOf(i), "function", toolNames[i], "{}"));
+		}
+		AssistantMessage message = AssistantMessage.builder()
+			.content("")
+			.properties(Map.of())
+			.toolCalls(toolCalls)
+			.build();
+		return new ChatResponse(List.of(new Generation(message)));
+	}
+
+	private static List<String> responseData(ToolExecutionResult result) {
+		List<Message> history = result.conversationHistory();
+		ToolResponseMessage toolResponseMessage = (ToolResponseMessage) history.get(history.size() - 1);
+		return toolResponseMessage.getResponses().stream().map(ToolResponseMessage.ToolResponse::responseData).toList();
+	}
+
+	private static final class SleepingTool implements ToolCallback {
+
+		private final ToolDefinition definition;
+
+		private final ToolMetadata metadata;
+
+		private final long sleepMillis;
+
+		private final CountDownLatch interrupted = new CountDownLatch(1);
+
+		SleepingTool(String name, long sleepMillis, boolean returnDirect) {
+			this.definition = ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+			this.metadata = ToolMetadata.builder().returnDirect(returnDirect).build();
+			this.sleepMillis = sleepMillis;
+		}
+
+		@Override
+		public ToolDefinition getToolDefinition() {
+			return this.definition;
+		}
+
+		@Override
+		public ToolMetadata getToolMetadata() {
+			return this.metadata;
+		}
+
+		@Override
+		public String call(String toolInput) {
+			try {
+				Thread.sleep(this.sleepMillis);
+			}
+			catch (InterruptedException ex) {
+				this.interrupted.countDown();
+				Thread.currentThread().interrupt();
+				return "interrupted";
+			}
+			return this.definition.name() + "-done";
+		}
+
+	}
+
 }
@@ -18,6 +18,11 @@ package com.alibaba.cloud.ai.transformer.splitter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import java.util.List;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -158,4 +163,64 @@ public class RecursiveCharacterTextSplitterTest {
 		assertEquals("test", result.get(3));
 	}
 
+	@Test
+	public void testSplitText_MergesSmallFragments() {
+		splitter = new RecursiveCharacterTextSplitter(20);
+		String text = "一，二，三，四，五，六，七，八，九，十，一，二，三，四，五，六，七，八，九，十";
+		List<String> result = splitter.splitText(text);
+
+		// 20 fragments are merged into two chunks of 19 characters
+		assertEquals(2, result.size());
+		assertEquals("一，二，三，四，五，六，七，八，九，十", result.get(0));
+		assertEquals("一，二，三，四，五，六，七，八，九，十", result.get(1));
+	}
+
+	@Test
+	public void testSplitText_WithOverlap() {
+		splitter = new RecursiveCharacterTextSplitter(5, 2, new String[] { " " });
+		List<String> result = splitter.splitText("a b c d e f g h");
+
+		assertEquals(List.of("a b c", "c d e", "e f g", "g h"), result);
+	}
+
+	@Test
+	public void testSplitText_FixedSizeFallbackWithOverlap() {
+		splitter = RecursiveCharacterTextSplitter.builder().chunkSize(4).chunkOverlap(1).separators("##").build();
+		List<String> result = splitter.splitText("0123456789");
+
+		assertEquals(List.of("0123", "3456", "6789"), result);
+	}
+
+	@Test
+	public void testSplitText_SeparatorsAreLiteral() {
+		splitter = new RecursiveCharacterTextSplitter(3, new String[] { "." });
+		List<String> result = splitter.splitText("a.b.c");
+
+		assertEquals(List.of("a.b", "c"), result);
+	}
+
+	@Test
+	public void testSplitText_WithTokenLength() {
+		Encoding encoding = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+		splitter = RecursiveCharacterTextSplitter.builder()
+			.chunkSize(8)
+			.encodingType(EncodingType.CL100K_BASE)
+			.build();
+		String text = "The quick brown fox jumps over the lazy dog. The quick brown fox jumps over the lazy dog.";
+		List<String> result = splitter.splitText(text);
+
+		assertTrue(result.size() > 1);
+		assertEquals(text, String.join(" ", result));
+		for (String chunk : result) {
+			assertTrue(encoding.countTokens(chunk) <= 8, chunk);
+		}
+	}
+
+	@Test
+	public void testConstructor_WithOverlapNotSmallerThanChunkSize() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new RecursiveCharacterTextSplitter(5, 5, null);
+		});
+	}
+
 }
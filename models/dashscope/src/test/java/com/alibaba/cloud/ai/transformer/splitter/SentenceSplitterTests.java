@@ -22,6 +22,9 @@ import org.springframework.ai.document.Document;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -176,4 +179,42 @@ class SentenceSplitterTests {
 		assertThat(documents).hasSizeGreaterThan(1);
 	}
 
+	/**
+	 * Test splitting from many threads at once. Verifies that the shared sentence model
+	 * and the per-thread detectors give the same chunks as a single-threaded split.
+	 */
+	@Test
+	void testConcurrentSplitMatchesSequentialSplit() throws Exception {
+		SentenceSplitter smallChunks = new SentenceSplitter(20);
+		List<String> texts = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			StringBuilder text = new StringBuilder();
+			for (int j = 0; j <= i % 8; j++) {
+				text.append("Document ").append(i).append(" has sentence number ").append(j).append(". ");
+			}
+			texts.add(text.toString());
+		}
+		List<List<String>> expected = new ArrayList<>();
+		for (String text : texts) {
+			expected.add(smallChunks.splitText(text));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<List<String>>> futures = new ArrayList<>();
+			for (int round = 0; round < 10; round++) {
+				for (String text : texts) {
+					futures.add(executor.submit(() -> smallChunks.splitText(text)));
+				}
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				assertThat(futures.get(i).get()).isEqualTo(expected.get(i % texts.size()));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat(expected.get(7)).hasSizeGreaterThan(1);
+	}
+
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.rag.advisor;
+
+import com.alibaba.cloud.ai.document.DocumentFusion;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.util.Assert;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Retrieves the documents of the expanded queries concurrently and fuses them into one
+ * list with Reciprocal Rank Fusion (RRF), deduplicated by document id, using
+ * {@link DocumentFusion}
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+final class ExpandedQueryRetrieval {
+
+    /**
+     * Default maximum number of expanded queries retrieved at the same time
+     */
+    static final int DEFAULT_MAX_CONCURRENCY = 4;
+
+    /**
+     * Default rank constant of the reciprocal rank fusion
+     */
+    static final int DEFAULT_RRF_K = DocumentFusion.DEFAULT_RRF_K;
+
+    private final int maxConcurrency;
+
+    private final Duration queryTimeout;
+
+    private final int rrfK;
+
+    private final Scheduler scheduler;
+
+    ExpandedQueryRetrieval(int maxConcurrency, Duration queryTimeout, int rrfK, Scheduler scheduler) {
+        Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be positive");
+        Assert.isTrue(queryTimeout == null || !(queryTimeout.isNegative() || queryTimeout.isZero()),
+                "queryTimeout must be positive");
+        Assert.isTrue(rrfK >= 0, "rrfK must not be negative");
+        this.maxConcurrency = maxConcurrency;
+        this.queryTimeout = queryTimeout;
+        this.rrfK = rrfK;
+        this.scheduler = scheduler != null ? scheduler : Schedulers.boundedElastic();
+    }
+
+    /**
+     * Retrieves the documents of every query and fuses the results. A query that fails
+     * or does not complete within the query timeout contributes no documents.
+     *
+     * @param queries   expanded queries
+     * @param retriever retrieval function applied to each query
+     * @return fused documents, ordered by descending RRF score
+     */
+    List<Document> retrieve(List<Query> queries, Function<Query, List<Document>> retriever) {
+        return fuse(DocumentFusion.retrieveAll(queries, retriever, maxConcurrency, queryTimeout, scheduler));
+    }
+
+    /**
+     * Fuses the results of the queries, identifying documents by id. The fused score
+     * replaces the document score, the retrieval score is kept in the
+     * {@link DocumentFusion#RETRIEVAL_SCORE_METADATA_KEY} metadata.
+     *
+     * @param allResults results of each query, in query order
+     * @return fused documents
+     */
+    private List<Document> fuse(List<List<Document>> allResults) {
+        return DocumentFusion.reciprocalRankFusion(allResults, rrfK, Document::getId);
+    }
+}
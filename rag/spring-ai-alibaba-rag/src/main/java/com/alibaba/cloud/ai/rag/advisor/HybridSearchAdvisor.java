@@ -34,7 +34,9 @@ import org.springframework.ai.rag.preretrieval.query.transformation.QueryTransfo
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import reactor.core.scheduler.Scheduler;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -43,6 +45,10 @@ import java.util.Map;
 /**
  * Hybrid Search Advisor
  * Adopt the architecture of hybrid search combined with the rerank model
+ * <p>
+ * The embeddings of the expanded queries are computed in one batch, the queries are
+ * retrieved concurrently on a bounded scheduler, and their results are fused with
+ * Reciprocal Rank Fusion and deduplicated by document id.
  *
  * @author benym
  * @since 1.1.0.0-SNAPSHOT
@@ -67,11 +73,32 @@ public class HybridSearchAdvisor implements BaseAdvisor {
 
     private final DashScopeRerankPostProcessor dashScopeRerankPostProcessor;
 
+    private final ExpandedQueryRetrieval expandedQueryRetrieval;
+
     public HybridSearchAdvisor(List<QueryTransformer> queryTransformers,
                                QueryExpander queryExpander,
                                @Nullable HybridDocumentRetriever hybridDocumentRetriever,
                                List<DocumentPostProcessor> documentPostProcessors, QueryAugmenter queryAugmenter,
                                HyDeTransformer hyDeTransformer, DashScopeRerankPostProcessor dashScopeRerankPostProcessor, Integer order) {
+        this(queryTransformers, queryExpander, hybridDocumentRetriever, documentPostProcessors, queryAugmenter,
+                hyDeTransformer, dashScopeRerankPostProcessor, order, ExpandedQueryRetrieval.DEFAULT_MAX_CONCURRENCY,
+                null, ExpandedQueryRetrieval.DEFAULT_RRF_K, null);
+    }
+
+    /**
+     * @param maxConcurrency maximum number of expanded queries retrieved at the same time
+     * @param queryTimeout   maximum time to wait for the retrieval of each expanded query,
+     *                       {@code null} to wait indefinitely
+     * @param rrfK           rank constant of the reciprocal rank fusion
+     * @param scheduler      scheduler the retrievals run on, bounded elastic if {@code null}
+     */
+    public HybridSearchAdvisor(List<QueryTransformer> queryTransformers,
+                               QueryExpander queryExpander,
+                               @Nullable HybridDocumentRetriever hybridDocumentRetriever,
+                               List<DocumentPostProcessor> documentPostProcessors, QueryAugmenter queryAugmenter,
+                               HyDeTransformer hyDeTransformer, DashScopeRerankPostProcessor dashScopeRerankPostProcessor,
+                               Integer order, int maxConcurrency, Duration queryTimeout, int rrfK,
+                               @Nullable Scheduler scheduler) {
         Assert.notNull(hybridDocumentRetriever, "hybridDocumentRetriever must not be null");
         this.queryTransformers = queryTransformers;
         this.queryExpander = queryExpander;
@@ -81,6 +108,7 @@ public class HybridSearchAdvisor implements BaseAdvisor {
         this.hyDeTransformer = hyDeTransformer;
         this.dashScopeRerankPostProcessor = dashScopeRerankPostProcessor;
         this.order = order != null ? order : 0;
+        this.expandedQueryRetrieval = new ExpandedQueryRetrieval(maxConcurrency, queryTimeout, rrfK, scheduler);
     }
 
     @Override
@@ -105,11 +133,11 @@ public class HybridSearchAdvisor implements BaseAdvisor {
         // 3. Expand query into one or multiple queries.
         List<Query> expandedQueries = this.queryExpander != null ? this.queryExpander.expand(transformedQuery)
                 : List.of(transformedQuery);
-        List<Document> allRetrievedDocuments = new ArrayList<>();
-        for (Query query : expandedQueries) {
-            List<Document> retrieveDocuments = hybridDocumentRetriever.retrieve(query);
-            allRetrievedDocuments.addAll(retrieveDocuments);
+        if (expandedQueries.size() > 1) {
+            hybridDocumentRetriever.prefetchEmbeddings(expandedQueries);
         }
+        List<Document> allRetrievedDocuments = expandedQueryRetrieval.retrieve(expandedQueries,
+                hybridDocumentRetriever::retrieve);
         // 4. Post-process the documents.
         List<Document> resultDocuments = new ArrayList<>();
         if (!CollectionUtils.isEmpty(documentPostProcessors)) {
@@ -171,6 +199,14 @@ public class HybridSearchAdvisor implements BaseAdvisor {
 
         private DashScopeRerankPostProcessor dashScopeRerankPostProcessor;
 
+        private int maxConcurrency = ExpandedQueryRetrieval.DEFAULT_MAX_CONCURRENCY;
+
+        private Duration queryTimeout;
+
+        private int rrfK = ExpandedQueryRetrieval.DEFAULT_RRF_K;
+
+        private Scheduler scheduler;
+
         private Builder() {
         }
 
@@ -215,9 +251,30 @@ public class HybridSearchAdvisor implements BaseAdvisor {
             return this;
         }
 
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public Builder queryTimeout(Duration queryTimeout) {
+            this.queryTimeout = queryTimeout;
+            return this;
+        }
+
+        public Builder rrfK(int rrfK) {
+            this.rrfK = rrfK;
+            return this;
+        }
+
+        public Builder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
         public HybridSearchAdvisor build() {
             return new HybridSearchAdvisor(queryTransformers, queryExpander, hybridDocumentRetriever,
-                    documentPostProcessors, queryAugmenter, hyDeTransformer, dashScopeRerankPostProcessor, order);
+                    documentPostProcessors, queryAugmenter, hyDeTransformer, dashScopeRerankPostProcessor, order,
+                    maxConcurrency, queryTimeout, rrfK, scheduler);
         }
     }
 }
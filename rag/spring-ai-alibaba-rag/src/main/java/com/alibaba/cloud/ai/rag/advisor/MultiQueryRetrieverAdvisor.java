@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.rag.advisor;
 
+import com.alibaba.cloud.ai.rag.retrieval.search.HybridDocumentRetriever;
 import org.springframework.ai.chat.client.ChatClientRequest;
 import org.springframework.ai.chat.client.ChatClientResponse;
 import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
@@ -27,14 +28,18 @@ import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
 import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 import org.springframework.util.Assert;
+import reactor.core.scheduler.Scheduler;
 
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Expand the original query into multiple queries for Retrieval
+ * <p>
+ * The expanded queries are retrieved concurrently on a bounded scheduler, and their
+ * results are fused with Reciprocal Rank Fusion and deduplicated by document id.
  *
  * @author benym
  * @since 1.1.0.0-SNAPSHOT
@@ -51,13 +56,30 @@ public class MultiQueryRetrieverAdvisor implements BaseAdvisor {
 
     private final int order;
 
+    private final ExpandedQueryRetrieval expandedQueryRetrieval;
+
     public MultiQueryRetrieverAdvisor(QueryExpander queryExpander, QueryAugmenter queryAugmenter,
                                       DocumentRetriever documentRetriever, Integer order) {
+        this(queryExpander, queryAugmenter, documentRetriever, order, ExpandedQueryRetrieval.DEFAULT_MAX_CONCURRENCY,
+                null, ExpandedQueryRetrieval.DEFAULT_RRF_K, null);
+    }
+
+    /**
+     * @param maxConcurrency maximum number of expanded queries retrieved at the same time
+     * @param queryTimeout   maximum time to wait for the retrieval of each expanded query,
+     *                       {@code null} to wait indefinitely
+     * @param rrfK           rank constant of the reciprocal rank fusion
+     * @param scheduler      scheduler the retrievals run on, bounded elastic if {@code null}
+     */
+    public MultiQueryRetrieverAdvisor(QueryExpander queryExpander, QueryAugmenter queryAugmenter,
+                                      DocumentRetriever documentRetriever, Integer order, int maxConcurrency,
+                                      Duration queryTimeout, int rrfK, Scheduler scheduler) {
         Assert.notNull(documentRetriever, "documentRetriever cannot be null");
         this.queryExpander = queryExpander;
         this.queryAugmenter = queryAugmenter != null ? queryAugmenter : ContextualQueryAugmenter.builder().build();
         this.documentRetriever = documentRetriever;
         this.order = order != null ? order : 0;
+        this.expandedQueryRetrieval = new ExpandedQueryRetrieval(maxConcurrency, queryTimeout, rrfK, scheduler);
     }
 
     @Override
@@ -72,11 +94,11 @@ public class MultiQueryRetrieverAdvisor implements BaseAdvisor {
         // 2. Expand query into one or multiple queries.
         List<Query> expandedQueries = this.queryExpander != null ? this.queryExpander.expand(originalQuery)
                 : List.of(originalQuery);
-        List<Document> allRetrievedDocuments = new ArrayList<>();
-        for (Query query : expandedQueries) {
-            List<Document> retrieveDocuments = documentRetriever.retrieve(query);
-            allRetrievedDocuments.addAll(retrieveDocuments);
+        if (expandedQueries.size() > 1 && documentRetriever instanceof HybridDocumentRetriever hybridDocumentRetriever) {
+            hybridDocumentRetriever.prefetchEmbeddings(expandedQueries);
         }
+        List<Document> allRetrievedDocuments = expandedQueryRetrieval.retrieve(expandedQueries,
+                documentRetriever::retrieve);
         context.put(DOCUMENT_CONTEXT, allRetrievedDocuments);
         // 3. Augment user query with the document contextual data.
         Query augmentedQuery = this.queryAugmenter.augment(originalQuery, allRetrievedDocuments);
@@ -120,6 +142,14 @@ public class MultiQueryRetrieverAdvisor implements BaseAdvisor {
 
         private int order;
 
+        private int maxConcurrency = ExpandedQueryRetrieval.DEFAULT_MAX_CONCURRENCY;
+
+        private Duration queryTimeout;
+
+        private int rrfK = ExpandedQueryRetrieval.DEFAULT_RRF_K;
+
+        private Scheduler scheduler;
+
         private Builder() {
         }
 
@@ -144,8 +174,29 @@ public class MultiQueryRetrieverAdvisor implements BaseAdvisor {
             return this;
         }
 
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        public Builder queryTimeout(Duration queryTimeout) {
+            this.queryTimeout = queryTimeout;
+            return this;
+        }
+
+        public Builder rrfK(int rrfK) {
+            this.rrfK = rrfK;
+            return this;
+        }
+
+        public Builder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
         public MultiQueryRetrieverAdvisor build() {
-            return new MultiQueryRetrieverAdvisor(queryExpander, queryAugmenter, documentRetriever, order);
+            return new MultiQueryRetrieverAdvisor(queryExpander, queryAugmenter, documentRetriever, order,
+                    maxConcurrency, queryTimeout, rrfK, scheduler);
         }
     }
 }
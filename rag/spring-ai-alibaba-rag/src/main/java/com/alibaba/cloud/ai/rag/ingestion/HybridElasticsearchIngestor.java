@@ -0,0 +1,443 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.rag.ingestion;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkIngester;
+import co.elastic.clients.elasticsearch._helpers.bulk.BulkListener;
+import co.elastic.clients.elasticsearch._types.mapping.DenseVectorSimilarity;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.indices.get_mapping.IndexMappingRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentTransformer;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.elasticsearch.ElasticsearchVectorStoreOptions;
+import org.springframework.ai.vectorstore.elasticsearch.SimilarityFunction;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streaming ingestion pipeline for hybrid search on Elasticsearch.
+ * <p>
+ * Documents are split into chunks, embedded in batches on a bounded number of
+ * concurrent embedding calls, and written through a {@link BulkIngester} that flushes
+ * by number of operations, bytes and time. Documents are requested from the source only
+ * as fast as they are embedded and indexed, so the input is never materialized. The
+ * indexed documents have the same layout as those of the Spring AI Elasticsearch vector
+ * store, so they can be searched by the hybrid retriever.
+ * <p>
+ * Before the first document is indexed, the index is created with the
+ * {@code dense_vector} mapping of the embeddings when it does not exist and schema
+ * initialization is enabled, like the vector store does, or the mapping of the existing
+ * index is verified.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class HybridElasticsearchIngestor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HybridElasticsearchIngestor.class);
+
+    /**
+     * Default number of chunks embedded in one embedding call
+     */
+    public static final int DEFAULT_EMBEDDING_BATCH_SIZE = 32;
+
+    /**
+     * Default maximum number of concurrent embedding calls
+     */
+    public static final int DEFAULT_EMBEDDING_CONCURRENCY = 4;
+
+    /**
+     * Default number of operations after which a bulk request is sent
+     */
+    public static final int DEFAULT_FLUSH_MAX_OPERATIONS = 1000;
+
+    /**
+     * Default size in bytes after which a bulk request is sent
+     */
+    public static final long DEFAULT_FLUSH_MAX_BYTES = 5 * 1024 * 1024;
+
+    /**
+     * Default interval after which pending operations are sent
+     */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * Default maximum number of bulk requests in flight
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_BULK_REQUESTS = 1;
+
+    private final ElasticsearchClient elasticsearchClient;
+
+    private final EmbeddingModel embeddingModel;
+
+    private final String indexName;
+
+    private final String embeddingFieldName;
+
+    private final Integer dimensions;
+
+    private final SimilarityFunction similarity;
+
+    private final boolean initializeSchema;
+
+    private final DocumentTransformer textSplitter;
+
+    private final int embeddingBatchSize;
+
+    private final int embeddingConcurrency;
+
+    private final int flushMaxOperations;
+
+    private final long flushMaxBytes;
+
+    private final Duration flushInterval;
+
+    private final int maxConcurrentBulkRequests;
+
+    private final Scheduler scheduler;
+
+    private volatile boolean indexInitialized;
+
+    /**
+     * @param initializeSchema whether to create the index when it does not exist,
+     *                         otherwise ingesting into a missing index fails
+     */
+    public HybridElasticsearchIngestor(ElasticsearchClient elasticsearchClient, EmbeddingModel embeddingModel,
+                                       ElasticsearchVectorStoreOptions vectorStoreOptions, boolean initializeSchema,
+                                       DocumentTransformer textSplitter, int embeddingBatchSize,
+                                       int embeddingConcurrency, int flushMaxOperations, long flushMaxBytes,
+                                       Duration flushInterval, int maxConcurrentBulkRequests, Scheduler scheduler) {
+        Assert.notNull(elasticsearchClient, "elasticsearchClient must not be null");
+        Assert.notNull(embeddingModel, "embeddingModel must not be null");
+        Assert.notNull(vectorStoreOptions, "vectorStoreOptions must not be null");
+        Assert.isTrue(embeddingBatchSize > 0, "embeddingBatchSize must be positive");
+        Assert.isTrue(embeddingConcurrency > 0, "embeddingConcurrency must be positive");
+        Assert.isTrue(flushMaxOperations > 0, "flushMaxOperations must be positive");
+        Assert.isTrue(flushMaxBytes > 0, "flushMaxBytes must be positive");
+        Assert.isTrue(flushInterval == null || !(flushInterval.isNegative() || flushInterval.isZero()),
+                "flushInterval must be positive");
+        Assert.isTrue(maxConcurrentBulkRequests > 0, "maxConcurrentBulkRequests must be positive");
+        this.elasticsearchClient = elasticsearchClient;
+        this.embeddingModel = embeddingModel;
+        this.indexName = vectorStoreOptions.getIndexName();
+        this.embeddingFieldName = vectorStoreOptions.getEmbeddingFieldName();
+        this.dimensions = vectorStoreOptions.getDimensions();
+        this.similarity = vectorStoreOptions.getSimilarity();
+        this.initializeSchema = initializeSchema;
+        this.textSplitter = textSplitter;
+        this.embeddingBatchSize = embeddingBatchSize;
+        this.embeddingConcurrency = embeddingConcurrency;
+        this.flushMaxOperations = flushMaxOperations;
+        this.flushMaxBytes = flushMaxBytes;
+        this.flushInterval = flushInterval;
+        this.maxConcurrentBulkRequests = maxConcurrentBulkRequests;
+        this.scheduler = scheduler != null ? scheduler : Schedulers.boundedElastic();
+    }
+
+    /**
+     * Splits, embeds and indexes the documents. The returned {@link Mono} completes once
+     * every bulk request has been answered, and fails with an {@link IngestionException}
+     * if any chunk could not be indexed, or if the index does not have the expected
+     * mapping.
+     *
+     * @param documents documents to ingest
+     * @return number of indexed chunks
+     */
+    public Mono<Long> ingest(Flux<Document> documents) {
+        Assert.notNull(documents, "documents must not be null");
+        return Mono.fromRunnable(this::initializeIndex).subscribeOn(scheduler).then(Mono.defer(() -> {
+            BulkResult result = new BulkResult();
+            BulkIngester<Void> bulkIngester = newBulkIngester(result);
+            Flux<Document> chunks = textSplitter != null
+                    ? documents.concatMapIterable(document -> textSplitter.apply(List.of(document)))
+                    : documents;
+            return chunks.buffer(embeddingBatchSize)
+                    // a prefetch of 1 bounds the chunks in flight to the concurrent batches
+                    .flatMapSequential(batch -> Mono.fromCallable(() -> embed(batch)).subscribeOn(scheduler),
+                            embeddingConcurrency, 1)
+                    // add blocks while maxConcurrentBulkRequests are in flight, which slows the
+                    // demand down to the indexing throughput
+                    .concatMap(batch -> Mono.fromRunnable(() -> batch.forEach(chunk -> add(bulkIngester, chunk)))
+                            .subscribeOn(scheduler), 1)
+                    .then(Mono.fromCallable(() -> {
+                        // flushes the pending operations and waits for every bulk request
+                        bulkIngester.close();
+                        return result.indexed();
+                    }).subscribeOn(scheduler))
+                    .doFinally(signal -> {
+                        // close blocks until the pending bulk requests are answered
+                        if (signal != SignalType.ON_COMPLETE) {
+                            scheduler.schedule(bulkIngester::close);
+                        }
+                    });
+        }));
+    }
+
+    /**
+     * Creates the index with the {@code dense_vector} mapping of the embedding field, the
+     * same mapping as the Elasticsearch vector store, or verifies the mapping of an
+     * existing index. Runs once per ingestor.
+     */
+    private synchronized void initializeIndex() {
+        if (indexInitialized) {
+            return;
+        }
+        try {
+            if (elasticsearchClient.indices().exists(e -> e.index(indexName)).value()) {
+                verifyMapping();
+            } else {
+                Assert.state(initializeSchema,
+                        "Index " + indexName + " does not exist, enable initializeSchema to create it");
+                elasticsearchClient.indices()
+                        .create(c -> c.index(indexName)
+                                .mappings(m -> m.properties(embeddingFieldName, p -> p.denseVector(dv -> dv
+                                        .similarity(parseSimilarity(similarity))
+                                        .dims(dimensions)))));
+                logger.info("Created index {} with a {}-dimensional dense_vector field {}", indexName, dimensions,
+                        embeddingFieldName);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize index " + indexName, e);
+        }
+        indexInitialized = true;
+    }
+
+    private void verifyMapping() throws IOException {
+        for (IndexMappingRecord mapping : elasticsearchClient.indices()
+                .getMapping(g -> g.index(indexName))
+                .result()
+                .values()) {
+            Property property = mapping.mappings().properties().get(embeddingFieldName);
+            Assert.state(property != null && property.isDenseVector(),
+                    "Field " + embeddingFieldName + " of index " + indexName + " is not mapped as dense_vector");
+            Integer mappedDimensions = property.denseVector().dims();
+            Assert.state(dimensions == null || mappedDimensions == null || dimensions.equals(mappedDimensions),
+                    "Field " + embeddingFieldName + " of index " + indexName + " has " + mappedDimensions
+                            + " dimensions, expected " + dimensions);
+        }
+    }
+
+    private static DenseVectorSimilarity parseSimilarity(SimilarityFunction similarity) {
+        for (DenseVectorSimilarity candidate : DenseVectorSimilarity.values()) {
+            if (candidate.jsonValue().equalsIgnoreCase(similarity.toString())) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported similarity: " + similarity);
+    }
+
+    private List<EmbeddedChunk> embed(List<Document> chunks) {
+        List<String> texts = new ArrayList<>(chunks.size());
+        for (Document chunk : chunks) {
+            Assert.notNull(chunk.getText(), "document's text must not be null");
+            texts.add(chunk.getText());
+        }
+        List<float[]> embeddings = embeddingModel.embed(texts);
+        Assert.isTrue(embeddings.size() == chunks.size(), "embedding model must return one embedding per chunk");
+        List<EmbeddedChunk> embedded = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            embedded.add(new EmbeddedChunk(chunks.get(i), embeddings.get(i)));
+        }
+        return embedded;
+    }
+
+    private void add(BulkIngester<Void> bulkIngester, EmbeddedChunk chunk) {
+        Document document = chunk.document();
+        Map<String, Object> source = Map.of("id", document.getId(), "content", document.getText(), "metadata",
+                document.getMetadata(), embeddingFieldName, chunk.embedding());
+        bulkIngester.add(op -> op.index(idx -> idx.index(indexName).id(document.getId()).document(source)));
+    }
+
+    private BulkIngester<Void> newBulkIngester(BulkResult result) {
+        return BulkIngester.of(b -> {
+            b.client(elasticsearchClient)
+                    .maxOperations(flushMaxOperations)
+                    .maxSize(flushMaxBytes)
+                    .maxConcurrentRequests(maxConcurrentBulkRequests)
+                    .listener(result);
+            if (flushInterval != null) {
+                b.flushInterval(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return b;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private record EmbeddedChunk(Document document, float[] embedding) {
+    }
+
+    /**
+     * Counts the indexed chunks and records the failures of the bulk requests.
+     */
+    private static final class BulkResult implements BulkListener<Void> {
+
+        private final AtomicLong indexed = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final AtomicReference<String> firstError = new AtomicReference<>();
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request, List<Void> contexts) {
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Void> contexts, BulkResponse response) {
+            for (BulkResponseItem item : response.items()) {
+                if (item.error() != null) {
+                    failed.incrementAndGet();
+                    firstError.compareAndSet(null, item.id() + ": " + item.error().reason());
+                } else {
+                    indexed.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, List<Void> contexts, Throwable failure) {
+            logger.warn("Bulk request {} with {} operations failed", executionId, request.operations().size(), failure);
+            failed.addAndGet(request.operations().size());
+            firstError.compareAndSet(null, String.valueOf(failure));
+        }
+
+        long indexed() {
+            if (failed.get() > 0) {
+                throw new IngestionException(failed.get(), firstError.get());
+            }
+            return indexed.get();
+        }
+    }
+
+    public static final class Builder {
+
+        private ElasticsearchClient elasticsearchClient;
+
+        private EmbeddingModel embeddingModel;
+
+        private ElasticsearchVectorStoreOptions vectorStoreOptions;
+
+        private boolean initializeSchema;
+
+        private DocumentTransformer textSplitter;
+
+        private int embeddingBatchSize = DEFAULT_EMBEDDING_BATCH_SIZE;
+
+        private int embeddingConcurrency = DEFAULT_EMBEDDING_CONCURRENCY;
+
+        private int flushMaxOperations = DEFAULT_FLUSH_MAX_OPERATIONS;
+
+        private long flushMaxBytes = DEFAULT_FLUSH_MAX_BYTES;
+
+        private Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+        private int maxConcurrentBulkRequests = DEFAULT_MAX_CONCURRENT_BULK_REQUESTS;
+
+        private Scheduler scheduler;
+
+        private Builder() {
+        }
+
+        public Builder elasticsearchClient(ElasticsearchClient elasticsearchClient) {
+            this.elasticsearchClient = elasticsearchClient;
+            return this;
+        }
+
+        public Builder embeddingModel(EmbeddingModel embeddingModel) {
+            this.embeddingModel = embeddingModel;
+            return this;
+        }
+
+        public Builder vectorStoreOptions(ElasticsearchVectorStoreOptions vectorStoreOptions) {
+            this.vectorStoreOptions = vectorStoreOptions;
+            return this;
+        }
+
+        public Builder initializeSchema(boolean initializeSchema) {
+            this.initializeSchema = initializeSchema;
+            return this;
+        }
+
+        public Builder textSplitter(DocumentTransformer textSplitter) {
+            this.textSplitter = textSplitter;
+            return this;
+        }
+
+        public Builder embeddingBatchSize(int embeddingBatchSize) {
+            this.embeddingBatchSize = embeddingBatchSize;
+            return this;
+        }
+
+        public Builder embeddingConcurrency(int embeddingConcurrency) {
+            this.embeddingConcurrency = embeddingConcurrency;
+            return this;
+        }
+
+        public Builder flushMaxOperations(int flushMaxOperations) {
+            this.flushMaxOperations = flushMaxOperations;
+            return this;
+        }
+
+        public Builder flushMaxBytes(long flushMaxBytes) {
+            this.flushMaxBytes = flushMaxBytes;
+            return this;
+        }
+
+        public Builder flushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public Builder maxConcurrentBulkRequests(int maxConcurrentBulkRequests) {
+            this.maxConcurrentBulkRequests = maxConcurrentBulkRequests;
+            return this;
+        }
+
+        public Builder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public HybridElasticsearchIngestor build() {
+            return new HybridElasticsearchIngestor(elasticsearchClient, embeddingModel, vectorStoreOptions,
+                    initializeSchema, textSplitter, embeddingBatchSize, embeddingConcurrency, flushMaxOperations, flushMaxBytes,
+                    flushInterval, maxConcurrentBulkRequests, scheduler);
+        }
+    }
+}
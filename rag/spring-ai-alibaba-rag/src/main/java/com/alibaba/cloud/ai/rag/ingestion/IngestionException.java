@@ -0,0 +1,39 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.rag.ingestion;
+
+/**
+ * Thrown when an ingestion completes but some chunks could not be indexed.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class IngestionException extends RuntimeException {
+
+    private final long failedCount;
+
+    public IngestionException(long failedCount, String firstError) {
+        super("Failed to index " + failedCount + " chunks, first error: " + firstError);
+        this.failedCount = failedCount;
+    }
+
+    /**
+     * @return number of chunks that could not be indexed
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+}
@@ -16,7 +16,10 @@
 
 package com.alibaba.cloud.ai.rag.postretrieval;
 
+import com.alibaba.cloud.ai.cache.CacheSupport;
 import com.alibaba.cloud.ai.dashscope.rerank.DashScopeRerankOptions;
+import com.alibaba.cloud.ai.dashscope.rerank.cache.RerankScoreCache;
+import com.alibaba.cloud.ai.document.DocumentWithScore;
 import com.alibaba.cloud.ai.model.RerankModel;
 import com.alibaba.cloud.ai.model.RerankRequest;
 import com.alibaba.cloud.ai.model.RerankResponse;
@@ -28,16 +31,31 @@ import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.postretrieval.document.DocumentPostProcessor;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 
 /**
  * Re-ranking processing of the rerank model based on the dashscope api
+ * <p>
+ * The rerank can be bounded by a latency budget, after which the candidates are returned
+ * in their original order. Candidates can be pre-truncated by their retrieval score,
+ * relevance scores can be cached by content, and {@link #processAsync(Query, Flux)}
+ * starts reranking batches of candidates while they are still being retrieved.
  *
  * @author benym
  * @since 1.1.0.0-SNAPSHOT
@@ -46,33 +64,89 @@ public class DashScopeRerankPostProcessor implements DocumentPostProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(DashScopeRerankPostProcessor.class);
 
+    /**
+     * Default number of candidates reranked together by {@link #processAsync(Query, Flux)}
+     */
+    public static final int DEFAULT_PREFETCH_BATCH_SIZE = 10;
+
+    /**
+     * Orders documents by retrieval score, documents without a score first
+     */
+    private static final Comparator<Document> BY_RETRIEVAL_SCORE = Comparator.comparing(Document::getScore,
+            Comparator.nullsFirst(Comparator.<Double>naturalOrder()));
+
     private final RerankModel rerankModel;
 
     private final DashScopeRerankOptions rerankOptions;
 
+    private final Duration latencyBudget;
+
+    private final int maxCandidates;
+
+    private final RerankScoreCache scoreCache;
+
+    private final int prefetchBatchSize;
+
+    private final Scheduler scheduler;
+
     public DashScopeRerankPostProcessor(RerankModel rerankModel, DashScopeRerankOptions rerankOptions) {
+        this(rerankModel, rerankOptions, null, 0, null, DEFAULT_PREFETCH_BATCH_SIZE, null);
+    }
+
+    /**
+     * @param latencyBudget     maximum time to wait for the rerank before falling back to
+     *                          the original order, {@code null} to wait indefinitely
+     * @param maxCandidates     maximum number of candidates reranked, the ones with the
+     *                          highest retrieval score are kept, {@code 0} for no limit
+     * @param scoreCache        cache of relevance scores by query and document content,
+     *                          {@code null} to disable caching
+     * @param prefetchBatchSize number of candidates reranked together by
+     *                          {@link #processAsync(Query, Flux)}
+     * @param scheduler         scheduler the rerank calls run on, bounded elastic if
+     *                          {@code null}
+     */
+    public DashScopeRerankPostProcessor(RerankModel rerankModel, DashScopeRerankOptions rerankOptions,
+                                        Duration latencyBudget, int maxCandidates, RerankScoreCache scoreCache,
+                                        int prefetchBatchSize, Scheduler scheduler) {
+        Assert.isTrue(latencyBudget == null || !(latencyBudget.isNegative() || latencyBudget.isZero()),
+                "latencyBudget must be positive");
+        Assert.isTrue(maxCandidates >= 0, "maxCandidates must not be negative");
+        Assert.isTrue(prefetchBatchSize > 0, "prefetchBatchSize must be positive");
         this.rerankModel = rerankModel;
         this.rerankOptions = rerankOptions;
+        this.latencyBudget = latencyBudget;
+        this.maxCandidates = maxCandidates;
+        this.scoreCache = scoreCache;
+        this.prefetchBatchSize = prefetchBatchSize;
+        this.scheduler = scheduler != null ? scheduler : Schedulers.boundedElastic();
     }
 
     @Override
     public List<Document> process(Query query, List<Document> documents) {
         try {
-            List<Document> rerankDocuments = new ArrayList<>();
-            if (Objects.nonNull(query) && StringUtils.hasText(query.text())) {
-                RerankRequest rerankRequest = new RerankRequest(query.text(), documents, rerankOptions);
-                RerankResponse rerankResponse = rerankModel.call(rerankRequest);
-                Map<String, Document> docMap = documents.stream()
-                        .collect(Collectors.toMap(Document::getId, Function.identity()));
-                rerankResponse.getResults().forEach(res -> {
-                    Document outputDocument = res.getOutput();
-                    Document doc = docMap.get(outputDocument.getId());
-                    if (doc != null) {
-                        rerankDocuments.add(doc);
-                    }
-                });
+            if (Objects.isNull(query) || !StringUtils.hasText(query.text())) {
+                return new ArrayList<>();
             }
-            return rerankDocuments;
+            if (documents.isEmpty()) {
+                return documents;
+            }
+            List<Document> candidates = truncate(documents);
+            if (latencyBudget == null) {
+                return rank(candidates, score(query.text(), candidates, false));
+            }
+            // On timeout the subscription is cancelled, which interrupts the thread running
+            // the rerank. Whether the HTTP request in flight is aborted as well depends on
+            // the client behind the rerank model, a blocking client finishes it and its
+            // scores still reach the cache.
+            return Mono.fromCallable(() -> rank(candidates, score(query.text(), candidates, false)))
+                    .subscribeOn(scheduler)
+                    .timeout(latencyBudget)
+                    .onErrorResume(TimeoutException.class, e -> {
+                        logger.warn("rerank exceeded the latency budget of {}, keeping the original order",
+                                latencyBudget);
+                        return Mono.just(fallback(documents));
+                    })
+                    .block();
         }
         catch (Exception e) {
             logger.error("rerank error in DashScopeRerankPostProcessor", e);
@@ -80,16 +154,222 @@ public class DashScopeRerankPostProcessor implements DocumentPostProcessor {
         }
     }
 
+    /**
+     * Reranks the candidates as they are retrieved: every batch of
+     * {@code prefetchBatchSize} candidates is scored as soon as it is complete, and the
+     * candidates are ranked once the stream completes. As with
+     * {@link #process(Query, List)}, only the {@code maxCandidates} candidates with the
+     * highest retrieval score are ranked, and a candidate that is not among the highest
+     * scored so far when it arrives is never sent to the rerank model. When the latency
+     * budget is exceeded or the rerank fails, the candidates received so far are returned
+     * in their original order, truncated and limited to the top N in the same way.
+     *
+     * @param query      the query
+     * @param candidates the candidates, in retrieval order
+     * @return the reranked documents
+     */
+    public Mono<List<Document>> processAsync(Query query, Flux<Document> candidates) {
+        if (Objects.isNull(query) || !StringUtils.hasText(query.text())) {
+            return Mono.just(new ArrayList<>());
+        }
+        return Mono.defer(() -> {
+            List<Document> received = Collections.synchronizedList(new ArrayList<>());
+            // lowest retrieval score on top, the candidates of process() are the ones left
+            PriorityQueue<Document> highestScored = new PriorityQueue<>(BY_RETRIEVAL_SCORE);
+            Mono<List<Document>> reranked = candidates.doOnNext(received::add)
+                    .filter(candidate -> admit(highestScored, candidate))
+                    .buffer(prefetchBatchSize)
+                    .flatMapSequential(batch -> Mono.fromCallable(() -> score(query.text(), batch, true))
+                            .subscribeOn(scheduler)
+                            .map(scores -> new ScoredBatch(batch, scores)))
+                    .collectList()
+                    .map(batches -> rank(received, batches));
+            if (latencyBudget != null) {
+                reranked = reranked.timeout(latencyBudget);
+            }
+            return reranked.onErrorResume(e -> {
+                logger.warn("rerank did not complete within the latency budget or failed, keeping the original order",
+                        e);
+                synchronized (received) {
+                    return Mono.just(fallback(new ArrayList<>(received)));
+                }
+            });
+        });
+    }
+
+    /**
+     * Whether the candidate is among the {@code maxCandidates} highest retrieval scores
+     * received so far. A later candidate only displaces one with a lower score, so ties
+     * keep the earlier candidate like {@link #truncate(List)} does.
+     */
+    private boolean admit(PriorityQueue<Document> highestScored, Document candidate) {
+        if (maxCandidates == 0) {
+            return true;
+        }
+        if (highestScored.size() < maxCandidates) {
+            highestScored.add(candidate);
+            return true;
+        }
+        if (BY_RETRIEVAL_SCORE.compare(candidate, highestScored.peek()) > 0) {
+            highestScored.poll();
+            highestScored.add(candidate);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Candidates kept when the rerank does not complete: the same candidates as the
+     * rerank, in their original order and limited to the top N.
+     */
+    private List<Document> fallback(List<Document> documents) {
+        List<Document> candidates = truncate(documents);
+        Integer topN = rerankOptions.getTopN();
+        if (topN == null || candidates.size() <= topN) {
+            return candidates;
+        }
+        return new ArrayList<>(candidates.subList(0, topN));
+    }
+
+    /**
+     * Keeps the {@code maxCandidates} documents with the highest retrieval score, in their
+     * original order. Documents without a score rank last.
+     */
+    private List<Document> truncate(List<Document> documents) {
+        if (maxCandidates == 0 || documents.size() <= maxCandidates) {
+            return documents;
+        }
+        boolean[] kept = new boolean[documents.size()];
+        IntStream.range(0, documents.size())
+                .boxed()
+                .sorted(Comparator.comparing((Integer i) -> documents.get(i), BY_RETRIEVAL_SCORE).reversed())
+                .limit(maxCandidates)
+                .forEach(i -> kept[i] = true);
+        List<Document> candidates = new ArrayList<>(maxCandidates);
+        for (int i = 0; i < documents.size(); i++) {
+            if (kept[i]) {
+                candidates.add(documents.get(i));
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Scores the candidates, reading and writing the score cache when one is configured.
+     *
+     * @param queryText  the query text
+     * @param candidates the candidates
+     * @param scoreAll   whether every candidate must be scored, otherwise the model may
+     *                   only return the top N
+     * @return the scores by candidate index, {@code null} for unscored candidates
+     */
+    private Double[] score(String queryText, List<Document> candidates, boolean scoreAll) {
+        Double[] scores = new Double[candidates.size()];
+        List<String> keys = null;
+        if (scoreCache != null) {
+            keys = new ArrayList<>(candidates.size());
+            for (Document candidate : candidates) {
+                keys.add(RerankScoreCache.key(rerankOptions.getModel(), queryText, candidate.getText()));
+            }
+            Map<String, Double> cached = CacheSupport.getAll(scoreCache, keys);
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = cached.get(keys.get(i));
+            }
+        }
+        List<Document> missing = new ArrayList<>();
+        Map<String, Integer> missingIndexes = new HashMap<>();
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] == null && missingIndexes.putIfAbsent(candidates.get(i).getId(), i) == null) {
+                missing.add(candidates.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return scores;
+        }
+        // Cached scores are only complete when every missing candidate is scored.
+        DashScopeRerankOptions options = scoreAll || scoreCache != null ? withTopN(missing.size()) : rerankOptions;
+        RerankResponse rerankResponse = rerankModel.call(new RerankRequest(queryText, missing, options));
+        Map<String, Double> fetched = new HashMap<>();
+        for (DocumentWithScore result : rerankResponse.getResults()) {
+            Integer index = missingIndexes.get(result.getOutput().getId());
+            if (index != null) {
+                scores[index] = result.getScore() != null ? result.getScore() : Double.NEGATIVE_INFINITY;
+                if (keys != null && result.getScore() != null) {
+                    fetched.put(keys.get(index), result.getScore());
+                }
+            }
+        }
+        if (!fetched.isEmpty()) {
+            CacheSupport.putAll(scoreCache, fetched);
+        }
+        return scores;
+    }
+
+    /**
+     * Ranks the candidates of the received documents with the scores of the batches.
+     */
+    private List<Document> rank(List<Document> received, List<ScoredBatch> batches) {
+        Map<Document, Double> scored = new IdentityHashMap<>();
+        for (ScoredBatch batch : batches) {
+            for (int i = 0; i < batch.scores().length; i++) {
+                scored.put(batch.candidates().get(i), batch.scores()[i]);
+            }
+        }
+        List<Document> candidates = truncate(received);
+        Double[] scores = new Double[candidates.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = scored.get(candidates.get(i));
+        }
+        return rank(candidates, scores);
+    }
+
+    /**
+     * Orders the scored candidates by descending score and keeps the top N, unscored
+     * candidates are dropped.
+     */
+    private List<Document> rank(List<Document> candidates, Double[] scores) {
+        int topN = rerankOptions.getTopN() != null ? rerankOptions.getTopN() : candidates.size();
+        List<Document> rerankDocuments = new ArrayList<>(Math.min(topN, candidates.size()));
+        IntStream.range(0, candidates.size())
+                .filter(i -> scores[i] != null)
+                .boxed()
+                .sorted(Comparator.comparing((Integer i) -> scores[i]).reversed())
+                .limit(topN)
+                .forEach(i -> rerankDocuments.add(candidates.get(i)));
+        return rerankDocuments;
+    }
+
+    private DashScopeRerankOptions withTopN(int topN) {
+        return DashScopeRerankOptions.builder()
+                .model(rerankOptions.getModel())
+                .topN(topN)
+                .returnDocuments(rerankOptions.getReturnDocuments())
+                .build();
+    }
+
     public static Builder builder() {
         return new Builder();
     }
 
+    private record ScoredBatch(List<Document> candidates, Double[] scores) {
+    }
+
     public static final class Builder {
 
         private RerankModel rerankModel;
 
         private DashScopeRerankOptions rerankOptions;
 
+        private Duration latencyBudget;
+
+        private int maxCandidates;
+
+        private RerankScoreCache scoreCache;
+
+        private int prefetchBatchSize = DEFAULT_PREFETCH_BATCH_SIZE;
+
+        private Scheduler scheduler;
+
         public Builder rerankModel(RerankModel rerankModel) {
             this.rerankModel = rerankModel;
             return this;
@@ -100,11 +380,37 @@ public class DashScopeRerankPostProcessor implements DocumentPostProcessor {
             return this;
         }
 
+        public Builder latencyBudget(Duration latencyBudget) {
+            this.latencyBudget = latencyBudget;
+            return this;
+        }
+
+        public Builder maxCandidates(int maxCandidates) {
+            this.maxCandidates = maxCandidates;
+            return this;
+        }
+
+        public Builder scoreCache(RerankScoreCache scoreCache) {
+            this.scoreCache = scoreCache;
+            return this;
+        }
+
+        public Builder prefetchBatchSize(int prefetchBatchSize) {
+            this.prefetchBatchSize = prefetchBatchSize;
+            return this;
+        }
+
+        public Builder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
         @NotNull
         public DashScopeRerankPostProcessor build() {
             Assert.notNull(rerankModel, "rerankModel is required");
             Assert.notNull(rerankOptions, "rerankOptions is required");
-            return new DashScopeRerankPostProcessor(rerankModel, rerankOptions);
+            return new DashScopeRerankPostProcessor(rerankModel, rerankOptions, latencyBudget, maxCandidates,
+                    scoreCache, prefetchBatchSize, scheduler);
         }
     }
 }
@@ -19,6 +19,7 @@ package com.alibaba.cloud.ai.rag.preretrieval.transformation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.preretrieval.query.transformation.QueryTransformer;
@@ -53,17 +54,34 @@ public class HyDeTransformer implements QueryTransformer {
 
     private final PromptTemplate promptTemplate;
 
+    @Nullable
+    private final ChatOptions chatOptions;
+
     public HyDeTransformer(ChatClient.Builder chatClientBuilder, PromptTemplate promptTemplate) {
+        this(chatClientBuilder, promptTemplate, null);
+    }
+
+    /**
+     * @param chatOptions options of the generation requests, {@code null} for the
+     *                    defaults of the chat client
+     */
+    public HyDeTransformer(ChatClient.Builder chatClientBuilder, PromptTemplate promptTemplate,
+                           @Nullable ChatOptions chatOptions) {
         Assert.notNull(chatClientBuilder, "chatClientBuilder cannot be null");
         this.chatClient = chatClientBuilder.build();
         this.promptTemplate = promptTemplate != null ? promptTemplate : DEFAULT_PROMPT_TEMPLATE;
         PromptAssert.templateHasRequiredPlaceholders(this.promptTemplate, "query");
+        this.chatOptions = chatOptions;
     }
 
     @Override
     public Query transform(Query query) {
         Assert.notNull(query, "query cannot be null");
-        var hyDeQueryText = this.chatClient.prompt()
+        var prompt = this.chatClient.prompt();
+        if (this.chatOptions != null) {
+            prompt = prompt.options(this.chatOptions);
+        }
+        var hyDeQueryText = prompt
                 .user(user -> user.text(this.promptTemplate.getTemplate()).param("query", query.text()))
                 .call()
                 .content();
@@ -75,6 +93,15 @@ public class HyDeTransformer implements QueryTransformer {
         return query.mutate().text(hyDeQueryText).build();
     }
 
+    public PromptTemplate getPromptTemplate() {
+        return this.promptTemplate;
+    }
+
+    @Nullable
+    public ChatOptions getChatOptions() {
+        return this.chatOptions;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -86,6 +113,9 @@ public class HyDeTransformer implements QueryTransformer {
         @Nullable
         private PromptTemplate promptTemplate;
 
+        @Nullable
+        private ChatOptions chatOptions;
+
         public Builder chatClientBuilder(ChatClient.Builder chatClientBuilder) {
             this.chatClientBuilder = chatClientBuilder;
             return this;
@@ -96,8 +126,13 @@ public class HyDeTransformer implements QueryTransformer {
             return this;
         }
 
+        public Builder chatOptions(ChatOptions chatOptions) {
+            this.chatOptions = chatOptions;
+            return this;
+        }
+
         public HyDeTransformer build() {
-            return new HyDeTransformer(this.chatClientBuilder, this.promptTemplate);
+            return new HyDeTransformer(this.chatClientBuilder, this.promptTemplate, this.chatOptions);
         }
 
     }
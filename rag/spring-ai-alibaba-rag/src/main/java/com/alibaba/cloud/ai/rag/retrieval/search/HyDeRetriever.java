@@ -16,8 +16,14 @@
 
 package com.alibaba.cloud.ai.rag.retrieval.search;
 
+import com.alibaba.cloud.ai.cache.CacheSupport;
 import com.alibaba.cloud.ai.rag.preretrieval.transformation.HyDeTransformer;
+import com.alibaba.cloud.ai.rag.retrieval.search.cache.HyDeCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.document.Document;
+import org.springframework.ai.model.ModelOptionsUtils;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 import org.springframework.ai.vectorstore.SearchRequest;
@@ -28,19 +34,39 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 /**
  * Hypothetical Document Embeddings Retriever implementation.
+ * <p>
+ * With a {@link HyDeCache}, the hypothetical document of a normalized query is generated
+ * once and reused until it expires, and concurrent identical queries share a single
+ * generation. Caching requires the chat options of the {@link HyDeTransformer} to name
+ * the model, as they are part of the cache key.
  *
  * @author benym
  * @since 1.1.0.0-SNAPSHOT
  */
 public class HyDeRetriever implements DocumentRetriever {
 
+    private static final Logger logger = LoggerFactory.getLogger(HyDeRetriever.class);
+
     public static final String FILTER_EXPRESSION = "vector_store_filter_expression";
 
+    /**
+     * Default time a query waits for the identical generation of another query before
+     * generating its own hypothetical document
+     */
+    public static final Duration DEFAULT_GENERATION_WAIT_TIMEOUT = Duration.ofSeconds(30);
+
     private final VectorStore vectorStore;
 
     private final Double similarityThreshold;
@@ -54,25 +80,59 @@ public class HyDeRetriever implements DocumentRetriever {
 
     private final HyDeTransformer hyDeTransformer;
 
+    private final HyDeCache hyDeCache;
+
+    // Serialized chat options of the transformer, part of the cache key
+    private final String chatOptionsKey;
+
+    private final Duration generationWaitTimeout;
+
+    // Generations in progress by cache key, so that concurrent identical queries wait
+    // for the first one instead of calling the chat model again.
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlightGenerations = new ConcurrentHashMap<>();
+
     public HyDeRetriever(@Nullable HyDeTransformer hyDeTransformer, @Nullable VectorStore vectorStore, @Nullable Double similarityThreshold,
                          @Nullable Integer topK, Supplier<Filter.Expression> filterExpression) {
+        this(hyDeTransformer, vectorStore, similarityThreshold, topK, filterExpression, null, null);
+    }
+
+    /**
+     * @param hyDeCache             cache of the hypothetical documents, {@code null} to
+     *                              disable caching
+     * @param generationWaitTimeout time a query waits for the identical generation of
+     *                              another query before generating its own,
+     *                              {@link #DEFAULT_GENERATION_WAIT_TIMEOUT} if {@code null}
+     */
+    public HyDeRetriever(@Nullable HyDeTransformer hyDeTransformer, @Nullable VectorStore vectorStore, @Nullable Double similarityThreshold,
+                         @Nullable Integer topK, Supplier<Filter.Expression> filterExpression,
+                         @Nullable HyDeCache hyDeCache, @Nullable Duration generationWaitTimeout) {
         Assert.notNull(hyDeTransformer, "hyDeTransformer must not be null");
         Assert.notNull(vectorStore, "vectorStore cannot be null");
+        ChatOptions chatOptions = hyDeTransformer.getChatOptions();
+        Assert.isTrue(hyDeCache == null || (chatOptions != null && StringUtils.hasText(chatOptions.getModel())),
+                "hyDeCache requires chat options naming the model on the hyDeTransformer");
+        Assert.isTrue(generationWaitTimeout == null
+                        || !(generationWaitTimeout.isNegative() || generationWaitTimeout.isZero()),
+                "generationWaitTimeout must be positive");
         this.hyDeTransformer = hyDeTransformer;
         this.vectorStore = vectorStore;
         this.similarityThreshold = similarityThreshold != null ? similarityThreshold
                 : SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL;
         this.topK = topK != null ? topK : SearchRequest.DEFAULT_TOP_K;
         this.filterExpression = filterExpression != null ? filterExpression : () -> null;
+        this.hyDeCache = hyDeCache;
+        this.chatOptionsKey = hyDeCache != null ? ModelOptionsUtils.toJsonString(chatOptions) : null;
+        this.generationWaitTimeout = generationWaitTimeout != null ? generationWaitTimeout
+                : DEFAULT_GENERATION_WAIT_TIMEOUT;
     }
 
     @Override
     public List<Document> retrieve(Query query) {
         Assert.notNull(query, "query must not be null");
-        Query hyDeAnswer = hyDeTransformer.transform(query);
+        String hyDeAnswer = hypotheticalDocument(query);
         var requestFilterExpression = computeRequestFilterExpression(query);
         var searchRequest = SearchRequest.builder()
-                .query(hyDeAnswer.text())
+                .query(hyDeAnswer)
                 .filterExpression(requestFilterExpression)
                 .similarityThreshold(this.similarityThreshold)
                 .topK(this.topK)
@@ -80,6 +140,71 @@ public class HyDeRetriever implements DocumentRetriever {
         return this.vectorStore.similaritySearch(searchRequest);
     }
 
+    /**
+     * Returns the hypothetical document of the query, from the cache when possible.
+     * Cache failures are logged and never fail the retrieval.
+     *
+     * @param query the query
+     * @return the hypothetical document text
+     */
+    private String hypotheticalDocument(Query query) {
+        if (this.hyDeCache == null) {
+            return this.hyDeTransformer.transform(query).text();
+        }
+        String key = HyDeCache.key(this.chatOptionsKey, this.hyDeTransformer.getPromptTemplate().getTemplate(),
+                QueryTextNormalizer.normalize(query.text()));
+        String cached = CacheSupport.get(this.hyDeCache, key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<String> generation = new CompletableFuture<>();
+        CompletableFuture<String> inFlight = this.inFlightGenerations.putIfAbsent(key, generation);
+        if (inFlight != null) {
+            String shared = awaitGeneration(inFlight);
+            return shared != null ? shared : this.hyDeTransformer.transform(query).text();
+        }
+        try {
+            // Another query may have completed the same generation since the cache was read.
+            String document = CacheSupport.get(this.hyDeCache, key);
+            if (document == null) {
+                document = this.hyDeTransformer.transform(query).text();
+                // The transformer falls back to the query itself when nothing was generated.
+                if (!document.equals(query.text())) {
+                    CacheSupport.put(this.hyDeCache, key, document);
+                }
+            }
+            generation.complete(document);
+            return document;
+        } catch (RuntimeException e) {
+            generation.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlightGenerations.remove(key, generation);
+        }
+    }
+
+    /**
+     * Waits for the generation of an identical query, for at most the generation wait
+     * timeout.
+     *
+     * @param inFlight the generation in progress
+     * @return the hypothetical document, or {@code null} if the wait timed out
+     */
+    private String awaitGeneration(CompletableFuture<String> inFlight) {
+        try {
+            return inFlight.get(this.generationWaitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Identical HyDE generation still running after {}, generating again",
+                    this.generationWaitTimeout);
+            return null;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the HyDE generation", e);
+        }
+    }
+
     /**
      * Computes the filter expression to use for the current request.
      * <p>
@@ -122,6 +247,10 @@ public class HyDeRetriever implements DocumentRetriever {
 
         private HyDeTransformer hyDeTransformer;
 
+        private HyDeCache hyDeCache;
+
+        private Duration generationWaitTimeout;
+
         private Builder() {
         }
 
@@ -158,8 +287,19 @@ public class HyDeRetriever implements DocumentRetriever {
             return this;
         }
 
+        public Builder hyDeCache(HyDeCache hyDeCache) {
+            this.hyDeCache = hyDeCache;
+            return this;
+        }
+
+        public Builder generationWaitTimeout(Duration generationWaitTimeout) {
+            this.generationWaitTimeout = generationWaitTimeout;
+            return this;
+        }
+
         public HyDeRetriever build() {
-            return new HyDeRetriever(hyDeTransformer, vectorStore, similarityThreshold, topK, filterExpression);
+            return new HyDeRetriever(hyDeTransformer, vectorStore, similarityThreshold, topK, filterExpression,
+                    hyDeCache, generationWaitTimeout);
         }
     }
 }
@@ -42,4 +42,14 @@ public interface HybridDocumentRetriever extends DocumentRetriever {
     List<Document> retrieve(Query query,
                             co.elastic.clients.elasticsearch._types.query_dsl.Query filterQuery,
                             co.elastic.clients.elasticsearch._types.query_dsl.Query textQuery);
+
+    /**
+     * Prepares the retrieval of several queries at once, typically by computing all
+     * query embeddings in a single batch, so that the following retrieve calls for
+     * these queries can reuse them. The default implementation does nothing.
+     *
+     * @param queries The queries that are about to be retrieved
+     */
+    default void prefetchEmbeddings(List<Query> queries) {
+    }
 }
@@ -17,9 +17,14 @@
 package com.alibaba.cloud.ai.rag.retrieval.search;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Rank;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.SourceConfig;
+import com.alibaba.cloud.ai.cache.CacheSupport;
+import com.alibaba.cloud.ai.cache.InMemoryKeyValueCache;
+import com.alibaba.cloud.ai.cache.KeyValueCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.document.Document;
@@ -37,7 +42,12 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -106,6 +116,36 @@ public class HybridElasticsearchRetriever implements HybridDocumentRetriever {
      */
     private static final boolean DEFAULT_USE_RRF = false;
 
+    /**
+     * Namespace of the query embeddings in a cache that may be shared with other
+     * embedding callers. The vectors come from {@link EmbeddingModel#embed(String)} with
+     * the model's default options, so they are not labelled with a text type
+     */
+    private static final String QUERY_EMBEDDING_NAMESPACE = "es-query";
+
+    /**
+     * Maximum number of converted filter expressions kept per retriever
+     */
+    private static final int MAX_CACHED_FILTER_QUERIES = 256;
+
+    /**
+     * Maximum number of prefetched query embeddings kept when no query embedding cache is
+     * configured
+     */
+    private static final int MAX_PREFETCHED_EMBEDDINGS = 256;
+
+    /**
+     * How long a prefetched query embedding is kept when no query embedding cache is
+     * configured
+     */
+    private static final Duration PREFETCHED_EMBEDDING_TTL = Duration.ofMinutes(1);
+
+    private static final co.elastic.clients.elasticsearch._types.query_dsl.Query MATCH_ALL_QUERY =
+            co.elastic.clients.elasticsearch._types.query_dsl.Query.of(q -> q.matchAll(m -> m));
+
+    private static final co.elastic.clients.elasticsearch._types.query_dsl.Query MATCH_ALL_FILTER_QUERY =
+            toQueryStringQuery("*");
+
     /**
      * Options for configuring the Elasticsearch vector store
      */
@@ -190,12 +230,60 @@ public class HybridElasticsearchRetriever implements HybridDocumentRetriever {
      */
     private final Supplier<Filter.Expression> filterExpression;
 
+    /**
+     * Optional cache of query embeddings, keyed by model name, dimensions and normalized
+     * query text
+     */
+    private final KeyValueCache<float[]> queryEmbeddingCache;
+
+    /**
+     * Model name used in the query embedding cache key
+     */
+    private final String embeddingModelName;
+
+    /**
+     * Short-lived store of batch prefetched query embeddings, used when no query
+     * embedding cache is configured
+     */
+    private final KeyValueCache<float[]> prefetchedEmbeddings;
+
+    // The parts of the search request that do not depend on the query are built once.
+
+    private final float knnSimilarity;
+
+    private final SourceConfig sourceConfig;
+
+    private final Rank rank;
+
+    private final Map<Filter.Expression, co.elastic.clients.elasticsearch._types.query_dsl.Query> filterQueries =
+            Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<Filter.Expression, co.elastic.clients.elasticsearch._types.query_dsl.Query> eldest) {
+                    return size() > MAX_CACHED_FILTER_QUERIES;
+                }
+            });
+
     public HybridElasticsearchRetriever(ElasticsearchVectorStoreOptions vectorStoreOptions, ElasticsearchClient elasticsearchClient,
                                         EmbeddingModel embeddingModel, double similarityThreshold, int neighborsNum,
                                         int candidateNum, int topK, int rankWindowSize, int rankConstant, float bm25Bias, float knnBias,
                                         RetrieverType retrieverType, boolean useRrf,
                                         FilterExpressionConverter filterExpressionConverter,
                                         Supplier<Filter.Expression> filterExpression) {
+        this(vectorStoreOptions, elasticsearchClient, embeddingModel, similarityThreshold, neighborsNum, candidateNum,
+                topK, rankWindowSize, rankConstant, bm25Bias, knnBias, retrieverType, useRrf, filterExpressionConverter,
+                filterExpression, null, null);
+    }
+
+    public HybridElasticsearchRetriever(ElasticsearchVectorStoreOptions vectorStoreOptions, ElasticsearchClient elasticsearchClient,
+                                        EmbeddingModel embeddingModel, double similarityThreshold, int neighborsNum,
+                                        int candidateNum, int topK, int rankWindowSize, int rankConstant, float bm25Bias, float knnBias,
+                                        RetrieverType retrieverType, boolean useRrf,
+                                        FilterExpressionConverter filterExpressionConverter,
+                                        Supplier<Filter.Expression> filterExpression,
+                                        KeyValueCache<float[]> queryEmbeddingCache, String embeddingModelName) {
+        Assert.isTrue(queryEmbeddingCache == null || StringUtils.hasText(embeddingModelName),
+                "embeddingModelName is required with a queryEmbeddingCache");
         this.vectorStoreOptions = vectorStoreOptions;
         this.elasticsearchClient = elasticsearchClient;
         this.embeddingModel = embeddingModel;
@@ -212,6 +300,14 @@ public class HybridElasticsearchRetriever implements HybridDocumentRetriever {
         this.useRrf = useRrf;
         this.filterExpressionConverter = filterExpressionConverter != null ? filterExpressionConverter : new ElasticsearchAiSearchFilterExpressionConverter();
         this.filterExpression = filterExpression != null ? filterExpression : () -> null;
+        this.queryEmbeddingCache = queryEmbeddingCache;
+        this.embeddingModelName = embeddingModelName;
+        this.prefetchedEmbeddings = queryEmbeddingCache != null ? null
+                : new InMemoryKeyValueCache<>(MAX_PREFETCHED_EMBEDDINGS, PREFETCHED_EMBEDDING_TTL);
+        this.knnSimilarity = computeSimilarityThreshold();
+        this.sourceConfig = excludeEmbeddingField(vectorStoreOptions);
+        this.rank = this.useRrf ? Rank.of(r -> r.rrf(rrf -> rrf.rankConstant((long) this.rankConstant)
+                .rankWindowSize((long) this.rankWindowSize))) : null;
     }
 
     @Override
@@ -247,59 +343,15 @@ public class HybridElasticsearchRetriever implements HybridDocumentRetriever {
     private List<Document> search(Query query,
                                   co.elastic.clients.elasticsearch._types.query_dsl.Query filterQuery,
                                   co.elastic.clients.elasticsearch._types.query_dsl.Query textQuery) throws IOException {
-        float[] vector = embeddingModel.embed(query.text());
+        float[] vector = isKnnEnabled() ? embed(query.text()) : null;
         // 1. Build search request
-        SearchRequest.Builder builder = new SearchRequest.Builder();
         SearchResponse<Document> response = elasticsearchClient.search(
-                buildSearchRequest(builder, vector, filterQuery, textQuery), Document.class
+                buildSearchRequest(vector, ensureQuery(filterQuery), ensureQuery(textQuery)), Document.class
         );
         // 2. Convert search response to documents
         return response.hits().hits().stream().map(this::toDocument).collect(Collectors.toList());
     }
 
-    /**
-     * Builds the search request for the hybrid search.
-     *
-     * @param sr          SearchRequest.Builder
-     * @param vector      query embedding vector
-     * @param filterQuery filter query
-     * @param textQuery   text query
-     * @return SearchRequest
-     */
-    private SearchRequest buildSearchRequest(SearchRequest.Builder sr, float[] vector,
-                                                     co.elastic.clients.elasticsearch._types.query_dsl.Query filterQuery,
-                                                     co.elastic.clients.elasticsearch._types.query_dsl.Query textQuery) {
-        // 1. Knn search
-        SearchRequest.Builder builder = new SearchRequest.Builder();
-        if (RetrieverType.KNN.equals(retrieverType) || RetrieverType.HYBRID.equals(retrieverType)) {
-            builder = sr.index(vectorStoreOptions.getIndexName())
-                    .knn(k -> k.queryVector(EmbeddingUtils.toList(vector))
-                            .similarity(computeSimilarityThreshold())
-                            .k(neighborsNum)
-                            .field(vectorStoreOptions.getEmbeddingFieldName())
-                            .numCandidates(candidateNum)
-                            .filter(ensureQuery(filterQuery))
-                            .boost(knnBias))
-                    .size(topK);
-        }
-        // 2. Bm25 search
-        if (RetrieverType.BM25.equals(retrieverType) || RetrieverType.HYBRID.equals(retrieverType)) {
-            builder.query(q -> q.bool(b -> b
-                    .filter(ensureQuery(filterQuery))
-                    .must(ensureQuery(textQuery))
-                    .boost(bm25Bias)))
-                    .size(topK);
-        }
-        // 3. RRF
-        if (useRrf) {
-            builder.rank(r -> r.rrf(rrf -> rrf.rankConstant((long) rankConstant)
-                    .rankWindowSize((long) rankWindowSize)));
-        }
-        SearchRequest searchRequest = builder.build();
-        logger.debug("Elasticsearch Hybrid Search Request: {}", searchRequest.toString());
-        return searchRequest;
-    }
-
     /**
      * Execute a hybrid search using BM25 and KNN search with Reciprocal Rank Fusion.
      * use filter expression and bm25 filed from the query context
@@ -311,64 +363,168 @@ public class HybridElasticsearchRetriever implements HybridDocumentRetriever {
         // 1. Compute the filter expression and bm25 filed to use for the request
         Filter.Expression requestFilterExpression = computeRequestFilterExpression(query);
         String bm25Field = computeBm25Field(query);
-        float[] vector = embeddingModel.embed(query.text());
+        float[] vector = isKnnEnabled() ? embed(query.text()) : null;
         // 2. Build search request
-        SearchRequest.Builder builder = new SearchRequest.Builder();
+        co.elastic.clients.elasticsearch._types.query_dsl.Query textQuery =
+                co.elastic.clients.elasticsearch._types.query_dsl.Query.of(m -> m.match(
+                        mm -> mm.field(bm25Field).query(escape(query.text()))));
         SearchResponse<Document> response = elasticsearchClient.search(
-                buildSearchRequest(builder, vector, requestFilterExpression, query.text(), bm25Field), Document.class
+                buildSearchRequest(vector, toFilterQuery(requestFilterExpression), textQuery), Document.class
         );
         // 3. Convert search response to documents
         return response.hits().hits().stream().map(this::toDocument).collect(Collectors.toList());
     }
 
     /**
-     * Builds the search request for the hybrid search.
-     * use filter expression and bm25 filed from the query context
+     * Builds the search request for the hybrid search from the query dependent parts and
+     * the parts precomputed in the constructor.
      *
-     * @param sr               SearchRequest.Builder
-     * @param vector           query embedding vector
-     * @param filterExpression filter expression
-     * @param queryText        query text
-     * @param bm25Field        bm25 field
-     * @return SearchRequest.Builder
+     * @param vector      query embedding vector, {@code null} for a BM25 only search
+     * @param filterQuery filter query
+     * @param textQuery   text query
+     * @return SearchRequest
      */
-    private SearchRequest buildSearchRequest(SearchRequest.Builder sr, float[] vector, Filter.Expression filterExpression,
-                                                     String queryText, String bm25Field) {
+    private SearchRequest buildSearchRequest(float[] vector,
+                                             co.elastic.clients.elasticsearch._types.query_dsl.Query filterQuery,
+                                             co.elastic.clients.elasticsearch._types.query_dsl.Query textQuery) {
+        SearchRequest.Builder builder = new SearchRequest.Builder()
+                .index(vectorStoreOptions.getIndexName())
+                .source(sourceConfig)
+                .size(topK);
         // 1. Knn search
-        SearchRequest.Builder builder = new SearchRequest.Builder();
-        if (RetrieverType.KNN.equals(retrieverType) || RetrieverType.HYBRID.equals(retrieverType)) {
-            builder = sr.index(vectorStoreOptions.getIndexName())
-                    .knn(k -> k.queryVector(EmbeddingUtils.toList(vector))
-                            .similarity(computeSimilarityThreshold())
-                            .k(neighborsNum)
-                            .field(vectorStoreOptions.getEmbeddingFieldName())
-                            .numCandidates(candidateNum)
-                            .filter(fl -> fl
-                                    .queryString(qs -> qs.query(getElasticsearchQueryString(filterExpression))))
-                            .boost(knnBias))
-                    .size(topK);
+        if (vector != null) {
+            builder.knn(k -> k.queryVector(EmbeddingUtils.toList(vector))
+                    .similarity(knnSimilarity)
+                    .k(neighborsNum)
+                    .field(vectorStoreOptions.getEmbeddingFieldName())
+                    .numCandidates(candidateNum)
+                    .filter(filterQuery)
+                    .boost(knnBias));
         }
         // 2. Bm25 search
         if (RetrieverType.BM25.equals(retrieverType) || RetrieverType.HYBRID.equals(retrieverType)) {
             builder.query(q -> q.bool(b -> b
-                    .filter(fl -> fl
-                            .queryString(qs -> qs.query(getElasticsearchQueryString(filterExpression))))
-                    .must(m -> m.match(
-                            mm -> mm.field(bm25Field)
-                                    .query(escape(queryText)))
-                    ).boost(bm25Bias)))
-                    .size(topK);
+                    .filter(filterQuery)
+                    .must(textQuery)
+                    .boost(bm25Bias)));
         }
         // 3. RRF
-        if (useRrf) {
-            builder.rank(r -> r.rrf(rrf -> rrf.rankConstant((long) rankConstant)
-                    .rankWindowSize((long) rankWindowSize)));
+        if (rank != null) {
+            builder.rank(rank);
         }
         SearchRequest searchRequest = builder.build();
-        logger.debug("Elasticsearch Hybrid Search Request: {}", searchRequest.toString());
+        logger.debug("Elasticsearch Hybrid Search Request: {}", searchRequest);
         return searchRequest;
     }
 
+    private boolean isKnnEnabled() {
+        return RetrieverType.KNN.equals(retrieverType) || RetrieverType.HYBRID.equals(retrieverType);
+    }
+
+    /**
+     * Embeds the query text, going through the query embedding cache when one is
+     * configured, or the prefetched embeddings otherwise. Cache failures are logged and never fail the retrieval.
+     *
+     * @param queryText query text
+     * @return query embedding vector
+     */
+    private float[] embed(String queryText) {
+        String key = embeddingKey(queryText);
+        float[] cached = CacheSupport.get(embeddingCache(), key);
+        if (cached != null) {
+            return cached;
+        }
+        float[] vector = embeddingModel.embed(queryText);
+        if (queryEmbeddingCache != null) {
+            CacheSupport.put(queryEmbeddingCache, key, vector);
+        }
+        return vector;
+    }
+
+    /**
+     * Embeds the texts of the given queries in a single {@link EmbeddingModel} call,
+     * skipping those already cached. Failures are logged, in which case each query is
+     * embedded on its own when it is retrieved.
+     *
+     * @param queries queries that are about to be retrieved
+     */
+    @Override
+    public void prefetchEmbeddings(List<Query> queries) {
+        if (!isKnnEnabled() || queries == null || queries.isEmpty()) {
+            return;
+        }
+        Map<String, String> texts = new LinkedHashMap<>();
+        for (Query query : queries) {
+            if (query != null && StringUtils.hasText(query.text())) {
+                texts.putIfAbsent(embeddingKey(query.text()), query.text());
+            }
+        }
+        if (texts.isEmpty()) {
+            return;
+        }
+        KeyValueCache<float[]> cache = embeddingCache();
+        CacheSupport.getAll(cache, texts.keySet()).keySet().forEach(texts::remove);
+        if (texts.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> keys = new ArrayList<>(texts.keySet());
+            List<float[]> vectors = embeddingModel.embed(new ArrayList<>(texts.values()));
+            Map<String, float[]> embeddings = new LinkedHashMap<>(keys.size() * 2);
+            for (int i = 0; i < keys.size() && i < vectors.size(); i++) {
+                embeddings.put(keys.get(i), vectors.get(i));
+            }
+            CacheSupport.putAll(cache, embeddings);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to prefetch {} query embeddings", texts.size(), e);
+        }
+    }
+
+    private KeyValueCache<float[]> embeddingCache() {
+        return queryEmbeddingCache != null ? queryEmbeddingCache : prefetchedEmbeddings;
+    }
+
+    private String embeddingKey(String queryText) {
+        Integer dimensions = vectorStoreOptions.getDimensions();
+        return CacheSupport.key(embeddingModelName, dimensions == null ? null : dimensions.toString(), QUERY_EMBEDDING_NAMESPACE,
+                QueryTextNormalizer.normalize(queryText));
+    }
+
+    /**
+     * Converts the filter expression to an Elasticsearch query string query, reusing the
+     * conversion of previously seen expressions.
+     *
+     * @param filterExpression filter expression
+     * @return filter query
+     */
+    private co.elastic.clients.elasticsearch._types.query_dsl.Query toFilterQuery(Filter.Expression filterExpression) {
+        if (filterExpression == null) {
+            return MATCH_ALL_FILTER_QUERY;
+        }
+        co.elastic.clients.elasticsearch._types.query_dsl.Query filterQuery = filterQueries.get(filterExpression);
+        if (filterQuery == null) {
+            filterQuery = toQueryStringQuery(getElasticsearchQueryString(filterExpression));
+            filterQueries.put(filterExpression, filterQuery);
+        }
+        return filterQuery;
+    }
+
+    private static co.elastic.clients.elasticsearch._types.query_dsl.Query toQueryStringQuery(String queryString) {
+        return co.elastic.clients.elasticsearch._types.query_dsl.Query.of(fl -> fl
+                .queryString(qs -> qs.query(queryString)));
+    }
+
+    /**
+     * Excludes the embedding field from the returned source, so that the vectors of the
+     * hits are not sent back and parsed on every search.
+     *
+     * @param vectorStoreOptions vector store options
+     * @return source config
+     */
+    private static SourceConfig excludeEmbeddingField(ElasticsearchVectorStoreOptions vectorStoreOptions) {
+        return SourceConfig.of(sc -> sc.filter(f -> f.excludes(vectorStoreOptions.getEmbeddingFieldName())));
+    }
+
     private static String escape(String text) {
         return text.replace("\"", "\\\"");
     }
@@ -382,7 +538,7 @@ public class HybridElasticsearchRetriever implements HybridDocumentRetriever {
      */
     private co.elastic.clients.elasticsearch._types.query_dsl.Query ensureQuery(
             co.elastic.clients.elasticsearch._types.query_dsl.Query query) {
-        return query != null ? query : co.elastic.clients.elasticsearch._types.query_dsl.Query.of(q -> q.matchAll(m -> m));
+        return query != null ? query : MATCH_ALL_QUERY;
     }
 
     /**
@@ -528,6 +684,10 @@ public class HybridElasticsearchRetriever implements HybridDocumentRetriever {
 
         private Supplier<Filter.Expression> filterExpression;
 
+        private KeyValueCache<float[]> queryEmbeddingCache;
+
+        private String embeddingModelName;
+
         public Builder vectorStoreOptions(ElasticsearchVectorStoreOptions vectorStoreOptions) {
             Assert.notNull(vectorStoreOptions, "vectorStoreOptions must not be null");
             this.vectorStoreOptions = vectorStoreOptions;
@@ -612,10 +772,28 @@ public class HybridElasticsearchRetriever implements HybridDocumentRetriever {
             return this;
         }
 
+        /**
+         * Caches query embeddings, so that repeated queries skip the embedding call.
+         * Requires the {@link #embeddingModelName(String) embedding model name}.
+         */
+        public Builder queryEmbeddingCache(KeyValueCache<float[]> queryEmbeddingCache) {
+            this.queryEmbeddingCache = queryEmbeddingCache;
+            return this;
+        }
+
+        /**
+         * Name of the model behind the embedding model, used with the index dimensions in
+         * the query embedding cache key.
+         */
+        public Builder embeddingModelName(String embeddingModelName) {
+            this.embeddingModelName = embeddingModelName;
+            return this;
+        }
+
         public HybridElasticsearchRetriever build() {
             return new HybridElasticsearchRetriever(vectorStoreOptions, elasticsearchClient, embeddingModel, similarityThreshold,
                     neighborsNum, candidateNum, topK, rankWindowSize, rankConstant, bm25Bias, knnBias, retrieverType, useRrf,
-                    filterExpressionConverter, filterExpression);
+                    filterExpressionConverter, filterExpression, queryEmbeddingCache, embeddingModelName);
         }
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.rag.retrieval.search;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizes query texts for cache keys, so that queries differing only in Unicode width
+ * forms or whitespace share a cached embedding or hypothetical document.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public final class QueryTextNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryTextNormalizer() {
+    }
+
+    /**
+     * Applies NFKC normalization, collapses whitespace runs to a single space and trims
+     * the text.
+     *
+     * @param queryText query text
+     * @return normalized query text
+     */
+    public static String normalize(String queryText) {
+        String normalized = Normalizer.normalize(queryText, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.rag.retrieval.search.cache;
+
+import com.alibaba.cloud.ai.cache.BinaryKeyValueCache;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Base class for {@link HyDeCache}s backed by a remote byte-oriented key-value store such
+ * as Redis. Subclasses only implement the raw multi-get / multi-set of the store (for
+ * example {@code MGET} and a pipelined {@code SET ... EX}), writing the entries with
+ * {@link #getExpireAfterWrite()}; the documents are encoded as UTF-8 and every key is
+ * prefixed with {@link #getKeyPrefix()}.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public abstract class BinaryHyDeCache extends BinaryKeyValueCache<String> implements HyDeCache {
+
+    public static final String DEFAULT_KEY_PREFIX = "spring-ai-alibaba:hyde:";
+
+    private final Duration expireAfterWrite;
+
+    protected BinaryHyDeCache(Duration expireAfterWrite) {
+        this(DEFAULT_KEY_PREFIX, expireAfterWrite);
+    }
+
+    /**
+     * @param keyPrefix        the prefix of every store key
+     * @param expireAfterWrite the time to live of an entry, {@code null} for no expiry
+     */
+    protected BinaryHyDeCache(String keyPrefix, Duration expireAfterWrite) {
+        super(keyPrefix);
+        Assert.isTrue(expireAfterWrite == null || !(expireAfterWrite.isNegative() || expireAfterWrite.isZero()),
+                "expireAfterWrite must be positive");
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    /**
+     * Returns the time to live of the written entries.
+     *
+     * @return the time to live, {@code null} for no expiry
+     */
+    public Duration getExpireAfterWrite() {
+        return this.expireAfterWrite;
+    }
+
+    @Override
+    protected byte[] encodeValue(String document) {
+        return document.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected String decodeValue(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.rag.retrieval.search.cache;
+
+import com.alibaba.cloud.ai.cache.CacheSupport;
+import com.alibaba.cloud.ai.cache.KeyValueCache;
+
+/**
+ * Cache of the hypothetical documents generated for queries by
+ * {@link com.alibaba.cloud.ai.rag.preretrieval.transformation.HyDeTransformer}.
+ * <p>
+ * Keys are produced by {@link #key(String, String, String)} from the chat options, the
+ * prompt template and the normalized query text, so one cache instance can be shared
+ * between retrievers. Implementations must be thread-safe. Remote stores such as Redis
+ * can extend {@link BinaryHyDeCache}.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public interface HyDeCache extends KeyValueCache<String> {
+
+    /**
+     * Creates the content-addressed key of a hypothetical document.
+     *
+     * @param chatOptions    the serialized chat options, naming the model, used to
+     *                       generate the document
+     * @param promptTemplate the prompt template used to generate the document
+     * @param queryText      the normalized query text
+     * @return the hex encoded key
+     */
+    static String key(String chatOptions, String promptTemplate, String queryText) {
+        return CacheSupport.key(chatOptions, promptTemplate, queryText);
+    }
+}
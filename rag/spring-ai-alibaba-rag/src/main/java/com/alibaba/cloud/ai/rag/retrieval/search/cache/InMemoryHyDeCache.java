@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.rag.retrieval.search.cache;
+
+import com.alibaba.cloud.ai.cache.InMemoryKeyValueCache;
+
+import java.time.Duration;
+
+/**
+ * Bounded in-memory {@link HyDeCache}. Entries are evicted in least-recently-used order
+ * once {@code maximumSize} is reached, and expire a fixed time after they were written.
+ *
+ * @author agent
+ * @since 1.1.0.0
+ */
+public class InMemoryHyDeCache extends InMemoryKeyValueCache<String> implements HyDeCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1_000;
+
+    public static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofHours(1);
+
+    public InMemoryHyDeCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER_WRITE);
+    }
+
+    /**
+     * @param maximumSize      the maximum number of cached documents
+     * @param expireAfterWrite the time to live of an entry, {@code null} for no expiry
+     */
+    public InMemoryHyDeCache(int maximumSize, Duration expireAfterWrite) {
+        super(maximumSize, expireAfterWrite);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.rag.advisor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.preretrieval.query.expansion.QueryExpander;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MultiQueryRetrieverAdvisor}.
+ *
+ * @author agent
+ */
+class MultiQueryRetrieverAdvisorTests {
+
+    private final QueryExpander queryExpander = query -> List.of(new Query("a"), new Query("b"), new Query("c"));
+
+    @Test
+    void expandedQueriesAreRetrievedConcurrentlyAndFused() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        DocumentRetriever retriever = query -> {
+            allStarted.countDown();
+            try {
+                // Completes only when all three queries are in flight.
+                assertThat(allStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return switch (query.text()) {
+                case "a" -> List.of(new Document("1", "one", Map.of()), new Document("2", "two", Map.of()));
+                case "b" -> List.of(new Document("2", "two", Map.of()), new Document("3", "three", Map.of()));
+                default -> List.of(new Document("2", "two", Map.of()));
+            };
+        };
+        MultiQueryRetrieverAdvisor advisor = MultiQueryRetrieverAdvisor.builder()
+                .queryExpander(this.queryExpander)
+                .documentRetriever(retriever)
+                .build();
+
+        List<Document> documents = retrieve(advisor);
+
+        assertThat(documents).extracting(Document::getId).containsExactly("2", "1", "3");
+        assertThat(documents.get(0).getScore()).isEqualTo(1.0 / 62 + 1.0 / 61 + 1.0 / 61);
+    }
+
+    @Test
+    void slowQueryIsSkippedAfterTimeout() {
+        DocumentRetriever retriever = query -> {
+            if ("b".equals(query.text())) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return List.of(new Document(query.text(), query.text(), Map.of()));
+        };
+        MultiQueryRetrieverAdvisor advisor = MultiQueryRetrieverAdvisor.builder()
+                .queryExpander(this.queryExpander)
+                .documentRetriever(retriever)
+                .queryTimeout(Duration.ofMillis(200))
+                .build();
+
+        assertThat(retrieve(advisor)).extracting(Document::getId).containsExactly("a", "c");
+    }
+
+    @Test
+    void failingQueryContributesNoDocuments() {
+        DocumentRetriever retriever = query -> {
+            if ("a".equals(query.text())) {
+                throw new IllegalStateException("search failed");
+            }
+            return List.of(new Document(query.text(), query.text(), Map.of()));
+        };
+        MultiQueryRetrieverAdvisor advisor = MultiQueryRetrieverAdvisor.builder()
+                .queryExpander(this.queryExpander)
+                .documentRetriever(retriever)
+                .maxConcurrency(1)
+                .build();
+
+        assertThat(retrieve(advisor)).extracting(Document::getId).containsExactly("b", "c");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Document> retrieve(MultiQueryRetrieverAdvisor advisor) {
+        ChatClientRequest request = ChatClientRequest.builder().prompt(new Prompt("question")).context(Map.of()).build();
+        return (List<Document>) advisor.before(request, null)
+                .context()
+                .get(MultiQueryRetrieverAdvisor.DOCUMENT_CONTEXT);
+    }
+
+}
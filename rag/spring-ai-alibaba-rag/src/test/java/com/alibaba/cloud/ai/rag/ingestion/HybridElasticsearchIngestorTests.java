@@ -0,0 +1,334 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.rag.ingestion;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentTransformer;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.elasticsearch.ElasticsearchVectorStoreOptions;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link HybridElasticsearchIngestor} against an in-process fake of the
+ * Elasticsearch bulk and index endpoints.
+ *
+ * @author agent
+ */
+class HybridElasticsearchIngestorTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+
+    // Sources of the indexed documents, one list per bulk request.
+    private final List<List<JsonNode>> bulkRequests = new CopyOnWriteArrayList<>();
+
+    private final Set<String> rejectedIds = new CopyOnWriteArraySet<>();
+
+    // Mappings of the index, null while the index does not exist.
+    private final AtomicReference<JsonNode> indexMappings = new AtomicReference<>();
+
+    private final ElasticsearchVectorStoreOptions vectorStoreOptions = new ElasticsearchVectorStoreOptions();
+
+    private HttpServer server;
+
+    private RestClient restClient;
+
+    private ElasticsearchClient elasticsearchClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.vectorStoreOptions.setIndexName("rag-index");
+        this.vectorStoreOptions.setDimensions(3);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/_bulk", this::handleBulk);
+        this.server.createContext("/rag-index", this::handleIndex);
+        this.server.start();
+        this.restClient = RestClient.builder(new HttpHost("127.0.0.1", this.server.getAddress().getPort())).build();
+        this.elasticsearchClient = new ElasticsearchClient(new RestClientTransport(this.restClient,
+                new JacksonJsonpMapper()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        this.restClient.close();
+        this.server.stop(0);
+    }
+
+    @Test
+    void documentsAreEmbeddedInBatchesAndFlushedByOperations() {
+        HybridElasticsearchIngestor ingestor = ingestorBuilder().embeddingBatchSize(32).flushMaxOperations(100).build();
+
+        Long indexed = ingestor.ingest(Flux.range(0, 250).map(i -> new Document("doc-" + i, "text " + i, Map.of())))
+                .block(Duration.ofSeconds(30));
+
+        assertThat(indexed).isEqualTo(250);
+        assertThat(this.embeddingModel.calls).hasValue(8);
+        assertThat(this.bulkRequests).extracting(List::size).containsExactly(100, 100, 50);
+        JsonNode first = this.bulkRequests.get(0).get(0);
+        assertThat(first.get("id").asText()).isEqualTo("doc-0");
+        assertThat(first.get("content").asText()).isEqualTo("text 0");
+        assertThat(first.get("embedding")).hasSize(3);
+    }
+
+    @Test
+    void missingIndexIsCreatedWithDenseVectorMapping() {
+        HybridElasticsearchIngestor ingestor = ingestorBuilder().build();
+
+        ingestor.ingest(Flux.just(new Document("a", "text", Map.of()))).block(Duration.ofSeconds(30));
+
+        JsonNode embedding = this.indexMappings.get().get("properties").get("embedding");
+        assertThat(embedding.get("type").asText()).isEqualTo("dense_vector");
+        assertThat(embedding.get("dims").asInt()).isEqualTo(3);
+        assertThat(embedding.get("similarity").asText()).isEqualTo("cosine");
+    }
+
+    @Test
+    void missingIndexFailsWithoutSchemaInitialization() {
+        HybridElasticsearchIngestor ingestor = ingestorBuilder().initializeSchema(false).build();
+
+        assertThatThrownBy(() -> ingestor.ingest(Flux.just(new Document("a", "text", Map.of())))
+                .block(Duration.ofSeconds(30)))
+                .hasMessageContaining("does not exist");
+        assertThat(this.embeddingModel.calls).hasValue(0);
+        assertThat(this.bulkRequests).isEmpty();
+    }
+
+    @Test
+    void existingIndexWithoutDenseVectorMappingFails() throws IOException {
+        this.indexMappings.set(this.objectMapper.readTree("{\"properties\":{\"embedding\":{\"type\":\"float\"}}}"));
+        HybridElasticsearchIngestor ingestor = ingestorBuilder().build();
+
+        assertThatThrownBy(() -> ingestor.ingest(Flux.just(new Document("a", "text", Map.of())))
+                .block(Duration.ofSeconds(30)))
+                .hasMessageContaining("is not mapped as dense_vector");
+        assertThat(this.bulkRequests).isEmpty();
+    }
+
+    @Test
+    void documentsAreSplitBeforeEmbedding() {
+        DocumentTransformer splitter = documents -> documents.stream()
+                .flatMap(document -> {
+                    String[] parts = document.getText().split("\\|");
+                    List<Document> chunks = new ArrayList<>();
+                    for (int i = 0; i < parts.length; i++) {
+                        chunks.add(new Document(document.getId() + "-" + i, parts[i], document.getMetadata()));
+                    }
+                    return chunks.stream();
+                })
+                .collect(Collectors.toList());
+        HybridElasticsearchIngestor ingestor = ingestorBuilder().textSplitter(splitter).build();
+
+        Long indexed = ingestor.ingest(Flux.just(new Document("a", "one|two|three", Map.of("source", "a.md")),
+                new Document("b", "four", Map.of()))).block(Duration.ofSeconds(30));
+
+        assertThat(indexed).isEqualTo(4);
+        assertThat(this.embeddingModel.texts).containsExactly("one", "two", "three", "four");
+        assertThat(this.bulkRequests).singleElement().satisfies(sources -> {
+            assertThat(sources).extracting(source -> source.get("id").asText()).containsExactly("a-0", "a-1", "a-2",
+                    "b-0");
+            assertThat(sources.get(0).get("metadata").get("source").asText()).isEqualTo("a.md");
+        });
+    }
+
+    @Test
+    void slowEmbeddingHoldsBackTheSource() throws InterruptedException {
+        this.embeddingModel.release = new CountDownLatch(1);
+        AtomicInteger emitted = new AtomicInteger();
+        HybridElasticsearchIngestor ingestor = ingestorBuilder().embeddingBatchSize(10)
+                .embeddingConcurrency(2)
+                .build();
+
+        var result = ingestor.ingest(Flux.range(0, 10_000)
+                .doOnNext(i -> emitted.incrementAndGet())
+                .map(i -> new Document("doc-" + i, "text " + i, Map.of()))).toFuture();
+        // the source is subscribed once the index is initialized
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitted.get() == 0 && !result.isDone() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(300);
+
+        // only the batches being embedded and the next buffer are pulled from the source
+        assertThat(emitted.get()).isBetween(20, 100);
+        this.embeddingModel.release.countDown();
+        assertThat(result.join()).isEqualTo(10_000);
+    }
+
+    @Test
+    void rejectedDocumentsFailTheIngestion() {
+        this.rejectedIds.add("doc-1");
+        HybridElasticsearchIngestor ingestor = ingestorBuilder().build();
+
+        assertThatThrownBy(() -> ingestor.ingest(Flux.range(0, 3).map(i -> new Document("doc-" + i, "text", Map.of())))
+                .block(Duration.ofSeconds(30)))
+                .isInstanceOfSatisfying(IngestionException.class,
+                        e -> assertThat(e.getFailedCount()).isEqualTo(1))
+                .hasMessageContaining("Failed to index 1 chunks")
+                .hasMessageContaining("doc-1");
+        assertThat(this.bulkRequests).singleElement().satisfies(sources -> assertThat(sources).hasSize(3));
+    }
+
+    private HybridElasticsearchIngestor.Builder ingestorBuilder() {
+        return HybridElasticsearchIngestor.builder()
+                .elasticsearchClient(this.elasticsearchClient)
+                .embeddingModel(this.embeddingModel)
+                .vectorStoreOptions(this.vectorStoreOptions)
+                .initializeSchema(true);
+    }
+
+    /**
+     * Answers the index exists, create and get mapping requests.
+     */
+    private void handleIndex(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        if ("HEAD".equals(method)) {
+            exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+            // the JDK server may drop a kept-alive connection after a body-less response,
+            // which resets the next request the client sends on it
+            exchange.getResponseHeaders().add("Connection", "close");
+            exchange.sendResponseHeaders(this.indexMappings.get() != null ? 200 : 404, -1);
+            exchange.close();
+            return;
+        }
+        ObjectNode response = this.objectMapper.createObjectNode();
+        if ("PUT".equals(method)) {
+            JsonNode request = this.objectMapper.readTree(exchange.getRequestBody());
+            this.indexMappings.set(request.get("mappings"));
+            response.put("acknowledged", true).put("shards_acknowledged", true).put("index", "rag-index");
+        } else {
+            response.putObject("rag-index").set("mappings", this.indexMappings.get());
+        }
+        writeJson(exchange, response);
+    }
+
+    /**
+     * Answers a bulk request the way Elasticsearch does, rejecting the ids in
+     * {@link #rejectedIds}.
+     */
+    private void handleBulk(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        List<JsonNode> sources = new ArrayList<>();
+        ObjectNode response = this.objectMapper.createObjectNode();
+        response.put("took", 1);
+        ArrayNode items = response.putArray("items");
+        boolean errors = false;
+        String[] lines = body.split("\n");
+        for (int i = 0; i + 1 < lines.length; i += 2) {
+            JsonNode action = this.objectMapper.readTree(lines[i]).get("index");
+            sources.add(this.objectMapper.readTree(lines[i + 1]));
+            ObjectNode item = items.addObject().putObject("index");
+            item.put("_index", action.get("_index").asText());
+            item.put("_id", action.get("_id").asText());
+            if (this.rejectedIds.contains(action.get("_id").asText())) {
+                errors = true;
+                item.put("status", 400);
+                item.putObject("error").put("type", "mapper_parsing_exception").put("reason", "rejected");
+            } else {
+                item.put("status", 201);
+                item.put("result", "created");
+            }
+        }
+        response.put("errors", errors);
+        this.bulkRequests.add(sources);
+        writeJson(exchange, response);
+    }
+
+    private void writeJson(HttpExchange exchange, JsonNode response) throws IOException {
+        byte[] bytes = this.objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("X-Elastic-Product", "Elasticsearch");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+
+    /**
+     * Embedding model that counts the embedded texts and can be held back.
+     */
+    private static class CountingEmbeddingModel implements EmbeddingModel {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final List<String> texts = new CopyOnWriteArrayList<>();
+
+        private volatile CountDownLatch release;
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            calls.incrementAndGet();
+            texts.addAll(request.getInstructions());
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++) {
+                embeddings.add(new Embedding(new float[] { 0.1f, 0.2f, 0.3f }, i));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.rag.postretrieval;
+
+import com.alibaba.cloud.ai.dashscope.rerank.DashScopeRerankOptions;
+import com.alibaba.cloud.ai.dashscope.rerank.cache.InMemoryRerankScoreCache;
+import com.alibaba.cloud.ai.document.DocumentWithScore;
+import com.alibaba.cloud.ai.model.RerankModel;
+import com.alibaba.cloud.ai.model.RerankRequest;
+import com.alibaba.cloud.ai.model.RerankResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DashScopeRerankPostProcessor} against a fake rerank model.
+ *
+ * @author agent
+ */
+class DashScopeRerankPostProcessorTests {
+
+    private static final Query QUERY = new Query("what is RAG");
+
+    // The fake model scores a document by the number in its text.
+    private final List<Document> documents = List.of(document("a", "1", 0.9), document("b", "3", 0.5),
+            document("c", "2", 0.7), document("d", "4", 0.1));
+
+    private final FakeRerankModel rerankModel = new FakeRerankModel();
+
+    @Test
+    void documentsAreOrderedByRelevanceAndLimitedToTopN() {
+        DashScopeRerankPostProcessor processor = builder(2).build();
+
+        assertThat(processor.process(QUERY, this.documents)).extracting(Document::getId).containsExactly("d", "b");
+        assertThat(this.rerankModel.requests).singleElement()
+                .satisfies(request -> assertThat(request.getInstructions()).hasSize(4));
+    }
+
+    @Test
+    void candidatesArePreTruncatedByRetrievalScore() {
+        DashScopeRerankPostProcessor processor = builder(null).maxCandidates(2).build();
+
+        assertThat(processor.process(QUERY, this.documents)).extracting(Document::getId).containsExactly("c", "a");
+    }
+
+    @Test
+    void slowRerankFallsBackToOriginalOrder() {
+        this.rerankModel.delay = Duration.ofSeconds(2);
+        DashScopeRerankPostProcessor processor = builder(2).latencyBudget(Duration.ofMillis(100)).build();
+
+        assertThat(processor.process(QUERY, this.documents)).extracting(Document::getId).containsExactly("a", "b");
+    }
+
+    @Test
+    void slowRerankFallsBackToTheTruncatedCandidates() {
+        this.rerankModel.delay = Duration.ofSeconds(2);
+        DashScopeRerankPostProcessor processor = builder(3).maxCandidates(2)
+                .latencyBudget(Duration.ofMillis(100))
+                .build();
+
+        assertThat(processor.process(QUERY, this.documents)).extracting(Document::getId).containsExactly("a", "c");
+    }
+
+    @Test
+    void cachedScoresAreNotRequestedAgain() {
+        DashScopeRerankPostProcessor processor = builder(1).scoreCache(new InMemoryRerankScoreCache()).build();
+
+        processor.process(QUERY, this.documents.subList(0, 2));
+        List<Document> reranked = processor.process(QUERY, this.documents);
+
+        assertThat(reranked).extracting(Document::getId).containsExactly("d");
+        assertThat(this.rerankModel.requests).hasSize(2);
+        // every missing document is scored so that the cache is complete
+        assertThat(this.rerankModel.requests.get(0).getOptions().getTopN()).isEqualTo(2);
+        assertThat(this.rerankModel.requests.get(1).getInstructions()).extracting(Document::getId)
+                .containsExactly("c", "d");
+    }
+
+    @Test
+    void prefetchScoresBatchesWhileCandidatesAreStreamed() {
+        Sinks.Many<Document> candidates = Sinks.many().unicast().onBackpressureBuffer();
+        DashScopeRerankPostProcessor processor = builder(3).prefetchBatchSize(2).build();
+
+        var reranked = processor.processAsync(QUERY, candidates.asFlux()).toFuture();
+        candidates.tryEmitNext(this.documents.get(0));
+        candidates.tryEmitNext(this.documents.get(1));
+        // the first batch is scored before the retrieval completes
+        waitFor(() -> this.rerankModel.requests.size() == 1);
+        candidates.tryEmitNext(this.documents.get(2));
+        candidates.tryEmitNext(this.documents.get(3));
+        candidates.tryEmitComplete();
+
+        assertThat(reranked.join()).extracting(Document::getId).containsExactly("d", "b", "c");
+        assertThat(this.rerankModel.requests).hasSize(2);
+    }
+
+    @Test
+    void prefetchRanksTheSameCandidatesAsProcess() {
+        DashScopeRerankPostProcessor processor = builder(null).maxCandidates(2).prefetchBatchSize(1).build();
+
+        List<Document> reranked = processor.processAsync(QUERY, Flux.fromIterable(this.documents)).block();
+
+        assertThat(reranked).extracting(Document::getId).containsExactly("c", "a");
+        // d arrives below the two highest retrieval scores and is never scored
+        assertThat(this.rerankModel.requests).flatExtracting(RerankRequest::getInstructions)
+                .extracting(Document::getId)
+                .containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void prefetchFallsBackToReceivedCandidatesWhenOverBudget() {
+        this.rerankModel.delay = Duration.ofSeconds(2);
+        DashScopeRerankPostProcessor processor = builder(2).prefetchBatchSize(2)
+                .latencyBudget(Duration.ofMillis(100))
+                .build();
+
+        List<Document> reranked = processor.processAsync(QUERY, Flux.fromIterable(this.documents)).block();
+
+        assertThat(reranked).extracting(Document::getId).containsExactly("a", "b");
+    }
+
+    @Test
+    void rerankOverBudgetIsInterrupted() {
+        this.rerankModel.delay = Duration.ofSeconds(5);
+        DashScopeRerankPostProcessor processor = builder(2).latencyBudget(Duration.ofMillis(100)).build();
+
+        processor.process(QUERY, this.documents);
+
+        waitFor(() -> this.rerankModel.interrupted);
+    }
+
+    private DashScopeRerankPostProcessor.Builder builder(Integer topN) {
+        return DashScopeRerankPostProcessor.builder()
+                .rerankModel(this.rerankModel)
+                .rerankOptions(DashScopeRerankOptions.builder().model("gte-rerank").topN(topN).build());
+    }
+
+    private static void waitFor(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static Document document(String id, String text, double score) {
+        return Document.builder().id(id).text(text).metadata(Map.of()).score(score).build();
+    }
+
+    /**
+     * Rerank model that records the requests and scores a document by its text.
+     */
+    private static class FakeRerankModel implements RerankModel {
+
+        private final List<RerankRequest> requests = new CopyOnWriteArrayList<>();
+
+        private volatile Duration delay;
+
+        private volatile boolean interrupted;
+
+        @Override
+        public RerankResponse call(RerankRequest request) {
+            this.requests.add(request);
+            if (this.delay != null) {
+                try {
+                    Thread.sleep(this.delay.toMillis());
+                } catch (InterruptedException e) {
+                    this.interrupted = true;
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Integer topN = ((DashScopeRerankOptions) request.getOptions()).getTopN();
+            List<DocumentWithScore> results = request.getInstructions()
+                    .stream()
+                    .map(document -> DocumentWithScore.builder()
+                            .withDocument(document)
+                            .withScore(Double.parseDouble(document.getText()))
+                            .build())
+                    .sorted(Comparator.comparing(DocumentWithScore::getScore).reversed())
+                    .limit(topN != null ? topN : request.getInstructions().size())
+                    .toList();
+            return new RerankResponse(results);
+        }
+
+    }
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.rag.retrieval.search;
+
+import com.alibaba.cloud.ai.rag.preretrieval.transformation.HyDeTransformer;
+import com.alibaba.cloud.ai.rag.retrieval.search.cache.BinaryHyDeCache;
+import com.alibaba.cloud.ai.rag.retrieval.search.cache.InMemoryHyDeCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the hypothetical document cache of {@link HyDeRetriever}.
+ *
+ * @author agent
+ */
+class HyDeRetrieverTests {
+
+    private final CountingChatModel chatModel = new CountingChatModel();
+
+    private final List<String> searchedTexts = new CopyOnWriteArrayList<>();
+
+    private HyDeTransformer hyDeTransformer;
+
+    private VectorStore vectorStore;
+
+    @BeforeEach
+    void setUp() {
+        this.hyDeTransformer = transformer("qwen-plus");
+        this.vectorStore = mock(VectorStore.class);
+        when(this.vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(invocation -> {
+            this.searchedTexts.add(invocation.<SearchRequest>getArgument(0).getQuery());
+            return List.of(new Document("1", "Spring AI Alibaba", Map.of()));
+        });
+    }
+
+    @Test
+    void repeatedQueriesGenerateOnce() {
+        HyDeRetriever retriever = retrieverBuilder().hyDeCache(new InMemoryHyDeCache()).build();
+
+        retriever.retrieve(new Query("what is  RAG"));
+        retriever.retrieve(new Query(" what is RAG\n"));
+        retriever.retrieve(new Query("what is hybrid search"));
+
+        assertThat(this.chatModel.calls).hasValue(2);
+        assertThat(this.searchedTexts).containsExactly("passage 1", "passage 1", "passage 2");
+    }
+
+    @Test
+    void cachedDocumentsAreKeyedByChatOptions() {
+        InMemoryHyDeCache cache = new InMemoryHyDeCache();
+
+        retrieverBuilder().hyDeCache(cache).build().retrieve(new Query("what is RAG"));
+        retrieverBuilder().hyDeTransformer(transformer("qwen-max")).hyDeCache(cache).build()
+                .retrieve(new Query("what is RAG"));
+
+        assertThat(this.chatModel.calls).hasValue(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void cacheRequiresChatOptionsNamingTheModel() {
+        HyDeTransformer withoutOptions = HyDeTransformer.builder()
+                .chatClientBuilder(ChatClient.builder(this.chatModel))
+                .build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> retrieverBuilder().hyDeTransformer(withoutOptions)
+                .hyDeCache(new InMemoryHyDeCache())
+                .build());
+    }
+
+    @Test
+    void queriesGenerateEveryTimeWithoutCache() {
+        HyDeRetriever retriever = retrieverBuilder().build();
+
+        retriever.retrieve(new Query("what is RAG"));
+        retriever.retrieve(new Query("what is RAG"));
+
+        assertThat(this.chatModel.calls).hasValue(2);
+    }
+
+    @Test
+    void expiredDocumentsAreGeneratedAgain() throws InterruptedException {
+        HyDeRetriever retriever = retrieverBuilder().hyDeCache(new InMemoryHyDeCache(10, Duration.ofMillis(1)))
+                .build();
+
+        retriever.retrieve(new Query("what is RAG"));
+        Thread.sleep(10);
+        retriever.retrieve(new Query("what is RAG"));
+
+        assertThat(this.chatModel.calls).hasValue(2);
+    }
+
+    @Test
+    void concurrentIdenticalQueriesShareOneGeneration() throws Exception {
+        this.chatModel.release = new CountDownLatch(1);
+        HyDeRetriever retriever = retrieverBuilder().hyDeCache(new InMemoryHyDeCache()).build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Document>>> results = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> retriever.retrieve(new Query("what is RAG"))));
+            }
+            // Lets all callers reach the in-flight generation before it completes.
+            Thread.sleep(200);
+            this.chatModel.release.countDown();
+            for (Future<List<Document>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).hasSize(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(this.chatModel.calls).hasValue(1);
+        assertThat(this.searchedTexts).hasSize(4).containsOnly("passage 1");
+    }
+
+    @Test
+    void identicalQueryGeneratesOnItsOwnAfterTheWaitTimeout() throws Exception {
+        this.chatModel.release = new CountDownLatch(1);
+        HyDeRetriever retriever = retrieverBuilder().hyDeCache(new InMemoryHyDeCache())
+                .generationWaitTimeout(Duration.ofMillis(100))
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<Document>> first = executor.submit(() -> retriever.retrieve(new Query("what is RAG")));
+            waitForCalls(1);
+            Future<List<Document>> second = executor.submit(() -> retriever.retrieve(new Query("what is RAG")));
+            // the second query stops waiting for the first generation and generates its own
+            waitForCalls(2);
+            this.chatModel.release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).hasSize(1);
+            assertThat(second.get(5, TimeUnit.SECONDS)).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void binaryCacheStoresPrefixedUtf8Values() {
+        Map<String, byte[]> store = new ConcurrentHashMap<>();
+        List<Duration> ttls = new CopyOnWriteArrayList<>();
+        BinaryHyDeCache cache = new BinaryHyDeCache(Duration.ofMinutes(10)) {
+            @Override
+            protected List<byte[]> readAll(List<String> keys) {
+                List<byte[]> values = new ArrayList<>(keys.size());
+                keys.forEach(key -> values.add(store.get(key)));
+                return values;
+            }
+
+            @Override
+            protected void writeAll(Map<String, byte[]> values) {
+                store.putAll(values);
+                values.keySet().forEach(key -> ttls.add(getExpireAfterWrite()));
+            }
+        };
+        HyDeRetriever retriever = retrieverBuilder().hyDeCache(cache).build();
+
+        retriever.retrieve(new Query("什么是 RAG"));
+        retriever.retrieve(new Query("什么是 RAG"));
+
+        assertThat(this.chatModel.calls).hasValue(1);
+        assertThat(store).hasSize(1);
+        assertThat(store.keySet()).allMatch(key -> key.startsWith(BinaryHyDeCache.DEFAULT_KEY_PREFIX));
+        assertThat(ttls).containsExactly(Duration.ofMinutes(10));
+    }
+
+    private void waitForCalls(int count) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (this.chatModel.calls.get() < count && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(this.chatModel.calls).hasValue(count);
+    }
+
+    private HyDeTransformer transformer(String model) {
+        return HyDeTransformer.builder()
+                .chatClientBuilder(ChatClient.builder(this.chatModel))
+                .chatOptions(ChatOptions.builder().model(model).build())
+                .build();
+    }
+
+    private HyDeRetriever.Builder retrieverBuilder() {
+        return HyDeRetriever.builder().hyDeTransformer(this.hyDeTransformer).vectorStore(this.vectorStore);
+    }
+
+    /**
+     * Chat model that counts the calls and answers with a numbered passage.
+     */
+    private static class CountingChatModel implements ChatModel {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private volatile CountDownLatch release;
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            int call = calls.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("passage " + call))));
+        }
+
+    }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.rag.retrieval.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.alibaba.cloud.ai.cache.InMemoryKeyValueCache;
+import com.alibaba.cloud.ai.cache.KeyValueCache;
+import com.alibaba.cloud.ai.dashscope.embedding.cache.EmbeddingCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.vectorstore.elasticsearch.ElasticsearchVectorStoreOptions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link HybridElasticsearchRetriever} against a stubbed Elasticsearch client.
+ *
+ * @author agent
+ */
+class HybridElasticsearchRetrieverTests {
+
+    private final CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+
+    private final List<SearchRequest> searchRequests = new CopyOnWriteArrayList<>();
+
+    private final ElasticsearchVectorStoreOptions vectorStoreOptions = new ElasticsearchVectorStoreOptions();
+
+    private ElasticsearchClient elasticsearchClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.vectorStoreOptions.setIndexName("rag-index");
+        this.elasticsearchClient = mock(ElasticsearchClient.class);
+        when(this.elasticsearchClient.search(any(SearchRequest.class), eq(Document.class))).thenAnswer(invocation -> {
+            this.searchRequests.add(invocation.getArgument(0));
+            Hit<Document> hit = Hit.of(h -> h.index("rag-index")
+                    .id("1")
+                    .score(0.9)
+                    .source(new Document("1", "Spring AI Alibaba", Map.of())));
+            return SearchResponse.<Document>of(r -> r.took(1)
+                    .timedOut(false)
+                    .shards(s -> s.total(1).successful(1).failed(0))
+                    .hits(hs -> hs.hits(List.of(hit))));
+        });
+    }
+
+    @Test
+    void repeatedQueriesAreEmbeddedOnce() {
+        HybridElasticsearchRetriever retriever = retrieverBuilder()
+                .queryEmbeddingCache(new InMemoryKeyValueCache<>())
+                .embeddingModelName("text-embedding-v3")
+                .build();
+
+        List<Document> documents = retriever.retrieve(new Query("what is  RAG"));
+        retriever.retrieve(new Query(" what is RAG\n"));
+        retriever.retrieve(new Query("what is hybrid search"));
+
+        assertThat(documents).singleElement().satisfies(document -> assertThat(document.getId()).isEqualTo("1"));
+        assertThat(this.embeddingModel.calls).hasValue(2);
+        assertThat(this.embeddingModel.texts).containsExactly("what is  RAG", "what is hybrid search");
+        assertThat(this.searchRequests).hasSize(3);
+    }
+
+    @Test
+    void sharedCacheIsKeyedByModelNameAndDimensions() {
+        KeyValueCache<float[]> cache = new InMemoryKeyValueCache<>();
+        this.vectorStoreOptions.setDimensions(1024);
+        retrieverBuilder().queryEmbeddingCache(cache).embeddingModelName("text-embedding-v3").build()
+                .retrieve(new Query("what is RAG"));
+        retrieverBuilder().queryEmbeddingCache(cache).embeddingModelName("text-embedding-v4").build()
+                .retrieve(new Query("what is RAG"));
+        this.vectorStoreOptions.setDimensions(512);
+        retrieverBuilder().queryEmbeddingCache(cache).embeddingModelName("text-embedding-v4").build()
+                .retrieve(new Query("what is RAG"));
+
+        assertThat(this.embeddingModel.calls).hasValue(3);
+    }
+
+    @Test
+    void sharedCacheDoesNotReadQueryTypedEmbeddings() {
+        KeyValueCache<float[]> cache = new InMemoryKeyValueCache<>();
+        cache.put(EmbeddingCache.key("text-embedding-v3", null, "query", "what is RAG"), new float[] { 9f });
+
+        retrieverBuilder().queryEmbeddingCache(cache).embeddingModelName("text-embedding-v3").build()
+                .retrieve(new Query("what is RAG"));
+
+        assertThat(this.embeddingModel.calls).hasValue(1);
+    }
+
+    @Test
+    void queryEmbeddingCacheRequiresTheModelName() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> retrieverBuilder().queryEmbeddingCache(new InMemoryKeyValueCache<>()).build());
+    }
+
+    @Test
+    void queriesAreEmbeddedEveryTimeWithoutCache() {
+        HybridElasticsearchRetriever retriever = retrieverBuilder().build();
+
+        retriever.retrieve(new Query("what is RAG"));
+        retriever.retrieve(new Query("what is RAG"));
+
+        assertThat(this.embeddingModel.calls).hasValue(2);
+    }
+
+    @Test
+    void prefetchEmbedsAllQueriesInOneCall() {
+        HybridElasticsearchRetriever retriever = retrieverBuilder().build();
+        List<Query> queries = List.of(new Query("what is RAG"), new Query("what is hybrid search"),
+                new Query(" what is RAG "));
+
+        retriever.prefetchEmbeddings(queries);
+        queries.forEach(retriever::retrieve);
+
+        assertThat(this.embeddingModel.calls).hasValue(1);
+        assertThat(this.embeddingModel.texts).containsExactly("what is RAG", "what is hybrid search");
+        assertThat(this.searchRequests).hasSize(3);
+    }
+
+    @Test
+    void staticPartsOfTheRequestAreReused() {
+        HybridElasticsearchRetriever retriever = retrieverBuilder().useRrf(true)
+                .neighborsNum(20)
+                .candidateNum(40)
+                .topK(10)
+                .rankWindowSize(30)
+                .rankConstant(5)
+                .build();
+
+        retriever.retrieve(new Query("what is RAG"));
+        retriever.retrieve(new Query("what is hybrid search"));
+
+        assertThat(this.searchRequests).hasSize(2);
+        SearchRequest first = this.searchRequests.get(0);
+        SearchRequest second = this.searchRequests.get(1);
+        assertThat(first.index()).containsExactly("rag-index");
+        assertThat(first.size()).isEqualTo(10);
+        assertThat(first.knn()).singleElement().satisfies(knn -> {
+            assertThat(knn.k()).isEqualTo(20);
+            assertThat(knn.numCandidates()).isEqualTo(40);
+            assertThat(knn.field()).isEqualTo("embedding");
+        });
+        assertThat(first.source().filter().excludes()).containsExactly("embedding");
+        assertThat(first.rank().rrf().rankConstant()).isEqualTo(5);
+        assertThat(first.rank().rrf().rankWindowSize()).isEqualTo(30);
+        assertThat(second.rank()).isSameAs(first.rank());
+        assertThat(second.source()).isSameAs(first.source());
+        assertThat(second.query().bool().filter()).isEqualTo(first.query().bool().filter());
+    }
+
+    @Test
+    void bm25SearchDoesNotEmbedTheQuery() {
+        HybridElasticsearchRetriever retriever = retrieverBuilder().retrieverType(RetrieverType.BM25).build();
+
+        retriever.retrieve(new Query("what is RAG"));
+
+        assertThat(this.embeddingModel.calls).hasValue(0);
+        assertThat(this.searchRequests).singleElement().satisfies(request -> {
+            assertThat(request.index()).containsExactly("rag-index");
+            assertThat(request.knn()).isEmpty();
+            assertThat(request.query().isBool()).isTrue();
+        });
+    }
+
+    private HybridElasticsearchRetriever.Builder retrieverBuilder() {
+        return HybridElasticsearchRetriever.builder()
+                .vectorStoreOptions(this.vectorStoreOptions)
+                .elasticsearchClient(this.elasticsearchClient)
+                .embeddingModel(this.embeddingModel);
+    }
+
+    /**
+     * Embedding model that counts the embedded texts.
+     */
+    private static class CountingEmbeddingModel implements EmbeddingModel {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final List<String> texts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            calls.incrementAndGet();
+            texts.addAll(request.getInstructions());
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++) {
+                embeddings.add(new Embedding(new float[] { 0.1f, 0.2f, 0.3f }, i));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return embed(document.getText());
+        }
+
+    }
+
+}
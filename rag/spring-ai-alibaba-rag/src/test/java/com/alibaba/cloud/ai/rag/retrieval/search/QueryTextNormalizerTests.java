@@ -0,0 +1,34 @@
+/*
+ * Copyright 2023-2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.rag.retrieval.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link QueryTextNormalizer}.
+ *
+ * @author agent
+ */
+class QueryTextNormalizerTests {
+
+    @Test
+    void normalizationCollapsesWhitespaceAndWidthForms() {
+        assertThat(QueryTextNormalizer.normalize("  ＲＡＧ\t is \n great ")).isEqualTo("RAG is great");
+    }
+
+}